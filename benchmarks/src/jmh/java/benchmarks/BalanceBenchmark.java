@@ -0,0 +1,90 @@
+package benchmarks;
+
+import client.utils.RoundUtils;
+import commons.Participant;
+import commons.balance.BalanceKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the balance computation of an event before and after BalanceKernel.
+ * Run with ./gradlew :benchmarks:jmh, adding -prof gc to the JMH arguments shows the allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BalanceBenchmark {
+
+    /***
+     * The BigDecimal maps Event.getOwedShares used to build
+     * @param state the event
+     * @return the balances
+     */
+    @Benchmark
+    public HashMap<Participant, BigDecimal> legacyOwedShares(EventState state) {
+        return LegacyBalances.owedShares(state.event());
+    }
+
+    /***
+     * The BigDecimal maps rounded to cents, the way the client showed them
+     * @param state the event
+     * @return the rounded balances
+     */
+    @Benchmark
+    public HashMap<Participant, Integer> legacyRoundedShares(EventState state) {
+        return LegacyBalances.roundMap(LegacyBalances.owedShares(state.event()));
+    }
+
+    /***
+     * Event.getOwedShares, which encodes the event and converts the result to a map
+     * @param state the event
+     * @return the balances
+     */
+    @Benchmark
+    public HashMap<Participant, BigDecimal> owedShares(EventState state) {
+        return state.event().getOwedShares();
+    }
+
+    /***
+     * Event.getExpenseShare as the statistics screen uses it, leaving out money transfers
+     * @param state the event
+     * @return the share per participant
+     */
+    @Benchmark
+    public HashMap<Participant, BigDecimal> expenseShare(EventState state) {
+        return state.event().getExpenseShare(false);
+    }
+
+    /***
+     * RoundUtils.roundMap on the balances of the event
+     * @param state the event
+     * @return the rounded balances
+     */
+    @Benchmark
+    public HashMap<Participant, Integer> roundMap(EventState state) {
+        return RoundUtils.roundMap(state.owedShares(), RoundingMode.HALF_UP);
+    }
+
+    /***
+     * Encoding the event and computing its balances, without converting them to a map
+     * @param state the event
+     * @return the balances per ordinal, in units
+     */
+    @Benchmark
+    public long[] kernelOfEvent(EventState state) {
+        return BalanceKernel.of(state.event()).credits();
+    }
+
+    /***
+     * Computing balances of an already encoded event, which only allocates the result array
+     * @param state the event
+     * @return the balances per ordinal, in units
+     */
+    @Benchmark
+    public long[] kernelCredits(EventState state) {
+        return state.kernel().credits();
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds in-memory events shaped like the ones the server loads, with IDs assigned so they
+ * can be serialized with @JsonIdentityInfo
+ */
+public final class BenchmarkEvents {
+    /**
+     * The most participants sharing one expense, so large events stay realistic and fit in memory
+     */
+    public static final int MAX_MEMBERS = 20;
+
+    private BenchmarkEvents() {
+    }
+
+    /***
+     * Creates an event in which every expense is paid by a random participant and shared
+     * by a random subset of at most MAX_MEMBERS participants
+     * @param participantCount the number of participants
+     * @param expenseCount the number of expenses
+     * @param seed the seed of the random choices, so runs are comparable
+     * @return the event
+     */
+    public static Event event(int participantCount, int expenseCount, long seed) {
+        Random random = new Random(seed);
+        Event event = new Event("Benchmark", new Date(0));
+        List<Participant> participants = new ArrayList<>();
+        for(int i = 0; i < participantCount; i++){
+            Participant participant = new Participant(i + 1, "Participant " + i);
+            participants.add(participant);
+            event.addParticipant(participant);
+        }
+        for(int i = 0; i < expenseCount; i++){
+            Participant payer = participants.get(random.nextInt(participantCount));
+            Expense expense = new Expense("Expense " + i, random.nextInt(100_000) + 1, new Date(0), payer);
+            HashSet<Participant> members = new HashSet<>();
+            int memberCount = 1 + random.nextInt(Math.min(participantCount, MAX_MEMBERS));
+            while(members.size() < memberCount){
+                members.add(participants.get(random.nextInt(participantCount)));
+            }
+            expense.setParticipantToExpense(members);
+            setId(expense, i + 1);
+            event.addExpense(expense);
+        }
+        return event;
+    }
+
+    private static void setId(Expense expense, long id) {
+        try {
+            Field field = Expense.class.getDeclaredField("id");
+            field.setAccessible(true);
+            field.setLong(expense, id);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Expense has no id to set", e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import commons.Expense;
+import commons.Participant;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing and looking up the entities of an event, which every map of balances and every
+ * participant set does, against the reflection based equals and hashCode the entities used to have.
+ * The balance methods themselves are covered by BalanceBenchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntityHashBenchmark {
+
+    /***
+     * Hashing every participant and expense by reflection over all their fields
+     * @param state the event
+     * @return the sum of the hash codes
+     */
+    @Benchmark
+    public int reflectionHash(EventState state) {
+        int sum = 0;
+        for(Participant participant : state.event().getParticipants()){
+            sum += HashCodeBuilder.reflectionHashCode(participant);
+        }
+        for(Expense expense : state.event().getExpenses()){
+            sum += HashCodeBuilder.reflectionHashCode(expense);
+        }
+        return sum;
+    }
+
+    /***
+     * Hashing every participant and expense with their own hash codes, which never look at their fields
+     * @param state the event
+     * @return the sum of the hash codes
+     */
+    @Benchmark
+    public int hash(EventState state) {
+        int sum = 0;
+        for(Participant participant : state.event().getParticipants()) sum += participant.hashCode();
+        for(Expense expense : state.event().getExpenses()) sum += expense.hashCode();
+        return sum;
+    }
+
+    /***
+     * Looking up the payer of every expense among the participants, comparing by reflection
+     * @param state the event
+     * @return the number of payers found
+     */
+    @Benchmark
+    public int reflectionLookup(EventState state) {
+        int found = 0;
+        for(Expense expense : state.event().getExpenses()){
+            for(Participant participant : state.event().getParticipants()){
+                if(EqualsBuilder.reflectionEquals(participant, expense.getOwedTo())){
+                    found++;
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    /***
+     * Looking up the payer of every expense in the participant set of the event
+     * @param state the event
+     * @return the number of payers found
+     */
+    @Benchmark
+    public int lookup(EventState state) {
+        int found = 0;
+        for(Expense expense : state.event().getExpenses()){
+            if(state.event().getParticipants().contains(expense.getOwedTo())) found++;
+        }
+        return found;
+    }
+}
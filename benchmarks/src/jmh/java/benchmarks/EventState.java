@@ -0,0 +1,59 @@
+package benchmarks;
+
+import commons.Event;
+import commons.Participant;
+import commons.balance.BalanceKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+
+/**
+ * A generated event for every combination of participant and expense counts,
+ * with the intermediate results the benchmarks start from
+ */
+@State(Scope.Benchmark)
+public class EventState {
+    @Param({"10", "100"})
+    private int participants;
+    @Param({"100", "1000", "10000"})
+    private int expenses;
+
+    private Event event;
+    private BalanceKernel kernel;
+    private HashMap<Participant, BigDecimal> owedShares;
+
+    /***
+     * Builds the event once per parameter combination
+     */
+    @Setup
+    public void setup() {
+        event = BenchmarkEvents.event(participants, expenses, 42);
+        kernel = BalanceKernel.of(event);
+        owedShares = event.getOwedShares();
+    }
+
+    /***
+     * Provides the generated event
+     * @return the event
+     */
+    public Event event() {
+        return event;
+    }
+
+    /***
+     * Provides the event encoded for BalanceKernel
+     * @return the kernel of the event
+     */
+    public BalanceKernel kernel() {
+        return kernel;
+    }
+
+    /***
+     * Provides the balances of the event, as Event.getOwedShares computes them
+     * @return the balance per participant
+     */
+    public HashMap<Participant, BigDecimal> owedShares() {
+        return owedShares;
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The BigDecimal map implementation of Event.getOwedShares before BalanceKernel replaced it,
+ * kept to compare against
+ */
+public final class LegacyBalances {
+    private static final int PRECISION = 4;
+
+    private LegacyBalances() {
+    }
+
+    /***
+     * Calculates the share owed to (credit) per Participant for all expenses
+     * @param event the event
+     * @return a Map of participants to the amount they are owed (credit)
+     */
+    public static HashMap<Participant, BigDecimal> owedShares(Event event) {
+        HashMap<Participant, BigDecimal> shareMap = new HashMap<>();
+        HashMap<Participant, Integer> spendingMap = new HashMap<>();
+        for(Participant participant : event.getParticipants()){
+            shareMap.put(participant, BigDecimal.ZERO);
+            spendingMap.put(participant, 0);
+        }
+        for(Expense expense : event.getExpenses()){
+            splitAmountEqually(shareMap, expense.getParticipantsInExpense(), expense.getPriceInCents());
+            spendingMap.merge(expense.getOwedTo(), expense.getPriceInCents(), Integer::sum);
+        }
+
+        HashMap<Participant, BigDecimal> creditMap = new HashMap<>();
+        for(Participant participant : event.getParticipants()){
+            BigDecimal spent = convertIntToDecimal(spendingMap.get(participant));
+            creditMap.put(participant, spent.subtract(shareMap.get(participant)));
+        }
+        return creditMap;
+    }
+
+    /***
+     * Rounds all balances to whole cents, like the client did before showing them
+     * @param decimalMap the balances
+     * @return the rounded balances
+     */
+    public static HashMap<Participant, Integer> roundMap(HashMap<Participant, BigDecimal> decimalMap) {
+        HashMap<Participant, Integer> roundedMap = new HashMap<>();
+        for(Map.Entry<Participant, BigDecimal> entry : decimalMap.entrySet()){
+            roundedMap.put(entry.getKey(), entry.getValue().setScale(0, RoundingMode.HALF_UP).intValue());
+        }
+        return roundedMap;
+    }
+
+    private static void splitAmountEqually(HashMap<Participant, BigDecimal> shareMap,
+                                           Set<Participant> members, int costInCents) {
+        BigDecimal totalCost = convertIntToDecimal(costInCents);
+        BigDecimal sharePerPerson = totalCost.divide(BigDecimal.valueOf(members.size()), RoundingMode.HALF_UP);
+        for(Participant participant : members){
+            shareMap.put(participant, shareMap.get(participant).add(sharePerPerson));
+        }
+    }
+
+    private static BigDecimal convertIntToDecimal(int number) {
+        long scale = (long) Math.pow(10, PRECISION);
+        return new BigDecimal(BigInteger.valueOf(scale * number), PRECISION);
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson round-trips of an event, whose participants and expenses are written once and then
+ * referenced by ID through @JsonIdentityInfo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    /**
+     * The mapper and the encoded event, on top of the generated event
+     */
+    @State(Scope.Benchmark)
+    public static class Encoded {
+        private final ObjectMapper mapper = new ObjectMapper();
+        private byte[] json;
+
+        /***
+         * Encodes the event once per parameter combination
+         * @param state the event
+         * @throws IOException if the event cannot be encoded
+         */
+        @Setup
+        public void setup(EventState state) throws IOException {
+            json = mapper.writeValueAsBytes(state.event());
+        }
+    }
+
+    /***
+     * Encoding an event, as the server does for every response and update
+     * @param state the event
+     * @param encoded the mapper
+     * @return the JSON of the event
+     * @throws IOException if the event cannot be encoded
+     */
+    @Benchmark
+    public byte[] write(EventState state, Encoded encoded) throws IOException {
+        return encoded.mapper.writeValueAsBytes(state.event());
+    }
+
+    /***
+     * Decoding an event, as the client does for every response and update
+     * @param encoded the mapper and the JSON of the event
+     * @return the event
+     * @throws IOException if the event cannot be decoded
+     */
+    @Benchmark
+    public Event read(Encoded encoded) throws IOException {
+        return encoded.mapper.readValue(encoded.json, Event.class);
+    }
+
+    /***
+     * Encoding and decoding an event
+     * @param state the event
+     * @param encoded the mapper
+     * @return the decoded event
+     * @throws IOException if the event cannot be encoded or decoded
+     */
+    @Benchmark
+    public Event roundTrip(EventState state, Encoded encoded) throws IOException {
+        return encoded.mapper.readValue(encoded.mapper.writeValueAsBytes(state.event()), Event.class);
+    }
+}
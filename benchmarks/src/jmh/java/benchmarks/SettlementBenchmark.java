@@ -0,0 +1,121 @@
+package benchmarks;
+
+import client.utils.SettleDebtsUtils;
+import client.utils.Transfer;
+import commons.Event;
+import commons.Participant;
+import commons.balance.BalanceKernel;
+import commons.settlement.Payment;
+import commons.settlement.SettlementStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settles the balances of generated events with the greedy and the minimum transfer engine
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SettlementBenchmark {
+
+    /**
+     * Balances of events of any size, in cents
+     */
+    @State(Scope.Benchmark)
+    public static class AnySize {
+        @Param({"5", "20", "100", "1000", "10000"})
+        private int participants;
+        private long[] balances;
+        private HashMap<Participant, BigDecimal> owedShares;
+
+        /***
+         * Generates an event with two expenses per participant and rounds its balances
+         */
+        @Setup
+        public void setup() {
+            Event event = BenchmarkEvents.event(participants, 2 * participants, 42);
+            balances = roundedBalances(event);
+            owedShares = event.getOwedShares();
+        }
+    }
+
+    /**
+     * Balances of events small enough for the minimum transfer engine, in cents
+     */
+    @State(Scope.Benchmark)
+    public static class Small {
+        @Param({"5", "10", "15", "20"})
+        private int participants;
+        private long[] balances;
+
+        /***
+         * Generates an event with two expenses per participant and rounds its balances
+         */
+        @Setup
+        public void setup() {
+            balances = roundedBalances(BenchmarkEvents.event(participants, 2 * participants, 42));
+        }
+    }
+
+    private final SettleDebtsUtils settleDebtsUtils = new SettleDebtsUtils(null, null, null, null);
+
+    private static long[] roundedBalances(Event event) {
+        long[] balances = BalanceKernel.of(event).credits();
+        for(int i = 0; i < balances.length; i++) balances[i] = BalanceKernel.roundToCents(balances[i]);
+        return balances;
+    }
+
+    /***
+     * The heap based greedy engine
+     * @param state the balances
+     * @return the transfers
+     */
+    @Benchmark
+    public List<Payment> greedy(AnySize state) {
+        return SettlementStrategy.GREEDY.settle(state.balances);
+    }
+
+    /***
+     * The engine the server uses by default, which is the minimum transfer engine for small events
+     * @param state the balances
+     * @return the transfers
+     */
+    @Benchmark
+    public List<Payment> auto(AnySize state) {
+        return SettlementStrategy.AUTO.settle(state.balances);
+    }
+
+    /***
+     * SettleDebtsUtils.calculateTransferInstructions, including the rounding and ordering of participants
+     * @param state the balances
+     * @return the transfers
+     */
+    @Benchmark
+    public List<Transfer> clientInstructions(AnySize state) {
+        return settleDebtsUtils.calculateTransferInstructions(state.owedShares);
+    }
+
+    /***
+     * The greedy engine on small events, to compare the minimum transfer engine against
+     * @param state the balances
+     * @return the transfers
+     */
+    @Benchmark
+    public List<Payment> greedySmall(Small state) {
+        return SettlementStrategy.GREEDY.settle(state.balances);
+    }
+
+    /***
+     * The minimum transfer engine
+     * @param state the balances
+     * @return the transfers
+     */
+    @Benchmark
+    public List<Payment> minimum(Small state) {
+        return SettlementStrategy.MINIMUM.settle(state.balances);
+    }
+}
@@ -49,6 +49,9 @@ public class MyModule implements Module {
         binder.bind(File.class).annotatedWith(Names.named("dir")).toInstance(new File(Translation.LANGUAGE_PATH));
         binder.bind(WebSocketUtils.class).in(Scopes.SINGLETON);
         binder.bind(LPUtils.class).in(Scopes.SINGLETON);
+        binder.bind(UpdateStreamUtils.class).in(Scopes.SINGLETON);
+        binder.bind(ServerUtils.class).in(Scopes.SINGLETON);
+        binder.bind(AsyncServerUtils.class).in(Scopes.SINGLETON);
         binder.bind(AppStateManager.class).in(Scopes.SINGLETON);
         binder.bind(TransferMoneyUtils.class).in(Scopes.SINGLETON);
         binder.bind(AddTagCtrl.class).in(Scopes.SINGLETON);
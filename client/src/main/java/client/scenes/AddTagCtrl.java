@@ -1,6 +1,6 @@
 package client.scenes;
 
-import client.utils.ServerUtils;
+import client.utils.AsyncServerUtils;
 import client.utils.Translation;
 import commons.Event;
 import commons.Tag;
@@ -16,6 +16,7 @@ import javafx.scene.paint.Color;
 import java.net.URL;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class AddTagCtrl implements Initializable, SimpleRefreshable {
     @FXML
@@ -37,7 +38,7 @@ public class AddTagCtrl implements Initializable, SimpleRefreshable {
     private Event event;
     private Long tagId;
     private Long expenseId;
-    private final ServerUtils server;
+    private final AsyncServerUtils server;
     private final MainCtrl mainCtrl;
     private final Translation translation;
 
@@ -48,7 +49,7 @@ public class AddTagCtrl implements Initializable, SimpleRefreshable {
      * @param translation the class that manages translations
      */
     @Inject
-    public AddTagCtrl(ServerUtils server, MainCtrl mainCtrl, Translation translation){
+    public AddTagCtrl(AsyncServerUtils server, MainCtrl mainCtrl, Translation translation){
         this.server = server;
         this.mainCtrl = mainCtrl;
         this.translation = translation;
@@ -127,7 +128,7 @@ public class AddTagCtrl implements Initializable, SimpleRefreshable {
      * it first checks to see if the user wrote a title for the tag, else it gives an error
      * then it gets the tag color from the colorPicker.
      * If tagId is null, then a new tag is being created. Else the tag with tagId is edited.
-     * Afterward all user inputs are cleared and tagId is set to null
+     * Once the server saved the tag, all user inputs are cleared and tagId is set to null
      */
     public void onConfirm(){
         String tagname = tagNameTextField.getText();
@@ -143,14 +144,21 @@ public class AddTagCtrl implements Initializable, SimpleRefreshable {
                     (int) (selectedColor.getRed() * 255),
                     (int) (selectedColor.getGreen() * 255),
                     (int) (selectedColor.getBlue() * 255));
-            Tag tag = null;
-            if(tagId == null)
-                server.addTagToEvent(event.getId(), tagname, colorCode);
-            else
-                tag = server.editTag(event.getId(), String.valueOf(tagId), new Tag(tagname, colorCode));
-            tagNameTextField.clear();
-            colorPicker.setValue(Color.WHITE);
-            switchScreens(tag, event);
+            Event current = event;
+            String eventId = current.getId();
+            Long editedId = tagId;
+            CompletableFuture<Tag> saved = editedId == null
+                    ? server.run(s -> s.addTagToEvent(eventId, tagname, colorCode)).thenApply(done -> (Tag) null)
+                    : server.call(s -> s.editTag(eventId, String.valueOf(editedId), new Tag(tagname, colorCode)));
+            saved.whenComplete((tag, exception) -> {
+                if(exception != null){
+                    System.out.println("Could not save the tag: " + exception);
+                    return;
+                }
+                tagNameTextField.clear();
+                colorPicker.setValue(Color.WHITE);
+                switchScreens(tag, current);
+            });
         }
     }
 
@@ -2,7 +2,7 @@ package client.scenes;
 
 import client.utils.*;
 import com.google.inject.Inject;
-import commons.Event;
+import commons.dto.EventSummary;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -16,7 +16,7 @@ public class DeleteEventsScreenCtrl implements Initializable {
     @FXML
     private Label selectWhichEventsToDelete;
     @FXML
-    private ListView<Event> checkEventsListView;
+    private ListView<EventSummary> checkEventsListView;
     @FXML
     private Button deleteSelectedEvenetsButton;
     @FXML
@@ -25,8 +25,11 @@ public class DeleteEventsScreenCtrl implements Initializable {
     private Button deleteAllEventsButton;
     @FXML
     private Button goBackButton;
-    private final Map<Event, Boolean> eventSelectionMap = new HashMap<>();
-    private final ServerUtils server;
+    /**
+     * Whether each listed event is selected, by ID, since an edited event is listed with a new summary
+     */
+    private final Map<String, Boolean> eventSelectionMap = new HashMap<>();
+    private final AsyncServerUtils server;
     private final MainCtrl mainCtrl;
     private final Translation translation;
     private final ManagementOverviewUtils utils;
@@ -37,7 +40,7 @@ public class DeleteEventsScreenCtrl implements Initializable {
     /**
      * Constructor
      *
-     * @param server      the ServerUtils instance to use
+     * @param server      the AsyncServerUtils instance to use
      * @param mainCtrl    the MainCtrl instance to use
      * @param translation the Translation instance to use
      * @param utils       the ManagementOverviewUtils instance to use
@@ -46,7 +49,7 @@ public class DeleteEventsScreenCtrl implements Initializable {
      * @param stringUtils the StringUtils instance to use
      */
     @Inject
-    public DeleteEventsScreenCtrl(ServerUtils server, MainCtrl mainCtrl, Translation translation,
+    public DeleteEventsScreenCtrl(AsyncServerUtils server, MainCtrl mainCtrl, Translation translation,
                                   ManagementOverviewUtils utils, ImageUtils imageUtils,
                                   StringGenerationUtils stringUtils, Styling styling) {
         this.server = server;
@@ -87,18 +90,16 @@ public class DeleteEventsScreenCtrl implements Initializable {
         checkEventsListView.setCellFactory(listView -> new ListCell<>() {
             private final CheckBox checkBox = new CheckBox();
             @Override
-            protected void updateItem(Event event, boolean empty) {
+            protected void updateItem(EventSummary event, boolean empty) {
                 super.updateItem(event, empty);
                 if (empty || event == null || event.getId() == null) {
                     textProperty().bind(translation.getStringBinding("empty"));
                     setGraphic(null);
                 } else {
                     textProperty().bind(stringUtils.generateTextForEventLabel(event));
-                    checkBox.setOnAction(e -> eventSelectionMap.put(event, checkBox.isSelected()));
-                    if (!eventSelectionMap.containsKey(event)) {
-                        eventSelectionMap.put(event, false);
-                    }
-                    checkBox.setSelected(eventSelectionMap.get(event));
+                    checkBox.setOnAction(e -> eventSelectionMap.put(event.getId(), checkBox.isSelected()));
+                    eventSelectionMap.putIfAbsent(event.getId(), false);
+                    checkBox.setSelected(eventSelectionMap.get(event.getId()));
                     setGraphic(checkBox);
                 }
             }
@@ -126,18 +127,21 @@ public class DeleteEventsScreenCtrl implements Initializable {
             Alert confirmationDialog = generateConfirmationDialog(confirmationTitle, confirmationHeader, confirmationContent, buttonTypeYes);
             Optional<ButtonType> result = confirmationDialog.showAndWait();
             if (result.isPresent() && result.get() == buttonTypeYes) {
-                List<Event> selectedEvents = eventSelectionMap.entrySet().stream()
+                List<String> selectedIds = eventSelectionMap.entrySet().stream()
                         .filter(Map.Entry::getValue)
                         .map(Map.Entry::getKey)
                         .toList();
-                checkEventsListView.getItems().removeAll(selectedEvents);
-                for (Event current : selectedEvents) {
-                    server.deleteEvent(current.getId());
-                    System.out.println("The following event has been deleted: " + current.getTitle());
-                }
-                noEventsSelectedLabel.textProperty().bind(translation.getStringBinding("DES.Event.Deleted.Sucessfully"));
-                styling.changeStyling(noEventsSelectedLabel, "errorText", "successText");
-                eventSelectionMap.clear();
+                server.call(s -> s.deleteEvents(selectedIds)).whenComplete((deletedIds, exception) -> {
+                    if (exception != null){
+                        System.out.println("Could not delete the events: " + exception);
+                        return;
+                    }
+                    checkEventsListView.getItems().removeIf(event -> selectedIds.contains(event.getId()));
+                    System.out.println(deletedIds.size() + " events have been deleted");
+                    noEventsSelectedLabel.textProperty().bind(translation.getStringBinding("DES.Event.Deleted.Sucessfully"));
+                    styling.changeStyling(noEventsSelectedLabel, "errorText", "successText");
+                    selectedIds.forEach(eventSelectionMap::remove);
+                });
             } else {
                 noEventsSelectedLabel.textProperty().bind(translation.getStringBinding("DES.Event.Deletion.Cancel"));
                 System.out.println("Deletion cancelled.");
@@ -160,10 +164,15 @@ public class DeleteEventsScreenCtrl implements Initializable {
         Alert confirmationDialog = generateConfirmationDialog(confirmationTitle, confirmationHeader, confirmationContent, buttonTypeYes);
         Optional<ButtonType> result = confirmationDialog.showAndWait();
         if (result.isPresent() && result.get() == buttonTypeYes) {
-            server.deleteAllEvents();
-            checkEventsListView.getItems().clear();
-            eventSelectionMap.clear();
-            System.out.println("Everything was deleted successfully!");
+            server.run(ServerUtils::deleteAllEvents).whenComplete((done, exception) -> {
+                if (exception != null){
+                    System.out.println("Could not delete the events: " + exception);
+                    return;
+                }
+                checkEventsListView.getItems().clear();
+                eventSelectionMap.clear();
+                System.out.println("Everything was deleted successfully!");
+            });
         } else {
             System.out.println("Deletion cancelled.");
         }
@@ -1,6 +1,6 @@
 package client.scenes;
 
-import client.utils.ServerUtils;
+import client.utils.AsyncServerUtils;
 import client.utils.Translation;
 import com.google.inject.Inject;
 import commons.Event;
@@ -23,7 +23,7 @@ public class EditTitleCtrl implements Initializable, SimpleRefreshable {
     @FXML
     private Button cancel;
 
-    private final ServerUtils server;
+    private final AsyncServerUtils server;
     private final MainCtrl mainCtrl;
     private final Translation translation;
     private Event event;
@@ -35,7 +35,7 @@ public class EditTitleCtrl implements Initializable, SimpleRefreshable {
      * @param translation the translation class
      */
     @Inject
-    public EditTitleCtrl(MainCtrl mainCtrl, ServerUtils server, Translation translation) {
+    public EditTitleCtrl(MainCtrl mainCtrl, AsyncServerUtils server, Translation translation) {
         this.server = server;
         this.mainCtrl = mainCtrl;
         this.translation = translation;
@@ -69,12 +69,19 @@ public class EditTitleCtrl implements Initializable, SimpleRefreshable {
 
     /**
      * updates the information on the server with the new title
-     * that was provided
+     * that was provided, and goes back to the event screen once the server changed it
      */
     public void confirm() {
-        server.editTitle(event.getId(), title.getText());
-        title.clear();
-        mainCtrl.switchScreens(EventScreenCtrl.class);
+        String eventId = event.getId();
+        String newTitle = title.getText();
+        server.call(s -> s.editTitle(eventId, newTitle)).whenComplete((edited, exception) -> {
+            if (exception != null){
+                System.out.println("Could not change the title: " + exception);
+                return;
+            }
+            title.clear();
+            mainCtrl.switchScreens(EventScreenCtrl.class);
+        });
     }
 
     /**
@@ -36,7 +36,7 @@ public class EmailInviteCtrl implements Initializable, SimpleRefreshable {
     @FXML
     private Label emailFeedbackLabel;
     private Translation translation;
-    private ServerUtils server;
+    private AsyncServerUtils server;
     private MainCtrl mainCtrl;
     private EmailHandler emailHandler;
     private Event event;
@@ -49,7 +49,7 @@ public class EmailInviteCtrl implements Initializable, SimpleRefreshable {
      * @param emailHandler the email handler to use
      */
     @Inject
-    public EmailInviteCtrl(Translation translation, ServerUtils server, MainCtrl mainCtrl, EmailHandler emailHandler) {
+    public EmailInviteCtrl(Translation translation, AsyncServerUtils server, MainCtrl mainCtrl, EmailHandler emailHandler) {
         this.translation = translation;
         this.server = server;
         this.mainCtrl = mainCtrl;
@@ -125,20 +125,25 @@ public class EmailInviteCtrl implements Initializable, SimpleRefreshable {
     }
 
     /**
-     * Sets up a thread to send an email so the whole app doesn't freeze while the email is sent
+     * Sets up a thread to send an email so the whole app doesn't freeze while the email is sent.
+     * Once the email is sent, the participant is added, and the prompt is shown after the server added them.
      * @param email the email to send the invitation to
      * @param participant the participant to add to the event
      * @return the thread that sends the email
      */
     private Thread setupEmailThread(String email, Participant participant) {
+        String eventId = event.getId();
         return new Thread(() -> {
             boolean result = emailHandler.sendEmail(email, "Invited to splitty!", emailHandler.getInviteText(event));
-            if (result){
-                server.addParticipant(event.getId(), participant);
-
+            if (!result){
+                Platform.runLater(() -> mainCtrl.showEmailPrompt(false));
+                return;
             }
-            Platform.runLater(() -> {
-                mainCtrl.showEmailPrompt(result);
+            server.call(s -> s.addParticipant(eventId, participant)).whenComplete((added, exception) -> {
+                if (exception != null){
+                    System.out.println("Could not add the invited participant: " + exception);
+                }
+                mainCtrl.showEmailPrompt(true);
             });
         });
     }
@@ -65,7 +65,7 @@ public class EventScreenCtrl implements Initializable, SimpleRefreshable{
     private Button addTagButton;
     @FXML
     private Button showStatisticsButton;
-    private final ServerUtils server;
+    private final AsyncServerUtils server;
     private final MainCtrl mainCtrl;
     private final Translation translation;
     private final LanguageIndicatorCtrl languageCtrl;
@@ -87,7 +87,7 @@ public class EventScreenCtrl implements Initializable, SimpleRefreshable{
     /**
      * Constructor
      *
-     * @param server      the ServerUtils instance
+     * @param server      the AsyncServerUtils instance
      * @param mainCtrl    the MainCtrl instance
      * @param translation the Translation to use
      * @param languageCtrl the LanguageIndicator to use
@@ -97,7 +97,7 @@ public class EventScreenCtrl implements Initializable, SimpleRefreshable{
      * @param emailHandler Handles email related functionality
      */
     @Inject
-    public EventScreenCtrl(ServerUtils server, MainCtrl mainCtrl, Translation translation,
+    public EventScreenCtrl(AsyncServerUtils server, MainCtrl mainCtrl, Translation translation,
                            LanguageIndicatorCtrl languageCtrl, ImageUtils imageUtils,
                 StringGenerationUtils stringUtils, Styling styling, EmailHandler emailHandler) {
         this.server = server;
@@ -487,15 +487,19 @@ public class EventScreenCtrl implements Initializable, SimpleRefreshable{
     }
 
     /**
-     * Deletes an expense from the server. It also reflects it in the client
+     * Deletes an expense from the server. Once the server deleted it, it also reflects it in the client
      * by deleting the set expense from the listview
      * @param expenseId the id of the expense we want to delete
      */
     public void removeFromList(long expenseId){
-        server.deleteExpenseForEvent(event.getId(), expenseId);
-        HBox hBox = hBoxMap.get(expenseId);
-        hBoxMap.remove(expenseId);
-        expensesLogListView.getItems().remove(hBox);
+        server.run(s -> s.deleteExpenseForEvent(event.getId(), expenseId)).whenComplete((done, exception) -> {
+            if (exception != null){
+                System.out.println("Could not delete expense " + expenseId + ": " + exception);
+                return;
+            }
+            HBox hBox = hBoxMap.remove(expenseId);
+            expensesLogListView.getItems().remove(hBox);
+        });
     }
 
 
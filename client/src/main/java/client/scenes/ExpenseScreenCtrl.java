@@ -1,8 +1,8 @@
 package client.scenes;
 
 import client.Exceptions.InvalidTagException;
+import client.utils.AsyncServerUtils;
 import client.utils.ImageUtils;
-import client.utils.ServerUtils;
 import client.utils.Styling;
 import client.utils.Translation;
 import commons.Event;
@@ -26,9 +26,10 @@ import java.net.URL;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class ExpenseScreenCtrl implements Initializable, SimpleRefreshable {
-    private final ServerUtils server;
+    private final AsyncServerUtils server;
     @FXML
     private Label addEditExpense;
     @FXML
@@ -92,7 +93,7 @@ public class ExpenseScreenCtrl implements Initializable, SimpleRefreshable {
      * @param styling Used for styling
      */
     @Inject
-    public ExpenseScreenCtrl (ServerUtils server, MainCtrl mainCtrl,
+    public ExpenseScreenCtrl (AsyncServerUtils server, MainCtrl mainCtrl,
                               Translation translation, ImageUtils imageUtils, Styling styling) {
         this.mainCtrl = mainCtrl;
         this.translation = translation;
@@ -154,11 +155,7 @@ public class ExpenseScreenCtrl implements Initializable, SimpleRefreshable {
                             "-fx-text-fill: white;");
                     if(findDefaultTag(tags) != null && !item.equals(findDefaultTag(tags))) {
                         editButton.setOnMousePressed(event -> mainCtrl.switchToEditTagScreen(item, expenseId));
-                        deleteButton.setOnMousePressed(event -> {
-                            server.deleteTag(currentEvent.getId(), String.valueOf(item.getId()));
-                            tagComboBox.getItems().remove(item);
-                            tagComboBox.setValue(findDefaultTag(tags));
-                        });
+                        deleteButton.setOnMousePressed(event -> deleteTag(item, tags));
                         buttonsBox.setVisible(true);
                     } else
                         buttonsBox.setVisible(false);
@@ -550,20 +547,46 @@ public class ExpenseScreenCtrl implements Initializable, SimpleRefreshable {
         return tagComboBox.getValue();
     }
 
+    /**
+     * Deletes a tag from the server, and from the tag box once the server deleted it
+     * @param tag the tag to delete
+     * @param tags the tags of the event, to find the default tag in
+     */
+    public void deleteTag(Tag tag, Collection<Tag> tags) {
+        String eventId = currentEvent.getId();
+        server.run(s -> s.deleteTag(eventId, String.valueOf(tag.getId()))).whenComplete((done, exception) -> {
+            if (exception != null){
+                System.out.println("Could not delete tag " + tag.getId() + ": " + exception);
+                return;
+            }
+            tagComboBox.getItems().remove(tag);
+            tagComboBox.setValue(findDefaultTag(tags));
+        });
+    }
+
     /**
      * Adds the specified expense to the server
      * @param expense the provided expense
-     */
-    public void addExpenseToTheServer(Expense expense) throws InvalidTagException {
-        try {
-            server.addExpense(currentEvent.getId(), expense);
-        } catch(WebApplicationException e) {
-            Long tagId = e.getResponse().readEntity(Long.class);
-            new Alert(Alert.AlertType.INFORMATION, "This tag has been deleted. Default tag will now be selected").showAndWait();
-            tagComboBox.setValue(findDefaultTag(tagComboBox.getItems()));
-            tagComboBox.getItems().removeIf(tag -> tag.getId() == tagId);
-            throw new InvalidTagException("Tag doesn't exist anymore. It probably has been deleted.");
-        }
+     * @return a future completed once the server added the expense, failing with an InvalidTagException
+     *         if the tag of the expense was deleted in the meantime
+     */
+    public CompletableFuture<Void> addExpenseToTheServer(Expense expense) {
+        String eventId = currentEvent.getId();
+        CompletableFuture<Void> added = new CompletableFuture<>();
+        server.run(s -> s.addExpense(eventId, expense)).whenComplete((done, exception) -> {
+            if (exception instanceof WebApplicationException e){
+                Long tagId = e.getResponse().readEntity(Long.class);
+                new Alert(Alert.AlertType.INFORMATION, "This tag has been deleted. Default tag will now be selected").showAndWait();
+                tagComboBox.setValue(findDefaultTag(tagComboBox.getItems()));
+                tagComboBox.getItems().removeIf(tag -> tag.getId() == tagId);
+                added.completeExceptionally(new InvalidTagException("Tag doesn't exist anymore. It probably has been deleted."));
+            } else if (exception != null){
+                added.completeExceptionally(exception);
+            } else {
+                added.complete(null);
+            }
+        });
+        return added;
     }
 
     /**
@@ -623,9 +646,11 @@ public class ExpenseScreenCtrl implements Initializable, SimpleRefreshable {
      * @param expenseId the id of the expense that is edited
      * @param expense the expense we want to replace the current
      * expense with
+     * @return a future completed once the server edited the expense
      */
-    public void editExpenseOnServer(long expenseId, Expense expense) {
-        server.editExpense(currentEvent.getId(), expenseId, expense);
+    public CompletableFuture<Void> editExpenseOnServer(long expenseId, Expense expense) {
+        String eventId = currentEvent.getId();
+        return server.run(s -> s.editExpense(eventId, expenseId, expense));
     }
     /**
      * Fires on clicking the confirm button
@@ -667,17 +692,19 @@ public class ExpenseScreenCtrl implements Initializable, SimpleRefreshable {
             toAdd = false;
         }
         if(toAdd) {
-            if(expenseId == 0) {
-                try {
-                    addExpenseToTheServer(expense);
-                } catch (InvalidTagException e) {
+            CompletableFuture<Void> saved = expenseId == 0
+                ? addExpenseToTheServer(expense)
+                : editExpenseOnServer(expenseId, expense);
+            saved.whenComplete((done, exception) -> {
+                if(exception instanceof InvalidTagException)
+                    return;
+                if(exception != null) {
+                    System.out.println("Could not save the expense: " + exception);
                     return;
                 }
-            } else {
-                editExpenseOnServer(expenseId, expense);
-            }
-            resetAll();
-            mainCtrl.switchScreens(EventScreenCtrl.class);
+                resetAll();
+                mainCtrl.switchScreens(EventScreenCtrl.class);
+            });
         }
     }
 
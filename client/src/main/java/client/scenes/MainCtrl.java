@@ -6,6 +6,7 @@ import client.Exceptions.MissingLanguageTemplateException;
 import client.utils.*;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
+import commons.Event;
 import commons.Tag;
 import javafx.application.Platform;
 import javafx.beans.value.ObservableValue;
@@ -371,10 +372,10 @@ public class MainCtrl {
 
     /***
      * Replace the event being viewed
-     * @param eventCode the event code to use
+     * @param event the event to view, as fetched from the server
      */
-    public void switchEvents(String eventCode) {
-        manager.switchClientEvent(eventCode);
+    public void switchEvents(Event event) {
+        manager.switchClientEvent(event);
     }
 
     /**
@@ -1,6 +1,6 @@
 package client.scenes;
 
-import client.utils.ServerUtils;
+import client.utils.AsyncServerUtils;
 import client.utils.Translation;
 import com.google.inject.Inject;
 import javafx.fxml.FXML;
@@ -22,17 +22,17 @@ public class ManagementOverviewPasswordCtrl implements Initializable {
     private Label logInFeedback;
     @FXML
     private Button goBackToMainScreen;
-    private final ServerUtils server;
+    private final AsyncServerUtils server;
     private final MainCtrl mainCtrl;
     private final Translation translation;
     /**
      * Constructor
-     * @param server the ServerUtils instance
+     * @param server the AsyncServerUtils instance
      * @param mainCtrl the MainCtrl instance
      * @param translation the Translation to use
      */
     @Inject
-    public ManagementOverviewPasswordCtrl(ServerUtils server, MainCtrl mainCtrl, Translation translation) {
+    public ManagementOverviewPasswordCtrl(AsyncServerUtils server, MainCtrl mainCtrl, Translation translation) {
         this.server = server;
         this.mainCtrl = mainCtrl;
         this.translation = translation;
@@ -55,19 +55,27 @@ public class ManagementOverviewPasswordCtrl implements Initializable {
     }
 
     /**
-     * check if the password in the passwordField matches with the one randomly generated
+     * check if the password in the passwordField matches with the one randomly generated,
+     * and log in once the server confirmed it
      */
     public void logInCheck() {
         String inputPassword = getPasswordFieldText(passwordField);
-        if(inputPassword == null || inputPassword.isEmpty() || !server.checkPassword(inputPassword)){
+        clearPasswordField();
+        if(inputPassword == null || inputPassword.isEmpty()){
             translation.bindLabel(logInFeedback, "MOPCtrl.Log.In.Feedback");
-            clearPasswordField();
+            return;
         }
-        else{
+        server.call(s -> s.checkPassword(inputPassword)).whenComplete((correct, exception) -> {
+            if(exception != null){
+                System.out.println("Could not check the password: " + exception);
+            }
+            if(exception != null || !Boolean.TRUE.equals(correct)){
+                translation.bindLabel(logInFeedback, "MOPCtrl.Log.In.Feedback");
+                return;
+            }
             translation.bindLabel(logInFeedback, "Empty");
-            clearPasswordField();
             mainCtrl.switchToManagementOverviewScreen();
-        }
+        });
     }
 
     /**
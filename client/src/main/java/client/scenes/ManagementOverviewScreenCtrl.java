@@ -7,6 +7,7 @@ import com.google.inject.Inject;
 import commons.Event;
 import commons.Expense;
 import commons.Participant;
+import commons.dto.EventSummary;
 import javafx.beans.property.StringProperty;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -43,7 +44,7 @@ public class ManagementOverviewScreenCtrl implements Initializable {
     @FXML
     private Label expensesLabel;
     @FXML
-    private ListView<Event> eventsListView;
+    private ListView<EventSummary> eventsListView;
     @FXML
     private ListView<Participant> participantsListView;
     @FXML
@@ -54,7 +55,7 @@ public class ManagementOverviewScreenCtrl implements Initializable {
     private ComboBox<StringProperty> orderTypeComboBox;
     @FXML
     private Button deleteEventsButton;
-    private final ServerUtils server;
+    private final AsyncServerUtils server;
     private final MainCtrl mainCtrl;
     private final Translation translation;
     private final ManagementOverviewUtils utils;
@@ -65,7 +66,7 @@ public class ManagementOverviewScreenCtrl implements Initializable {
 
     /**
      * Constructor
-     * @param server the ServerUtils instance
+     * @param server the AsyncServerUtils instance
      * @param mainCtrl the MainCtrl instance
      * @param translation the Translation to use
      * @param utils the ManagementOverviewUtils to use
@@ -74,7 +75,7 @@ public class ManagementOverviewScreenCtrl implements Initializable {
      * @param stringUtils the StringGenerationUtils to use
      */
     @Inject
-    public ManagementOverviewScreenCtrl(ServerUtils server, MainCtrl mainCtrl, Translation translation,
+    public ManagementOverviewScreenCtrl(AsyncServerUtils server, MainCtrl mainCtrl, Translation translation,
                                         ManagementOverviewUtils utils, ImageUtils imageUtils,
                 StringGenerationUtils stringUtils, Styling styling) {
         this.server = server;
@@ -124,7 +125,7 @@ public class ManagementOverviewScreenCtrl implements Initializable {
         utils.subscribeToUpdates();
         eventsListView.setCellFactory(listView -> new ListCell<>() {
             @Override
-            protected void updateItem(Event event, boolean empty) {
+            protected void updateItem(EventSummary event, boolean empty) {
                 super.updateItem(event, empty);
                 if(empty || event == null) {
                     textProperty().bind(translation.getStringBinding("empty"));
@@ -160,13 +161,31 @@ public class ManagementOverviewScreenCtrl implements Initializable {
                 }
             }
         });
-        eventsListView.getSelectionModel().selectedItemProperty().addListener((observable, oldEvent, newEvent) -> {
-            participantsListView.setItems(utils.initializeParticipantsList(newEvent));
-            expensesListView.setItems(utils.initializeExpenseList(newEvent));
-        });
+        eventsListView.getSelectionModel().selectedItemProperty().addListener((observable, oldEvent, newEvent) ->
+                showDetails(newEvent));
         listWasInitialized = true;
     }
 
+    /**
+     * Shows the participants and expenses of the selected event, which are fetched as it is selected,
+     * since the list only holds summaries
+     * @param selected the summary of the selected event, null if none is selected
+     */
+    private void showDetails(EventSummary selected) {
+        participantsListView.setItems(utils.initializeParticipantsList(null));
+        expensesListView.setItems(utils.initializeExpenseList(null));
+        if(selected == null) return;
+        utils.fetchEvent(selected).whenComplete((event, exception) -> {
+            if(exception != null){
+                System.out.println("Could not fetch event " + selected.getId() + ": " + exception);
+                return;
+            }
+            if(eventsListView.getSelectionModel().getSelectedItem() != selected) return;
+            participantsListView.setItems(utils.initializeParticipantsList(event));
+            expensesListView.setItems(utils.initializeExpenseList(event));
+        });
+    }
+
     /**
      * Initializes the sort button.
      */
@@ -241,20 +260,28 @@ public class ManagementOverviewScreenCtrl implements Initializable {
     }
 
     /**
-     * Export the event to a backup file
+     * Export the event to a backup file, once the server found it
      */
     @FXML
     public void exportButtonClicked() {
         bindLabel(backupEventFeedbackLabel, "empty");
         styling.changeStyling(backupEventFeedbackLabel, "successText", "errorText");
         String eventId = getTextBoxText(backupEventIDTextField);
-        Event event;
-        try{
-            event = server.getEvent(eventId);
-        }catch (Exception e){
-            bindLabel(backupEventFeedbackLabel, "MOSCtrl.EventNotFound");
-            return;
-        }
+        server.call(s -> s.getEvent(eventId)).whenComplete((event, exception) -> {
+            if (exception != null){
+                bindLabel(backupEventFeedbackLabel, "MOSCtrl.EventNotFound");
+                return;
+            }
+            writeBackup(eventId, event);
+        });
+    }
+
+    /**
+     * Writes an event to its backup file
+     * @param eventId the ID of the event
+     * @param event the event to back up
+     */
+    private void writeBackup(String eventId, Event event) {
         objectMapper.registerModule(new JavaTimeModule());
         try {
             // Write object to JSON file
@@ -270,7 +297,7 @@ public class ManagementOverviewScreenCtrl implements Initializable {
     }
 
     /**
-     * Import the event from a backup file
+     * Import the event from a backup file, replacing the event on the server if it already exists
      */
     @FXML
     public void importButtonClicked() {
@@ -283,13 +310,21 @@ public class ManagementOverviewScreenCtrl implements Initializable {
             File backupFile = readFile( eventId);
             Event event = objectMapper.readValue(backupFile, Event.class);
             System.out.println("Read from file: " + event);
-            bindLabel(backupEventFeedbackLabel, "MOSCtrl.SuccessImport");
-            if(utils.checkIfDuplicate(eventId)){
-                server.deleteEvent(eventId); //event IDs are unique, but this should enable updating an event this way
-            }
-            server.addEvent(event);
-            styling.changeStyling(backupEventFeedbackLabel, "errorText", "successText");
-
+            boolean duplicate = utils.checkIfDuplicate(eventId);
+            server.run(s -> {
+                if(duplicate){
+                    s.deleteEvent(eventId); //event IDs are unique, but this should enable updating an event this way
+                }
+                s.addEvent(event);
+            }).whenComplete((done, exception) -> {
+                if (exception != null){
+                    bindLabel(backupEventFeedbackLabel, "MOSCtrl.ErrorImportingEvent");
+                    System.out.printf("Error importing event %s: %s%n", eventId, exception);
+                    return;
+                }
+                bindLabel(backupEventFeedbackLabel, "MOSCtrl.SuccessImport");
+                styling.changeStyling(backupEventFeedbackLabel, "errorText", "successText");
+            });
         } catch (IOException e) {
             bindLabel(backupEventFeedbackLabel, "MOSCtrl.ErrorImportingEvent");
             System.out.printf("Error importing event %s%n", eventId);
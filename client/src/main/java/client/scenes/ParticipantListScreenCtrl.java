@@ -1,6 +1,6 @@
 package client.scenes;
+import client.utils.AsyncServerUtils;
 import client.utils.ImageUtils;
-import client.utils.ServerUtils;
 import client.utils.Translation;
 import com.google.inject.Inject;
 import commons.Event;
@@ -28,7 +28,7 @@ public class ParticipantListScreenCtrl implements Initializable, SimpleRefreshab
     private Button goBack;
     @FXML
     private ListView<HBox> participantList;
-    private final ServerUtils server;
+    private final AsyncServerUtils server;
     private final Translation translation;
     private final MainCtrl mainCtrl;
     private final ImageUtils imageUtils;
@@ -38,13 +38,13 @@ public class ParticipantListScreenCtrl implements Initializable, SimpleRefreshab
     /**
      * Constructor for the participant list screen
      * @param mainCtrl the MainCtrl instance to use
-     * @param server the ServerUtils instance to use
+     * @param server the AsyncServerUtils instance to use
      * @param translation the Translation instance to use
      * @param imageUtils the ImageUtils instance to use
      * @param styling the Styling instance to use
      */
     @Inject
-    public ParticipantListScreenCtrl(MainCtrl mainCtrl, ServerUtils server,
+    public ParticipantListScreenCtrl(MainCtrl mainCtrl, AsyncServerUtils server,
                                      Translation translation, ImageUtils imageUtils,
                                      Styling styling) {
         this.server = server;
@@ -153,15 +153,19 @@ public class ParticipantListScreenCtrl implements Initializable, SimpleRefreshab
     }
 
     /**
-     * Removes the participant from the list if deleted
+     * Removes the participant from the list once the server deleted it
      * @param participantId the ID of the participant
      * @param eventId the ID of the event
      */
     public void removeFromList(long participantId, String eventId){
-        server.removeParticipant(eventId, participantId);
-        HBox hBox = map.get(participantId);
-        map.remove(participantId);
-        participantList.getItems().remove(hBox);
+        server.run(s -> s.removeParticipant(eventId, participantId)).whenComplete((done, exception) -> {
+            if (exception != null){
+                System.out.println("Could not remove participant " + participantId + ": " + exception);
+                return;
+            }
+            HBox hBox = map.remove(participantId);
+            participantList.getItems().remove(hBox);
+        });
     }
 
     /***
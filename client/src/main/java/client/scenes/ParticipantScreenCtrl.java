@@ -1,7 +1,7 @@
 package client.scenes;
 
 import client.utils.ImageUtils;
-import client.utils.ServerUtils;
+import client.utils.AsyncServerUtils;
 import client.utils.Styling;
 import client.utils.Translation;
 import com.google.inject.Inject;
@@ -21,7 +21,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class ParticipantScreenCtrl implements Initializable, SimpleRefreshable {
-    private final ServerUtils server;
+    private final AsyncServerUtils server;
     private final MainCtrl mainCtrl;
     private final Styling styling;
     private final Translation translation;
@@ -76,7 +76,7 @@ public class ParticipantScreenCtrl implements Initializable, SimpleRefreshable {
      * @param styling for applying styling
      */
     @Inject
-    public ParticipantScreenCtrl(ServerUtils server, MainCtrl mainCtrl, Translation translation, ImageUtils imageUtils, Styling styling) {
+    public ParticipantScreenCtrl(AsyncServerUtils server, MainCtrl mainCtrl, Translation translation, ImageUtils imageUtils, Styling styling) {
         this.server = server;
         this.mainCtrl = mainCtrl;
         this.translation = translation;
@@ -248,7 +248,7 @@ public class ParticipantScreenCtrl implements Initializable, SimpleRefreshable {
      */
     //stop missing line length check
     public void confirmEdit(Styling st, Boolean ok, Participant p, Label nN, Label nE, Label wB, Label wI,
-                            Translation t, ServerUtils s, MainCtrl m, Event e, long pId, ArrayList<TextField> l) {
+                            Translation t, AsyncServerUtils s, MainCtrl m, Event e, long pId, ArrayList<TextField> l) {
         ok = true;
         //resume missing line length check
         if(p.getName() == null || p.getName().isEmpty()) {
@@ -276,16 +276,28 @@ public class ParticipantScreenCtrl implements Initializable, SimpleRefreshable {
             ok = false;
         }
         if(ok){
+            String eventId = e.getId();
             if(pId == 0){
-                s.addParticipant(e.getId(), p);
-                m.switchScreens(EventScreenCtrl.class);
+                s.call(server -> server.addParticipant(eventId, p)).whenComplete((added, exception) -> {
+                    if(exception != null){
+                        System.out.println("Could not add the participant: " + exception);
+                        return;
+                    }
+                    m.switchScreens(EventScreenCtrl.class);
+                    clearFields(l.get(0), l.get(1), l.get(3), l.get(4), l.get(2));
+                });
             }
             else {
-                s.editParticipant(e.getId(), pId, p);
-                saveId(0L);
-                m.switchScreens(ParticipantListScreenCtrl.class);
+                s.run(server -> server.editParticipant(eventId, pId, p)).whenComplete((done, exception) -> {
+                    if(exception != null){
+                        System.out.println("Could not edit the participant: " + exception);
+                        return;
+                    }
+                    saveId(0L);
+                    m.switchScreens(ParticipantListScreenCtrl.class);
+                    clearFields(l.get(0), l.get(1), l.get(3), l.get(4), l.get(2));
+                });
             }
-            clearFields(l.get(0), l.get(1), l.get(3), l.get(4), l.get(2));
         }
     }
 
@@ -19,11 +19,11 @@ import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.util.Pair;
 
-import java.math.BigDecimal;
 import java.net.URL;
-import java.util.HashMap;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 import static javafx.geometry.Pos.*;
 
@@ -39,6 +39,7 @@ public class SettleDebtsScreenCtrl implements Initializable, SimpleRefreshable {
     @FXML
     private VBox settleVBox;
     private Pair<Pane, Button> lastExpanded;
+    private CompletableFuture<List<Transfer>> pendingTransfers;
     private final Styling styling;
     private final EmailHandler emailHandler;
 
@@ -81,16 +82,35 @@ public class SettleDebtsScreenCtrl implements Initializable, SimpleRefreshable {
     }
 
     /***
-     * Populates the VBox with all the transfers
+     * Populates the VBox with all the transfers, once the server calculated them. A fetch that is
+     * still under way for an earlier version of the event is cancelled.
      * @param settleVBox the VBox to populate
      * @param event the Event data to use
      */
     public void populateVBox(VBox settleVBox, Event event){
-        List<Node> children = settleVBox.getChildren();
-        children.clear();
-        HashMap<Participant, BigDecimal> owedShares = event.getOwedShares();
-        List<Transfer> transfers = utils.calculateTransferInstructions(owedShares);
+        settleVBox.getChildren().clear();
+        if(pendingTransfers != null) pendingTransfers.cancel(true);
+        CompletableFuture<List<Transfer>> transfers = utils.fetchTransferInstructions(event);
+        pendingTransfers = transfers;
+        transfers.whenComplete((fetched, exception) -> {
+            if(exception != null){
+                if(!(exception instanceof CancellationException))
+                    System.out.println("Could not fetch the transfer instructions: " + exception);
+                return;
+            }
+            pendingTransfers = null;
+            populateTransfers(settleVBox, event, fetched);
+        });
+    }
 
+    /***
+     * Fills the VBox with the given transfers
+     * @param settleVBox the VBox to populate
+     * @param event the Event data to use
+     * @param transfers the transfers to show
+     */
+    private void populateTransfers(VBox settleVBox, Event event, List<Transfer> transfers){
+        List<Node> children = settleVBox.getChildren();
         Image expandButtonImage = imageUtils.loadImageFile("singlearrow.png");
 
         for(Transfer transfer: transfers){
@@ -1,8 +1,8 @@
 package client.scenes;
 
 import client.utils.AppStateManager;
+import client.utils.AsyncServerUtils;
 import client.utils.ImageUtils;
-import client.utils.ServerUtils;
 import client.utils.Translation;
 import com.google.inject.Inject;
 import commons.Event;
@@ -21,7 +21,7 @@ import java.util.*;
 
 import static javafx.geometry.Pos.CENTER_LEFT;
 public class StartupScreenCtrl implements Initializable {
-    private final ServerUtils server;
+    private final AsyncServerUtils server;
     private final MainCtrl mainCtrl;
     private final AppStateManager appStateManager;
     private final ImageUtils imageUtils;
@@ -53,7 +53,7 @@ public class StartupScreenCtrl implements Initializable {
 
     /**
      * Constructor
-     * @param server the ServerUtils instance
+     * @param server the AsyncServerUtils instance
      * @param mainCtrl the MainCtrl instance
      * @param translation the Translation to use
      * @param appStateManager the AppStateManager to use
@@ -61,7 +61,7 @@ public class StartupScreenCtrl implements Initializable {
      * @param imageUtils the ImageUtils to use
      */
     @Inject
-    public StartupScreenCtrl(ServerUtils server, MainCtrl mainCtrl, Translation translation,
+    public StartupScreenCtrl(AsyncServerUtils server, MainCtrl mainCtrl, Translation translation,
                              AppStateManager appStateManager, LanguageIndicatorCtrl languageCtrl,
                              ImageUtils imageUtils) {
         this.server = server;
@@ -110,7 +110,7 @@ public class StartupScreenCtrl implements Initializable {
     }
 
     /**
-     * Creates and joins the event specified by the user in the text box
+     * Creates the event specified by the user in the text box, and joins it once the server created it
      */
     public void createEvent(){
         bindLabel(createEventFeedback, "empty");
@@ -119,15 +119,20 @@ public class StartupScreenCtrl implements Initializable {
             bindLabel(createEventFeedback, "Startup.Label.UnspecifiedTitle");
             return;
         }
-        Event event = server.createEvent(title);
-        String newEventID = event.getId();
-        addToHistory(newEventID, event.getTitle());
-        switchToEvent(newEventID);
-        clearField(eventTitleTextBox);
+        server.call(s -> s.createEvent(title)).whenComplete((event, exception) -> {
+            if (exception != null){
+                System.out.println("Could not create the event: " + exception);
+                return;
+            }
+            String newEventID = event.getId();
+            addToHistory(newEventID, event.getTitle());
+            switchToEvent(event);
+            clearField(eventTitleTextBox);
+        });
     }
 
     /**
-     * Joins the event specified by the user in the text box
+     * Joins the event specified by the user in the text box, once the server found it
      */
     public void joinEventClicked(){
         bindLabel(joinEventFeedback, "empty");
@@ -136,23 +141,46 @@ public class StartupScreenCtrl implements Initializable {
             bindLabel(joinEventFeedback, "Startup.Label.InvalidCode");
             return;
         }
-        try{
-            Event event = server.getEvent(inviteCode);
+        server.call(s -> s.getEvent(inviteCode)).whenComplete((event, exception) -> {
+            if (exception instanceof BadRequestException){
+                bindLabel(joinEventFeedback, "Startup.Label.InvalidCode");
+                return;
+            }
+            if (exception != null){
+                System.out.println("Could not join the event: " + exception);
+                return;
+            }
             addToHistory(inviteCode, event.getTitle());
-            switchToEvent(inviteCode);
+            switchToEvent(event);
             clearField(inviteCodeTextBox);
-        }catch (BadRequestException exception){
-            bindLabel(joinEventFeedback, "Startup.Label.InvalidCode");
-        }
+        });
     }
     /**
-     * Joins the given event
+     * Joins the event with the given ID once the server found it, removing it from the history if it is gone
      * @param eventId the ID of the event to join
      */
     public void switchToEvent(String eventId){
-        mainCtrl.switchEvents(eventId);
+        server.call(s -> s.getEvent(eventId)).whenComplete((event, exception) -> {
+            if (exception instanceof BadRequestException){
+                removeFromHistoryIfExists(eventId);
+                return;
+            }
+            if (exception != null){
+                System.out.println("Could not join the event: " + exception);
+                return;
+            }
+            switchToEvent(event);
+        });
+    }
+
+    /**
+     * Joins the given event
+     * @param event the event to join, as fetched from the server
+     */
+    public void switchToEvent(Event event){
+        mainCtrl.switchEvents(event);
         mainCtrl.switchScreens(EventScreenCtrl.class);
-        moveHistoryToTop(eventId);
+        moveHistoryToTop(event.getId());
     }
 
     /**
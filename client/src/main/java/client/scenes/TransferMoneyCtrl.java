@@ -124,7 +124,7 @@ public class TransferMoneyCtrl implements Initializable, SimpleRefreshable {
     }
 
     /**
-     * Switch screens when clicking confirm button.
+     * Switch screens when clicking confirm button, once the server added the transfer.
      */
     public void confirm() {
         if(utils.hasErrors())
@@ -133,8 +133,13 @@ public class TransferMoneyCtrl implements Initializable, SimpleRefreshable {
             Alert alert = new Alert(Alert.AlertType.ERROR, sameParticipants.getValue());
             alert.showAndWait();
         } else {
-            utils.send();
-            ctrl.switchScreens(EventScreenCtrl.class);
+            utils.send().whenComplete((done, exception) -> {
+                if(exception != null) {
+                    System.out.println("Could not transfer the money: " + exception);
+                    return;
+                }
+                ctrl.switchScreens(EventScreenCtrl.class);
+            });
         }
     }
 
@@ -3,22 +3,29 @@ package client.utils;
 import client.scenes.StartupScreenCtrl;
 import com.google.inject.Inject;
 import commons.Event;
+import commons.dto.EventChangeDTO;
 import commons.dto.EventDeletedDTO;
 import commons.dto.EventNameChangeDTO;
 import org.springframework.messaging.simp.stomp.StompSession;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 
 public class AppStateManager {
     private final WebSocketUtils socketUtils;
-    private final ServerUtils server;
+    private final AsyncServerUtils server;
     private final LPUtils lpUtils;
+    private final UpdateStreamUtils updateStream;
     private StompSession.Subscription currentClientSubscription;
     private HashMap<Class<?>, ScreenInfo> screenInfoMap;
     private ScreenInfo currentlyOpen;
     private Event event;
+    /**
+     * The version of the event that the local copy matches, null if unknown
+     */
+    private Long sequence;
     private StartupScreenCtrl startupScreen;
     private final Set<String> relevantEvents;
     private Runnable onCurrentEventDeletedCallback;
@@ -26,42 +33,86 @@ public class AppStateManager {
     /***
      * Constructor for the AppStateManager
      * @param socketUtils the WebSocketUtils to use
-     * @param server the ServerUtils to use
-     * @param lpUtils the Long Polling utils to use
+     * @param server the AsyncServerUtils to fetch events with off the JavaFX thread
+     * @param lpUtils the Long Polling utils to use if the server has no update stream
+     * @param updateStream the stream of name changes and deletions to use
      */
     @Inject
-    public AppStateManager(WebSocketUtils socketUtils, ServerUtils server, LPUtils lpUtils) {
+    public AppStateManager(WebSocketUtils socketUtils, AsyncServerUtils server,
+                           LPUtils lpUtils, UpdateStreamUtils updateStream) {
         this.socketUtils = socketUtils;
         this.server = server;
         this.currentClientSubscription = null;
         this.currentlyOpen = null;
         this.event = null;
-        this.relevantEvents = new HashSet<>(5);
+        // read by the long polling thread
+        this.relevantEvents = ConcurrentHashMap.newKeySet(5);
         this.onCurrentEventDeletedCallback = null;
         this.lpUtils = lpUtils;
+        this.updateStream = updateStream;
     }
 
     /***
-     * Runs any time the Event is updated from the backend
+     * Runs any time the whole Event is received from the backend
      * @param event the new Event
      */
     public void onEventUpdate(Event event){
         this.event = event;
+        this.sequence = event == null ? null : event.getVersion();
+        refreshOpenScreen();
+    }
+
+    /***
+     * Runs for every change to the open Event sent by the backend. The change is applied to the local
+     * copy if it directly follows the version of that copy. Otherwise a change was missed, and the whole
+     * event is fetched again off the JavaFX thread.
+     * @param change the change to the Event
+     */
+    public void onEventChange(EventChangeDTO change){
+        if(event == null || !event.getId().equals(change.getEventId())) return;
+        Long changeSequence = change.getSequence();
+        if(changeSequence != null && sequence != null && changeSequence <= sequence) return;
+        if(change.getType() == EventChangeDTO.Type.SNAPSHOT){
+            onEventUpdate(change.getEvent());
+            return;
+        }
+        if(changeSequence == null || sequence == null || changeSequence != sequence + 1
+                || !EventPatcher.apply(event, change)){
+            refetch(event.getId());
+            return;
+        }
+        sequence = changeSequence;
+        refreshOpenScreen();
+    }
+
+    /**
+     * Fetches the open event again, dropping the result if the client switched to another event meanwhile
+     */
+    private void refetch(String eventId) {
+        server.call(s -> s.getEvent(eventId)).whenComplete((fetched, exception) -> {
+            if(exception != null){
+                System.out.println("Could not fetch event " + eventId + ": " + exception);
+                return;
+            }
+            if(event != null && event.getId().equals(eventId)) onEventUpdate(fetched);
+        });
+    }
+
+    private void refreshOpenScreen() {
         if(currentlyOpen!=null && currentlyOpen.shouldLiveRefresh())
             currentlyOpen.controller().refresh(this.event);
     }
 
     /***
      * Runs when the client changes the Event being observed
-     * @param eventID the ID of the new Event
+     * @param newEvent the new Event, as just fetched from the server
      */
-    public void switchClientEvent(String eventID){
-        Event newEvent = server.getEvent(eventID);
+    public void switchClientEvent(Event newEvent){
         onEventUpdate(newEvent);
         if(currentClientSubscription!=null) currentClientSubscription.unsubscribe();
-        String url = "/topic/events/" + eventID;
-        this.currentClientSubscription = socketUtils.registerForMessages(this::onEventUpdate,
-                url, Event.class);
+        String url = "/topic/events/" + newEvent.getId() + "/changes";
+        this.currentClientSubscription = socketUtils.registerForMessages(this::onEventChange,
+                url, EventChangeDTO.class);
     }
 
     /***
@@ -69,6 +120,7 @@ public class AppStateManager {
      */
     public void closeOpenedEvent(){
         event = null;
+        sequence = null;
         if(currentClientSubscription!=null){
             try {
                 this.currentClientSubscription.unsubscribe();
@@ -105,7 +157,12 @@ public class AppStateManager {
         try {
             socketUtils.startConnection(onConnectionErrorCallback);
             socketUtils.registerForMessages(this::onDeletion, "/topic/events/deletions", EventDeletedDTO.class);
-            lpUtils.registerForNameUpdates(this::onNameChange);
+            socketUtils.registerForMessages(this::onDeletions, "/topic/events/deletions/batch",
+                    EventDeletedDTO[].class);
+            // the stream repeats deletions, which covers the ones sent while the WebSocket was down;
+            // onDeletion ignores events that are no longer in the history
+            updateStream.open(() -> relevantEvents, this::onNameChange, this::onDeletion, this::onNameResync,
+                    () -> lpUtils.registerForNameUpdates(() -> relevantEvents, this::onNameChange, this::onNameResync));
         } catch (ExecutionException e){
             //The error callback is called within handleTransferError, so no extra handling is needed here
         }
@@ -124,14 +181,14 @@ public class AppStateManager {
      * @param eventId the ID of the event
      */
     public void addSubscription(String eventId){
-        relevantEvents.add(eventId);
+        if(relevantEvents.add(eventId)) updateStream.refresh();
     }
     /***
      * Removes a subscribed to event
      * @param eventId the ID of the event
      */
     public void removeSubscription(String eventId){
-        relevantEvents.remove(eventId);
+        if(relevantEvents.remove(eventId)) updateStream.refresh();
     }
 
     /***
@@ -142,6 +199,16 @@ public class AppStateManager {
         this.onCurrentEventDeletedCallback = callback;
     }
 
+    /***
+     * Ran when many events are deleted at once
+     * @param dtos the EventDeletedDTOs containing the IDs of the deleted events
+     */
+    public void onDeletions(EventDeletedDTO[] dtos){
+        for(EventDeletedDTO dto : dtos){
+            onDeletion(dto);
+        }
+    }
+
     /***
      * Runs on deletion of an event
      * @param dto A DTO containing the ID of the deleted event
@@ -169,9 +236,23 @@ public class AppStateManager {
     }
 
     /***
-     * Runs when the application stops, in order to shut down the Long Polling thread
+     * Runs when name changes were missed, fetching the names of the relevant events again. The events
+     * are fetched off the JavaFX thread, and every name is applied on it once it arrives.
+     * Events that were deleted in the meantime are left to the deletion messages.
+     */
+    public void onNameResync(){
+        for(String eventId : List.copyOf(relevantEvents)){
+            server.call(s -> s.getEvent(eventId)).whenComplete((fetched, exception) -> {
+                if(exception == null) onNameChange(new EventNameChangeDTO(eventId, fetched.getTitle()));
+            });
+        }
+    }
+
+    /***
+     * Runs when the application stops, in order to close the update stream and shut down the Long Polling thread
      */
     public void onStop(){
+        updateStream.stop();
         lpUtils.stopLP();
     }
 }
@@ -0,0 +1,119 @@
+package client.utils;
+
+import com.google.inject.Inject;
+import javafx.application.Platform;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs the blocking calls of {@link ServerUtils} off the JavaFX thread. Every call runs on its own virtual
+ * thread, and the returned future completes on the JavaFX thread, so its dependent actions may update the UI.
+ * A call that takes longer than the timeout fails with a TimeoutException, and cancelling the returned
+ * future interrupts the call.
+ */
+public class AsyncServerUtils {
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ServerUtils server;
+    private final Executor worker;
+    private final Executor ui;
+    private final Duration timeout;
+
+    /***
+     * Constructor running calls on virtual threads and completing them on the JavaFX thread
+     * @param server the ServerUtils to make the calls with
+     */
+    @Inject
+    public AsyncServerUtils(ServerUtils server) {
+        this(server, Executors.newVirtualThreadPerTaskExecutor(), Platform::runLater, DEFAULT_TIMEOUT);
+    }
+
+    /***
+     * Constructor with custom executors
+     * @param server the ServerUtils to make the calls with
+     * @param worker the executor running the calls, interrupted on cancellation if it is an ExecutorService
+     * @param ui the executor completing the returned futures
+     * @param timeout how long a call may take before its future fails
+     */
+    public AsyncServerUtils(ServerUtils server, Executor worker, Executor ui, Duration timeout) {
+        this.server = server;
+        this.worker = worker;
+        this.ui = ui;
+        this.timeout = timeout;
+    }
+
+    /***
+     * Makes a call to the server without blocking the calling thread, for example
+     * {@code call(server -> server.getEvent(id))}
+     * @param request the call to make
+     * @param <T> the type of the result
+     * @return a future completed on the JavaFX thread with the result of the call, or with the exception it
+     *         threw, unwrapped from any CompletionException
+     */
+    public <T> CompletableFuture<T> call(Function<ServerUtils, T> request) {
+        CompletableFuture<T> source = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = submit(() -> {
+                try {
+                    source.complete(request.apply(server));
+                } catch (Throwable e) {
+                    source.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        source.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        source.whenComplete((value, exception) -> ui.execute(() -> {
+            if(exception == null) result.complete(value);
+            else result.completeExceptionally(unwrap(exception));
+        }));
+        result.whenComplete((value, exception) -> {
+            // interrupts a call that was cancelled or timed out, so that it does not hold its connection
+            source.cancel(false);
+            if(task != null && source.isCompletedExceptionally()) task.cancel(true);
+        });
+        return result;
+    }
+
+    /***
+     * Makes a call to the server that has no result without blocking the calling thread, for example
+     * {@code run(server -> server.deleteAllEvents())}
+     * @param request the call to make
+     * @return a future completed on the JavaFX thread once the call is done
+     */
+    public CompletableFuture<Void> run(Consumer<ServerUtils> request) {
+        return call(server -> {
+            request.accept(server);
+            return null;
+        });
+    }
+
+    /**
+     * Runs a task on the worker, returning a handle to interrupt it with if the worker provides one
+     */
+    private Future<?> submit(Runnable task) {
+        if(worker instanceof ExecutorService service) return service.submit(task);
+        worker.execute(task);
+        return null;
+    }
+
+    private static Throwable unwrap(Throwable exception) {
+        Throwable cause = exception;
+        while(cause instanceof CompletionException && cause.getCause() != null) cause = cause.getCause();
+        return cause;
+    }
+}
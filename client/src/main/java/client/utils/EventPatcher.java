@@ -0,0 +1,140 @@
+package client.utils;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.Tag;
+import commons.dto.EventChangeDTO;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Applies the changes the server sends for an open event to the local copy of that event,
+ * the same way the server applied them. Participants and tags in a change are matched to the
+ * local instances by ID, so all expenses keep pointing at the instances the event holds.
+ */
+public final class EventPatcher {
+
+    private EventPatcher() {
+    }
+
+    /***
+     * Applies a change to a local copy of its event
+     * @param event the local copy of the event
+     * @param change the change, not a SNAPSHOT
+     * @return false if the change refers to something the copy does not have, in which case the copy
+     *         may be partly changed and has to be fetched again
+     */
+    public static boolean apply(Event event, EventChangeDTO change) {
+        return switch (change.getType()) {
+            case TITLE_CHANGED -> {
+                event.setTitle(change.getTitle());
+                yield true;
+            }
+            case PARTICIPANT_ADDED -> {
+                event.addParticipant(change.getParticipant());
+                yield true;
+            }
+            case PARTICIPANT_EDITED -> editParticipant(event, change.getParticipant());
+            case PARTICIPANT_REMOVED -> removeParticipant(event, change.getRemovedId());
+            case EXPENSE_ADDED, EXPENSE_EDITED -> putExpense(event, change.getExpense());
+            case EXPENSE_REMOVED -> event.getExpenses().removeIf(expense -> expense.getId() == change.getRemovedId());
+            case TAG_ADDED -> {
+                event.addTag(change.getTag());
+                yield true;
+            }
+            case TAG_EDITED -> editTag(event, change.getTag());
+            case TAG_REMOVED -> removeTag(event, change.getRemovedId());
+            case SNAPSHOT -> false;
+        };
+    }
+
+    private static boolean editParticipant(Event event, Participant edited) {
+        Participant participant = find(event.getParticipants(), Participant::getId, edited.getId());
+        if(participant == null) return false;
+        participant.setName(edited.getName());
+        participant.setLegalName(edited.getLegalName());
+        participant.setIban(edited.getIban());
+        participant.setBic(edited.getBic());
+        participant.setEmail(edited.getEmail());
+        return true;
+    }
+
+    /**
+     * Removes a participant like the server does: with the expenses they paid, and from all other expenses
+     */
+    private static boolean removeParticipant(Event event, long participantId) {
+        Participant participant = find(event.getParticipants(), Participant::getId, participantId);
+        if(participant == null) return false;
+        event.getExpenses().removeIf(expense -> expense.getOwedTo() != null
+                && expense.getOwedTo().getId() == participantId);
+        for(Expense expense : event.getExpenses()){
+            expense.removeParticipantFromExpense(participant);
+        }
+        event.removeParticipant(participant);
+        return true;
+    }
+
+    /**
+     * Adds an expense, or replaces the local expense with the same ID
+     */
+    private static boolean putExpense(Event event, Expense expense) {
+        if(expense.getOwedTo() != null){
+            Participant owedTo = find(event.getParticipants(), Participant::getId, expense.getOwedTo().getId());
+            if(owedTo == null) return false;
+            expense.setOwedTo(owedTo);
+        }
+        Set<Participant> members = new HashSet<>();
+        if(expense.getParticipantsInExpense() != null){
+            for(Participant member : expense.getParticipantsInExpense()){
+                Participant local = find(event.getParticipants(), Participant::getId, member.getId());
+                if(local == null) return false;
+                members.add(local);
+            }
+        }
+        expense.setParticipantToExpense(members);
+        if(expense.getExpenseTag() != null){
+            Tag tag = find(event.getEventTags(), Tag::getId, expense.getExpenseTag().getId());
+            if(tag == null) return false;
+            expense.setExpenseTag(tag);
+        }
+        event.getExpenses().removeIf(existing -> existing.getId() == expense.getId());
+        event.addExpense(expense);
+        return true;
+    }
+
+    private static boolean editTag(Event event, Tag edited) {
+        Tag tag = find(event.getEventTags(), Tag::getId, edited.getId());
+        if(tag == null) return false;
+        tag.setTagName(edited.getTagName());
+        tag.setColorCode(edited.getColorCode());
+        return true;
+    }
+
+    /**
+     * Removes a tag like the server does, giving its expenses the default tag of the event
+     */
+    private static boolean removeTag(Event event, long tagId) {
+        Tag tag = find(event.getEventTags(), Tag::getId, tagId);
+        if(tag == null) return false;
+        Tag defaultTag = event.getEventTags().stream()
+                .filter(eventTag -> "default".equals(eventTag.getTagName()))
+                .findFirst().orElse(null);
+        if(defaultTag == null) return false;
+        for(Expense expense : event.getExpenses()){
+            if(tag.equals(expense.getExpenseTag())) expense.setExpenseTag(defaultTag);
+        }
+        event.removeTag(tag);
+        return true;
+    }
+
+    private static <T> T find(Collection<T> items, ToLongFunction<T> id, long wanted) {
+        for(T item : items){
+            if(id.applyAsLong(item) == wanted) return item;
+        }
+        return null;
+    }
+}
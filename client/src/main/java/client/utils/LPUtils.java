@@ -3,18 +3,27 @@ package client.utils;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import commons.dto.EventNameChangeDTO;
+import commons.dto.NameChangesDTO;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.Response;
 import javafx.application.Platform;
 import org.glassfish.jersey.client.ClientConfig;
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 
 public class LPUtils {
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
     private final String serverURL;
     private final ExecutorService exec = Executors.newSingleThreadExecutor();
 
@@ -28,26 +37,67 @@ public class LPUtils {
     }
 
     /**
-     * Gets the event from the server based on the invite code
-     * @param consumer the Consumer to execute when a name update occurs
+     * Polls the server for name changes of events. The cursor of the last response is sent with every poll,
+     * so changes made while the client is between polls or reconnecting arrive with the next response.
+     * @param eventIds provides the IDs of the events to receive name changes of, read before every poll
+     * @param consumer the Consumer to execute for every name update, in the order they occurred
+     * @param onResync the Runnable to execute when the server no longer knows all changes since the cursor,
+     *                 so the names have to be fetched again
      */
-    public void registerForNameUpdates(Consumer<EventNameChangeDTO> consumer){
+    public void registerForNameUpdates(Supplier<Collection<String>> eventIds,
+                                       Consumer<EventNameChangeDTO> consumer, Runnable onResync){
         exec.submit(()-> {
+            Client client = ClientBuilder.newClient(new ClientConfig());
+            WebTarget names = client.target(serverURL).path("api/updates/names");
+            String cursor = null;
             while(!Thread.interrupted()){
-                Response res = ClientBuilder.newClient(new ClientConfig())
-                        .target(serverURL).path("api/updates/names") //invite code is the ID
-                        .request(APPLICATION_JSON)
-                        .accept(APPLICATION_JSON)
-                        .get(Response.class);
+                Set<String> asked = Set.copyOf(eventIds.get());
+                WebTarget target = names.queryParam("events", String.join(",", asked));
+                Response res;
+                try {
+                    res = (cursor == null ? target : target.queryParam("cursor", cursor))
+                            .request(APPLICATION_JSON)
+                            .accept(APPLICATION_JSON)
+                            .get(Response.class);
+                } catch (ProcessingException e) {
+                    if(!pause()) break;
+                    continue;
+                }
 
                 if(res.getStatus() == 204) continue;
+                if(res.getStatus() != 200){
+                    res.close();
+                    if(!pause()) break;
+                    continue;
+                }
 
-                EventNameChangeDTO dto = res.readEntity(EventNameChangeDTO.class);
-                Platform.runLater(() -> consumer.accept(dto));
+                NameChangesDTO batch = res.readEntity(NameChangesDTO.class);
+                if(batch.isResync() && cursor != null) Platform.runLater(onResync);
+                // the changes of events added while polling were skipped, so they are asked for again
+                if(cursor == null || batch.isResync() || asked.equals(Set.copyOf(eventIds.get()))){
+                    cursor = batch.getCursor();
+                }
+                if(!batch.getChanges().isEmpty()){
+                    Platform.runLater(() -> batch.getChanges().forEach(consumer));
+                }
             }
+            client.close();
         });
     }
 
+    /**
+     * Waits before polling again after a failed poll
+     * @return false if the thread was interrupted while waiting
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
     /***
      * Terminates the long polling background thread
      */
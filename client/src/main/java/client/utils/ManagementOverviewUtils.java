@@ -5,19 +5,21 @@ import commons.Event;
 import commons.Expense;
 import commons.Participant;
 import commons.dto.EventDeletedDTO;
+import commons.dto.EventSummary;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class ManagementOverviewUtils {
 
     private final Translation translation;
-    private final ServerUtils server;
-    private final ObservableList<Event> events = FXCollections.observableArrayList();
-    private final Map<String, Event> eventLookup = new HashMap<>();
+    private final AsyncServerUtils server;
+    private final ObservableList<EventSummary> events = FXCollections.observableArrayList();
+    private final Map<String, EventSummary> eventLookup = new HashMap<>();
     private final SimpleStringProperty ascending = new SimpleStringProperty();
     private final SimpleStringProperty descending = new SimpleStringProperty();
     private final StringProperty order = new SimpleStringProperty();
@@ -29,11 +31,11 @@ public class ManagementOverviewUtils {
     /**
      * Constructor
      * @param translation Translation to use
-     * @param server    ServerUtils to use
+     * @param server    AsyncServerUtils to use
      * @param socketUtils WebSocketUtils to use
      */
     @Inject
-    public ManagementOverviewUtils(Translation translation, ServerUtils server, WebSocketUtils socketUtils) {
+    public ManagementOverviewUtils(Translation translation, AsyncServerUtils server, WebSocketUtils socketUtils) {
         this.translation = translation;
         this.server = server;
         this.socketUtils = socketUtils;
@@ -51,56 +53,75 @@ public class ManagementOverviewUtils {
     }
 
     /**
-     * Retrieve events from the database and sorts them.
-     * @return ObservableList of all events sorted by their title in ascending order.
+     * Retrieve the summaries of all events from the database and sorts them. The summaries are fetched
+     * off the JavaFX thread, and the returned list is filled once they arrive. Whole events are only
+     * fetched when one is selected, see {@link #fetchEvent(EventSummary)}.
+     * @return ObservableList of all event summaries sorted by their title in ascending order.
      */
-    public ObservableList<Event> retrieveEvents() {
-        var allEvents = server.retrieveAllEvents();
-        events.setAll(allEvents);
-        events.sort(Comparator.comparing(event -> event.getTitle().toLowerCase()));
-        allEvents.forEach(event -> eventLookup.put(event.getId(), event));
+    public ObservableList<EventSummary> retrieveEvents() {
+        server.call(ServerUtils::retrieveEventSummaries).whenComplete((allEvents, exception) -> {
+            if(exception != null){
+                System.out.println("Could not retrieve the events: " + exception);
+                return;
+            }
+            events.setAll(allEvents);
+            events.sort(Comparator.comparing(event -> event.getTitle().toLowerCase()));
+            allEvents.forEach(event -> eventLookup.put(event.getId(), event));
+        });
         return events;
     }
 
     /***
-     * Initiates subscriptions to relevant endpoints
+     * Fetches a whole event, with its participants and expenses, off the JavaFX thread
+     * @param summary the summary of the event
+     * @return a future completed on the JavaFX thread with the event
+     */
+    public CompletableFuture<Event> fetchEvent(EventSummary summary) {
+        String eventId = summary.getId();
+        return server.call(s -> s.getEvent(eventId));
+    }
+
+    /***
+     * Initiates subscriptions to relevant endpoints. Created and updated events both arrive as summaries.
      */
     public void subscribeToUpdates(){
-        socketUtils.registerForMessages(this::onCreateEvent, "/topic/events/creations", Event.class);
-        socketUtils.registerForMessages(this::onEditEvent, "/topic/events/all", Event.class);
+        socketUtils.registerForMessages(this::onEventSummary, "/topic/events/summaries", EventSummary.class);
         socketUtils.registerForMessages(this::onDeleteEvent, "/topic/events/deletions", EventDeletedDTO.class);
+        socketUtils.registerForMessages(this::onDeleteEvents, "/topic/events/deletions/batch",
+                EventDeletedDTO[].class);
     }
 
     /***
-     * Ran when an event is created
-     * @param event the created event
+     * Ran when an event is created or updated
+     * @param event the summary of the created or updated event
      */
-    public void onCreateEvent(Event event){
-        events.add(event);
-        eventLookup.put(event.getId(), event);
+    public void onEventSummary(EventSummary event){
+        if(eventLookup.containsKey(event.getId())) editEvent(event, event.getId());
+        else onCreateEvent(event);
     }
 
     /***
-     * Ran when an event is edited
-     * @param event the new edited event
+     * Ran when an event is created
+     * @param event the summary of the created event
      */
-    public void onEditEvent(Event event){
-        editEvent(event, event.getId());
+    public void onCreateEvent(EventSummary event){
+        events.add(event);
+        eventLookup.put(event.getId(), event);
     }
 
     /***
      * Executes event editing
-     * @param event the new edited event
+     * @param event the summary of the edited event
      * @param eventId the ID of the event
      */
-    public void editEvent(Event event, String eventId){
+    public void editEvent(EventSummary event, String eventId){
         /*
          * The workaround exists for cases where there is only one event, and it is edited/removed
          * This does not work well with the current implementation of the ListView and Selection methods
          * Thus, a second Event has to be added, and then immediately removed after
          */
-        Event workaroundEvent = new Event();
-        Event currentEvent = eventLookup.get(eventId);
+        EventSummary workaroundEvent = new EventSummary();
+        EventSummary currentEvent = eventLookup.get(eventId);
         int index = events.indexOf(currentEvent);
         if(index != -1){
             events.add(workaroundEvent);
@@ -120,19 +141,29 @@ public class ManagementOverviewUtils {
          * This does not work well with the current implementation of the ListView and Selection methods
          * Thus, a second Event has to be added, and then immediately removed after
          */
-        Event workaroundEvent = new Event();
+        EventSummary workaroundEvent = new EventSummary();
         String eventId = dto.getEventId();
-        Event currentEvent = eventLookup.get(eventId);
+        EventSummary currentEvent = eventLookup.get(eventId);
         int index = events.indexOf(currentEvent);
         if(index != -1){
             events.add(workaroundEvent);
-            events.set(index, new Event());
+            events.set(index, new EventSummary());
             events.remove(index);
             eventLookup.remove(eventId);
             events.remove(workaroundEvent);
         }
     }
 
+    /***
+     * Ran when many events are deleted at once
+     * @param dtos the EventDeletedDTOs containing the IDs of the deleted events
+     */
+    public void onDeleteEvents(EventDeletedDTO[] dtos){
+        for(EventDeletedDTO dto : dtos){
+            onDeleteEvent(dto);
+        }
+    }
+
     /***
      * Checks if an event with the given ID already exists
      * @param eventId the ID of the event to check
@@ -157,7 +188,7 @@ public class ManagementOverviewUtils {
      * Sort events according to the comparator and the current order
      * @param comparator Comparator to sort events with
      */
-    public void sortEventsByComparator(Comparator<Event> comparator) {
+    public void sortEventsByComparator(Comparator<EventSummary> comparator) {
         if(order.getValue().equals(ascending.getValue()))
             events.sort(comparator);
         else if(order.getValue().equals(descending.getValue()))
@@ -172,9 +203,9 @@ public class ManagementOverviewUtils {
         if(property.getValue().equals(title.getValue()))
             sortEventsByComparator(Comparator.comparing(event -> event.getTitle().toLowerCase()));
         else if(property.getValue().equals(creationDate.getValue()))
-            sortEventsByComparator(Comparator.comparing(Event::getCreationDate));
+            sortEventsByComparator(Comparator.comparing(EventSummary::getCreationDate));
         else if(property.getValue().equals(lastActivity.getValue()))
-            sortEventsByComparator(Comparator.comparing(Event::getLastActivity));
+            sortEventsByComparator(Comparator.comparing(EventSummary::getLastActivity));
     }
 
     /**
@@ -215,10 +246,10 @@ public class ManagementOverviewUtils {
     }
 
     /**
-     * Get the list of events for the management overview
-     * @return the list of events
+     * Get the list of event summaries for the management overview
+     * @return the list of event summaries
      */
-    public ObservableList<Event> getEvents() {
+    public ObservableList<EventSummary> getEvents() {
         return events;
     }
 
@@ -272,9 +303,9 @@ public class ManagementOverviewUtils {
 
     /**
      * Set events
-     * @param events New events
+     * @param events New event summaries
      */
-    public void setEvents(ObservableList<Event> events) {
+    public void setEvents(ObservableList<EventSummary> events) {
         this.events.setAll(events);
     }
 
@@ -0,0 +1,73 @@
+package client.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the last response body and entity tag for a limited number of server paths,
+ * so that a request can be revalidated with If-None-Match instead of downloading the body again.
+ * The least recently used path is forgotten once the capacity is exceeded.
+ */
+public class ResponseCache {
+
+    /**
+     * A cached response
+     * @param etag the entity tag the server sent with the body
+     * @param body the body of the response
+     */
+    public record Entry(String etag, String body) {
+    }
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * Creates an empty cache
+     * @param capacity the maximum number of paths to remember
+     */
+    public ResponseCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Looks up the cached response for a path
+     * @param path the path of the request
+     * @return the cached response, null if there is none
+     */
+    public synchronized Entry get(String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * Stores the response for a path, replacing any earlier one
+     * @param path the path of the request
+     * @param etag the entity tag of the response
+     * @param body the body of the response
+     */
+    public synchronized void put(String path, String etag, String body) {
+        entries.put(path, new Entry(etag, body));
+    }
+
+    /**
+     * Forgets the response for a path
+     * @param path the path of the request
+     */
+    public synchronized void remove(String path) {
+        entries.remove(path);
+    }
+
+    /**
+     * Provides the number of cached responses
+     * @return the number of cached responses
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+}
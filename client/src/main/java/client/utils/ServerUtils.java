@@ -15,16 +15,27 @@
  */
 package client.utils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import commons.Event;
 import commons.Expense;
 import commons.Participant;
 import commons.Tag;
+import commons.dto.EventSummary;
+import commons.dto.SettlementDTO;
+import commons.dto.TransferDTO;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.Invocation;
 import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import org.glassfish.jersey.client.ClientConfig;
 
@@ -35,6 +46,8 @@ import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 
 
 public class ServerUtils {
+    private final ResponseCache responseCache = new ResponseCache(256);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
     @Inject
     @Named("connection.URL")
@@ -47,12 +60,52 @@ public class ServerUtils {
      * @return the event
      */
     public Event getEvent(String inviteCode) {
-        String path = "api/events/" + inviteCode;
-        return ClientBuilder.newClient(new ClientConfig())
-                .target(serverURL).path(path) //invite code is the ID
+        String path = "api/events/" + inviteCode; //invite code is the ID
+        return getRevalidated(path, new TypeReference<>() {
+        });
+    }
+
+    /**
+     * Sends a GET request that revalidates the last response for the same path with If-None-Match,
+     * so that an unchanged resource is answered with 304 Not Modified instead of its full body
+     *
+     * @param path the path of the resource
+     * @param type the type to read the body as
+     * @param <T> the type of the resource
+     * @return the resource, either fresh from the server or from the cache if it did not change
+     */
+    private <T> T getRevalidated(String path, TypeReference<T> type) {
+        String key = serverURL + "/" + path;
+        ResponseCache.Entry cached = responseCache.get(key);
+        Invocation.Builder request = ClientBuilder.newClient(new ClientConfig())
+                .target(serverURL).path(path)
                 .request(APPLICATION_JSON)
-                .accept(APPLICATION_JSON)
-                .get(Event.class);
+                .accept(APPLICATION_JSON);
+        if (cached != null) {
+            request = request.header(HttpHeaders.IF_NONE_MATCH, cached.etag());
+        }
+        try (Response response = request.get()) {
+            String body;
+            if (response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode() && cached != null) {
+                body = cached.body();
+            } else if (response.getStatus() == Response.Status.OK.getStatusCode()) {
+                body = response.readEntity(String.class);
+                String etag = response.getHeaderString(HttpHeaders.ETAG);
+                if (etag != null) {
+                    responseCache.put(key, etag, body);
+                }
+            } else {
+                responseCache.remove(key);
+                throw switch (response.getStatus()) {
+                    case 400 -> new BadRequestException(response);
+                    case 404 -> new NotFoundException(response);
+                    default -> new WebApplicationException(response);
+                };
+            }
+            return MAPPER.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new ProcessingException(e);
+        }
     }
 
     /**
@@ -159,12 +212,8 @@ public class ServerUtils {
      * @return the list of expenses for the specific event
      */
     public Set<Expense> getExpensesForEvent(String eventId) {
-        return ClientBuilder.newClient()
-                .target(serverURL).path("api/events/" + eventId + "/expenses")
-                .request(APPLICATION_JSON)
-                .accept(APPLICATION_JSON)
-                .get(new GenericType<Set<Expense>>() {
-                });
+        return getRevalidated("api/events/" + eventId + "/expenses", new TypeReference<>() {
+        });
     }
 
     /**
@@ -226,13 +275,22 @@ public class ServerUtils {
      * @return all the events from the server
      */
     public List<Event> retrieveAllEvents() {
-        List<Event> events = ClientBuilder.newClient(new ClientConfig())
-                .target(serverURL).path("api/events/all")
+        return getRevalidated("api/events/all", new TypeReference<>() {
+        });
+    }
+
+    /**
+     * retrieves a summary (ID, title and dates) of all events from the server
+     *
+     * @return the summaries of all the events from the server
+     */
+    public List<EventSummary> retrieveEventSummaries() {
+        return ClientBuilder.newClient(new ClientConfig())
+                .target(serverURL).path("api/events/summaries")
                 .request(APPLICATION_JSON)
                 .accept(APPLICATION_JSON)
-                .get(new GenericType<List<Event>>() {
+                .get(new GenericType<List<EventSummary>>() {
                 });
-        return events;
     }
 
     /**
@@ -268,6 +326,53 @@ public class ServerUtils {
         }
     }
 
+    /**
+     * retrieves the transfers that settle all debts of an event, as computed by the server
+     *
+     * @param eventId the id of the event
+     * @return the transfers and the version of the event they were computed for
+     */
+    public SettlementDTO getSettlement(String eventId) {
+        return ClientBuilder.newClient(new ClientConfig())
+                .target(serverURL).path("api/events/" + eventId + "/settlement")
+                .request(APPLICATION_JSON)
+                .accept(APPLICATION_JSON)
+                .get(SettlementDTO.class);
+    }
+
+    /**
+     * executes transfers of the settlement plan of an event in a single request
+     *
+     * @param eventId the id of the event
+     * @param version the version of the plan that was shown
+     * @param transfers the transfers to execute, an empty list to execute the whole plan
+     * @return the executed transfers
+     */
+    public List<TransferDTO> settle(String eventId, long version, List<TransferDTO> transfers) {
+        return ClientBuilder.newClient(new ClientConfig())
+                .target(serverURL).path("api/events/" + eventId + "/settlement")
+                .queryParam("version", version)
+                .request(APPLICATION_JSON)
+                .accept(APPLICATION_JSON)
+                .post(Entity.entity(transfers, APPLICATION_JSON), new GenericType<List<TransferDTO>>() {
+                });
+    }
+
+    /**
+     * delete many events from the database with a single request
+     *
+     * @param eventIds the ids of the events we want to delete
+     * @return the ids of the events that were deleted
+     */
+    public List<String> deleteEvents(List<String> eventIds) {
+        return ClientBuilder.newClient(new ClientConfig())
+                .target(serverURL).path("api/events/delete")
+                .request(APPLICATION_JSON)
+                .accept(APPLICATION_JSON)
+                .post(Entity.entity(eventIds, APPLICATION_JSON), new GenericType<List<String>>() {
+                });
+    }
+
     /**
      * delete all the events in the database
      */
@@ -2,8 +2,11 @@ package client.utils;
 
 import com.google.inject.Inject;
 import commons.Event;
-import commons.Expense;
 import commons.Participant;
+import commons.dto.SettlementDTO;
+import commons.dto.TransferDTO;
+import commons.settlement.Payment;
+import commons.settlement.SettlementStrategy;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.value.ObservableValue;
@@ -13,103 +16,110 @@ import javafx.event.EventHandler;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 public class SettleDebtsUtils {
 
     private final Translation translation;
-    private final ServerUtils server;
+    private final AsyncServerUtils server;
     private final TransferMoneyUtils transferUtils;
     private EmailHandler emailHandler;
+    /**
+     * The version of the last plan fetched per event, which settling checks against
+     */
+    private final Map<String, Long> planVersions;
 
     /***
      * Constructor for the utility class for the SettleDebts screen
      * @param translation - the Translation to use
-     * @param server - the SeverUtils to use
+     * @param server - the AsyncServerUtils to use
      * @param transferUtils - the TransferMoneyUtils to use
      * @param emailHandler - the emailHandler to use
      */
     @Inject
-    public SettleDebtsUtils(Translation translation, ServerUtils server, TransferMoneyUtils transferUtils, EmailHandler emailHandler) {
+    public SettleDebtsUtils(Translation translation, AsyncServerUtils server, TransferMoneyUtils transferUtils, EmailHandler emailHandler) {
         this.translation = translation;
         this.server = server;
         this.transferUtils = transferUtils;
         this.emailHandler = emailHandler;
+        this.planVersions = new ConcurrentHashMap<>();
     }
 
-    //Pseudocode adapted from: https://stackoverflow.com/questions/4554655/who-owes-who-money-optimization
     /***
-     * Calculates at most N-1 transfer instructions for N participants
+     * Calculates at most N-1 transfer instructions for N participants, the fewest possible for
+     * small groups. Participants are ordered by ID and name, so every client computes the same
+     * instructions, also when rounding leaves a slight net balance.
      * @param creditMap a Map of participants to credit(+)/debt(-)
      * @return a List of Transfer instructions (sender, amount, receiver)
      */
     public List<Transfer> calculateTransferInstructions(HashMap<Participant, BigDecimal> creditMap){
-        List<Transfer> result = new LinkedList<>();
-        //We probably don't want to be mutating the inserted creditMap, re-running should yield the same result
-        HashMap<Participant, BigDecimal> unroundedMap = new HashMap<>(creditMap);
-
-        HashMap<Participant, Integer> roundedMap = RoundUtils.roundMap(unroundedMap, RoundingMode.HALF_UP);
-        HashMap<Participant, Integer> processMap = new HashMap<>(roundedMap);
-
-        List<Map.Entry<Participant, Integer>> creditorsSorted = processMap.entrySet().stream()
-                .filter(entry->entry.getValue()>0)
-                .sorted(Map.Entry.<Participant, Integer>comparingByValue().
-                        thenComparing(entry->entry.getKey().getName())) //Alphabetical order used for consensus when net balance is not 0
-                .toList();
-
-        List<Map.Entry<Participant, Integer>> debtorsSorted = processMap.entrySet().stream()
-                .filter(entry->entry.getValue()<0)
-                .sorted(Map.Entry.<Participant, Integer>comparingByValue().
-                        thenComparing(entry->entry.getKey().getName())) //Alphabetical order used for consensus when net balance is not 0
-                .toList();
-
-        ArrayList<Map.Entry<Participant, Integer>> creditors = new ArrayList<>(creditorsSorted);
-        ArrayList<Map.Entry<Participant, Integer>> debtors = new ArrayList<>(debtorsSorted);
-
-        for(Map.Entry<Participant, Integer> debtorEntry: debtors){
-            Participant debtor = debtorEntry.getKey();
-            int negativeBalance = debtorEntry.getValue();
-            while(negativeBalance < 0){
-                if(creditors.isEmpty()) {
-                    /*
-                    Assumption: this means there was a slight net negative balance
-                    I.E. 4 cents split between 6 participants and 1 creditor
-                    4 participants pay 1 cent, 2 pay 0 cents, even though for fairness all 6 should pay 0.666666.... cents
-                    But that's not possible, so the best we can do is assign them so the biggest debtors pay, and the rest don't
-                    Same goes for slight net positive balances, where the creditor just doesn't get an extra 1 or 2 cents
-                     */
-                    break;
-                }
-                Map.Entry<Participant, Integer> creditorEntry = creditors.getLast();
-                int credit = creditorEntry.getValue();
-                int amountToTransfer = Integer.min(-negativeBalance, credit);
-
-                creditorEntry.setValue(credit - amountToTransfer);
-                negativeBalance += amountToTransfer;
-                if(creditorEntry.getValue()==0){
-                    creditors.removeLast();
-                }
-
-                Transfer transfer = new Transfer(debtor, amountToTransfer, creditorEntry.getKey());
-                result.add(transfer);
-            }
-            debtorEntry.setValue(negativeBalance);
+        Participant[] participants = creditMap.keySet().toArray(new Participant[0]);
+        Arrays.sort(participants, Comparator
+                .comparing(Participant::getId, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Participant::getName, Comparator.nullsLast(Comparator.naturalOrder())));
+        long[] balances = new long[participants.length];
+        for(int i = 0; i < participants.length; i++){
+            balances[i] = creditMap.get(participants[i]).setScale(0, RoundingMode.HALF_UP).longValue();
         }
 
+        List<Transfer> result = new ArrayList<>();
+        for(Payment payment : SettlementStrategy.AUTO.settle(balances)){
+            result.add(new Transfer(participants[payment.debtor()], (int) payment.amount(),
+                    participants[payment.creditor()]));
+        }
         return result;
     }
 
     /***
-     * Generates the onClick action for a button that settles a particular debt
+     * Retrieves the transfer instructions of an event from the server, which remembers them
+     * until the event changes
+     * @param event the event to settle
+     * @return a future completed on the JavaFX thread with a List of Transfer instructions (sender, amount, receiver)
+     */
+    public CompletableFuture<List<Transfer>> fetchTransferInstructions(Event event){
+        Map<Long, Participant> participants = new HashMap<>();
+        for(Participant participant : event.getParticipants()){
+            participants.put(participant.getId(), participant);
+        }
+        String eventId = event.getId();
+        return server.call(s -> {
+            SettlementDTO plan = s.getSettlement(eventId);
+            if(plan.getVersion() != null) planVersions.put(eventId, plan.getVersion());
+            List<Transfer> result = new ArrayList<>();
+            for(TransferDTO transfer : plan.getTransfers()){
+                result.add(new Transfer(participants.get(transfer.getSenderId()), transfer.getAmount(),
+                        participants.get(transfer.getReceiverId())));
+            }
+            return result;
+        });
+    }
+
+    /***
+     * Generates the onClick action for a button that settles a particular debt. The server only
+     * settles it if the event did not change since the last fetched plan.
      * @param transfer the Transfer data to use
      * @param event the corresponding event
      * @return the action a button should perform to settle the debt
      */
     public EventHandler<ActionEvent> createSettleAction(Transfer transfer, Event event){
-        return (actionEvent) -> {
-            Expense settleExpense = transferUtils.transferMoney(transfer, event);
-            server.addExpense(event.getId(), settleExpense);
-        };
+        String eventId = event.getId();
+        Long version = planVersions.get(eventId);
+        if(version == null) return (actionEvent) -> System.out.println("Could not settle the debt: the plan was not fetched");
+        List<TransferDTO> transfers = List.of(toTransferDTO(transfer));
+        return (actionEvent) -> server.call(s -> s.settle(eventId, version, transfers)).whenComplete((settled, exception) -> {
+            if(exception != null) System.out.println("Could not settle the debt: " + exception);
+        });
+    }
+
+    /***
+     * Converts a Transfer to the form the server expects
+     * @param transfer the Transfer data to use
+     * @return the transfer, carrying only participant IDs
+     */
+    public static TransferDTO toTransferDTO(Transfer transfer){
+        return new TransferDTO(transfer.sender().getId(), transfer.amount(), transfer.receiver().getId());
     }
 
     /***
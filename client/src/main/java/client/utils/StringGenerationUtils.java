@@ -1,9 +1,9 @@
 package client.utils;
 
 import com.google.inject.Inject;
-import commons.Event;
 import commons.Expense;
 import commons.Participant;
+import commons.dto.EventSummary;
 import javafx.beans.binding.Bindings;
 import javafx.beans.value.ObservableValue;
 
@@ -104,10 +104,10 @@ public class StringGenerationUtils {
 
     /***
      * Generates an event description in the format Title: X, ID: Y
-     * @param event the event to use
+     * @param event the summary of the event to use
      * @return the resulting generated ObservableString
      */
-    public ObservableValue<String> generateTextForEventLabel(Event event){
+    public ObservableValue<String> generateTextForEventLabel(EventSummary event){
         Map<String, String> substituteValues = new HashMap<>();
         substituteValues.put("title", event.getTitle());
         substituteValues.put("id", event.getId());
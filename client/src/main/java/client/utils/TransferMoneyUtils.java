@@ -16,6 +16,7 @@ import javafx.event.EventHandler;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 public class TransferMoneyUtils {
     private ObjectProperty<Participant> from;
@@ -37,15 +38,15 @@ public class TransferMoneyUtils {
         }
     };
     private StringProperty expenseMessage;
-    private final ServerUtils server;
+    private final AsyncServerUtils server;
     private Event event;
 
     /**
      * Constructs money utilities
-     * @param server Server utilities
+     * @param server Server utilities, used off the JavaFX thread
      */
     @Inject
-    public TransferMoneyUtils(ServerUtils server) {
+    public TransferMoneyUtils(AsyncServerUtils server) {
         this.server = server;
     }
 
@@ -109,14 +110,17 @@ public class TransferMoneyUtils {
 
     /**
      * Sends the money to the receiver.
+     * @return a future completed on the JavaFX thread once the server added the transfer
      */
-    public void send() {
+    public CompletableFuture<Void> send() {
         String amountString = amount.get();
         BigDecimal amount = new BigDecimal(amountString);
         amount = amount.setScale(2, RoundingMode.HALF_UP);
         amount = amount.multiply(new BigDecimal(100));
         Transfer transfer = new Transfer(from.get(), amount.intValue(), to.get());
-        server.addExpense(event.getId(), transferMoney(transfer, event));
+        String eventId = event.getId();
+        Expense expense = transferMoney(transfer, event);
+        return server.run(s -> s.addExpense(eventId, expense));
     }
 
     /**
@@ -0,0 +1,239 @@
+package client.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import commons.dto.EventDeletedDTO;
+import commons.dto.EventNameChangeDTO;
+import javafx.application.Platform;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Receives the name changes and deletions of events over one Server-Sent Events stream. The stream is read
+ * by the non-blocking HTTP client of the JDK, so no thread waits while nothing happens. After the stream ends
+ * or fails, it is opened again with the ID of the last received event, so no update is lost in between.
+ */
+public class UpdateStreamUtils {
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+    private static final long REFRESH_DELAY_MILLIS = 200;
+
+    private final String serverURL;
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ScheduledExecutorService reconnects;
+    private final Executor ui;
+    private Supplier<Collection<String>> eventIds;
+    private Consumer<EventNameChangeDTO> onNameChange;
+    private Consumer<EventDeletedDTO> onDeletion;
+    private Runnable onResync;
+    private Runnable onUnsupported;
+    private volatile String lastEventId;
+    private Flow.Subscription subscription;
+    private int connection;
+    private boolean reconnectPending;
+    private boolean stopped;
+
+    /***
+     * Constructor for the update stream
+     * @param serverURL the server URL to use
+     */
+    @Inject
+    public UpdateStreamUtils(@Named("connection.URL") String serverURL) {
+        this(serverURL, HttpClient.newHttpClient(), Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "update-stream-reconnect");
+            thread.setDaemon(true);
+            return thread;
+        }), Platform::runLater);
+    }
+
+    /***
+     * Constructor with a custom client and executors
+     * @param serverURL the server URL to use
+     * @param client the HTTP client to open the stream with
+     * @param reconnects the executor that opens the stream again after a delay
+     * @param ui the executor running the consumers
+     */
+    public UpdateStreamUtils(String serverURL, HttpClient client, ScheduledExecutorService reconnects, Executor ui) {
+        this.serverURL = serverURL;
+        this.client = client;
+        this.reconnects = reconnects;
+        this.ui = ui;
+    }
+
+    /***
+     * Opens the stream, or opens it again with new consumers. All consumers are run on the UI executor
+     * @param eventIds provides the IDs of the events to receive updates of, read whenever the stream is opened
+     * @param onNameChange the Consumer to execute for every name change
+     * @param onDeletion the Consumer to execute for every deletion
+     * @param onResync the Runnable to execute when the server no longer knows all updates since the last
+     *                 received one, so the events have to be fetched again
+     * @param onUnsupported the Runnable to execute if the server has no update stream
+     */
+    public synchronized void open(Supplier<Collection<String>> eventIds, Consumer<EventNameChangeDTO> onNameChange,
+                                  Consumer<EventDeletedDTO> onDeletion, Runnable onResync, Runnable onUnsupported) {
+        this.eventIds = eventIds;
+        this.onNameChange = onNameChange;
+        this.onDeletion = onDeletion;
+        this.onResync = onResync;
+        this.onUnsupported = onUnsupported;
+        if(subscription != null) subscription.cancel();
+        subscription = null;
+        connect();
+    }
+
+    /***
+     * Opens the stream again shortly, to receive the updates of a changed set of events.
+     * Several refreshes in a row only reopen it once.
+     */
+    public synchronized void refresh() {
+        if(eventIds == null || stopped) return;
+        connection++;
+        if(subscription != null) subscription.cancel();
+        subscription = null;
+        scheduleConnect(REFRESH_DELAY_MILLIS);
+    }
+
+    /***
+     * Closes the stream for good
+     */
+    public synchronized void stop() {
+        stopped = true;
+        connection++;
+        if(subscription != null) subscription.cancel();
+        reconnects.shutdownNow();
+    }
+
+    private synchronized void scheduleConnect(long delayMillis) {
+        if(reconnectPending || stopped) return;
+        reconnectPending = true;
+        reconnects.schedule(() -> {
+            synchronized (this) {
+                reconnectPending = false;
+                connect();
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void connect() {
+        if(stopped) return;
+        int current = ++connection;
+        String events = URLEncoder.encode(String.join(",", eventIds.get()), StandardCharsets.UTF_8);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(serverURL + "api/updates/stream?events=" + events))
+                .header("Accept", "text/event-stream");
+        if(lastEventId != null) request.header("Last-Event-ID", lastEventId);
+        EventParser parser = new EventParser(current);
+        client.sendAsync(request.build(), info -> info.statusCode() == 200
+                        ? HttpResponse.BodySubscribers.fromLineSubscriber(parser)
+                        : HttpResponse.BodySubscribers.discarding())
+                .whenComplete((response, exception) -> ended(current, response));
+    }
+
+    /**
+     * Reconnects after the stream of a connection ended, unless it was replaced in the meantime
+     */
+    private synchronized void ended(int ended, HttpResponse<?> response) {
+        if(ended != connection) return;
+        subscription = null;
+        if(response != null && response.statusCode() == 404){
+            ui.execute(onUnsupported);
+            return;
+        }
+        scheduleConnect(RECONNECT_DELAY_MILLIS);
+    }
+
+    private synchronized void subscribed(int subscribedConnection, Flow.Subscription newSubscription) {
+        if(subscribedConnection != connection){
+            newSubscription.cancel();
+            return;
+        }
+        subscription = newSubscription;
+        newSubscription.request(Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads the lines of the stream into events, as described by the Server-Sent Events format
+     */
+    private final class EventParser implements Flow.Subscriber<String> {
+        private final int connection;
+        private final StringBuilder data = new StringBuilder();
+        private String name = "message";
+        private String id;
+
+        private EventParser(int connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription newSubscription) {
+            subscribed(connection, newSubscription);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if(line.isEmpty()){
+                dispatch();
+                return;
+            }
+            if(line.startsWith(":")) return;
+            int colon = line.indexOf(':');
+            String field = colon < 0 ? line : line.substring(0, colon);
+            String value = colon < 0 ? "" : line.substring(colon + 1);
+            if(value.startsWith(" ")) value = value.substring(1);
+            switch (field) {
+                case "event" -> name = value;
+                case "id" -> id = value;
+                case "data" -> data.append(data.isEmpty() ? "" : "\n").append(value);
+                default -> { }
+            }
+        }
+
+        private void dispatch() {
+            if(id != null) lastEventId = id;
+            String payload = data.toString();
+            String event = name;
+            data.setLength(0);
+            name = "message";
+            try {
+                switch (event) {
+                    case "name" -> {
+                        EventNameChangeDTO change = mapper.readValue(payload, EventNameChangeDTO.class);
+                        ui.execute(() -> onNameChange.accept(change));
+                    }
+                    case "deletion" -> {
+                        EventDeletedDTO deletion = mapper.readValue(payload, EventDeletedDTO.class);
+                        ui.execute(() -> onDeletion.accept(deletion));
+                    }
+                    case "resync" -> ui.execute(onResync);
+                    default -> { }
+                }
+            } catch (JsonProcessingException e) {
+                System.out.println("Skipping malformed update: " + payload);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // the response future fails as well, which reconnects
+        }
+
+        @Override
+        public void onComplete() {
+            // the response future completes as well, which reconnects
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package client.scenes;
 
+import client.utils.AsyncServerUtils;
 import client.utils.ServerUtils;
 import client.utils.Translation;
 import commons.Event;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
+import java.time.Duration;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -25,7 +27,8 @@ class AddTagCtrlTest {
         serverUtils = mock(ServerUtils.class);
         mainCtrl = mock(MainCtrl.class);
         translation = mock(Translation.class);
-        tagCtrl = new AddTagCtrl(serverUtils, mainCtrl, translation);
+        tagCtrl = new AddTagCtrl(new AsyncServerUtils(serverUtils, Runnable::run, Runnable::run, Duration.ofSeconds(5)),
+                mainCtrl, translation);
     }
 
     /**
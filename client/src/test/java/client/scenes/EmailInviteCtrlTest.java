@@ -1,5 +1,6 @@
 package client.scenes;
 
+import client.utils.AsyncServerUtils;
 import client.utils.EmailHandler;
 import client.utils.ServerUtils;
 import client.utils.Translation;
@@ -15,6 +16,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.testfx.framework.junit5.ApplicationExtension;
 import org.testfx.framework.junit5.ApplicationTest;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -39,7 +42,8 @@ class EmailInviteCtrlTest extends ApplicationTest {
         emailHandler = mock(EmailHandler.class);
         serverUtils = mock(ServerUtils.class);
         mainCtrl = mock(MainCtrl.class);
-        emailInviteCtrl = new EmailInviteCtrl(translation,serverUtils,mainCtrl,emailHandler);
+        AsyncServerUtils server = new AsyncServerUtils(serverUtils, Runnable::run, Runnable::run, Duration.ofSeconds(5));
+        emailInviteCtrl = new EmailInviteCtrl(translation,server,mainCtrl,emailHandler);
         nameFeedbackLabel = mock(Label.class);
         nameTextField = mock(TextField.class);
         emailFeedbackLabel = mock(Label.class);
@@ -1,7 +1,7 @@
 package client.scenes;
 
+import client.utils.AsyncServerUtils;
 import client.utils.ImageUtils;
-import client.utils.ServerUtils;
 import client.utils.StringGenerationUtils;
 import client.utils.Translation;
 import commons.Event;
@@ -40,7 +40,7 @@ import static org.mockito.Mockito.verify;
 @ExtendWith({MockitoExtension.class, ApplicationExtension.class})
 class EventScreenCtrlTest {
     @Mock
-    ServerUtils server;
+    AsyncServerUtils server;
     @Mock
     MainCtrl mainCtrl;
     @Mock
@@ -1,11 +1,14 @@
 package client.scenes;
 
+import client.utils.AsyncServerUtils;
 import client.utils.ServerUtils;
 import client.utils.Translation;
 import javafx.scene.control.PasswordField;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -21,7 +24,8 @@ class ManagementOverviewPasswordCtrlTest {
         translation = mock(Translation.class);
         server = mock(ServerUtils.class);
         mainCtrl = mock(MainCtrl.class);
-        sut = new TestManagementOverviewPasswordCtrl(server, mainCtrl, translation);
+        sut = new TestManagementOverviewPasswordCtrl(
+                new AsyncServerUtils(server, Runnable::run, Runnable::run, Duration.ofSeconds(5)), mainCtrl, translation);
     }
     @Test
     void logInCheckValid() {
@@ -30,6 +34,7 @@ class ManagementOverviewPasswordCtrlTest {
         sut.logInCheck();
         //should only contain a binding to empty
         verify(translation).bindLabel(null, "Empty");
+        verify(mainCtrl).switchToManagementOverviewScreen();
         assertTrue(sut.textBoxText.isEmpty());
     }
 
@@ -76,7 +81,7 @@ class ManagementOverviewPasswordCtrlTest {
 
     private class TestManagementOverviewPasswordCtrl extends ManagementOverviewPasswordCtrl {
         public String textBoxText;
-        public TestManagementOverviewPasswordCtrl(ServerUtils server, MainCtrl mainCtrl, Translation translation) {
+        public TestManagementOverviewPasswordCtrl(AsyncServerUtils server, MainCtrl mainCtrl, Translation translation) {
             super(server, mainCtrl, translation);
         }
 
@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Date;
 
@@ -37,13 +38,14 @@ class ManagementOverviewScreenCtrlTest {
         translation = mock(Translation.class);
         server = mock(ServerUtils.class);
         socketUtils = mock(WebSocketUtils.class);
-        utils = new ManagementOverviewUtils(translation, server, socketUtils);
+        AsyncServerUtils asyncServer = new AsyncServerUtils(server, Runnable::run, Runnable::run, Duration.ofSeconds(5));
+        utils = new ManagementOverviewUtils(translation, asyncServer, socketUtils);
         mainCtrl = mock(MainCtrl.class);
         objectMapper = mock(ObjectMapper.class);
         file = mock(File.class);
         styling = mock(Styling.class);
         stringUtils = mock(StringGenerationUtils.class);
-        managementOverviewScreenCtrl = new TestManagementOverviewScreenCtrl(server, mainCtrl, translation, utils,
+        managementOverviewScreenCtrl = new TestManagementOverviewScreenCtrl(asyncServer, mainCtrl, translation, utils,
                 imageUtils, stringUtils, styling);
         managementOverviewScreenCtrl.setObjectMapper(objectMapper);
     }
@@ -113,6 +115,7 @@ class ManagementOverviewScreenCtrlTest {
         managementOverviewScreenCtrl.setObjectMapper(objectMapper);
         managementOverviewScreenCtrl.importButtonClicked();
         assertTrue(managementOverviewScreenCtrl.bindings.contains("MOSCtrl.SuccessImport"));
+        verify(server).addEvent(event);
     }
 
 
@@ -123,12 +126,12 @@ class ManagementOverviewScreenCtrlTest {
         /**
          * Constructor
          *
-         * @param server      the ServerUtils instance
+         * @param server      the AsyncServerUtils instance
          * @param mainCtrl    the MainCtrl instance
          * @param translation the Translation to use
          * @param utils       the ManagementOverviewUtils to use
          */
-        public TestManagementOverviewScreenCtrl(ServerUtils server, MainCtrl mainCtrl, Translation translation,
+        public TestManagementOverviewScreenCtrl(AsyncServerUtils server, MainCtrl mainCtrl, Translation translation,
                                                 ManagementOverviewUtils utils, ImageUtils imageUtils, StringGenerationUtils stringUtils,
                                                 Styling styling) {
             super(server, mainCtrl, translation, utils, imageUtils, stringUtils, styling);
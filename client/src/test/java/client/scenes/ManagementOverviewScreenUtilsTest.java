@@ -1,5 +1,6 @@
 package client.scenes;
 
+import client.utils.AsyncServerUtils;
 import client.utils.ManagementOverviewUtils;
 import client.utils.ServerUtils;
 import client.utils.Translation;
@@ -8,6 +9,7 @@ import commons.Event;
 import commons.Expense;
 import commons.Participant;
 import commons.dto.EventDeletedDTO;
+import commons.dto.EventSummary;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
@@ -15,6 +17,7 @@ import javafx.collections.ObservableList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 
@@ -27,9 +30,9 @@ public class ManagementOverviewScreenUtilsTest {
     private ServerUtils server;
     private WebSocketUtils socketUtils;
     private ManagementOverviewUtils utils;
-    private Event e1;
-    private Event e2;
-    private Event e3;
+    private EventSummary e1;
+    private EventSummary e2;
+    private EventSummary e3;
     private StringProperty ascending;
     private StringProperty descending;
     private StringProperty title;
@@ -41,10 +44,11 @@ public class ManagementOverviewScreenUtilsTest {
         translation = mock(Translation.class);
         server = mock(ServerUtils.class);
         socketUtils = mock(WebSocketUtils.class);
-        utils = new ManagementOverviewUtils(translation, server, socketUtils);
-        e1 = new Event("Party", new Date(0));
-        e2 = new Event("Holiday", new Date(5));
-        e3 = new Event("party", new Date(2));
+        utils = new ManagementOverviewUtils(translation,
+                new AsyncServerUtils(server, Runnable::run, Runnable::run, Duration.ofSeconds(5)), socketUtils);
+        e1 = summary("Party", new Date(0), new Date(10000));
+        e2 = summary("Holiday", new Date(5), new Date(20000));
+        e3 = summary("party", new Date(2), new Date(30000));
         ascending = new SimpleStringProperty("Ascending");
         descending = new SimpleStringProperty("Descending");
         title = new SimpleStringProperty("Title");
@@ -58,46 +62,74 @@ public class ManagementOverviewScreenUtilsTest {
         utils.bindLastActivity(lastActivity);
     }
 
+    private static EventSummary summary(String title, Date creationDate, Date lastActivity) {
+        return new EventSummary(new Event(title, creationDate).getId(), title, creationDate, lastActivity);
+    }
+
     @Test
     public void creationTest(){
-        when(server.retrieveAllEvents()).thenReturn(List.of(e1, e2));
+        when(server.retrieveEventSummaries()).thenReturn(List.of(e1, e2));
         utils.retrieveEvents();
-        ObservableList<Event> events = utils.getEvents();
+        ObservableList<EventSummary> events = utils.getEvents();
         assertEquals(2, events.size());
 
-        utils.onCreateEvent(e3);
+        utils.onEventSummary(e3);
         assertEquals(3, events.size());
+        assertTrue(utils.checkIfDuplicate(e3.getId()));
     }
 
     @Test
     public void editingTest(){
         String eventId = e2.getId();
-        Event newE2 = new Event("Different title!", new Date(123));
-        when(server.retrieveAllEvents()).thenReturn(List.of(e1, e2, e3));
+        EventSummary newE2 = new EventSummary(eventId, "Different title!", new Date(123), new Date());
+        when(server.retrieveEventSummaries()).thenReturn(List.of(e1, e2, e3));
         utils.retrieveEvents();
-        ObservableList<Event> events = utils.getEvents();
+        ObservableList<EventSummary> events = utils.getEvents();
 
-        utils.editEvent(newE2, eventId);
+        utils.onEventSummary(newE2);
         assertFalse(events.contains(e2));
         assertTrue(events.contains(newE2));
         assertEquals(events.size(), 3);
     }
 
+    @Test
+    public void selectedEventIsFetchedWhole(){
+        Event event = new Event(e1.getId(), e1.getTitle(), e1.getCreationDate());
+        event.addParticipant(new Participant("Jack"));
+        when(server.getEvent(e1.getId())).thenReturn(event);
+
+        Event fetched = utils.fetchEvent(e1).join();
+        assertSame(event, fetched);
+        assertEquals(1, utils.initializeParticipantsList(fetched).size());
+    }
+
     @Test
     public void deletionTest(){
         String eventId = e2.getId();
-        when(server.retrieveAllEvents()).thenReturn(List.of(e1, e2, e3));
+        when(server.retrieveEventSummaries()).thenReturn(List.of(e1, e2, e3));
         utils.retrieveEvents();
-        ObservableList<Event> events = utils.getEvents();
+        ObservableList<EventSummary> events = utils.getEvents();
 
         utils.onDeleteEvent(new EventDeletedDTO(eventId));
         assertFalse(events.contains(e2));
         assertEquals(events.size(), 2);
     }
 
+    @Test
+    public void deleteManyEvents() {
+        when(server.retrieveEventSummaries()).thenReturn(List.of(e1, e2, e3));
+        utils.retrieveEvents();
+        ObservableList<EventSummary> events = utils.getEvents();
+
+        utils.onDeleteEvents(new EventDeletedDTO[]{new EventDeletedDTO(e1.getId()), new EventDeletedDTO(e3.getId())});
+        assertEquals(List.of(e2), events);
+        assertFalse(utils.checkIfDuplicate(e1.getId()));
+    }
+
     @Test
     public void subscriptionTest(){
         utils.subscribeToUpdates();
+        verify(socketUtils).registerForMessages(any(), eq("/topic/events/summaries"), eq(EventSummary.class));
         verify(socketUtils, times(3)).registerForMessages(any(), any(), any());
     }
 
@@ -126,9 +158,9 @@ public class ManagementOverviewScreenUtilsTest {
      */
     @Test
     public void retrieveEvents() {
-        when(server.retrieveAllEvents()).thenReturn(List.of(e1, e2, e3));
-        ObservableList<Event> expected = FXCollections.observableArrayList(e2, e1, e3);
-        ObservableList<Event> actual = utils.retrieveEvents();
+        when(server.retrieveEventSummaries()).thenReturn(List.of(e1, e2, e3));
+        ObservableList<EventSummary> expected = FXCollections.observableArrayList(e2, e1, e3);
+        ObservableList<EventSummary> actual = utils.retrieveEvents();
         assertEquals(expected, actual);
         assertEquals(expected, utils.getEvents());
     }
@@ -159,8 +191,8 @@ public class ManagementOverviewScreenUtilsTest {
     public void sortEventsByTitleInDescendingOrder() {
         utils.bindOrder(descending);
         utils.sortEvents(title);
-        ObservableList<Event> actual = utils.getEvents();
-        ObservableList<Event> expected = FXCollections.observableArrayList(e1, e3, e2);
+        ObservableList<EventSummary> actual = utils.getEvents();
+        ObservableList<EventSummary> expected = FXCollections.observableArrayList(e1, e3, e2);
         assertEquals(expected, actual);
     }
 
@@ -172,8 +204,8 @@ public class ManagementOverviewScreenUtilsTest {
     public void sortEventsByTitleInAscendingOrder() {
         utils.bindOrder(ascending);
         utils.sortEvents(title);
-        ObservableList<Event> actual = utils.getEvents();
-        ObservableList<Event> expected = FXCollections.observableArrayList(e2, e1, e3);
+        ObservableList<EventSummary> actual = utils.getEvents();
+        ObservableList<EventSummary> expected = FXCollections.observableArrayList(e2, e1, e3);
         assertEquals(expected, actual);
     }
 
@@ -202,12 +234,6 @@ public class ManagementOverviewScreenUtilsTest {
      */
     @Test
     public void sortEventsByLastActivityInAscendingOrder() {
-        Date date1 = new Date(10000);
-        Date date2 = new Date(20000);
-        Date date3 = new Date(30000);
-        e1.setLastActivity(date1);
-        e2.setLastActivity(date2);
-        e3.setLastActivity(date3);
         utils.bindOrder(ascending);
         utils.sortEvents(lastActivity);
         assertEquals(FXCollections.observableArrayList(e1, e2, e3), utils.getEvents());
@@ -218,12 +244,6 @@ public class ManagementOverviewScreenUtilsTest {
      */
     @Test
     public void sortEventsByLastActivityInDescendingOrder() {
-        Date date1 = new Date(10000);
-        Date date2 = new Date(20000);
-        Date date3 = new Date(30000);
-        e1.setLastActivity(date1);
-        e2.setLastActivity(date2);
-        e3.setLastActivity(date3);
         utils.bindOrder(descending);
         utils.sortEvents(lastActivity);
         assertEquals(FXCollections.observableArrayList(e3, e2, e1), utils.getEvents());
@@ -268,8 +288,8 @@ public class ManagementOverviewScreenUtilsTest {
      */
     @Test
     public void getAndSetEvents() {
-        Event e = new Event("Party", null);
-        ObservableList<Event> expected = FXCollections.observableArrayList(e);
+        EventSummary e = summary("Party", null, null);
+        ObservableList<EventSummary> expected = FXCollections.observableArrayList(e);
         utils.setEvents(expected);
         assertEquals(expected, utils.getEvents());
     }
@@ -16,11 +16,11 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.testfx.framework.junit5.ApplicationExtension;
 
+import java.time.Duration;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -40,7 +40,6 @@ class ParticipantListScreenCtrlTest {
     ImageUtils imageUtils;
     @Mock
     Styling styling;
-    @InjectMocks
     ParticipantListScreenCtrl sut;
 
     private Event event;
@@ -58,6 +57,9 @@ class ParticipantListScreenCtrlTest {
 
     @BeforeEach
     void setup(){
+        sut = new ParticipantListScreenCtrl(mainCtrl,
+                new AsyncServerUtils(server, Runnable::run, Runnable::run, Duration.ofSeconds(5)),
+                translation, imageUtils, styling);
         event = new Event("Title!", null);
         participant1 = new Participant("Alastor");
         participant1.setEmail("");
@@ -1,6 +1,7 @@
 package client.scenes;
 
 import client.utils.ImageUtils;
+import client.utils.AsyncServerUtils;
 import client.utils.ServerUtils;
 import client.utils.Styling;
 import client.utils.Translation;
@@ -21,6 +22,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.testfx.framework.junit5.ApplicationExtension;
 
+import java.time.Duration;
 import java.util.ArrayList;
 
 import static client.TestObservableUtils.stringToObservable;
@@ -45,8 +47,10 @@ public class ParticipantScreenCtrlTest {
     ImageUtils imageUtils;
     @Mock
     Styling styling;
+    AsyncServerUtils asyncServer;
     @BeforeEach
     public void setup(){
+        asyncServer = new AsyncServerUtils(server, Runnable::run, Runnable::run, Duration.ofSeconds(5));
         participant1 = new Participant(1, "John");
         Participant participant2 = new Participant(2, "Jane");
         event = new Event("Title", null);
@@ -215,7 +219,7 @@ public class ParticipantScreenCtrlTest {
         Boolean ok = false;
         ArrayList<TextField> f = participantScreenCtrl.bindTextFields(nameField, holderField, emailField, ibanField, bicField);
         Participant participant = participantScreenCtrl.addParticipant(nameField, emailField, holderField, bicField, ibanField);
-        participantScreenCtrl.confirmEdit(styling, ok, participant, noName, noEmail, wrongBic, wrongIban, translation, server, mainCtrl, event, 0, f);
+        participantScreenCtrl.confirmEdit(styling, ok, participant, noName, noEmail, wrongBic, wrongIban, translation, asyncServer, mainCtrl, event, 0, f);
         verify(server).addParticipant(eq(event.getId()), eq(participant));
         verify(mainCtrl).switchScreens(eq(EventScreenCtrl.class));
     }
@@ -238,7 +242,7 @@ public class ParticipantScreenCtrlTest {
         doReturn(noNameText).when(translation).getStringBinding("Participants.Label.noName");
         ObservableValue<String> wrongBicText = stringToObservable("Wrong Bic");
         doReturn(wrongBicText).when(translation).getStringBinding("Participants.Label.wrongBic");
-        participantScreenCtrl.confirmEdit(styling, ok, participant, noName, noEmail, wrongBic, wrongIban, translation, server, mainCtrl, event, 0, f);
+        participantScreenCtrl.confirmEdit(styling, ok, participant, noName, noEmail, wrongBic, wrongIban, translation, asyncServer, mainCtrl, event, 0, f);
         assertEquals("Enter Name", noName.getText());
         assertEquals("Wrong Bic", wrongBic.getText());
         assertFalse(ok);
@@ -260,7 +264,7 @@ public class ParticipantScreenCtrlTest {
         Participant participant = participantScreenCtrl.addParticipant(nameField, emailField, holderField, bicField, ibanField);
         ObservableValue<String> noEmailText = stringToObservable("Wrong Email");
         doReturn(noEmailText).when(translation).getStringBinding("Participants.Label.wrongEmail");
-        participantScreenCtrl.confirmEdit(styling, ok, participant, noName, noEmail, wrongBic, wrongIban, translation, server, mainCtrl, event, 0, f);
+        participantScreenCtrl.confirmEdit(styling, ok, participant, noName, noEmail, wrongBic, wrongIban, translation, asyncServer, mainCtrl, event, 0, f);
         assertEquals("Wrong Email", noEmail.getText());
         assertFalse(ok);
     }
@@ -278,7 +282,7 @@ public class ParticipantScreenCtrlTest {
         ArrayList<TextField> f = participantScreenCtrl.bindTextFields(nameField, holderField, emailField, ibanField, bicField);
         boolean ok = false;
         Participant participant = participantScreenCtrl.addParticipant(nameField, emailField, holderField, bicField, ibanField);
-        participantScreenCtrl.confirmEdit(styling, ok, participant, noName, noEmail, wrongBic, wrongIban, translation, server, mainCtrl, event, 0, f);
+        participantScreenCtrl.confirmEdit(styling, ok, participant, noName, noEmail, wrongBic, wrongIban, translation, asyncServer, mainCtrl, event, 0, f);
         assertFalse(ok);
         assertEquals(participant.getEmail(), "");
     }
@@ -296,7 +300,7 @@ public class ParticipantScreenCtrlTest {
         ArrayList<TextField> f = participantScreenCtrl.bindTextFields(nameField, holderField, emailField, ibanField, bicField);
         Boolean ok = false;
         Participant participant = participantScreenCtrl.addParticipant(nameField, emailField, holderField, bicField, ibanField);
-        participantScreenCtrl.confirmEdit(styling, ok, participant, noName, noEmail, wrongBic, wrongIban, translation, server, mainCtrl, event, 1, f);
+        participantScreenCtrl.confirmEdit(styling, ok, participant, noName, noEmail, wrongBic, wrongIban, translation, asyncServer, mainCtrl, event, 1, f);
         verify(server).editParticipant(eq(event.getId()), eq(1L), eq(participant));
         verify(mainCtrl).switchScreens(eq(ParticipantListScreenCtrl.class));
     }
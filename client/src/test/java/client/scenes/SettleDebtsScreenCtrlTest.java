@@ -31,6 +31,7 @@ import org.testfx.framework.junit5.ApplicationExtension;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static client.TestObservableUtils.stringToObservable;
 import static javafx.geometry.Pos.TOP_CENTER;
@@ -106,7 +107,7 @@ class SettleDebtsScreenCtrlTest {
         doReturn(emailInstructions).when(translation).getStringBinding("SettleDebts.Button.sendEmailInstructions");
 
         List<Transfer> transfers = List.of(transferGenerated);
-        doReturn(transfers).when(settleUtils).calculateTransferInstructions(any());
+        doReturn(CompletableFuture.completedFuture(transfers)).when(settleUtils).fetchTransferInstructions(any());
 
         VBox testBox = new VBox();
         sut.populateVBox(testBox, event);
@@ -128,7 +129,7 @@ class SettleDebtsScreenCtrlTest {
     @Test
     void populateVBoxTestNoTransfers() {
         VBox textBox = new VBox();
-        doReturn(new ArrayList<Transfer>()).when(settleUtils).calculateTransferInstructions(any());
+        doReturn(CompletableFuture.completedFuture(new ArrayList<Transfer>())).when(settleUtils).fetchTransferInstructions(any());
         ObservableValue<String> noTransfers = stringToObservable("No Transfers!");
         doReturn(noTransfers).when(translation).getStringBinding("SettleDebts.Label.noTransfers");
         sut.populateVBox(textBox, event);
@@ -1,6 +1,7 @@
 package client.scenes;
 
 import client.utils.AppStateManager;
+import client.utils.AsyncServerUtils;
 import client.utils.ImageUtils;
 import client.utils.ServerUtils;
 import client.utils.Translation;
@@ -21,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.testfx.framework.junit5.ApplicationExtension;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.List;
 
@@ -60,7 +62,8 @@ public class StartupScreenCtrlTest{
         this.manager = mock(AppStateManager.class);
         this.translation = mock(Translation.class);
         this.currentStage = mock(Stage.class);
-        sut = new TestStartupScreenCtrl(this.testServerUtils, this.testMainController, translation,
+        AsyncServerUtils server = new AsyncServerUtils(testServerUtils, Runnable::run, Runnable::run, Duration.ofSeconds(5));
+        sut = new TestStartupScreenCtrl(server, this.testMainController, translation,
                 languageCtrl, manager, imageUtils);
 
         lenient().doReturn(stringToObservable("Binding!")).when(translation).getStringBinding(anyString());
@@ -190,13 +193,21 @@ public class StartupScreenCtrlTest{
 
     @Test
     public void switchToEventTest(){
-        String eventId = "ABC568";
+        String eventId = testServerUtils.validInvitationCode;
         sut.switchToEvent(eventId);
-        System.out.println(testMainController.calls.toString());
-        assertTrue(testMainController.calls.contains("join ABC568"));
+        assertEquals(List.of("getEvent: " + eventId), testServerUtils.calls);
+        assertTrue(testMainController.calls.contains("join " + eventId));
         assertTrue(testMainController.calls.contains("switch"));
     }
 
+    @Test
+    public void switchToDeletedEventRemovesItFromHistory(){
+        sut.addToHistory("ABC568", "Gone");
+        sut.switchToEvent("ABC568");
+        assertTrue(testMainController.calls.isEmpty());
+        assertFalse(sut.getEventsAndHBoxes().containsKey("ABC568"));
+    }
+
     private class TestServerUtils extends ServerUtils{
         public List<String> calls = new LinkedList<>();
         public String validInvitationCode = "aaaaaa";
@@ -205,7 +216,7 @@ public class StartupScreenCtrlTest{
             calls.add("getEvent: " + inviteCode);
             //valid code
             if(inviteCode.equals(validInvitationCode)){
-                return new Event();
+                return new Event(inviteCode, "Title", null);
             }
             //invalid code
             throw new jakarta.ws.rs.BadRequestException();
@@ -226,8 +237,8 @@ public class StartupScreenCtrlTest{
         }
 
         @Override
-        public void switchEvents(String eventCode){
-            calls.add("join " + eventCode);
+        public void switchEvents(Event event){
+            calls.add("join " + event.getId());
         }
 
         @Override
@@ -248,12 +259,12 @@ public class StartupScreenCtrlTest{
         /**
          * Constructor
          *
-         * @param server      the ServerUtils instance
+         * @param server      the AsyncServerUtils instance
          * @param mainCtrl    the MainCtrl instance
          * @param translation the Translation instance
          * @param imageUtils  the ImageUtils instance
          */
-        public TestStartupScreenCtrl(ServerUtils server, MainCtrl mainCtrl, Translation translation,
+        public TestStartupScreenCtrl(AsyncServerUtils server, MainCtrl mainCtrl, Translation translation,
                                      LanguageIndicatorCtrl languageCtrl, AppStateManager manager, ImageUtils imageUtils) {
             super(server, mainCtrl, translation, manager, languageCtrl, imageUtils);
         }
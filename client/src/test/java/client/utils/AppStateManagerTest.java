@@ -2,19 +2,24 @@ package client.utils;
 
 import client.scenes.StartupScreenCtrl;
 import commons.Event;
+import commons.dto.EventChangeDTO;
 import commons.dto.EventDeletedDTO;
 import commons.dto.EventNameChangeDTO;
+import jakarta.ws.rs.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
 import org.springframework.messaging.simp.stomp.StompHeaders;
 import org.springframework.messaging.simp.stomp.StompSession;
 
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,17 +29,20 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AppStateManagerTest {
-    @InjectMocks
     AppStateManager sut;
     @Mock
     WebSocketUtils webSocketUtils;
     @Mock
     ServerUtils serverUtils;
+    @Mock
+    UpdateStreamUtils updateStream;
     TestRefreshable refreshable;
     Event event1;
 
     @BeforeEach
     void setUp() {
+        AsyncServerUtils asyncServer = new AsyncServerUtils(serverUtils, Runnable::run, Runnable::run, Duration.ofSeconds(5));
+        sut = new AppStateManager(webSocketUtils, asyncServer, null, updateStream);
         refreshable = new TestRefreshable();
         HashMap<Class<?>, ScreenInfo> screenMap = new HashMap<>();
         screenMap.put(Void.class, new ScreenInfo(refreshable, true, null, null));
@@ -73,19 +81,18 @@ class AppStateManagerTest {
      */
     @Test
     void switchClientEventRefreshesEvent() {
-        String eventID = "ABC123";
-        String url = "/topic/events/" + eventID;
+        String url = "/topic/events/" + event1.getId() + "/changes";
 
-        when(serverUtils.getEvent(eventID)).thenReturn(event1);
-        when(webSocketUtils.registerForMessages(any(), eq(url), eq(Event.class))).thenReturn(null);
+        when(webSocketUtils.registerForMessages(any(), eq(url), eq(EventChangeDTO.class))).thenReturn(null);
 
         sut.onSwitchScreens(Void.class);
         assertNull(refreshable.getCurrentEvent());
         assertEquals(1, refreshable.getEventsRefreshed().size());
 
-        sut.switchClientEvent(eventID);
+        sut.switchClientEvent(event1);
         assertEquals(event1, refreshable.getCurrentEvent());
         assertEquals(2, refreshable.getEventsRefreshed().size());
+        verifyNoInteractions(serverUtils);
     }
 
     /***
@@ -93,30 +100,107 @@ class AppStateManagerTest {
      */
     @Test
     void consumerUpdatesRefreshable() {
-        String eventID = "ABC123";
-        String url = "/topic/events/" + eventID;
+        String eventID = event1.getId();
+        String url = "/topic/events/" + eventID + "/changes";
         final Consumer[] eventConsumer = new Consumer[]{null};
 
-        when(serverUtils.getEvent(eventID)).thenReturn(event1);
         Answer<?> answer = (Answer<StompSession.Subscription>) invocation -> {
             eventConsumer[0] = invocation.getArgument(0);
             return null;
         };
-        when(webSocketUtils.registerForMessages(any(), eq(url), eq(Event.class))).then(answer);
+        when(webSocketUtils.registerForMessages(any(), eq(url), eq(EventChangeDTO.class))).then(answer);
 
         sut.onSwitchScreens(Void.class);
         assertEquals(1, refreshable.getEventsRefreshed().size());
-        sut.switchClientEvent(eventID);
+        sut.switchClientEvent(event1);
         assertEquals(2, refreshable.getEventsRefreshed().size());
-        Consumer<Event> consumer = eventConsumer[0];
+        Consumer<EventChangeDTO> consumer = eventConsumer[0];
 
-        Event eventSentOverSocket = new Event("Different Title!", null);
+        Event eventSentOverSocket = new Event(event1.getId(), "Different Title!", null);
         assertEquals(event1, refreshable.getCurrentEvent());
-        consumer.accept(eventSentOverSocket);
+        consumer.accept(EventChangeDTO.snapshot(eventSentOverSocket));
         assertEquals(eventSentOverSocket, refreshable.getCurrentEvent());
         assertEquals(3, refreshable.getEventsRefreshed().size());
     }
 
+    private static void setVersion(Event event, long version) throws ReflectiveOperationException {
+        Field field = Event.class.getDeclaredField("version");
+        field.setAccessible(true);
+        field.set(event, version);
+    }
+
+    /***
+     * A change that follows the version of the local copy is applied to it
+     */
+    @Test
+    void consecutiveChangeIsApplied() throws ReflectiveOperationException {
+        setVersion(event1, 3);
+        sut.onSwitchScreens(Void.class);
+        sut.onEventUpdate(event1);
+        sut.onEventChange(EventChangeDTO.titleChanged(event1.getId(), 4L, "New Title"));
+        assertSame(event1, refreshable.getCurrentEvent());
+        assertEquals("New Title", event1.getTitle());
+        assertEquals(3, refreshable.getEventsRefreshed().size());
+
+        sut.onEventChange(EventChangeDTO.titleChanged(event1.getId(), 4L, "Old change"));
+        assertEquals("New Title", event1.getTitle());
+        verifyNoInteractions(serverUtils);
+    }
+
+    /***
+     * A gap in the sequence makes the client fetch the whole event
+     */
+    @Test
+    void gapFetchesSnapshot() throws ReflectiveOperationException {
+        setVersion(event1, 3);
+        Event fetched = new Event(event1.getId(), "Fetched", null);
+        setVersion(fetched, 6);
+        when(serverUtils.getEvent(event1.getId())).thenReturn(fetched);
+        sut.onSwitchScreens(Void.class);
+        sut.onEventUpdate(event1);
+        sut.onEventChange(EventChangeDTO.titleChanged(event1.getId(), 6L, "Fetched"));
+        assertSame(fetched, refreshable.getCurrentEvent());
+        assertEquals("Title!", event1.getTitle());
+
+        sut.onEventChange(EventChangeDTO.titleChanged(event1.getId(), 7L, "Patched"));
+        assertEquals("Patched", fetched.getTitle());
+    }
+
+    /***
+     * A snapshot that arrives after the client closed the event is dropped
+     */
+    @Test
+    void snapshotOfClosedEventIsDropped() throws ReflectiveOperationException {
+        List<Runnable> calls = new ArrayList<>();
+        sut = new AppStateManager(webSocketUtils,
+                new AsyncServerUtils(serverUtils, calls::add, Runnable::run, Duration.ofSeconds(5)), null, updateStream);
+        setVersion(event1, 3);
+        when(serverUtils.getEvent(event1.getId())).thenReturn(new Event(event1.getId(), "Fetched", null));
+        sut.onEventUpdate(event1);
+        sut.onEventChange(EventChangeDTO.titleChanged(event1.getId(), 6L, "Fetched"));
+
+        sut.closeOpenedEvent();
+        calls.forEach(Runnable::run);
+        verify(serverUtils).getEvent(event1.getId());
+        HashMap<Class<?>, ScreenInfo> screenMap = new HashMap<>();
+        screenMap.put(Void.class, new ScreenInfo(refreshable, true, null, null));
+        sut.setScreenInfoMap(screenMap);
+        sut.onSwitchScreens(Void.class);
+        assertNull(refreshable.getCurrentEvent());
+    }
+
+    /***
+     * Changes of other events are ignored
+     */
+    @Test
+    void changeOfOtherEventIsIgnored() {
+        sut.onSwitchScreens(Void.class);
+        sut.onEventUpdate(event1);
+        sut.onEventChange(EventChangeDTO.titleChanged("OTHER1", 1L, "Other"));
+        assertEquals("Title!", event1.getTitle());
+        assertEquals(2, refreshable.getEventsRefreshed().size());
+    }
+
     /***
      * onSwitchScreens() properly updates any Refreshable
      */
@@ -135,11 +219,10 @@ class AppStateManagerTest {
     @Test
     void deletionRemovesHistoryAndRunsCallback() {
         String eventID = event1.getId();
-        String url = "/topic/events/" + eventID;
+        String url = "/topic/events/" + eventID + "/changes";
 
-        when(serverUtils.getEvent(eventID)).thenReturn(event1);
-        when(webSocketUtils.registerForMessages(any(), eq(url), eq(Event.class))).thenReturn(null);
-        sut.switchClientEvent(eventID);
+        when(webSocketUtils.registerForMessages(any(), eq(url), eq(EventChangeDTO.class))).thenReturn(null);
+        sut.switchClientEvent(event1);
         sut.addSubscription(eventID);
 
         StartupScreenCtrl testCtrl = mock(StartupScreenCtrl.class);
@@ -168,13 +251,29 @@ class AppStateManagerTest {
         verify(testCtrl).addToHistory(eventID, newTitle);
     }
 
+    @Test
+    void resyncFetchesNamesOfHistory() {
+        String eventID = "F7DS14";
+        sut.addSubscription(eventID);
+        sut.addSubscription("GONE12");
+        event1.setTitle("Renamed while away");
+        when(serverUtils.getEvent(eventID)).thenReturn(event1);
+        when(serverUtils.getEvent("GONE12")).thenThrow(new NotFoundException());
+
+        StartupScreenCtrl testCtrl = mock(StartupScreenCtrl.class);
+        sut.setStartupScreen(testCtrl);
+
+        sut.onNameResync();
+        verify(testCtrl).addToHistory(eventID, "Renamed while away");
+        verify(testCtrl, never()).addToHistory(eq("GONE12"), any());
+    }
+
     @Test
     void closeOpenedActuallyCloses(){
-        String eventID = "ABC123";
-        String url = "/topic/events/" + eventID;
+        String eventID = event1.getId();
+        String url = "/topic/events/" + eventID + "/changes";
 
-        when(serverUtils.getEvent(eventID)).thenReturn(event1);
-        when(webSocketUtils.registerForMessages(any(), eq(url), eq(Event.class))).thenReturn(new StompSession.Subscription() {
+        when(webSocketUtils.registerForMessages(any(), eq(url), eq(EventChangeDTO.class))).thenReturn(new StompSession.Subscription() {
             @Override
             public String getSubscriptionId() {
                 return null;
@@ -210,7 +309,7 @@ class AppStateManagerTest {
             public void addReceiptLostTask(Runnable task) {
             }
         });
-        sut.switchClientEvent(eventID);
+        sut.switchClientEvent(event1);
 
         final boolean[] callbackCalledBack = {false};
         sut.setOnCurrentEventDeletedCallback(()-> callbackCalledBack[0] = true);
@@ -224,4 +323,18 @@ class AppStateManagerTest {
         assertFalse(callbackCalledBack[0]);
         verify(testCtrl).removeFromHistoryIfExists(eventID);
     }
-}
\ No newline at end of file
+
+    @Test
+    void batchDeletionRemovesEveryEventFromHistory() {
+        sut.addSubscription("ABC123");
+        sut.addSubscription("DEF456");
+        StartupScreenCtrl testCtrl = mock(StartupScreenCtrl.class);
+        sut.setStartupScreen(testCtrl);
+
+        sut.onDeletions(new EventDeletedDTO[]{new EventDeletedDTO("ABC123"), new EventDeletedDTO("DEF456"),
+            new EventDeletedDTO("GHJ789")});
+        verify(testCtrl).removeFromHistoryIfExists("ABC123");
+        verify(testCtrl).removeFromHistoryIfExists("DEF456");
+        verify(testCtrl, never()).removeFromHistoryIfExists("GHJ789");
+    }
+}
@@ -0,0 +1,92 @@
+package client.utils;
+
+import commons.Event;
+import jakarta.ws.rs.BadRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AsyncServerUtilsTest {
+    private ServerUtils server;
+    private ExecutorService worker;
+    private AtomicInteger uiTasks;
+    private AsyncServerUtils sut;
+
+    @BeforeEach
+    void setup() {
+        server = mock(ServerUtils.class);
+        worker = Executors.newVirtualThreadPerTaskExecutor();
+        uiTasks = new AtomicInteger();
+        Executor ui = task -> {
+            uiTasks.incrementAndGet();
+            task.run();
+        };
+        sut = new AsyncServerUtils(server, worker, ui, Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void stop() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Makes getEvent block until it is interrupted, counting down the latch when it is
+     */
+    private void blockUntilInterrupted(CountDownLatch interrupted) {
+        when(server.getEvent("ABCDEF")).thenAnswer(invocation -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void resultIsCompletedOnUiExecutor() throws Exception {
+        Event event = new Event();
+        when(server.getEvent("ABCDEF")).thenReturn(event);
+        assertSame(event, sut.call(s -> s.getEvent("ABCDEF")).get(1, TimeUnit.SECONDS));
+        assertEquals(1, uiTasks.get());
+    }
+
+    @Test
+    void runCompletesWithoutResult() throws Exception {
+        assertNull(sut.run(ServerUtils::deleteAllEvents).get(1, TimeUnit.SECONDS));
+        verify(server).deleteAllEvents();
+    }
+
+    @Test
+    void exceptionIsPassedOnUnwrapped() throws Exception {
+        when(server.getEvent("ABCDEF")).thenThrow(new BadRequestException());
+        Throwable exception = sut.call(s -> s.getEvent("ABCDEF")).handle((event, e) -> e).get(1, TimeUnit.SECONDS);
+        assertInstanceOf(BadRequestException.class, exception);
+    }
+
+    @Test
+    void slowCallTimesOutAndIsInterrupted() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        blockUntilInterrupted(interrupted);
+        Throwable exception = sut.call(s -> s.getEvent("ABCDEF")).handle((event, e) -> e).get(1, TimeUnit.SECONDS);
+        assertInstanceOf(TimeoutException.class, exception);
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancelInterruptsCall() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        blockUntilInterrupted(interrupted);
+        CompletableFuture<Event> future = sut.call(s -> s.getEvent("ABCDEF"));
+        verify(server, timeout(1000)).getEvent("ABCDEF");
+        assertTrue(future.cancel(true));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+}
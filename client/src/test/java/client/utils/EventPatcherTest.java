@@ -0,0 +1,140 @@
+package client.utils;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.Tag;
+import commons.dto.EventChangeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventPatcherTest {
+    private Event event;
+    private Participant alice;
+    private Participant bob;
+    private Tag food;
+    private Tag defaultTag;
+    private Expense dinner;
+
+    private static <T> T withId(T entity, long id) throws ReflectiveOperationException {
+        Field field = entity.getClass().getDeclaredField("id");
+        field.setAccessible(true);
+        field.setLong(entity, id);
+        return entity;
+    }
+
+    private Expense expense(long id, String name, Participant owedTo, Tag tag, Participant... members)
+            throws ReflectiveOperationException {
+        Expense expense = withId(new Expense(name, 3000, new Date(), owedTo), id);
+        for(Participant member : members) expense.addParticipantToExpense(member);
+        expense.setExpenseTag(tag);
+        return expense;
+    }
+
+    @BeforeEach
+    void setUp() throws ReflectiveOperationException {
+        event = new Event("Trip", null);
+        alice = new Participant(1, "Alice");
+        bob = new Participant(2, "Bob");
+        food = withId(new Tag("food", "#00FF00"), 10);
+        defaultTag = withId(new Tag("default", "#000000"), 11);
+        event.addParticipant(alice);
+        event.addParticipant(bob);
+        event.addTag(food);
+        event.addTag(defaultTag);
+        dinner = expense(20, "Dinner", alice, food, alice, bob);
+        event.addExpense(dinner);
+    }
+
+    @Test
+    void addedExpenseUsesLocalInstances() throws ReflectiveOperationException {
+        Expense received = expense(21, "Taxi", new Participant(2, "Bob"), withId(new Tag("food", "#00FF00"), 10),
+                new Participant(1, "Alice"));
+        assertTrue(EventPatcher.apply(event, change(EventChangeDTO.Type.EXPENSE_ADDED, received)));
+        assertEquals(2, event.getExpenses().size());
+        assertSame(bob, received.getOwedTo());
+        assertSame(food, received.getExpenseTag());
+        assertSame(alice, received.getParticipantsInExpense().iterator().next());
+    }
+
+    @Test
+    void editedExpenseReplacesLocalOne() throws ReflectiveOperationException {
+        Expense received = expense(20, "Lunch", new Participant(1, "Alice"), null, new Participant(1, "Alice"));
+        assertTrue(EventPatcher.apply(event, change(EventChangeDTO.Type.EXPENSE_EDITED, received)));
+        assertEquals(1, event.getExpenses().size());
+        assertEquals("Lunch", event.getExpenses().iterator().next().getName());
+    }
+
+    @Test
+    void expenseOfUnknownParticipantIsRejected() throws ReflectiveOperationException {
+        Expense received = expense(21, "Taxi", new Participant(99, "Carol"), null);
+        assertFalse(EventPatcher.apply(event, change(EventChangeDTO.Type.EXPENSE_ADDED, received)));
+    }
+
+    @Test
+    void removedExpenseIsRemoved() {
+        assertTrue(EventPatcher.apply(event,
+                EventChangeDTO.removal(event.getId(), 2L, EventChangeDTO.Type.EXPENSE_REMOVED, 20)));
+        assertTrue(event.getExpenses().isEmpty());
+    }
+
+    @Test
+    void editedParticipantKeepsInstance() {
+        Participant received = new Participant(2, "Robert");
+        received.setIban("NL91ABNA0417164300");
+        assertTrue(EventPatcher.apply(event, EventChangeDTO.participant(event.getId(), 2L,
+                EventChangeDTO.Type.PARTICIPANT_EDITED, received)));
+        assertEquals("Robert", bob.getName());
+        assertEquals("NL91ABNA0417164300", bob.getIban());
+        assertTrue(dinner.getParticipantsInExpense().contains(bob));
+    }
+
+    @Test
+    void removedParticipantLeavesExpenses() {
+        assertTrue(EventPatcher.apply(event,
+                EventChangeDTO.removal(event.getId(), 2L, EventChangeDTO.Type.PARTICIPANT_REMOVED, 2)));
+        assertFalse(event.getParticipants().contains(bob));
+        assertFalse(dinner.getParticipantsInExpense().contains(bob));
+        assertTrue(event.getExpenses().contains(dinner));
+    }
+
+    @Test
+    void removedPayerTakesExpensesAlong() {
+        assertTrue(EventPatcher.apply(event,
+                EventChangeDTO.removal(event.getId(), 2L, EventChangeDTO.Type.PARTICIPANT_REMOVED, 1)));
+        assertTrue(event.getExpenses().isEmpty());
+        assertEquals(1, event.getParticipants().size());
+    }
+
+    @Test
+    void removedTagIsReplacedByDefault() {
+        assertTrue(EventPatcher.apply(event,
+                EventChangeDTO.removal(event.getId(), 2L, EventChangeDTO.Type.TAG_REMOVED, 10)));
+        assertSame(defaultTag, dinner.getExpenseTag());
+        assertFalse(event.getEventTags().contains(food));
+    }
+
+    @Test
+    void editedTagAndTitle() throws ReflectiveOperationException {
+        Tag received = withId(new Tag("groceries", "#FFFF00"), 10);
+        assertTrue(EventPatcher.apply(event, EventChangeDTO.tag(event.getId(), 2L, EventChangeDTO.Type.TAG_EDITED,
+                received)));
+        assertEquals("groceries", dinner.getExpenseTag().getTagName());
+        assertTrue(EventPatcher.apply(event, EventChangeDTO.titleChanged(event.getId(), 3L, "Holiday")));
+        assertEquals("Holiday", event.getTitle());
+    }
+
+    @Test
+    void snapshotIsNotAPatch() {
+        assertFalse(EventPatcher.apply(event, EventChangeDTO.snapshot(event)));
+    }
+
+    private EventChangeDTO change(EventChangeDTO.Type type, Expense expense) {
+        return EventChangeDTO.expense(event.getId(), 2L, type, expense);
+    }
+}
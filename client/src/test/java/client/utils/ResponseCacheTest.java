@@ -0,0 +1,53 @@
+package client.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    @Test
+    void getReturnsStoredEntry() {
+        ResponseCache cache = new ResponseCache(2);
+        cache.put("api/events/ABC", "\"event-ABC-1\"", "{}");
+        ResponseCache.Entry entry = cache.get("api/events/ABC");
+        assertEquals("\"event-ABC-1\"", entry.etag());
+        assertEquals("{}", entry.body());
+        assertNull(cache.get("api/events/DEF"));
+    }
+
+    @Test
+    void putReplacesEarlierEntry() {
+        ResponseCache cache = new ResponseCache(2);
+        cache.put("api/events/ABC", "\"event-ABC-1\"", "{}");
+        cache.put("api/events/ABC", "\"event-ABC-2\"", "{\"title\":\"Party\"}");
+        assertEquals("\"event-ABC-2\"", cache.get("api/events/ABC").etag());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        ResponseCache cache = new ResponseCache(2);
+        cache.put("a", "1", "A");
+        cache.put("b", "2", "B");
+        cache.get("a");
+        cache.put("c", "3", "C");
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void removeForgetsEntry() {
+        ResponseCache cache = new ResponseCache(2);
+        cache.put("a", "1", "A");
+        cache.remove("a");
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCache(0));
+    }
+}
@@ -22,7 +22,7 @@ public class SettleDebtsUtilsJavaFXTest {
     @InjectMocks
     SettleDebtsUtils sut;
     @Mock
-    ServerUtils server;
+    AsyncServerUtils server;
     @Mock
     Translation translation;
     @Mock
@@ -1,20 +1,21 @@
 package client.utils;
 
 import commons.Event;
-import commons.Expense;
 import commons.Participant;
 import commons.Tag;
+import commons.dto.SettlementDTO;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
@@ -24,7 +25,6 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class SettleDebtsUtilsTest {
-    @InjectMocks
     SettleDebtsUtils sut;
     @Mock
     ServerUtils server;
@@ -41,6 +41,8 @@ class SettleDebtsUtilsTest {
 
     @BeforeEach
     void setup(){
+        sut = new SettleDebtsUtils(translation,
+                new AsyncServerUtils(server, Runnable::run, Runnable::run, Duration.ofSeconds(5)), transferUtils, emailHandler);
         participant1 = new Participant("Vox");
         participant2 = new Participant("Val");
         participant3 = new Participant("Vel");
@@ -274,14 +276,25 @@ class SettleDebtsUtilsTest {
         Event event = new Event("Title!", null);
         event.addTag(new Tag("money transfer", null));
         Transfer transfer = new Transfer(participant1, 7, participant2);
-
-        Expense settleExpense = new Expense("Money Transfer", 7, null, participant2);
-        settleExpense.addParticipantToExpense(participant1);
-        when(transferUtils.transferMoney(transfer, event)).thenReturn(settleExpense);
+        when(server.getSettlement(event.getId())).thenReturn(new SettlementDTO(12L, List.of()));
+        sut.fetchTransferInstructions(event);
 
         EventHandler<ActionEvent> result = sut.createSettleAction(transfer, event);
         result.handle(new ActionEvent());
-        verify(server).addExpense(event.getId(), settleExpense);
+        verify(server).settle(event.getId(), 12L, List.of(SettleDebtsUtils.toTransferDTO(transfer)));
+    }
+
+    /***
+     * Checks that nothing is settled before the plan is known, since the server
+     * only settles debts of a known version
+     */
+    @Test
+    void createSettleActionWithoutPlan() {
+        Event event = new Event("Title!", null);
+        Transfer transfer = new Transfer(participant1, 7, participant2);
+
+        sut.createSettleAction(transfer, event).handle(new ActionEvent());
+        verifyNoInteractions(server);
     }
 
     /***
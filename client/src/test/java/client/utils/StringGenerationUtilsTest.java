@@ -3,6 +3,7 @@ package client.utils;
 import commons.Event;
 import commons.Expense;
 import commons.Participant;
+import commons.dto.EventSummary;
 import javafx.beans.value.ObservableValue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -141,7 +142,8 @@ class StringGenerationUtilsTest {
                 .thenReturn(stringToObservable("Title: " + expectedValues.get("title")
                                                 + ", ID: "+ expectedValues.get("id")));
 
-        ObservableValue<String> result = sut.generateTextForEventLabel(event);
+        ObservableValue<String> result = sut.generateTextForEventLabel(
+                new EventSummary(eventId, event.getTitle(), null, null));
         ObservableValue<String> expected =
                 stringToObservable("Title: TitleA, ID: " + eventId);
         assertEquals(expected.getValue(), result.getValue());
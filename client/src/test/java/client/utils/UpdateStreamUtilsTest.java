@@ -0,0 +1,268 @@
+package client.utils;
+
+import commons.dto.EventDeletedDTO;
+import commons.dto.EventNameChangeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UpdateStreamUtilsTest {
+    private List<HttpRequest> requests;
+    private List<HttpResponse.BodyHandler<Void>> handlers;
+    private List<CompletableFuture<HttpResponse<Void>>> responses;
+    private List<Runnable> scheduled;
+    private List<Long> delays;
+    private ScheduledExecutorService reconnects;
+    private List<EventNameChangeDTO> nameChanges;
+    private List<EventDeletedDTO> deletions;
+    private int resyncs;
+    private int unsupported;
+    private Set<String> eventIds;
+    private UpdateStreamUtils sut;
+
+    @BeforeEach
+    void setup() {
+        requests = new ArrayList<>();
+        handlers = new ArrayList<>();
+        responses = new ArrayList<>();
+        HttpClient client = mock(HttpClient.class);
+        when(client.sendAsync(any(), any())).thenAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            handlers.add(invocation.getArgument(1));
+            CompletableFuture<HttpResponse<Void>> response = new CompletableFuture<>();
+            responses.add(response);
+            return response;
+        });
+        scheduled = new ArrayList<>();
+        delays = new ArrayList<>();
+        reconnects = mock(ScheduledExecutorService.class);
+        when(reconnects.schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS))).thenAnswer(invocation -> {
+            scheduled.add(invocation.getArgument(0));
+            delays.add(invocation.getArgument(1));
+            return null;
+        });
+        nameChanges = new ArrayList<>();
+        deletions = new ArrayList<>();
+        resyncs = 0;
+        unsupported = 0;
+        eventIds = Set.of("ABCDEF");
+        sut = new UpdateStreamUtils("http://localhost:8080/", client, reconnects, Runnable::run);
+    }
+
+    private void open() {
+        sut.open(() -> eventIds, nameChanges::add, deletions::add, () -> resyncs++, () -> unsupported++);
+    }
+
+    /**
+     * Answers a connection with 200 OK and subscribes to its body, like the HTTP client does
+     */
+    private HttpResponse.BodySubscriber<Void> accept(int connection, Flow.Subscription subscription) {
+        HttpResponse.ResponseInfo info = mock(HttpResponse.ResponseInfo.class);
+        when(info.statusCode()).thenReturn(200);
+        HttpResponse.BodySubscriber<Void> body = handlers.get(connection).apply(info);
+        body.onSubscribe(subscription);
+        return body;
+    }
+
+    private HttpResponse.BodySubscriber<Void> accept(int connection) {
+        return accept(connection, mock(Flow.Subscription.class));
+    }
+
+    /**
+     * Sends lines of the stream, each followed by a line break
+     */
+    private void feed(HttpResponse.BodySubscriber<Void> body, String... lines) {
+        byte[] bytes = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        body.onNext(List.of(ByteBuffer.wrap(bytes)));
+    }
+
+    /**
+     * Ends the response of a connection with the given status code
+     */
+    @SuppressWarnings("unchecked")
+    private void end(int connection, int status) {
+        HttpResponse<Void> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        responses.get(connection).complete(response);
+    }
+
+    private Optional<String> lastEventId(int connection) {
+        return requests.get(connection).headers().firstValue("Last-Event-ID");
+    }
+
+    @Test
+    void openRequestsStreamOfEvents() {
+        eventIds = Set.of("ABC,DEF");
+        open();
+        assertEquals(1, requests.size());
+        assertEquals("http://localhost:8080/api/updates/stream?events=ABC%2CDEF", requests.get(0).uri().toString());
+        assertEquals(Optional.of("text/event-stream"), requests.get(0).headers().firstValue("Accept"));
+        assertEquals(Optional.empty(), lastEventId(0));
+    }
+
+    @Test
+    void multiLineDataIsJoined() {
+        open();
+        HttpResponse.BodySubscriber<Void> body = accept(0);
+        feed(body, ": keep-alive", "event: name", "data: {\"eventId\":\"ABCDEF\",", "data:\"newTitle\":\"Trip\"}", "");
+        assertEquals(1, nameChanges.size());
+        assertEquals("ABCDEF", nameChanges.get(0).getEventId());
+        assertEquals("Trip", nameChanges.get(0).getNewTitle());
+    }
+
+    @Test
+    void eventsAreDispatchedByName() {
+        open();
+        HttpResponse.BodySubscriber<Void> body = accept(0);
+        feed(body, "event: deletion", "data: {\"eventId\":\"ABCDEF\"}", "",
+                "data: {\"eventId\":\"GHIJKL\"}", "");
+        assertEquals(1, deletions.size());
+        assertEquals("ABCDEF", deletions.get(0).getEventId());
+        assertTrue(nameChanges.isEmpty());
+    }
+
+    @Test
+    void malformedUpdateIsSkipped() {
+        open();
+        HttpResponse.BodySubscriber<Void> body = accept(0);
+        feed(body, "event: name", "data: {broken", "",
+                "event: name", "data: {\"eventId\":\"ABCDEF\",\"newTitle\":\"Trip\"}", "");
+        assertEquals(1, nameChanges.size());
+        assertEquals("Trip", nameChanges.get(0).getNewTitle());
+    }
+
+    @Test
+    void resyncRunsCallback() {
+        open();
+        HttpResponse.BodySubscriber<Void> body = accept(0);
+        feed(body, "event: resync", "data:", "");
+        assertEquals(1, resyncs);
+    }
+
+    @Test
+    void reconnectsAfterStreamEnds() {
+        open();
+        accept(0);
+        end(0, 200);
+        assertEquals(List.of(1000L), delays);
+        assertEquals(1, requests.size());
+        scheduled.get(0).run();
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void lastEventIdIsSentOnReconnect() {
+        open();
+        HttpResponse.BodySubscriber<Void> body = accept(0);
+        feed(body, "id: 7", "event: deletion", "data: {\"eventId\":\"ABCDEF\"}", "");
+        end(0, 200);
+        scheduled.get(0).run();
+        assertEquals(Optional.of("7"), lastEventId(1));
+    }
+
+    @Test
+    void lastEventIdCarriesOverEventsWithoutId() {
+        open();
+        feed(accept(0), "id: 7", "event: deletion", "data: {\"eventId\":\"ABCDEF\"}", "");
+        end(0, 200);
+        scheduled.get(0).run();
+        feed(accept(1), "event: deletion", "data: {\"eventId\":\"GHIJKL\"}", "");
+        end(1, 200);
+        scheduled.get(1).run();
+        assertEquals(2, deletions.size());
+        assertEquals(Optional.of("7"), lastEventId(2));
+    }
+
+    @Test
+    void idIsOnlyKeptOnceItsEventIsComplete() {
+        open();
+        feed(accept(0), "id: 7", "event: deletion", "data: {\"eventId\":\"ABCDEF\"}", "", "id: 8", "event: deletion");
+        end(0, 200);
+        scheduled.get(0).run();
+        assertEquals(1, deletions.size());
+        assertEquals(Optional.of("7"), lastEventId(1));
+    }
+
+    @Test
+    void failedConnectionIsRetried() {
+        open();
+        responses.get(0).completeExceptionally(new IOException("refused"));
+        assertEquals(List.of(1000L), delays);
+        scheduled.get(0).run();
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void missingStreamFallsBackToLongPolling() {
+        open();
+        end(0, 404);
+        assertEquals(1, unsupported);
+        assertTrue(scheduled.isEmpty());
+    }
+
+    @Test
+    void refreshesInARowReopenOnce() {
+        open();
+        Flow.Subscription subscription = mock(Flow.Subscription.class);
+        accept(0, subscription);
+        eventIds = Set.of("ABCDEF", "GHIJKL");
+        sut.refresh();
+        sut.refresh();
+        verify(subscription).cancel();
+        assertEquals(List.of(200L), delays);
+        scheduled.get(0).run();
+        assertEquals(2, requests.size());
+        assertTrue(requests.get(1).uri().getQuery().contains("GHIJKL"));
+    }
+
+    @Test
+    void replacedConnectionDoesNotReconnect() {
+        open();
+        sut.refresh();
+        end(0, 200);
+        assertEquals(List.of(200L), delays);
+        Flow.Subscription late = mock(Flow.Subscription.class);
+        accept(0, late);
+        verify(late).cancel();
+        verify(late, never()).request(anyLong());
+    }
+
+    @Test
+    void refreshBeforeOpenIsIgnored() {
+        sut.refresh();
+        assertTrue(requests.isEmpty());
+        assertTrue(scheduled.isEmpty());
+    }
+
+    @Test
+    void stopEndsReconnecting() {
+        open();
+        Flow.Subscription subscription = mock(Flow.Subscription.class);
+        accept(0, subscription);
+        sut.stop();
+        verify(subscription).cancel();
+        verify(reconnects).shutdownNow();
+        end(0, 200);
+        sut.refresh();
+        assertTrue(scheduled.isEmpty());
+        assertEquals(1, requests.size());
+    }
+}
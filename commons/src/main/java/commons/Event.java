@@ -3,18 +3,20 @@ package commons;
 import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import commons.balance.BalanceKernel;
 import jakarta.persistence.*;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.math.RoundingMode;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_event_title", columnList = "title, id"),
+    @Index(name = "idx_event_creation_date", columnList = "creationDate, id"),
+    @Index(name = "idx_event_last_activity", columnList = "lastActivity, id")
+})
 public class Event{
     @Id
     private String id;
@@ -27,6 +29,9 @@ public class Event{
     private Set<Expense> expenses;
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Tag> eventTags;
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
 
 
     /***
@@ -41,10 +46,20 @@ public class Event{
      * @param creationDate Event creation date
      */
     public Event(String title, Date creationDate) {
+        this(generateId(), title, creationDate);
+    }
+
+    /***
+     * Constructor with a known ID, title and date, e.g. when restoring an event from a backup
+     * @param id Event ID
+     * @param title Event title
+     * @param creationDate Event creation date
+     */
+    public Event(String id, String title, Date creationDate) {
         this.title = title;
         this.participants = new HashSet<>();
         this.expenses = new HashSet<>();
-        this.id = generateId();
+        this.id = id;
         this.creationDate = creationDate;
         this.lastActivity = new Date();
         this.eventTags = new HashSet<>();
@@ -60,8 +75,6 @@ public class Event{
         return expenses.stream().mapToInt(Expense::getPriceInCents).filter(x -> x >= 0).sum();
     }
 
-    private final static BigDecimal initialBalance = BigDecimal.valueOf(0);
-
     /***
      * Calculates the total expense share per person
      * @param includingTransfers whether negative balance expenses should be included (true for splitting, false for statistics)
@@ -69,58 +82,8 @@ public class Event{
      */
     @JsonIgnore
     public HashMap<Participant,BigDecimal> getExpenseShare(boolean includingTransfers) {
-        HashMap<Participant, BigDecimal> shareMap = new HashMap<>();
-
-        for (Participant participant:
-                participants) {
-            shareMap.put(participant, initialBalance);
-        }
-
-        for (Expense expense:
-                expenses) {
-            Set<Participant> members = expense.getParticipantsInExpense();
-            int amountToSplit = expense.getPriceInCents();
-            if(!includingTransfers && amountToSplit <= 0) continue;
-            splitAmountEqually(shareMap, members, amountToSplit);
-        }
-
-        return shareMap;
-    }
-
-    /***
-     * Splits the submitted cost across all members provided, adding it to the Map
-     * @param shareMap a Map containing share per Participant
-     * @param members the Participants partaking
-     * @param costInCents the cost to split equally between the given members
-     */
-    @JsonIgnore
-    public void splitAmountEqually(HashMap<Participant, BigDecimal> shareMap,
-                              Set<Participant> members,
-                              int costInCents) {
-
-        BigDecimal totalCost = convertIntToDecimal(costInCents);
-        BigDecimal peopleToDivideBy = BigDecimal.valueOf(members.size());
-        BigDecimal sharePerPerson = totalCost.divide(peopleToDivideBy, RoundingMode.HALF_UP);
-
-        for (Participant participant:
-                members) {
-            BigDecimal balance = shareMap.get(participant);
-            balance = balance.add(sharePerPerson);
-            shareMap.put(participant, balance);
-        }
-    }
-
-    private final static int precision = 4;
-    /***
-     * Converts an int to an appropriate BigDecimal
-     * @param number the number to convert
-     * @return a BigDecimal of the int, with additional digits after the dot
-     */
-    @JsonIgnore
-    private BigDecimal convertIntToDecimal(int number){
-        long scale = (long) Math.pow(10, precision);
-        BigInteger numberScaled = BigInteger.valueOf(scale * number);
-        return new BigDecimal(numberScaled, precision);
+        BalanceKernel kernel = BalanceKernel.of(this);
+        return toDecimalMap(kernel, kernel.shares(includingTransfers));
     }
 
     /**
@@ -129,19 +92,16 @@ public class Event{
      */
     @JsonIgnore
     public HashMap<Participant,BigDecimal> getOwedShares(){
-        HashMap<Participant, BigDecimal> creditMap = new HashMap<>();
-
-        HashMap<Participant, BigDecimal> shareMap = getExpenseShare(true);
-        HashMap<Participant, Integer> spendingMap = getSpendingPerPerson();
+        BalanceKernel kernel = BalanceKernel.of(this);
+        return toDecimalMap(kernel, kernel.credits());
+    }
 
-        for(Participant participant: getParticipants()){
-            BigDecimal spendingShare = shareMap.get(participant);
-            BigDecimal amountActuallySpent = convertIntToDecimal(spendingMap.get(participant));
-            BigDecimal credit = amountActuallySpent.subtract(spendingShare);
-            creditMap.put(participant, credit);
+    private static HashMap<Participant, BigDecimal> toDecimalMap(BalanceKernel kernel, long[] units) {
+        HashMap<Participant, BigDecimal> map = new HashMap<>();
+        for(int ordinal = 0; ordinal < kernel.size(); ordinal++){
+            map.put(kernel.participant(ordinal), BalanceKernel.toDecimal(units[ordinal]));
         }
-
-        return creditMap;
+        return map;
     }
 
     /***
@@ -322,23 +282,35 @@ public class Event{
         this.lastActivity = lastActivity;
     }
 
+    /**
+     * Returns the version of the event, which increases with every update
+     * @return the version of the event, null if it was never saved
+     */
+    public Long getVersion() {
+        return version;
+    }
+
     /***
-     * Equals method using EqualsBuilder
-     * @param obj the Object to compare equality to
-     * @return true if the objects are equal, false otherwise
+     * Equality checker based on the ID. An event that was not saved yet has no ID
+     * and is only equal to itself.
+     * @param obj the object to compare to
+     * @return true if both are the same event, false otherwise
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if(this == obj) return true;
+        return obj instanceof Event other && id != null && id.equals(other.getId());
     }
 
     /***
-     * HashCode method using HashCodeBuilder
-     * @return a hashcode for the Event
+     * Returns the hash code of the event, that of its ID. Unlike the other entities, an event gets
+     * its ID when it is created, so the hash never touches its participants, expenses or tags and
+     * does not change when the event is saved.
+     * @return the hash code of the event
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return Objects.hashCode(id);
     }
 
     /***
@@ -5,8 +5,6 @@ import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.*;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import java.util.Date;
@@ -19,7 +17,8 @@ import java.util.Set;
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id", scope = Expense.class)
 public class Expense{
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "expense_seq", allocationSize = 50)
     private long id;
     private String name;
     private int priceInCents;
@@ -182,22 +181,25 @@ public class Expense{
     }
 
     /**
-     * Equality checker
+     * Equality checker based on the ID. An expense that was not saved yet has no ID
+     * and is only equal to itself.
      * @param obj the object to compare to
-     * @return true if equal false otherwise
+     * @return true if both are the same expense, false otherwise
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if(this == obj) return true;
+        return obj instanceof Expense other && id != 0 && id == other.getId();
     }
 
     /**
-     * Returns the hash code of the object
-     * @return the hash code of the object
+     * Returns the hash code of the expense, a constant. A new expense keeps it when it is saved, and
+     * matches any saved copy with the same ID.
+     * @return the hash code of the expense
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return Expense.class.hashCode();
     }
 
     /**
@@ -6,8 +6,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import jakarta.persistence.SequenceGenerator;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import java.util.Objects;
@@ -19,7 +18,8 @@ import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
         property = "id", scope = Participant.class)
 public class Participant {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "participant_seq")
+    @SequenceGenerator(name = "participant_seq", sequenceName = "participant_seq", allocationSize = 50)
     private long id;
     private String name;
     private String legalName;
@@ -154,22 +154,25 @@ public class Participant {
     }
 
     /***
-     * Equals method for any Object
-     * @param obj the Object to compare to
-     * @return true if the objects are equal, false otherwise
+     * Equality checker based on the ID. A participant that was not saved yet has no ID
+     * and is only equal to itself.
+     * @param obj the object to compare to
+     * @return true if both are the same participant, false otherwise
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if(this == obj) return true;
+        return obj instanceof Participant other && id != 0 && id == other.getId();
     }
 
     /***
-     * Generates a HashCode for the Participant
-     * @return a HashCode for the Participant
+     * Returns the hash code of the participant, the same for every participant. Its ID is only
+     * assigned on saving, so a hash based on it would change while the participant is in a set.
+     * @return the hash code of the participant
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return Participant.class.hashCode();
     }
 
     /***
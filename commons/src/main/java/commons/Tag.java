@@ -4,13 +4,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import jakarta.persistence.SequenceGenerator;
 
 @Entity
 public class Tag {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_seq")
+    @SequenceGenerator(name = "tag_seq", sequenceName = "tag_seq", allocationSize = 50)
     private long id;
     private String tagName;
     private String colorCode;
@@ -71,22 +71,24 @@ public class Tag {
     }
 
     /**
-     * Equality checker
+     * Equality checker based on the ID. A tag that was not saved yet has no ID
+     * and is only equal to itself.
      * @param o the object to compare to
-     * @return true if the objects are equal, false otherwise
+     * @return true if both are the same tag, false otherwise
      */
     @Override
     public boolean equals(Object o) {
-        return EqualsBuilder.reflectionEquals(this, o);
+        if(this == o) return true;
+        return o instanceof Tag other && id != 0 && id == other.getId();
     }
 
     /**
-     * Returns the hash code of the object
-     * @return the hash code of the object
+     * Returns the hash code of the tag, shared by all tags, as tags only get their ID when saved
+     * @return the hash code of the tag
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return Tag.class.hashCode();
     }
 
     /**
@@ -0,0 +1,216 @@
+package commons.balance;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Computes balances of an event on primitive arrays instead of maps of BigDecimals.
+ * Every participant gets a dense ordinal, ordered by ID, and all amounts are fixed-point
+ * longs with {@link #PRECISION} digits after the cent. Splitting an expense hands the
+ * indivisible remainder out one unit at a time to the members with the lowest ordinals,
+ * so the shares of an expense always add up to its exact price and no rounding drift
+ * builds up over many expenses.
+ */
+public final class BalanceKernel {
+    /**
+     * Digits after the cent that amounts are kept with
+     */
+    public static final int PRECISION = 4;
+    /**
+     * Fixed-point units in one cent
+     */
+    public static final long UNITS_PER_CENT = 10_000L;
+
+    /**
+     * Orders saved participants by ID, and after them the unsaved ones, which all have ID 0, by name
+     */
+    private static final Comparator<Participant> BY_ID = Comparator
+            .comparing((Participant participant) -> participant.getId() == 0)
+            .thenComparingLong(Participant::getId)
+            .thenComparing(Participant::getName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Participant[] participants;
+    private final int[] payers;
+    private final long[] prices;
+    private final int[] memberStart;
+    private final int[] members;
+
+    private BalanceKernel(Participant[] participants, int[] payers, long[] prices,
+                          int[] memberStart, int[] members) {
+        this.participants = participants;
+        this.payers = payers;
+        this.prices = prices;
+        this.memberStart = memberStart;
+        this.members = members;
+    }
+
+    /***
+     * Encodes the participants and expenses of an event as arrays. Expense members and payers
+     * that are not participants of the event are left out. Participants that were not saved yet
+     * have no ID, and are told apart by instance.
+     * @param event the event, with its participants and expenses loaded
+     * @return the kernel of the event
+     */
+    public static BalanceKernel of(Event event) {
+        Participant[] participants = event.getParticipants().toArray(new Participant[0]);
+        Arrays.sort(participants, BY_ID);
+        Map<Long, Integer> ordinalById = new HashMap<>();
+        Map<Participant, Integer> ordinalWithoutId = new IdentityHashMap<>();
+        for(int i = 0; i < participants.length; i++){
+            if(participants[i].getId() != 0) ordinalById.put(participants[i].getId(), i);
+            else ordinalWithoutId.put(participants[i], i);
+        }
+
+        Collection<Expense> expenses = event.getExpenses();
+        int[] payers = new int[expenses.size()];
+        long[] prices = new long[expenses.size()];
+        int[] memberStart = new int[expenses.size() + 1];
+        int memberCount = 0;
+        for(Expense expense : expenses) memberCount += expense.getParticipantsInExpense().size();
+        int[] members = new int[memberCount];
+
+        int index = 0;
+        int next = 0;
+        for(Expense expense : expenses){
+            payers[index] = ordinal(expense.getOwedTo(), ordinalById, ordinalWithoutId);
+            prices[index] = toUnits(expense.getPriceInCents());
+            memberStart[index] = next;
+            for(Participant member : expense.getParticipantsInExpense()){
+                int ordinal = ordinal(member, ordinalById, ordinalWithoutId);
+                if(ordinal >= 0) members[next++] = ordinal;
+            }
+            Arrays.sort(members, memberStart[index], next);
+            index++;
+        }
+        memberStart[index] = next;
+        return new BalanceKernel(participants, payers, prices, memberStart, members);
+    }
+
+    private static int ordinal(Participant participant, Map<Long, Integer> ordinalById,
+                               Map<Participant, Integer> ordinalWithoutId) {
+        if(participant == null) return -1;
+        Integer ordinal = participant.getId() != 0
+                ? ordinalById.get(participant.getId())
+                : ordinalWithoutId.get(participant);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /***
+     * Provides the number of participants, which is one more than the highest ordinal
+     * @return the number of participants
+     */
+    public int size() {
+        return participants.length;
+    }
+
+    /***
+     * Provides the participant with an ordinal
+     * @param ordinal the ordinal of the participant
+     * @return the participant
+     */
+    public Participant participant(int ordinal) {
+        return participants[ordinal];
+    }
+
+    /***
+     * Calculates what every participant paid for
+     * @return the paid amount per ordinal, in units
+     */
+    public long[] paid() {
+        long[] paid = new long[participants.length];
+        for(int i = 0; i < payers.length; i++){
+            if(payers[i] >= 0) paid[payers[i]] += prices[i];
+        }
+        return paid;
+    }
+
+    /***
+     * Calculates the share of every participant in the expenses they are in
+     * @param includingTransfers whether expenses with a price of zero or less are included
+     * @return the share per ordinal, in units
+     */
+    public long[] shares(boolean includingTransfers) {
+        long[] shares = new long[participants.length];
+        for(int i = 0; i < prices.length; i++){
+            if(!includingTransfers && prices[i] <= 0) continue;
+            split(shares, members, memberStart[i], memberStart[i + 1], prices[i]);
+        }
+        return shares;
+    }
+
+    /***
+     * Calculates the balance of every participant: what they paid minus their share
+     * @return the balance per ordinal in units, positive if the participant is owed money
+     */
+    public long[] credits() {
+        // subtracts the shares rather than splitting the negated prices, which would hand the remainder
+        // to the last members instead of the first
+        long[] credits = paid();
+        long[] shares = shares(true);
+        for(int i = 0; i < credits.length; i++) credits[i] -= shares[i];
+        return credits;
+    }
+
+    /***
+     * Adds equal shares of an amount to the given members. The first members get one unit more
+     * each until the remainder is used up, so the shares add up to exactly the amount.
+     * @param target the amounts per ordinal to add to
+     * @param members the ordinals of the members, in the order the remainder is handed out
+     * @param from the index of the first member in the array
+     * @param to the index after the last member in the array
+     * @param amount the amount to split, in units
+     */
+    public static void split(long[] target, int[] members, int from, int to, long amount) {
+        int count = to - from;
+        if(count <= 0) return;
+        long base = Math.floorDiv(amount, count);
+        long remainder = Math.floorMod(amount, count);
+        for(int i = from; i < to; i++){
+            target[members[i]] += i - from < remainder ? base + 1 : base;
+        }
+    }
+
+    /***
+     * Calculates the share of one member in an amount split the same way as {@link #split}
+     * @param amount the amount to split, in units
+     * @param count the number of members
+     * @param position the position of the member in the order the remainder is handed out
+     * @return the share of the member, in units
+     */
+    public static long share(long amount, int count, int position) {
+        long base = Math.floorDiv(amount, count);
+        return position < Math.floorMod(amount, count) ? base + 1 : base;
+    }
+
+    /***
+     * Converts cents to units
+     * @param cents the amount in cents
+     * @return the amount in units
+     */
+    public static long toUnits(int cents) {
+        return cents * UNITS_PER_CENT;
+    }
+
+    /***
+     * Converts units to a BigDecimal of cents with {@link #PRECISION} digits after the dot
+     * @param units the amount in units
+     * @return the amount in cents
+     */
+    public static BigDecimal toDecimal(long units) {
+        return BigDecimal.valueOf(units, PRECISION);
+    }
+
+    /***
+     * Rounds units to whole cents, halves away from zero like RoundingMode.HALF_UP
+     * @param units the amount in units
+     * @return the amount in cents
+     */
+    public static long roundToCents(long units) {
+        long half = UNITS_PER_CENT / 2;
+        return units >= 0 ? (units + half) / UNITS_PER_CENT : -((half - units) / UNITS_PER_CENT);
+    }
+}
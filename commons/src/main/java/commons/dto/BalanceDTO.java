@@ -0,0 +1,41 @@
+package commons.dto;
+
+import java.math.BigDecimal;
+
+public class BalanceDTO {
+    private Long participantId;
+    private BigDecimal balance;
+
+    /***
+     * Standard DTO constructor
+     * @param participantId the ID of the participant
+     * @param balance the amount the participant is owed, negative if the participant owes money
+     */
+    public BalanceDTO(Long participantId, BigDecimal balance) {
+        this.participantId = participantId;
+        this.balance = balance;
+    }
+
+    /***
+     * Constructor for Jackson
+     */
+    @SuppressWarnings("unused")
+    public BalanceDTO(){
+    }
+
+    /***
+     * Provides the ID of the participant
+     * @return the ID of the participant
+     */
+    public Long getParticipantId() {
+        return participantId;
+    }
+
+    /***
+     * Provides the balance of the participant, with the same precision as Event.getOwedShares
+     * @return the amount the participant is owed, negative if the participant owes money
+     */
+    public BigDecimal getBalance() {
+        return balance;
+    }
+}
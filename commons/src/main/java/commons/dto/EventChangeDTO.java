@@ -0,0 +1,216 @@
+package commons.dto;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.Tag;
+
+/**
+ * One change to an event, sent to the clients that have the event open so they can patch their
+ * copy instead of receiving the whole event again. Only the fields of its type are set.
+ */
+public class EventChangeDTO {
+    /**
+     * The kinds of changes, with the fields they carry
+     */
+    public enum Type {
+        /** The whole event, in {@link #getEvent()}, e.g. after many expenses were added at once */
+        SNAPSHOT,
+        /** A new title, in {@link #getTitle()} */
+        TITLE_CHANGED,
+        /** A new participant, in {@link #getParticipant()} */
+        PARTICIPANT_ADDED,
+        /** The new details of a participant, in {@link #getParticipant()} */
+        PARTICIPANT_EDITED,
+        /** The ID of a removed participant, in {@link #getRemovedId()}, along with the expenses they paid */
+        PARTICIPANT_REMOVED,
+        /** A new expense, in {@link #getExpense()} */
+        EXPENSE_ADDED,
+        /** The new state of an expense, in {@link #getExpense()} */
+        EXPENSE_EDITED,
+        /** The ID of a removed expense, in {@link #getRemovedId()} */
+        EXPENSE_REMOVED,
+        /** A new tag, in {@link #getTag()} */
+        TAG_ADDED,
+        /** The new name and color of a tag, in {@link #getTag()} */
+        TAG_EDITED,
+        /** The ID of a removed tag, in {@link #getRemovedId()}; its expenses get the default tag */
+        TAG_REMOVED
+    }
+
+    private String eventId;
+    private Long sequence;
+    private Type type;
+    private String title;
+    private Participant participant;
+    private Expense expense;
+    private Tag tag;
+    private Long removedId;
+    private Event event;
+
+    /***
+     * Constructor for Jackson
+     */
+    @SuppressWarnings("unused")
+    public EventChangeDTO(){
+    }
+
+    private EventChangeDTO(String eventId, Long sequence, Type type) {
+        this.eventId = eventId;
+        this.sequence = sequence;
+        this.type = type;
+    }
+
+    /***
+     * Creates a change carrying the whole event
+     * @param event the event
+     * @return the change, numbered with the version of the event
+     */
+    public static EventChangeDTO snapshot(Event event) {
+        EventChangeDTO change = new EventChangeDTO(event.getId(), event.getVersion(), Type.SNAPSHOT);
+        change.event = event;
+        return change;
+    }
+
+    /***
+     * Creates a title change
+     * @param eventId the ID of the event
+     * @param sequence the version of the event after the change
+     * @param title the new title
+     * @return the change
+     */
+    public static EventChangeDTO titleChanged(String eventId, Long sequence, String title) {
+        EventChangeDTO change = new EventChangeDTO(eventId, sequence, Type.TITLE_CHANGED);
+        change.title = title;
+        return change;
+    }
+
+    /***
+     * Creates a change of a participant
+     * @param eventId the ID of the event
+     * @param sequence the version of the event after the change
+     * @param type PARTICIPANT_ADDED or PARTICIPANT_EDITED
+     * @param participant the saved participant
+     * @return the change
+     */
+    public static EventChangeDTO participant(String eventId, Long sequence, Type type, Participant participant) {
+        EventChangeDTO change = new EventChangeDTO(eventId, sequence, type);
+        change.participant = participant;
+        return change;
+    }
+
+    /***
+     * Creates a change of an expense
+     * @param eventId the ID of the event
+     * @param sequence the version of the event after the change
+     * @param type EXPENSE_ADDED or EXPENSE_EDITED
+     * @param expense the saved expense
+     * @return the change
+     */
+    public static EventChangeDTO expense(String eventId, Long sequence, Type type, Expense expense) {
+        EventChangeDTO change = new EventChangeDTO(eventId, sequence, type);
+        change.expense = expense;
+        return change;
+    }
+
+    /***
+     * Creates a change of a tag
+     * @param eventId the ID of the event
+     * @param sequence the version of the event after the change
+     * @param type TAG_ADDED or TAG_EDITED
+     * @param tag the saved tag
+     * @return the change
+     */
+    public static EventChangeDTO tag(String eventId, Long sequence, Type type, Tag tag) {
+        EventChangeDTO change = new EventChangeDTO(eventId, sequence, type);
+        change.tag = tag;
+        return change;
+    }
+
+    /***
+     * Creates the removal of a participant, expense or tag
+     * @param eventId the ID of the event
+     * @param sequence the version of the event after the change
+     * @param type PARTICIPANT_REMOVED, EXPENSE_REMOVED or TAG_REMOVED
+     * @param removedId the ID of the removed participant, expense or tag
+     * @return the change
+     */
+    public static EventChangeDTO removal(String eventId, Long sequence, Type type, long removedId) {
+        EventChangeDTO change = new EventChangeDTO(eventId, sequence, type);
+        change.removedId = removedId;
+        return change;
+    }
+
+    /***
+     * Provides the ID of the changed event
+     * @return the ID of the event
+     */
+    public String getEventId() {
+        return eventId;
+    }
+
+    /***
+     * Provides the version of the event after this change. Every change increases it by one,
+     * so a client that missed a change notices a gap.
+     * @return the version of the event, null if it is unknown
+     */
+    public Long getSequence() {
+        return sequence;
+    }
+
+    /***
+     * Provides the kind of change
+     * @return the type of the change
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /***
+     * Provides the new title of a TITLE_CHANGED change
+     * @return the new title
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /***
+     * Provides the participant of a PARTICIPANT_ADDED or PARTICIPANT_EDITED change
+     * @return the participant
+     */
+    public Participant getParticipant() {
+        return participant;
+    }
+
+    /***
+     * Provides the expense of an EXPENSE_ADDED or EXPENSE_EDITED change
+     * @return the expense
+     */
+    public Expense getExpense() {
+        return expense;
+    }
+
+    /***
+     * Provides the tag of a TAG_ADDED or TAG_EDITED change
+     * @return the tag
+     */
+    public Tag getTag() {
+        return tag;
+    }
+
+    /***
+     * Provides the ID of the participant, expense or tag a removal is about
+     * @return the removed ID
+     */
+    public Long getRemovedId() {
+        return removedId;
+    }
+
+    /***
+     * Provides the event of a SNAPSHOT change
+     * @return the whole event
+     */
+    public Event getEvent() {
+        return event;
+    }
+}
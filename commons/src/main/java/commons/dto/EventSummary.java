@@ -0,0 +1,64 @@
+package commons.dto;
+
+import java.util.Date;
+
+public class EventSummary {
+    private String id;
+    private String title;
+    private Date creationDate;
+    private Date lastActivity;
+
+    /***
+     * Standard DTO constructor taking the fields shown in event listings,
+     * also used by JPQL constructor projections
+     * @param id the ID of the event
+     * @param title the title of the event
+     * @param creationDate the creation date of the event
+     * @param lastActivity the date of the last change to the event
+     */
+    public EventSummary(String id, String title, Date creationDate, Date lastActivity) {
+        this.id = id;
+        this.title = title;
+        this.creationDate = creationDate;
+        this.lastActivity = lastActivity;
+    }
+
+    /***
+     * Constructor for Jackson
+     */
+    @SuppressWarnings("unused")
+    public EventSummary(){
+    }
+
+    /***
+     * Provides the ID of the event
+     * @return the ID of the event
+     */
+    public String getId() {
+        return id;
+    }
+
+    /***
+     * Provides the title of the event
+     * @return the title of the event
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /***
+     * Provides the creation date of the event
+     * @return the creation date of the event
+     */
+    public Date getCreationDate() {
+        return creationDate;
+    }
+
+    /***
+     * Provides the date of the last change to the event
+     * @return the last activity of the event
+     */
+    public Date getLastActivity() {
+        return lastActivity;
+    }
+}
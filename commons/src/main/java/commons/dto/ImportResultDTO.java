@@ -0,0 +1,82 @@
+package commons.dto;
+
+public class ImportResultDTO {
+    private int line;
+    private String eventId;
+    private boolean imported;
+    private String error;
+
+    /***
+     * Standard DTO constructor taking the outcome of importing one event
+     * @param line the line of the upload the event was on
+     * @param eventId the ID of the event, null if it could not be read
+     * @param imported whether the event was imported
+     * @param error the reason the event was not imported, null if it was
+     */
+    public ImportResultDTO(int line, String eventId, boolean imported, String error) {
+        this.line = line;
+        this.eventId = eventId;
+        this.imported = imported;
+        this.error = error;
+    }
+
+    /***
+     * Constructor for Jackson
+     */
+    @SuppressWarnings("unused")
+    public ImportResultDTO(){
+    }
+
+    /***
+     * Creates the result of a successfully imported event
+     * @param line the line of the upload the event was on
+     * @param eventId the ID of the imported event
+     * @return the ImportResultDTO
+     */
+    public static ImportResultDTO success(int line, String eventId) {
+        return new ImportResultDTO(line, eventId, true, null);
+    }
+
+    /***
+     * Creates the result of an event that could not be imported
+     * @param line the line of the upload the event was on
+     * @param eventId the ID of the event, null if it could not be read
+     * @param error the reason the event was not imported
+     * @return the ImportResultDTO
+     */
+    public static ImportResultDTO failure(int line, String eventId, String error) {
+        return new ImportResultDTO(line, eventId, false, error);
+    }
+
+    /***
+     * Provides the line of the upload the event was on
+     * @return the line number, starting at 1
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /***
+     * Provides the ID of the event
+     * @return the ID of the event, null if it could not be read
+     */
+    public String getEventId() {
+        return eventId;
+    }
+
+    /***
+     * Provides whether the event was imported
+     * @return true if the event was imported, false otherwise
+     */
+    public boolean isImported() {
+        return imported;
+    }
+
+    /***
+     * Provides the reason the event was not imported
+     * @return the error message, null if the event was imported
+     */
+    public String getError() {
+        return error;
+    }
+}
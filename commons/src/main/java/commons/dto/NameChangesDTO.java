@@ -0,0 +1,53 @@
+package commons.dto;
+
+import java.util.List;
+
+public class NameChangesDTO {
+    private List<EventNameChangeDTO> changes;
+    private String cursor;
+    private boolean resync;
+
+    /***
+     * Standard DTO constructor taking the name changes since a cursor and the cursor after them
+     * @param changes the name changes, oldest first
+     * @param cursor the cursor to ask for the next changes with
+     * @param resync true if changes since the given cursor are no longer known, so the client has
+     *               to fetch the names it shows again
+     */
+    public NameChangesDTO(List<EventNameChangeDTO> changes, String cursor, boolean resync) {
+        this.changes = changes;
+        this.cursor = cursor;
+        this.resync = resync;
+    }
+
+    /***
+     * Constructor for Jackson
+     */
+    @SuppressWarnings("unused")
+    public NameChangesDTO(){
+    }
+
+    /***
+     * Provides the name changes
+     * @return the name changes since the requested cursor, oldest first
+     */
+    public List<EventNameChangeDTO> getChanges() {
+        return changes;
+    }
+
+    /***
+     * Provides the cursor after these changes
+     * @return the cursor to ask for the next changes with
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    /***
+     * Tells whether changes were missed
+     * @return true if the names shown by the client have to be fetched again
+     */
+    public boolean isResync() {
+        return resync;
+    }
+}
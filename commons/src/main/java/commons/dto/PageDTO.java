@@ -0,0 +1,41 @@
+package commons.dto;
+
+import java.util.List;
+
+public class PageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    /***
+     * Standard DTO constructor taking the items of the page and the cursor to the next one
+     * @param items the items on this page
+     * @param nextCursor the cursor to request the next page with, null if this is the last page
+     */
+    public PageDTO(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /***
+     * Constructor for Jackson
+     */
+    @SuppressWarnings("unused")
+    public PageDTO(){
+    }
+
+    /***
+     * Provides the items on this page
+     * @return the items on this page
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /***
+     * Provides the cursor to the next page
+     * @return the cursor to request the next page with, null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
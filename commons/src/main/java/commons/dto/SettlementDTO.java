@@ -0,0 +1,64 @@
+package commons.dto;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import java.util.List;
+
+public class SettlementDTO {
+    private Long version;
+    private List<TransferDTO> transfers;
+
+    /***
+     * Standard DTO constructor
+     * @param version the version of the event the transfers were computed for
+     * @param transfers the transfers that settle all debts of the event
+     */
+    public SettlementDTO(Long version, List<TransferDTO> transfers) {
+        this.version = version;
+        this.transfers = transfers;
+    }
+
+    /***
+     * Constructor for Jackson
+     */
+    @SuppressWarnings("unused")
+    public SettlementDTO(){
+    }
+
+    /***
+     * Provides the version of the event the transfers were computed for, which can be sent
+     * along when settling to make sure the event did not change in between
+     * @return the version of the event
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /***
+     * Provides the transfers that settle all debts of the event
+     * @return the transfers, at most one less than the number of participants
+     */
+    public List<TransferDTO> getTransfers() {
+        return transfers;
+    }
+
+    /**
+     * Equality checker
+     * @param o the object to compare to
+     * @return true if both plans are for the same version and have the same transfers
+     */
+    @Override
+    public boolean equals(Object o) {
+        return EqualsBuilder.reflectionEquals(this, o);
+    }
+
+    /**
+     * Returns the hash code of the object
+     * @return the hash code of the object
+     */
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+}
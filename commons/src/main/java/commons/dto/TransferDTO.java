@@ -0,0 +1,85 @@
+package commons.dto;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+public class TransferDTO {
+    private Long senderId;
+    private int amount;
+    private Long receiverId;
+
+    /***
+     * Standard DTO constructor
+     * @param senderId the ID of the participant who should send money
+     * @param amount the amount to send, in cents
+     * @param receiverId the ID of the participant who should receive the money
+     */
+    public TransferDTO(Long senderId, int amount, Long receiverId) {
+        this.senderId = senderId;
+        this.amount = amount;
+        this.receiverId = receiverId;
+    }
+
+    /***
+     * Constructor for Jackson
+     */
+    @SuppressWarnings("unused")
+    public TransferDTO(){
+    }
+
+    /***
+     * Provides the ID of the participant who should send money
+     * @return the ID of the sender
+     */
+    public Long getSenderId() {
+        return senderId;
+    }
+
+    /***
+     * Provides the amount to send
+     * @return the amount in cents
+     */
+    public int getAmount() {
+        return amount;
+    }
+
+    /***
+     * Provides the ID of the participant who should receive the money
+     * @return the ID of the receiver
+     */
+    public Long getReceiverId() {
+        return receiverId;
+    }
+
+    /**
+     * Equality checker
+     * @param o the object to compare to
+     * @return true if both transfers have the same sender, amount and receiver
+     */
+    @Override
+    public boolean equals(Object o) {
+        return EqualsBuilder.reflectionEquals(this, o);
+    }
+
+    /**
+     * Returns the hash code of the object
+     * @return the hash code of the object
+     */
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+
+    /**
+     * Returns the string representation of the object
+     * @return the string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "TransferDTO{" +
+                "senderId=" + senderId +
+                ", amount=" + amount +
+                ", receiverId=" + receiverId +
+                '}';
+    }
+}
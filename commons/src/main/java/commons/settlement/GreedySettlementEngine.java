@@ -0,0 +1,113 @@
+package commons.settlement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settles balances by letting the biggest debtor pay the biggest creditor until one of them
+ * is settled, in O(n log n) for n participants. Every transfer settles at least one participant,
+ * so there are at most n-1 transfers, but not necessarily the fewest possible.
+ * Equal amounts are ordered by ordinal, lowest first.
+ */
+public class GreedySettlementEngine implements SettlementEngine {
+
+    /***
+     * Calculates at most n-1 transfers for the n participants with a balance
+     * @param balances the balance per ordinal in cents, positive if the participant is owed money
+     * @return the transfers
+     */
+    @Override
+    public List<Payment> settle(long[] balances) {
+        int[] ordinals = new int[balances.length];
+        for(int i = 0; i < ordinals.length; i++) ordinals[i] = i;
+        List<Payment> payments = new ArrayList<>();
+        settle(balances.clone(), ordinals, ordinals.length, payments);
+        return payments;
+    }
+
+    /***
+     * Settles the balances of some participants, changing the balances as the transfers are made
+     * @param remaining the balance per ordinal, updated in place
+     * @param ordinals the ordinals of the participants to settle
+     * @param count the number of ordinals to use from the array
+     * @param payments the list to add the transfers to
+     */
+    static void settle(long[] remaining, int[] ordinals, int count, List<Payment> payments) {
+        OrdinalHeap creditors = new OrdinalHeap(remaining, count, 1);
+        OrdinalHeap debtors = new OrdinalHeap(remaining, count, -1);
+        for(int i = 0; i < count; i++){
+            if(remaining[ordinals[i]] > 0) creditors.push(ordinals[i]);
+            if(remaining[ordinals[i]] < 0) debtors.push(ordinals[i]);
+        }
+        while(!creditors.isEmpty() && !debtors.isEmpty()){
+            int debtor = debtors.pop();
+            int creditor = creditors.pop();
+            long amount = Math.min(-remaining[debtor], remaining[creditor]);
+            remaining[debtor] += amount;
+            remaining[creditor] -= amount;
+            payments.add(new Payment(debtor, creditor, amount));
+            if(remaining[debtor] < 0) debtors.push(debtor);
+            if(remaining[creditor] > 0) creditors.push(creditor);
+        }
+    }
+
+    /**
+     * A binary max-heap of ordinals, ordered by the size of their balance and then by ordinal,
+     * kept in a primitive array
+     */
+    static final class OrdinalHeap {
+        private final long[] balances;
+        private final int[] heap;
+        private final int sign;
+        private int size;
+
+        OrdinalHeap(long[] balances, int capacity, int sign) {
+            this.balances = balances;
+            this.heap = new int[capacity];
+            this.sign = sign;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int ordinal) {
+            int index = size++;
+            heap[index] = ordinal;
+            while(index > 0){
+                int parent = (index - 1) / 2;
+                if(!before(heap[index], heap[parent])) break;
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        int pop() {
+            int top = heap[0];
+            heap[0] = heap[--size];
+            int index = 0;
+            while(true){
+                int first = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if(left < size && before(heap[left], heap[first])) first = left;
+                if(right < size && before(heap[right], heap[first])) first = right;
+                if(first == index) return top;
+                swap(index, first);
+                index = first;
+            }
+        }
+
+        private boolean before(int a, int b) {
+            long sizeA = sign * balances[a];
+            long sizeB = sign * balances[b];
+            return sizeA != sizeB ? sizeA > sizeB : a < b;
+        }
+
+        private void swap(int a, int b) {
+            int ordinal = heap[a];
+            heap[a] = heap[b];
+            heap[b] = ordinal;
+        }
+    }
+}
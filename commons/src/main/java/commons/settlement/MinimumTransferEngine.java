@@ -0,0 +1,95 @@
+package commons.settlement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settles balances with the fewest transfers possible. A group of n participants with a balance
+ * that splits into k separate groups whose balances add up to zero needs exactly n-k transfers,
+ * so the engine looks for the largest number of such groups. It remembers the best split for
+ * every subset of participants, which takes O(n 2^n) time and 2^n memory, and is therefore
+ * limited to {@link #MAX_PARTICIPANTS} participants with a balance.
+ */
+public class MinimumTransferEngine implements SettlementEngine {
+    /**
+     * The most participants with a non-zero balance the engine accepts
+     */
+    public static final int MAX_PARTICIPANTS = 20;
+
+    /***
+     * Calculates the fewest transfers that settle the balances
+     * @param balances the balance per ordinal in cents, positive if the participant is owed money
+     * @return the transfers
+     * @throws IllegalArgumentException if more than MAX_PARTICIPANTS balances are not zero
+     */
+    @Override
+    public List<Payment> settle(long[] balances) {
+        int[] members = nonZero(balances);
+        int count = members.length;
+        if(count > MAX_PARTICIPANTS){
+            throw new IllegalArgumentException(count + " participants with a balance, at most "
+                    + MAX_PARTICIPANTS + " are supported");
+        }
+
+        int full = (1 << count) - 1;
+        long[] sums = new long[full + 1];
+        byte[] groups = new byte[full + 1];
+        for(int mask = 1; mask <= full; mask++){
+            int lowest = Integer.numberOfTrailingZeros(mask);
+            sums[mask] = sums[mask & (mask - 1)] + balances[members[lowest]];
+            int best = 0;
+            for(int rest = mask; rest != 0; rest &= rest - 1){
+                best = Math.max(best, groups[mask ^ Integer.lowestOneBit(rest)]);
+            }
+            groups[mask] = (byte) (sums[mask] == 0 ? best + 1 : best);
+        }
+
+        int[] order = order(sums, groups, full, count);
+        List<Payment> payments = new ArrayList<>();
+        long[] remaining = balances.clone();
+        int[] group = new int[count];
+        int groupSize = 0;
+        int mask = 0;
+        for(int position : order){
+            mask |= 1 << position;
+            group[groupSize++] = members[position];
+            if(sums[mask] == 0){
+                GreedySettlementEngine.settle(remaining, group, groupSize, payments);
+                groupSize = 0;
+            }
+        }
+        GreedySettlementEngine.settle(remaining, group, groupSize, payments);
+        return payments;
+    }
+
+    private static int[] nonZero(long[] balances) {
+        int count = 0;
+        for(long balance : balances) if(balance != 0) count++;
+        int[] members = new int[count];
+        int next = 0;
+        for(int i = 0; i < balances.length; i++){
+            if(balances[i] != 0) members[next++] = i;
+        }
+        return members;
+    }
+
+    /**
+     * Orders the participants so that the zero-sum groups of an optimal split follow each other,
+     * by taking participants out of the full set, highest position first, without losing a group
+     * @return the positions of the participants, group after group
+     */
+    private static int[] order(long[] sums, byte[] groups, int full, int count) {
+        int[] order = new int[count];
+        int mask = full;
+        for(int next = count - 1; next >= 0; next--){
+            int target = sums[mask] == 0 ? groups[mask] - 1 : groups[mask];
+            int position = count - 1;
+            while((mask & (1 << position)) == 0 || groups[mask ^ (1 << position)] != target){
+                position--;
+            }
+            order[next] = position;
+            mask ^= 1 << position;
+        }
+        return order;
+    }
+}
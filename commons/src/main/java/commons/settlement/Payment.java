@@ -0,0 +1,10 @@
+package commons.settlement;
+
+/**
+ * A transfer of money between two participants, identified by their ordinal
+ * @param debtor the ordinal of the participant who pays
+ * @param creditor the ordinal of the participant who receives
+ * @param amount the amount, in cents
+ */
+public record Payment(int debtor, int creditor, long amount) {
+}
@@ -0,0 +1,18 @@
+package commons.settlement;
+
+import java.util.List;
+
+/**
+ * Turns the balances of a group into transfers that settle them
+ */
+public interface SettlementEngine {
+
+    /***
+     * Calculates transfers that bring every balance to zero. Balances that do not add up to zero,
+     * because of rounding, leave the smallest debts or credits unsettled.
+     * Equal inputs always give equal transfers.
+     * @param balances the balance per ordinal in cents, positive if the participant is owed money
+     * @return the transfers
+     */
+    List<Payment> settle(long[] balances);
+}
@@ -0,0 +1,50 @@
+package commons.settlement;
+
+import java.util.List;
+
+/**
+ * The ways balances can be settled
+ */
+public enum SettlementStrategy implements SettlementEngine {
+    /**
+     * Biggest debtor pays biggest creditor, fast for any group size
+     */
+    GREEDY,
+    /**
+     * The fewest transfers possible, for at most MinimumTransferEngine.MAX_PARTICIPANTS participants
+     * with a balance
+     */
+    MINIMUM,
+    /**
+     * The fewest transfers possible for small groups, greedy for larger ones
+     */
+    AUTO;
+
+    private static final SettlementEngine GREEDY_ENGINE = new GreedySettlementEngine();
+    private static final SettlementEngine MINIMUM_ENGINE = new MinimumTransferEngine();
+
+    /***
+     * Calculates transfers that settle the balances with this strategy
+     * @param balances the balance per ordinal in cents, positive if the participant is owed money
+     * @return the transfers
+     */
+    @Override
+    public List<Payment> settle(long[] balances) {
+        return engineFor(balances).settle(balances);
+    }
+
+    private SettlementEngine engineFor(long[] balances) {
+        return switch (this) {
+            case GREEDY -> GREEDY_ENGINE;
+            case MINIMUM -> MINIMUM_ENGINE;
+            case AUTO -> countNonZero(balances) <= MinimumTransferEngine.MAX_PARTICIPANTS
+                    ? MINIMUM_ENGINE : GREEDY_ENGINE;
+        };
+    }
+
+    private static int countNonZero(long[] balances) {
+        int count = 0;
+        for(long balance : balances) if(balance != 0) count++;
+        return count;
+    }
+}
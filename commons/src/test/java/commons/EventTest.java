@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import java.math.RoundingMode;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 
@@ -82,6 +83,30 @@ public class EventTest {
         assertNotEquals(event, b);
         assertNotEquals(event.hashCode(), b.hashCode());
     }
+    /**
+     * Events with the same ID are equal, whatever their content
+     */
+    @Test
+    public void equalsById() {
+        var a = new Event("ABC123", "title", null);
+        var b = new Event("ABC123", "other title", new Date());
+        b.addParticipant(participant1);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+    /**
+     * An event stays in a set while participants and expenses are added to it
+     */
+    @Test
+    public void staysInSetAfterChanges() {
+        Set<Event> events = new HashSet<>(Set.of(event));
+        int hash = event.hashCode();
+        event.setTitle("new title");
+        event.addParticipant(participant1);
+        event.addExpense(expense1);
+        assertEquals(hash, event.hashCode());
+        assertTrue(events.contains(event));
+    }
     /**
      * Test for toString
      */
@@ -2,7 +2,10 @@ package commons;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Field;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -78,14 +81,23 @@ public class ExpenseTest {
     }
 
     /**
-     * Equality checker for equal expenses
+     * Sets the ID like saving the expense would
+     */
+    private static void saveAs(Expense expense, long id) throws ReflectiveOperationException {
+        Field field = Expense.class.getDeclaredField("id");
+        field.setAccessible(true);
+        field.setLong(expense, id);
+    }
+
+    /**
+     * Equality checker for saved expenses with the same ID
      */
     @Test
-    public void equalsHashCode() {
-        Date d = new Date();
-        Participant p = new Participant();
-        var a = new Expense("name", 10, d, p);
-        var b = new Expense("name", 10, d, p);
+    public void equalsHashCode() throws ReflectiveOperationException {
+        var a = new Expense("name", 10, new Date(), new Participant());
+        var b = new Expense("new name", 20, null, null);
+        saveAs(a, 7);
+        saveAs(b, 7);
         assertEquals(a, b);
         assertEquals(a.hashCode(), b.hashCode());
     }
@@ -94,13 +106,46 @@ public class ExpenseTest {
      * Equality checker for unequal expenses
      */
     @Test
-    public void notEqualsHashCode() {
+    public void notEqualsHashCode() throws ReflectiveOperationException {
         Date d = new Date();
         Participant p = new Participant();
         var a = new Expense("name", 10, d, p);
-        var b = new Expense("new name", 10, d, p);
+        var b = new Expense("name", 10, d, p);
+        assertNotEquals(a, b);
+        saveAs(a, 7);
+        saveAs(b, 8);
         assertNotEquals(a, b);
-        assertNotEquals(a.hashCode(), b.hashCode());
+    }
+
+    /**
+     * An expense hashed before it was saved has the same hash code as a copy with its new ID
+     */
+    @Test
+    public void hashCodeMatchesCopyAfterSaving() throws ReflectiveOperationException {
+        var expense = new Expense("name", 10, new Date(), new Participant());
+        int hash = expense.hashCode();
+        saveAs(expense, 7);
+        var copy = new Expense("name", 10, null, null);
+        saveAs(copy, 7);
+        assertEquals(copy, expense);
+        assertEquals(hash, expense.hashCode());
+        assertEquals(copy.hashCode(), expense.hashCode());
+    }
+
+    /**
+     * An expense stays in a set while it is edited and saved
+     */
+    @Test
+    public void staysInSetAfterChanges() throws ReflectiveOperationException {
+        var expense = new Expense("name", 10, new Date(), new Participant());
+        Set<Expense> expenses = new HashSet<>(Set.of(expense));
+        int hash = expense.hashCode();
+        expense.setName("new name");
+        expense.setPriceInCents(20);
+        expense.addParticipantToExpense(new Participant("Bob"));
+        saveAs(expense, 7);
+        assertEquals(hash, expense.hashCode());
+        assertTrue(expenses.contains(expense));
     }
 
     /**
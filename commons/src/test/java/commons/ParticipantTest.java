@@ -2,6 +2,10 @@ package commons;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
@@ -100,24 +104,54 @@ public class ParticipantTest {
         assertFalse(p.hasBankAccount());
     }
     /**
-     * Equality checker for equal expenses
+     * Equality checker for participants with the same ID
      */
     @Test
     public void equalsHashCode() {
-        var a = new Participant("name");
-        var b = new Participant("name");
+        var a = new Participant(3, "name");
+        var b = new Participant(3, "new name");
         assertEquals(a, b);
         assertEquals(a.hashCode(), b.hashCode());
     }
     /**
-     * Equality checker for unequal expenses
+     * Equality checker for unequal participants
      */
     @Test
     public void notEqualsHashCode() {
-        var a = new Participant("name");
-        var b = new Participant("new name");
+        assertNotEquals(new Participant("name"), new Participant("name"));
+        var a = new Participant(3, "name");
+        var b = new Participant(4, "name");
         assertNotEquals(a, b);
-        assertNotEquals(a.hashCode(), b.hashCode());
+    }
+    /**
+     * A participant hashed before it was saved has the same hash code as a copy with its new ID
+     */
+    @Test
+    public void hashCodeMatchesCopyAfterSaving() throws ReflectiveOperationException {
+        var p = new Participant("name");
+        int hash = p.hashCode();
+        Field id = Participant.class.getDeclaredField("id");
+        id.setAccessible(true);
+        id.setLong(p, 3);
+        var copy = new Participant(3, "name");
+        assertEquals(copy, p);
+        assertEquals(hash, p.hashCode());
+        assertEquals(copy.hashCode(), p.hashCode());
+    }
+    /**
+     * A participant stays a key of a map while it is edited and saved
+     */
+    @Test
+    public void staysInMapAfterChanges() throws ReflectiveOperationException {
+        var p = new Participant("name");
+        Map<Participant, Integer> balances = new HashMap<>(Map.of(p, 10));
+        p.setName("new name");
+        p.setIban("NL91ABNA0417164300");
+        Field id = Participant.class.getDeclaredField("id");
+        id.setAccessible(true);
+        id.setLong(p, 3);
+        assertEquals(10, balances.get(p));
+        assertTrue(balances.containsKey(p));
     }
     /**
      * Tests for toString
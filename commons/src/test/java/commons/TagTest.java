@@ -3,6 +3,8 @@ package commons;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Field;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TagTest {
@@ -49,10 +51,16 @@ class TagTest {
         assertNotEquals(t1, t2);
     }
     @Test
-    public void hashCodeTest(){
-        assertNotEquals(t1.hashCode(), t2.hashCode());
-        assertNotNull(t1.hashCode());
-        assertNotNull(t2.hashCode());
+    public void hashCodeTest() throws ReflectiveOperationException {
+        int hash = t1.hashCode();
+        Field id = Tag.class.getDeclaredField("id");
+        id.setAccessible(true);
+        id.setLong(t1, 5);
+        Tag copy = new Tag("Food", "#008000");
+        id.setLong(copy, 5);
+        assertEquals(copy, t1);
+        assertEquals(hash, t1.hashCode());
+        assertEquals(copy.hashCode(), t1.hashCode());
     }
     @Test
     public void toStringTest(){
@@ -0,0 +1,133 @@
+package commons.balance;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceKernelTest {
+
+    private static Participant participant(long id, String name) {
+        return new Participant(id, name);
+    }
+
+    @Test
+    void sharesAddUpToExactPrice() {
+        long[] target = new long[3];
+        BalanceKernel.split(target, new int[]{0, 1, 2}, 0, 3, BalanceKernel.toUnits(100));
+        assertArrayEquals(new long[]{333_334, 333_333, 333_333}, target);
+        assertEquals(BalanceKernel.toUnits(100), Arrays.stream(target).sum());
+    }
+
+    @Test
+    void negativeAmountsAreSplitExactly() {
+        long[] target = new long[3];
+        BalanceKernel.split(target, new int[]{2, 0, 1}, 0, 3, -10);
+        assertArrayEquals(new long[]{-3, -4, -3}, target);
+    }
+
+    @Test
+    void shareMatchesSplit() {
+        long[] target = new long[7];
+        int[] members = {0, 1, 2, 3, 4, 5, 6};
+        BalanceKernel.split(target, members, 0, 7, -123_456_789);
+        for(int position = 0; position < 7; position++){
+            assertEquals(target[position], BalanceKernel.share(-123_456_789, 7, position));
+        }
+    }
+
+    @Test
+    void roundingHalvesAwayFromZero() {
+        for(long units : new long[]{0, 4_999, 5_000, -4_999, -5_000, -15_000, 123_456_789, -123_456_789}){
+            long expected = BigDecimal.valueOf(units, BalanceKernel.PRECISION)
+                    .setScale(0, RoundingMode.HALF_UP).longValueExact();
+            assertEquals(expected, BalanceKernel.roundToCents(units), "units " + units);
+        }
+    }
+
+    @Test
+    void participantsAreOrderedById() {
+        Event event = new Event("Trip", new Date());
+        event.addParticipant(participant(9, "Nine"));
+        event.addParticipant(participant(2, "Two"));
+        event.addParticipant(participant(5, "Five"));
+        BalanceKernel kernel = BalanceKernel.of(event);
+        assertEquals(3, kernel.size());
+        assertEquals(2L, kernel.participant(0).getId());
+        assertEquals(9L, kernel.participant(2).getId());
+    }
+
+    @Test
+    void creditsMatchPaidMinusShares() {
+        Event event = new Event("Trip", new Date());
+        List<Participant> participants = new ArrayList<>();
+        for(long id = 1; id <= 6; id++){
+            participants.add(participant(id, "P" + id));
+            event.addParticipant(participants.getLast());
+        }
+        Random random = new Random(3);
+        for(long id = 1; id <= 200; id++){
+            Expense expense = new Expense("E" + id, random.nextInt(100_000) - 10_000, new Date(),
+                    participants.get(random.nextInt(participants.size())));
+            Collections.shuffle(participants, random);
+            expense.setParticipantToExpense(new HashSet<>(participants.subList(0, 1 + random.nextInt(6))));
+            event.addExpense(expense);
+        }
+
+        BalanceKernel kernel = BalanceKernel.of(event);
+        long[] paid = kernel.paid();
+        long[] shares = kernel.shares(true);
+        long[] credits = kernel.credits();
+        for(int ordinal = 0; ordinal < kernel.size(); ordinal++){
+            assertEquals(paid[ordinal] - shares[ordinal], credits[ordinal]);
+        }
+        assertEquals(0, Arrays.stream(credits).sum());
+    }
+
+    @Test
+    void unsavedParticipantsGetOrdinalsOfTheirOwn() {
+        Participant saved = participant(4, "Saved");
+        Participant first = new Participant("Ann");
+        Participant second = new Participant("Ann");
+        Event event = new Event("Trip", new Date());
+        event.addParticipant(saved);
+        event.addParticipant(first);
+        event.addParticipant(second);
+        Expense expense = new Expense("Dinner", 300, new Date(), first);
+        expense.addParticipantToExpense(first);
+        expense.addParticipantToExpense(second);
+        expense.addParticipantToExpense(saved);
+        event.addExpense(expense);
+
+        BalanceKernel kernel = BalanceKernel.of(event);
+        assertEquals(3, kernel.size());
+        assertSame(saved, kernel.participant(0));
+        long[] credits = kernel.credits();
+        int firstOrdinal = kernel.participant(1) == first ? 1 : 2;
+        assertEquals(BalanceKernel.toUnits(200), credits[firstOrdinal]);
+        assertEquals(BalanceKernel.toUnits(-100), credits[3 - firstOrdinal]);
+        assertEquals(BalanceKernel.toUnits(-100), credits[0]);
+    }
+
+    @Test
+    void statisticsLeaveOutTransfers() {
+        Participant payer = participant(1, "Payer");
+        Participant other = participant(2, "Other");
+        Event event = new Event("Trip", new Date());
+        event.addParticipant(payer);
+        event.addParticipant(other);
+        Expense transfer = new Expense("Money Transfer", -500, new Date(), payer);
+        transfer.addParticipantToExpense(other);
+        event.addExpense(transfer);
+
+        BalanceKernel kernel = BalanceKernel.of(event);
+        assertArrayEquals(new long[]{0, 0}, kernel.shares(false));
+        assertArrayEquals(new long[]{0, BalanceKernel.toUnits(-500)}, kernel.shares(true));
+    }
+}
@@ -0,0 +1,140 @@
+package commons.settlement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementEngineTest {
+
+    private static long[] randomBalances(Random random, int count, int maxAmount) {
+        long[] balances = new long[count];
+        long sum = 0;
+        for(int i = 0; i < count - 1; i++){
+            balances[i] = random.nextInt(2 * maxAmount + 1) - maxAmount;
+            sum += balances[i];
+        }
+        balances[count - 1] = -sum;
+        return balances;
+    }
+
+    private static void assertSettles(long[] balances, List<Payment> payments) {
+        long[] remaining = balances.clone();
+        for(Payment payment : payments){
+            assertTrue(payment.amount() > 0);
+            assertTrue(balances[payment.debtor()] < 0);
+            assertTrue(balances[payment.creditor()] > 0);
+            remaining[payment.debtor()] += payment.amount();
+            remaining[payment.creditor()] -= payment.amount();
+        }
+        assertArrayEquals(new long[balances.length], remaining, Arrays.toString(balances));
+    }
+
+    /**
+     * The largest number of groups the participants can be split into that each add up to zero,
+     * by trying every way to form the group of the first participant with a balance
+     */
+    private static int maxZeroSumGroups(long[] balances, int used) {
+        int first = -1;
+        for(int i = 0; i < balances.length; i++){
+            if((used & (1 << i)) == 0 && balances[i] != 0){
+                first = i;
+                break;
+            }
+        }
+        if(first < 0) return 0;
+        int best = 0;
+        int free = 0;
+        for(int i = first + 1; i < balances.length; i++){
+            if((used & (1 << i)) == 0 && balances[i] != 0) free |= 1 << i;
+        }
+        for(int subset = free; ; subset = (subset - 1) & free){
+            long sum = balances[first];
+            for(int i = 0; i < balances.length; i++) if((subset & (1 << i)) != 0) sum += balances[i];
+            if(sum == 0) best = Math.max(best, 1 + maxZeroSumGroups(balances, used | subset | 1 << first));
+            if(subset == 0) break;
+        }
+        return best;
+    }
+
+    @Test
+    void greedyPaysBiggestCreditorFirst() {
+        long[] balances = {500, -300, -200};
+        assertEquals(List.of(new Payment(1, 0, 300), new Payment(2, 0, 200)),
+                SettlementStrategy.GREEDY.settle(balances));
+    }
+
+    @Test
+    void equalAmountsAreOrderedByOrdinal() {
+        long[] balances = {-100, -100, 100, 100};
+        assertEquals(List.of(new Payment(0, 2, 100), new Payment(1, 3, 100)),
+                SettlementStrategy.GREEDY.settle(balances));
+    }
+
+    @Test
+    void minimumFindsFewerTransfersThanGreedy() {
+        long[] balances = {10, 6, 5, -11, -10};
+        assertEquals(4, SettlementStrategy.GREEDY.settle(balances).size());
+        List<Payment> payments = SettlementStrategy.MINIMUM.settle(balances);
+        assertEquals(3, payments.size());
+        assertTrue(payments.contains(new Payment(4, 0, 10)));
+        assertSettles(balances, payments);
+    }
+
+    @Test
+    void roundingLeftoversStayUnsettled() {
+        for(SettlementStrategy strategy : SettlementStrategy.values()){
+            assertEquals(List.of(new Payment(0, 2, 1)), strategy.settle(new long[]{-1, -1, 1}));
+            assertEquals(List.of(new Payment(4, 0, 1)), strategy.settle(new long[]{2, 0, 0, 0, -1}));
+        }
+    }
+
+    @Test
+    void settledGroupNeedsNoTransfers() {
+        for(SettlementStrategy strategy : SettlementStrategy.values()){
+            assertTrue(strategy.settle(new long[]{0, 0, 0}).isEmpty());
+            assertTrue(strategy.settle(new long[0]).isEmpty());
+        }
+    }
+
+    @Test
+    void minimumIsOptimalForRandomGroups() {
+        Random random = new Random(11);
+        for(int round = 0; round < 300; round++){
+            long[] balances = randomBalances(random, 2 + random.nextInt(9), 10);
+            int nonZero = (int) Arrays.stream(balances).filter(balance -> balance != 0).count();
+            List<Payment> minimum = SettlementStrategy.MINIMUM.settle(balances);
+            List<Payment> greedy = SettlementStrategy.GREEDY.settle(balances);
+            assertSettles(balances, minimum);
+            assertSettles(balances, greedy);
+            assertEquals(nonZero - maxZeroSumGroups(balances, 0), minimum.size(), Arrays.toString(balances));
+            assertTrue(greedy.size() < Math.max(nonZero, 1));
+        }
+    }
+
+    @Test
+    void resultsAreDeterministic() {
+        long[] balances = randomBalances(new Random(5), 20, 1000);
+        for(SettlementStrategy strategy : SettlementStrategy.values()){
+            assertEquals(strategy.settle(balances), strategy.settle(balances.clone()));
+        }
+    }
+
+    @Test
+    void minimumRejectsLargeGroups() {
+        long[] balances = randomBalances(new Random(5), MinimumTransferEngine.MAX_PARTICIPANTS + 5, 1000);
+        balances[0] = balances[0] == 0 ? 1 : balances[0];
+        assertThrows(IllegalArgumentException.class, () -> SettlementStrategy.MINIMUM.settle(balances));
+    }
+
+    @Test
+    void autoSwitchesToGreedyForLargeGroups() {
+        long[] balances = randomBalances(new Random(9), 5000, 100_000);
+        List<Payment> payments = SettlementStrategy.AUTO.settle(balances);
+        assertEquals(SettlementStrategy.GREEDY.settle(balances), payments);
+        assertSettles(balances, payments);
+    }
+}
@@ -0,0 +1,25 @@
+package server.advices;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import server.exceptions.ExpenseNotFoundException;
+
+@ControllerAdvice
+public class ExpenseNotFoundAdvice {
+
+    /**
+     * This handler returns an HTTP response with the expense as body when an ExpenseNotFoundException is thrown
+     * The header of the HTTP response is set as 404 NOT_FOUND
+     * @param e ExpenseNotFoundException
+     * @return The expense that is not found in the event
+     */
+    @ResponseBody
+    @ExceptionHandler(ExpenseNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    long expenseNotFoundHandler(ExpenseNotFoundException e) {
+        return e.getExpense();
+    }
+}
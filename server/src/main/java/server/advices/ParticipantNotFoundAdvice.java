@@ -0,0 +1,28 @@
+package server.advices;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import server.exceptions.ParticipantNotFoundException;
+
+import java.util.List;
+
+@ControllerAdvice
+public class ParticipantNotFoundAdvice {
+
+    /**
+     * This handler returns an HTTP response with the missing participant IDs as body
+     * when a ParticipantNotFoundException is thrown
+     * The header of the HTTP response is set as 404 NOT_FOUND
+     * @param e ParticipantNotFoundException
+     * @return The IDs of all participants that are not found in the event
+     */
+    @ResponseBody
+    @ExceptionHandler(ParticipantNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    List<Long> participantNotFoundHandler(ParticipantNotFoundException e) {
+        return e.getParticipants();
+    }
+}
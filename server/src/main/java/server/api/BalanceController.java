@@ -0,0 +1,38 @@
+package server.api;
+
+import commons.dto.BalanceDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/events")
+public class BalanceController {
+    private final BalanceService balanceService;
+
+    /***
+     * Constructor of the BalanceController
+     * @param balanceService the BalanceService keeping the ledgers
+     */
+    public BalanceController(BalanceService balanceService) {
+        this.balanceService = balanceService;
+    }
+
+    /***
+     * Endpoint for the balance of every participant of an event
+     * @param eventId the ID of the event
+     * @return the balances ordered by participant ID, or a bad request if the event does not exist
+     */
+    @GetMapping("/{eventId}/balances")
+    public ResponseEntity<List<BalanceDTO>> getBalances(@PathVariable String eventId) {
+        Optional<List<BalanceDTO>> balances = balanceService.getBalances(eventId);
+        if(balances.isEmpty())
+            return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(balances.get());
+    }
+}
@@ -0,0 +1,203 @@
+package server.api;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.balance.BalanceKernel;
+import commons.dto.BalanceDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import server.database.EventRepository;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the balance of every participant of recently used events, so that balances do not have
+ * to be recomputed from all expenses after every change. A ledger is built once from the full event
+ * and then only adjusted by the expenses that are added, edited or removed, after their transaction
+ * commits. Changes that cannot be expressed per expense, like removing a participant, drop the ledger,
+ * which is then rebuilt on the next read.
+ */
+@Service
+public class BalanceService {
+    /**
+     * The part of an expense that balances depend on, copied so it stays valid after the expense changes
+     * @param owedToId the ID of the participant who paid
+     * @param priceInCents the price of the expense
+     * @param memberIds the IDs of the participants sharing the expense
+     */
+    public record ExpenseShare(Long owedToId, int priceInCents, List<Long> memberIds) {
+
+        /***
+         * Copies the balance relevant part of an expense
+         * @param expense the expense
+         * @return the share of the expense
+         */
+        public static ExpenseShare of(Expense expense) {
+            Long owedToId = expense.getOwedTo() == null ? null : expense.getOwedTo().getId();
+            List<Long> memberIds = expense.getParticipantsInExpense().stream().map(Participant::getId).toList();
+            return new ExpenseShare(owedToId, expense.getPriceInCents(), memberIds);
+        }
+    }
+
+    private record Ledger(Map<Long, BigDecimal> balances, long builtAt) {
+    }
+
+    private final EventRepository eventRepository;
+    private final int maxSize;
+    private final Map<String, Ledger> ledgers;
+    /**
+     * Increased before and after every commit that changes balances, so a ledger built
+     * while a change was committing is never kept
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructor
+     * @param eventRepository the EventRepository to build ledgers from
+     * @param maxSize the maximum number of events to keep a ledger for
+     */
+    @Autowired
+    public BalanceService(EventRepository eventRepository, @Value("${events.cache.max-size:1000}") int maxSize) {
+        this.eventRepository = eventRepository;
+        this.maxSize = maxSize;
+        this.ledgers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Ledger> eldest) {
+                return size() > BalanceService.this.maxSize;
+            }
+        };
+    }
+
+    /***
+     * Provides the balance of every participant of an event
+     * @param eventId the ID of the event
+     * @return the balances ordered by participant ID, empty if the event does not exist
+     */
+    public Optional<List<BalanceDTO>> getBalances(String eventId) {
+        Map<Long, BigDecimal> balances;
+        synchronized (this) {
+            Ledger ledger = ledgers.get(eventId);
+            balances = ledger == null ? null : new TreeMap<>(ledger.balances());
+        }
+        if(balances == null){
+            long buildGeneration = generation.get();
+            Optional<Event> event = eventRepository.findFullById(eventId);
+            if(event.isEmpty()) return Optional.empty();
+            balances = new TreeMap<>(recompute(event.get()));
+            install(eventId, balances, buildGeneration);
+        }
+        return Optional.of(balances.entrySet().stream()
+                .map(entry -> new BalanceDTO(entry.getKey(), entry.getValue())).toList());
+    }
+
+    /***
+     * Computes the balances of an event from all its expenses, like Event.getOwedShares
+     * @param event the full event
+     * @return the balance per participant ID
+     */
+    static Map<Long, BigDecimal> recompute(Event event) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        event.getOwedShares().forEach((participant, balance) -> balances.put(participant.getId(), balance));
+        return balances;
+    }
+
+    private synchronized void install(String eventId, Map<Long, BigDecimal> balances, long buildGeneration) {
+        if(generation.get() != buildGeneration) return;
+        ledgers.put(eventId, new Ledger(new HashMap<>(balances), buildGeneration));
+    }
+
+    /***
+     * Records that an expense was added, edited or removed. The ledger is adjusted once the current
+     * transaction commits, with work proportional to the participants in the expense.
+     * @param eventId the ID of the event of the expense
+     * @param before the expense before the change, null if it was added
+     * @param after the expense after the change, null if it was removed
+     */
+    public void expenseChanged(String eventId, ExpenseShare before, ExpenseShare after) {
+        Map<Long, BigDecimal> delta = new HashMap<>();
+        if(before != null) addShare(delta, before, -1);
+        if(after != null) addShare(delta, after, 1);
+        afterCommit(eventId, ledger -> delta.forEach((id, amount) -> ledger.merge(id, amount, BigDecimal::add)));
+    }
+
+    /***
+     * Adds the balance changes caused by one expense, split the same way as BalanceKernel does:
+     * the members with the lowest IDs carry the indivisible remainder
+     * @param delta the balance changes per participant ID
+     * @param share the expense
+     * @param sign one to add the expense, minus one to remove it
+     */
+    static void addShare(Map<Long, BigDecimal> delta, ExpenseShare share, int sign) {
+        long price = BalanceKernel.toUnits(share.priceInCents());
+        if(share.owedToId() != null){
+            delta.merge(share.owedToId(), BalanceKernel.toDecimal(sign * price), BigDecimal::add);
+        }
+        Long[] memberIds = share.memberIds().toArray(new Long[0]);
+        Arrays.sort(memberIds);
+        for(int position = 0; position < memberIds.length; position++){
+            long perMember = BalanceKernel.share(price, memberIds.length, position);
+            delta.merge(memberIds[position], BalanceKernel.toDecimal(-sign * perMember), BigDecimal::add);
+        }
+    }
+
+    /***
+     * Drops the ledger of an event whose participants changed, once the current transaction commits
+     * @param eventId the ID of the event
+     */
+    public void invalidate(String eventId) {
+        afterCommit(eventId, null);
+    }
+
+    /***
+     * Drops all ledgers, e.g. after all events were deleted
+     */
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        ledgers.clear();
+    }
+
+    /**
+     * Applies an update to a ledger after the current transaction commits, or right away without one.
+     * A ledger built after the change started committing may already contain it, so it is dropped instead.
+     * @param eventId the ID of the event
+     * @param update the update to apply, null to drop the ledger
+     */
+    private void afterCommit(String eventId, Consumer<Map<Long, BigDecimal>> update) {
+        long startedAt = generation.incrementAndGet();
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            apply(eventId, update, startedAt);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                generation.incrementAndGet();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if(status == STATUS_COMMITTED) apply(eventId, update, startedAt);
+                else generation.incrementAndGet();
+            }
+        });
+    }
+
+    private synchronized void apply(String eventId, Consumer<Map<Long, BigDecimal>> update,
+                                    long startedAt) {
+        generation.incrementAndGet();
+        Ledger ledger = ledgers.get(eventId);
+        if(ledger == null) return;
+        if(update == null || ledger.builtAt() >= startedAt){
+            ledgers.remove(eventId);
+            return;
+        }
+        update.accept(ledger.balances());
+    }
+}
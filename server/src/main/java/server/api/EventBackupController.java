@@ -0,0 +1,84 @@
+package server.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+@RestController
+@RequestMapping("/api/events")
+public class EventBackupController {
+    static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final EventImportService importService;
+    private final EventExportService exportService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor
+     * @param importService the service importing uploaded events
+     * @param exportService the service exporting events
+     * @param objectMapper the ObjectMapper to write results with
+     */
+    @Autowired
+    public EventBackupController(EventImportService importService, EventExportService exportService,
+                                 ObjectMapper objectMapper) {
+        this.importService = importService;
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Endpoint for exporting events as a gzip-compressed NDJSON backup, which the import endpoint accepts.
+     * The backup is streamed while it is being written.
+     * @param ids the IDs of the events to export, all events if absent
+     * @return the streamed backup
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents(@RequestParam(required = false) List<String> ids) {
+        List<String> filter = ids == null || ids.isEmpty() ? null : ids;
+        StreamingResponseBody body = output -> exportService.exportEvents(filter, output);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"events.ndjson.gz\"")
+                .contentType(APPLICATION_GZIP)
+                .body(body);
+    }
+
+    /**
+     * Endpoint for importing many events at once. The body holds one event JSON per line,
+     * and the outcome of every line is streamed back as an ImportResultDTO per line while importing.
+     * Backups from the export endpoint can be uploaded as they are, with a gzip Content-Encoding.
+     * @param body the NDJSON upload
+     * @param encoding the Content-Encoding of the upload, if any
+     * @param response the response to stream the results to
+     * @throws IOException if the upload cannot be read or the results cannot be written
+     */
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public void importEvents(InputStream body,
+                             @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String encoding,
+                             HttpServletResponse response) throws IOException {
+        InputStream upload = "gzip".equalsIgnoreCase(encoding) ? new GZIPInputStream(body) : body;
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n")
+                .writeValues(response.getOutputStream())) {
+            importService.importEvents(upload, result -> {
+                try {
+                    writer.write(result);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package server.api;
 import commons.Event;
+import commons.dto.EventChangeDTO;
+import commons.dto.EventDeletedDTO;
 import commons.dto.EventNameChangeDTO;
+import commons.dto.EventSummary;
+import commons.dto.PageDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import server.cache.EventCache;
+import server.cache.EventPayloadCache;
+import server.database.EventListStamp;
 import server.database.EventRepository;
+import server.database.EventStamp;
 import server.websockets.WebSocketService;
 
 import java.util.Collections;
@@ -15,25 +26,37 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/api/events")
 public class EventController {
+    static final int MAX_PAGE_SIZE = 500;
     private final EventService eventService;
-    private final LPController lpController;
+    private final UpdateLog updateLog;
     private EventRepository repository;
     private final WebSocketService socketService;
+    private final EventCache eventCache;
+    private final EventPayloadCache payloadCache;
+    private final BalanceService balanceService;
     /**
      * Constructor of EventController.
      *
      * @param eventService  the EventService used for backend handling of events
      * @param repository    the EventRepository storing Events
      * @param socketService the WebSocketService propagating updates
-     * @param lpController  the Long Polling controller to use to propagate name changes
+     * @param updateLog     the log of name changes and deletions, for clients that poll or stream them
+     * @param eventCache    the cache of fully loaded events
+     * @param payloadCache  the cache of encoded events, dropped when an event is removed
+     * @param balanceService the ledgers of balances, dropped when an event is removed
      */
     @Autowired
     public EventController(EventService eventService, EventRepository repository,
-                           WebSocketService socketService, LPController lpController) {
+                           WebSocketService socketService, UpdateLog updateLog,
+                           EventCache eventCache, EventPayloadCache payloadCache,
+                           BalanceService balanceService) {
         this.eventService = eventService;
         this.repository = repository;
         this.socketService = socketService;
-        this.lpController = lpController;
+        this.updateLog = updateLog;
+        this.eventCache = eventCache;
+        this.payloadCache = payloadCache;
+        this.balanceService = balanceService;
     }
 
     /**
@@ -46,9 +69,10 @@ public class EventController {
     public ResponseEntity<Event> editTitle(@PathVariable String eventId,
                                            @RequestBody String newTitle){
         Event updatedEvent = eventService.editTitle(eventId, newTitle);
-        socketService.propagateEventUpdate(eventId);
+        socketService.propagateChange(EventChangeDTO.titleChanged(eventId, updatedEvent.getVersion(),
+                updatedEvent.getTitle()));
         EventNameChangeDTO dto = new EventNameChangeDTO(eventId, updatedEvent.getTitle());
-        lpController.propagateToAllListeners(dto);
+        updateLog.append(dto);
         return ResponseEntity.ok(updatedEvent);
     }
 
@@ -58,8 +82,7 @@ public class EventController {
      */
     @GetMapping("ordered/lastActivity")
     ResponseEntity<List<Event>> orderByLastActivity(){
-        List<Event> events = all().getBody();
-        assert events != null;
+        List<Event> events = repository.findAll();
         Collections.sort(events, Comparator.comparing(Event::getLastActivity).reversed());
         return ResponseEntity.ok(events);
     }
@@ -80,27 +103,49 @@ public class EventController {
     }
 
     /**
-     * Endpoint for joining an event.
+     * Endpoint for joining an event. Answers 304 Not Modified when the client already holds
+     * the current version, which is checked without loading the event itself.
      * @param id ID of the event
+     * @param request the request, holding the If-None-Match and If-Modified-Since headers
      * @return ResponseEntity with the event iff the event can be found. Else return a bad request.
      */
     @GetMapping("/{id}")
-    ResponseEntity<Event> join(@PathVariable String id) {
-        Optional<Event> event = repository.findById(id);
+    ResponseEntity<Event> join(@PathVariable String id, WebRequest request) {
+        Optional<EventStamp> stamp = repository.findStampById(id);
+        if(stamp.isEmpty())
+            return ResponseEntity.badRequest().build();
+        if(request.checkNotModified(stamp.get().etag("event"), stamp.get().lastModified()))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        Optional<Event> event = eventCache.getOrLoad(id, stamp.get().version(), repository::findFullById);
         if(event.isEmpty())
             return ResponseEntity.badRequest().build();
         return ResponseEntity.ok(event.get());
     }
 
     /**
-     * Endpoint for retrieving all events.
+     * Endpoint for retrieving all events. Answers 304 Not Modified when no event was
+     * added, changed or removed since the client last fetched the list.
+     * @param request the request, holding the If-None-Match and If-Modified-Since headers
      * @return All events from the database.
      */
     @GetMapping("/all")
-    ResponseEntity<List<Event>> all() {
+    ResponseEntity<List<Event>> all(WebRequest request) {
+        EventListStamp stamp = repository.findListStamp();
+        if(request.checkNotModified(stamp.etag(), stamp.lastModified()))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
         return ResponseEntity.ok(repository.findAll());
     }
 
+    /**
+     * Endpoint for retrieving a summary of all events, for listings that do not need
+     * the participants, expenses and tags of every event.
+     * @return The ID, title and dates of all events in the database.
+     */
+    @GetMapping("/summaries")
+    ResponseEntity<List<EventSummary>> summaries() {
+        return ResponseEntity.ok(repository.findAllSummaries());
+    }
+
     /**
      * Endpoint for removing an event from the database.
      * @param id ID of the to be removed event.
@@ -112,7 +157,11 @@ public class EventController {
         if(event.isEmpty())
             return ResponseEntity.badRequest().build();
         repository.deleteById(id);
+        eventCache.invalidate(id);
+        payloadCache.invalidate(id);
+        balanceService.invalidate(id);
         socketService.propagateDeletion(id);
+        updateLog.append(new EventDeletedDTO(id));
         return ResponseEntity.ok(event.get());
     }
 
@@ -123,23 +172,45 @@ public class EventController {
      */
     @DeleteMapping("/delete/all")
     ResponseEntity<String> deleteAll(){
-        List<Event> allEvents = repository.findAll();
-        List<String> allIds = allEvents.stream().map(Event::getId).toList();
-        if(allEvents.isEmpty()){
+        List<String> deletedIds = eventService.deleteAllEvents();
+        if(deletedIds.isEmpty()){
             return ResponseEntity.ok("No events do be deleted");
         }
-        repository.deleteAll();
-        allIds.forEach(socketService::propagateDeletion);
+        propagateDeletions(deletedIds);
         return ResponseEntity.ok("Successfully deleted all the events");
     }
 
+    /**
+     * Endpoint for deleting many events at once
+     * @param eventIds the IDs of the events to delete
+     * @return The IDs of the events that existed and were deleted, or a bad request if no IDs were given
+     */
+    @PostMapping("/delete")
+    ResponseEntity<List<String>> deleteEvents(@RequestBody List<String> eventIds) {
+        if(eventIds == null || eventIds.isEmpty())
+            return ResponseEntity.badRequest().build();
+        List<String> deletedIds = eventService.deleteEvents(eventIds);
+        if(!deletedIds.isEmpty())
+            propagateDeletions(deletedIds);
+        return ResponseEntity.ok(deletedIds);
+    }
+
+    /**
+     * Tells WebSocket clients and the clients streaming updates about deleted events
+     * @param deletedIds the IDs of the deleted events
+     */
+    private void propagateDeletions(List<String> deletedIds) {
+        socketService.propagateDeletions(deletedIds);
+        deletedIds.forEach(id -> updateLog.append(new EventDeletedDTO(id)));
+    }
+
     /**
      * Endpoint for giving an ordered list of events by title.
      * @return A list of events ordered by title
      */
     @GetMapping("ordered/title")
     ResponseEntity<List<Event>> orderByTitle() {
-        List<Event> events = all().getBody();
+        List<Event> events = repository.findAll();
         events.sort(Comparator.comparing(Event::getTitle));
         return ResponseEntity.ok(events);
     }
@@ -151,10 +222,30 @@ public class EventController {
      */
     @GetMapping("ordered/date")
     ResponseEntity<List<Event>> orderByCreationDate() {
-        List<Event> events = all().getBody();
+        List<Event> events = repository.findAll();
         events.sort(Comparator.comparing(Event::getCreationDate));
         return ResponseEntity.ok(events);
     }
+    /**
+     * Endpoint for listing events page by page, sorted by the database.
+     * @param order the order to list in: title, date or lastActivity
+     * @param cursor the cursor returned with the previous page, absent for the first page
+     * @param size the maximum number of events on the page, between 1 and MAX_PAGE_SIZE
+     * @return The summaries of the events on the page, or a bad request if the order, cursor or size is invalid
+     */
+    @GetMapping("page/{order}")
+    ResponseEntity<PageDTO<EventSummary>> page(@PathVariable String order,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "50") int size) {
+        if(size < 1 || size > MAX_PAGE_SIZE)
+            return ResponseEntity.badRequest().build();
+        try {
+            return ResponseEntity.ok(eventService.getEventPage(EventOrder.fromPath(order), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /***
      * For the purpose of placing a TestEventRepository in the tests
      * @param repository - the TestEventRepository
@@ -166,14 +257,19 @@ public class EventController {
     /**
      * Endpoint for adding an event.
      * @param event - the event to be added
-     * @return The added event.
+     * @return The added event, or a conflict if an event with the same ID already exists.
      */
     @PutMapping("/")
     ResponseEntity<Event> add(@RequestBody Event event) {
         if(event==null || event.getTitle().isEmpty() || event.getTitle()==null){
             return ResponseEntity.badRequest().build();
         }
-        Event createdEvent = eventService.saveEvent(event);
+        Event createdEvent;
+        try {
+            createdEvent = eventService.saveEvent(event);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
         socketService.propagateCreation(createdEvent);
         return ResponseEntity.ok(createdEvent);
     }
@@ -0,0 +1,47 @@
+package server.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/***
+ * Position in a keyset-paginated event listing: the sort key and ID of the last event on a page
+ * @param key the sort key of the last event (a title, or a date in epoch milliseconds),
+ *            null if that event has no value to sort on
+ * @param id the ID of the last event, used to break ties between equal keys
+ */
+public record EventCursor(String key, String id) {
+
+    /***
+     * Encodes the cursor as an opaque, URL-safe String. Event IDs never contain a colon,
+     * so a cursor without a key is encoded as the ID alone.
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = key == null ? id : id + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /***
+     * Decodes a cursor created by {@link #encode()}
+     * @param cursor the encoded cursor
+     * @return the decoded EventCursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static EventCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if(raw.isEmpty()) throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        int separator = raw.indexOf(':');
+        if(separator < 0) return new EventCursor(null, raw);
+        return new EventCursor(raw.substring(separator + 1), raw.substring(0, separator));
+    }
+
+    /***
+     * Interprets the key as a date
+     * @return the date stored in the key
+     * @throws IllegalArgumentException if the key is not a date
+     */
+    public Date dateKey() {
+        return new Date(Long.parseLong(key));
+    }
+}
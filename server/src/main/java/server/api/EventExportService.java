@@ -0,0 +1,94 @@
+package server.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import commons.Event;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import server.database.EventRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class EventExportService {
+    /**
+     * Number of events loaded and written at once, matching the batch fetch size
+     * so the collections of a whole chunk load in one query per collection
+     */
+    static final int CHUNK_SIZE = 100;
+
+    private final EventRepository eventRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor
+     * @param eventRepository the EventRepository to read events from
+     * @param objectMapper the ObjectMapper to write events with
+     * @param transactionManager the transaction manager to read in one transaction with
+     */
+    @Autowired
+    public EventExportService(EventRepository eventRepository, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /***
+     * Writes events as gzip-compressed NDJSON, one event per line, in the format the import reads.
+     * Event IDs are scrolled from a database cursor and the events are loaded, written and
+     * detached one chunk at a time, so the export never holds more than one chunk in memory.
+     * @param eventIds the IDs of the events to export, null to export all events
+     * @param output the stream to write to, closed when done
+     * @throws IOException if writing fails
+     */
+    public void exportEvents(Collection<String> eventIds, OutputStream output) throws IOException {
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(new GZIPOutputStream(output))) {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> ids = eventIds == null ? eventRepository.streamAllIds()
+                        : eventRepository.streamIdsIn(eventIds)) {
+                    List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+                    ids.forEach(id -> {
+                        chunk.add(id);
+                        if(chunk.size() == CHUNK_SIZE) writeChunk(chunk, writer);
+                    });
+                    writeChunk(chunk, writer);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeChunk(List<String> chunk, SequenceWriter writer) {
+        if(chunk.isEmpty()) return;
+        try {
+            for(Event event : eventRepository.findAllById(chunk)){
+                writer.write(event);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunk.clear();
+        entityManager.clear();
+    }
+}
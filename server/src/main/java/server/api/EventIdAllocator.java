@@ -0,0 +1,115 @@
+package server.api;
+
+import commons.Event;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import server.database.EventRepository;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands out invite codes for new events from a pool of codes that were checked to be unused.
+ * The pool is refilled in the background once it runs low, so creating an event never has to
+ * wait for an existence query. A code can still be taken between the check and the insert,
+ * which is why events are inserted with insert-if-absent semantics and retried on a conflict.
+ */
+@Service
+public class EventIdAllocator {
+    /**
+     * Number of candidate codes checked against the database in one query
+     */
+    static final int CHECK_BATCH_SIZE = 200;
+
+    private final EventRepository eventRepository;
+    private final int poolSize;
+    private final LinkedBlockingQueue<String> pool;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-id-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructor
+     * @param eventRepository the EventRepository to check candidate codes against
+     * @param poolSize the number of verified codes to keep ready
+     */
+    @Autowired
+    public EventIdAllocator(EventRepository eventRepository, @Value("${events.id-pool.size:1000}") int poolSize) {
+        this.eventRepository = eventRepository;
+        this.poolSize = poolSize;
+        this.pool = new LinkedBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * Fills the pool for the first time, without blocking startup
+     */
+    @PostConstruct
+    void start() {
+        requestRefill();
+    }
+
+    /**
+     * Stops the background refill
+     */
+    @PreDestroy
+    void stop() {
+        refiller.shutdownNow();
+    }
+
+    /***
+     * Takes an invite code for a new event. If the pool is empty, e.g. right after startup,
+     * an unchecked code is returned, which the insert-if-absent on creation still guards.
+     * @return an invite code that is very likely unused
+     */
+    public String next() {
+        String id = pool.poll();
+        if(pool.size() < poolSize / 4) requestRefill();
+        return id != null ? id : Event.generateId();
+    }
+
+    /***
+     * Provides the number of verified codes that are ready to be handed out
+     * @return the size of the pool
+     */
+    public int available() {
+        return pool.size();
+    }
+
+    private void requestRefill() {
+        if(refilling.compareAndSet(false, true)){
+            refiller.execute(() -> {
+                try {
+                    refill();
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Tops the pool up with codes that are not used by any event yet
+     */
+    void refill() {
+        while(pool.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()){
+            Set<String> candidates = new HashSet<>();
+            while(candidates.size() < Math.min(CHECK_BATCH_SIZE, pool.remainingCapacity())){
+                candidates.add(Event.generateId());
+            }
+            eventRepository.findExistingIds(candidates).forEach(candidates::remove);
+            for(String candidate : candidates){
+                if(!pool.offer(candidate)) return;
+            }
+        }
+    }
+}
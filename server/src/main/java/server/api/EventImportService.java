@@ -0,0 +1,245 @@
+package server.api;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.Tag;
+import commons.dto.ImportResultDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import server.cache.EventPayloadCache;
+import server.database.EventRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.*;
+import java.util.function.Consumer;
+
+@Service
+public class EventImportService {
+    private final EventRepository eventRepository;
+    private final EventIdAllocator idAllocator;
+    private final ObjectMapper objectMapper;
+    private final EventPayloadCache payloadCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor
+     * @param eventRepository the EventRepository to check for existing events
+     * @param idAllocator the allocator giving invite codes to events uploaded without one
+     * @param objectMapper the ObjectMapper to read events with
+     * @param payloadCache the cache of encoded events, which may hold an earlier event with an imported ID
+     * @param transactionManager the transaction manager to commit chunks with
+     * @param chunkSize the number of events persisted per transaction
+     */
+    @Autowired
+    public EventImportService(EventRepository eventRepository, EventIdAllocator idAllocator,
+                              ObjectMapper objectMapper, EventPayloadCache payloadCache,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${events.import.chunk-size:500}") int chunkSize) {
+        this.eventRepository = eventRepository;
+        this.idAllocator = idAllocator;
+        this.objectMapper = objectMapper;
+        this.payloadCache = payloadCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    private record PendingEvent(int line, Event source) {
+    }
+
+    /***
+     * Imports newline-delimited JSON events. The upload is read as one stream of JSON values,
+     * only one chunk of events is held in memory at a time, and every chunk is inserted in its
+     * own transaction, so uploads of any size can be imported. Existing events are never overwritten.
+     * @param input the NDJSON upload, one event per line
+     * @param results receives the outcome of every event in the upload, in chunk order
+     * @throws IOException if the upload cannot be read
+     */
+    public void importEvents(InputStream input, Consumer<ImportResultDTO> results) throws IOException {
+        List<PendingEvent> chunk = new ArrayList<>(chunkSize);
+        InputStream remaining = input;
+        int skippedLines = 0;
+        while(remaining != null){
+            try (JsonParser parser = objectMapper.createParser(remaining)) {
+                parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+                try {
+                    readEvents(parser, skippedLines, chunk, results);
+                    remaining = null;
+                } catch (StreamReadException e) {
+                    // a parser cannot continue after malformed JSON, so a new one starts on the next line
+                    int line = skippedLines + parser.currentLocation().getLineNr();
+                    results.accept(ImportResultDTO.failure(line, null, e.getOriginalMessage()));
+                    remaining = afterCurrentLine(parser, remaining);
+                    skippedLines = line;
+                }
+            }
+        }
+        if(!chunk.isEmpty()) persistChunk(chunk, results);
+    }
+
+    private void readEvents(JsonParser parser, int skippedLines, List<PendingEvent> chunk,
+                            Consumer<ImportResultDTO> results) throws IOException {
+        MappingIterator<Event> events = objectMapper.readerFor(Event.class).readValues(parser);
+        while(events.hasNextValue()){
+            int line = skippedLines + parser.currentTokenLocation().getLineNr();
+            try {
+                Event source = events.nextValue();
+                if(source.getTitle() == null || source.getTitle().isEmpty()){
+                    results.accept(ImportResultDTO.failure(line, source.getId(), "Event has no title"));
+                    continue;
+                }
+                chunk.add(new PendingEvent(line, source));
+            } catch (DatabindException e) {
+                // the iterator skips the rest of this event before reading the next one
+                results.accept(ImportResultDTO.failure(line, null, e.getOriginalMessage()));
+            }
+            if(chunk.size() == chunkSize){
+                persistChunk(chunk, results);
+                chunk.clear();
+            }
+        }
+    }
+
+    /***
+     * Gives the rest of the upload after the line the parser stopped on,
+     * including the input the parser had already buffered
+     * @param parser the parser that failed
+     * @param input the input the parser was reading
+     * @return the input from the start of the next line, or null if there is none
+     * @throws IOException if the upload cannot be read
+     */
+    private static InputStream afterCurrentLine(JsonParser parser, InputStream input) throws IOException {
+        ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+        parser.releaseBuffered(buffered);
+        InputStream rest = new SequenceInputStream(new ByteArrayInputStream(buffered.toByteArray()), input);
+        int next;
+        do {
+            next = rest.read();
+        } while(next != -1 && next != '\n');
+        return next == -1 ? null : rest;
+    }
+
+    private void persistChunk(List<PendingEvent> chunk, Consumer<ImportResultDTO> results) {
+        try {
+            transactionTemplate.execute(status -> persistAll(chunk)).forEach(results);
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            // one broken event rolls back its whole chunk, so retry the events one by one to isolate it
+            for(PendingEvent pending : chunk){
+                try {
+                    transactionTemplate.execute(status -> persistAll(List.of(pending))).forEach(results);
+                } catch (DataAccessException | PersistenceException | TransactionException single) {
+                    results.accept(ImportResultDTO.failure(pending.line(), pending.source().getId(),
+                            NestedExceptionUtils.getMostSpecificCause(single).getMessage()));
+                }
+            }
+        }
+    }
+
+    private List<ImportResultDTO> persistAll(List<PendingEvent> chunk) {
+        List<String> ids = chunk.stream().map(pending -> pending.source().getId()).filter(Objects::nonNull).toList();
+        Set<String> taken = ids.isEmpty() ? new HashSet<>() : new HashSet<>(eventRepository.findExistingIds(ids));
+        List<ImportResultDTO> outcome = new ArrayList<>();
+        try {
+            for(PendingEvent pending : chunk){
+                try {
+                    String id = pending.source().getId() == null ? idAllocator.next() : pending.source().getId();
+                    Event event = copyForImport(pending.source(), id);
+                    if(!taken.add(event.getId())){
+                        outcome.add(ImportResultDTO.failure(pending.line(), event.getId(), "Event already exists"));
+                        continue;
+                    }
+                    entityManager.persist(event);
+                    payloadCache.invalidate(event.getId());
+                    outcome.add(ImportResultDTO.success(pending.line(), event.getId()));
+                } catch (IllegalArgumentException e) {
+                    outcome.add(ImportResultDTO.failure(pending.line(), pending.source().getId(), e.getMessage()));
+                }
+            }
+            entityManager.flush();
+        } finally {
+            entityManager.clear();
+        }
+        return outcome;
+    }
+
+    /***
+     * Copies an uploaded event into new, unsaved entities, so that all children get
+     * fresh IDs from the pooled sequences and can be inserted in JDBC batches.
+     * References between expenses and participants or tags are remapped to the copies.
+     * @param source the uploaded event
+     * @param id the invite code to give the copy
+     * @return a new Event with the same content
+     * @throws IllegalArgumentException if an expense refers to a participant outside the event
+     */
+    static Event copyForImport(Event source, String id) {
+        Date creationDate = source.getCreationDate() == null ? new Date() : source.getCreationDate();
+        Event event = new Event(id, source.getTitle(), creationDate);
+        Map<Long, Participant> participants = new HashMap<>();
+        for(Participant participant : orEmpty(source.getParticipants())){
+            Participant copy = new Participant(participant.getName());
+            copy.setLegalName(participant.getLegalName());
+            copy.setIban(participant.getIban());
+            copy.setBic(participant.getBic());
+            copy.setEmail(participant.getEmail());
+            participants.put(participant.getId(), copy);
+            event.addParticipant(copy);
+        }
+        Map<Long, Tag> tags = new HashMap<>();
+        for(Tag tag : orEmpty(source.getEventTags())){
+            tags.put(tag.getId(), copyTag(event, tag));
+        }
+        for(Expense expense : orEmpty(source.getExpenses())){
+            Expense copy = new Expense(expense.getName(), expense.getPriceInCents(), expense.getDate(),
+                    participantCopy(participants, expense.getOwedTo()));
+            copy.setCurrency(expense.getCurrency());
+            Tag tag = expense.getExpenseTag();
+            if(tag != null)
+                copy.setExpenseTag(tags.computeIfAbsent(tag.getId(), tagId -> copyTag(event, tag)));
+            for(Participant participant : orEmpty(expense.getParticipantsInExpense())){
+                copy.addParticipantToExpense(participantCopy(participants, participant));
+            }
+            event.addExpense(copy);
+        }
+        event.setLastActivity(source.getLastActivity() == null ? new Date() : source.getLastActivity());
+        return event;
+    }
+
+    private static Tag copyTag(Event event, Tag tag) {
+        Tag copy = new Tag(tag.getTagName(), tag.getColorCode());
+        event.addTag(copy);
+        return copy;
+    }
+
+    private static Participant participantCopy(Map<Long, Participant> participants, Participant participant) {
+        if(participant == null) return null;
+        Participant copy = participants.get(participant.getId());
+        if(copy == null)
+            throw new IllegalArgumentException("Unknown participant " + participant.getId());
+        return copy;
+    }
+
+    private static <T> Collection<T> orEmpty(Collection<T> collection) {
+        return collection == null ? List.of() : collection;
+    }
+}
@@ -0,0 +1,52 @@
+package server.api;
+
+import commons.dto.EventSummary;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/***
+ * The orders in which events can be listed page by page
+ */
+public enum EventOrder {
+    TITLE("title"),
+    CREATION_DATE("date"),
+    LAST_ACTIVITY("lastActivity");
+
+    private final String path;
+
+    EventOrder(String path) {
+        this.path = path;
+    }
+
+    /***
+     * Finds the order belonging to a URL path segment
+     * @param path the path segment, e.g. "title"
+     * @return the matching EventOrder
+     * @throws IllegalArgumentException if no order uses this path
+     */
+    public static EventOrder fromPath(String path) {
+        return Arrays.stream(values())
+                .filter(order -> order.path.equals(path))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown order: " + path));
+    }
+
+    /***
+     * Builds the cursor pointing right after the given event in this order
+     * @param event the summary of the last event on a page
+     * @return the cursor to continue from, without a key if the event has no value to sort on
+     */
+    public EventCursor cursorAfter(EventSummary event) {
+        String key = switch (this) {
+            case TITLE -> event.getTitle();
+            case CREATION_DATE -> millis(event.getCreationDate());
+            case LAST_ACTIVITY -> millis(event.getLastActivity());
+        };
+        return new EventCursor(key, event.getId());
+    }
+
+    private static String millis(Date date) {
+        return date == null ? null : String.valueOf(date.getTime());
+    }
+}
@@ -1,36 +1,78 @@
 package server.api;
 import commons.Event;
 import commons.Tag;
+import commons.dto.EventSummary;
+import commons.dto.PageDTO;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import server.cache.EventCache;
+import server.cache.EventPayloadCache;
+import server.database.EventBulkRepository;
 import server.database.EventRepository;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 
 @Service
 public class EventService {
+    /**
+     * Number of invite codes tried before event creation gives up
+     */
+    static final int MAX_CREATE_ATTEMPTS = 5;
+
     private final EventRepository eventRepository;
+    private final EventBulkRepository bulkRepository;
+    private final EventIdAllocator idAllocator;
+    private final EventCache eventCache;
+    private final EventPayloadCache payloadCache;
+    private final BalanceService balanceService;
 
     /**
      * constructor
      * autowired - automatically inject instances of the parameters when creating an EventService
      * @param eventRepository used for handling events
+     * @param bulkRepository used for deleting many events at once
+     * @param idAllocator used for finding unused invite codes
+     * @param eventCache used for dropping cached events when they change
+     * @param payloadCache used for dropping the JSON of deleted events, whose IDs may be used again
+     * @param balanceService used for dropping the balances of deleted events
      */
     @Autowired
-    public EventService(EventRepository eventRepository) {
+    public EventService(EventRepository eventRepository, EventBulkRepository bulkRepository,
+                        EventIdAllocator idAllocator, EventCache eventCache,
+                        EventPayloadCache payloadCache, BalanceService balanceService) {
         this.eventRepository = eventRepository;
+        this.bulkRepository = bulkRepository;
+        this.idAllocator = idAllocator;
+        this.eventCache = eventCache;
+        this.payloadCache = payloadCache;
+        this.balanceService = balanceService;
     }
 
     /***
-     * Creates a new Event based on a given title
+     * Creates a new Event based on a given title. The event is only inserted if its invite code
+     * is unused, otherwise it is retried with another code, so an existing event is never overwritten.
      * @param title - the title of the new Event
      * @return a full, persisted Event object
      */
     public Event createEvent(String title){
-        Date currentDate = new Date();
-        Event event = new Event(title, currentDate);
+        for(int attempt = 1; ; attempt++){
+            try {
+                return eventRepository.saveAndFlush(newEvent(idAllocator.next(), title));
+            } catch (DataIntegrityViolationException e) {
+                if(attempt == MAX_CREATE_ATTEMPTS) throw e;
+            }
+        }
+    }
+
+    private Event newEvent(String id, String title) {
+        Event event = new Event(id, title, new Date());
         Tag defaultTag = new Tag("default", "#808080");
         Tag food = new Tag("food", "#008000");
         Tag entranceFees = new Tag("entrance fees", "#0000FF");
@@ -41,16 +83,20 @@ public class EventService {
         event.addTag(entranceFees);
         event.addTag(travel);
         event.addTag(moneyTransfer);
-        return eventRepository.save(event);
+        return event;
     }
 
     /***
-     * Saves an Event object directly to the repository
+     * Saves a copy of an Event object, e.g. one restored from a backup, as a new event
      * @param event the Event to save
      * @return the JPA generated Event saved
+     * @throws DataIntegrityViolationException if an event with the same ID already exists
      */
     public Event saveEvent(Event event){
-        return eventRepository.save(event);
+        String id = event.getId() == null ? idAllocator.next() : event.getId();
+        Event saved = eventRepository.saveAndFlush(EventImportService.copyForImport(event, id));
+        payloadCache.invalidate(id);
+        return saved;
     }
 
     /**
@@ -63,6 +109,74 @@ public class EventService {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new EntityNotFoundException("Event not found"));
         event.setTitle(newTitle);
-        return eventRepository.save(event);
+        event.setLastActivity(new Date());
+        Event savedEvent = eventRepository.save(event);
+        eventCache.invalidate(eventId);
+        return savedEvent;
+    }
+
+    /***
+     * Lists one page of events, sorted and limited by the database. Pages continue from a cursor
+     * (the sort key and ID of the last event seen) instead of an offset, so every page costs
+     * the same no matter how deep into the listing it is. Events without the sorted value come
+     * first in ascending orders and last in descending ones.
+     * @param order the order to list the events in
+     * @param cursor the cursor returned with the previous page, null for the first page
+     * @param size the maximum number of events on the page
+     * @return the summaries of the events on the page, with the cursor to the next page if there is one
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public PageDTO<EventSummary> getEventPage(EventOrder order, String cursor, int size) {
+        // one extra row tells whether another page follows
+        Pageable limit = PageRequest.of(0, size + 1);
+        EventCursor after = cursor == null ? null : EventCursor.decode(cursor);
+        List<EventSummary> events;
+        if(after == null){
+            events = switch (order) {
+                case TITLE -> eventRepository.findTitlePage(limit);
+                case CREATION_DATE -> eventRepository.findCreationDatePage(limit);
+                case LAST_ACTIVITY -> eventRepository.findLastActivityPage(limit);
+            };
+        } else if(after.key() == null){
+            events = switch (order) {
+                case TITLE -> eventRepository.findTitlePageAfterUntitled(after.id(), limit);
+                case CREATION_DATE -> eventRepository.findCreationDatePageAfterUndated(after.id(), limit);
+                case LAST_ACTIVITY -> eventRepository.findLastActivityPageAfterUndated(after.id(), limit);
+            };
+        } else {
+            events = switch (order) {
+                case TITLE -> eventRepository.findTitlePageAfter(after.key(), after.id(), limit);
+                case CREATION_DATE -> eventRepository.findCreationDatePageAfter(after.dateKey(), after.id(), limit);
+                case LAST_ACTIVITY -> eventRepository.findLastActivityPageAfter(after.dateKey(), after.id(), limit);
+            };
+        }
+        if(events.size() <= size) return new PageDTO<>(events, null);
+        List<EventSummary> page = events.subList(0, size);
+        return new PageDTO<>(page, order.cursorAfter(page.get(size - 1)).encode());
+    }
+
+    /***
+     * Deletes the given events and everything they contain in one transaction
+     * @param eventIds the IDs of the events to delete
+     * @return the IDs of the events that existed and were deleted
+     */
+    public List<String> deleteEvents(Collection<String> eventIds) {
+        List<String> deleted = bulkRepository.deleteByIds(eventIds);
+        deleted.forEach(eventCache::invalidate);
+        deleted.forEach(payloadCache::invalidate);
+        deleted.forEach(balanceService::invalidate);
+        return deleted;
+    }
+
+    /***
+     * Deletes all events and everything they contain in one transaction
+     * @return the IDs of the deleted events
+     */
+    public List<String> deleteAllEvents() {
+        List<String> deleted = bulkRepository.deleteAll();
+        eventCache.invalidateAll();
+        payloadCache.invalidateAll();
+        balanceService.invalidateAll();
+        return deleted;
     }
 }
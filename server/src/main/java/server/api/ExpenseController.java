@@ -1,10 +1,14 @@
 package server.api;
 import commons.Expense;
+import commons.dto.EventChangeDTO;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import server.database.EventStamp;
 import server.websockets.WebSocketService;
 
+import java.util.Optional;
 import java.util.Set;
 
 @RestController
@@ -33,8 +37,7 @@ public class ExpenseController {
     @PostMapping("/{eventId}/expenses")
     public ResponseEntity<Void> addExpenseToEvent(@PathVariable String eventId, @RequestBody
         Expense expense) {
-        expenseService.addExpense(eventId, expense);
-        socketService.propagateEventUpdate(eventId);
+        socketService.propagateChange(expenseService.addExpense(eventId, expense));
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
@@ -42,11 +45,16 @@ public class ExpenseController {
      * The method is responsible for creating a GET request
      * that returns the desired information
      * @param eventId identifies the even by the specific ID
+     * @param request the request, holding the If-None-Match and If-Modified-Since headers
      * @return the status of the specific page and the information
-     * (a list of all expenses for a specific event)
+     * (a list of all expenses for a specific event), or 304 if the event did not change
      */
     @GetMapping("/{eventId}/expenses")
-    public ResponseEntity<Set<Expense>> getAllExpensesForEvent(@PathVariable String eventId) {
+    public ResponseEntity<Set<Expense>> getAllExpensesForEvent(@PathVariable String eventId, WebRequest request) {
+        Optional<EventStamp> stamp = expenseService.getEventStamp(eventId);
+        if (stamp.isPresent() && request.checkNotModified(stamp.get().etag("expenses"), stamp.get().lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         Set<Expense> expenses = expenseService.getAllExpenses(eventId);
         return ResponseEntity.ok(expenses);
     }
@@ -60,8 +68,7 @@ public class ExpenseController {
     @DeleteMapping("/{eventId}/expenses/{id}")
     public ResponseEntity<?> removeExpense(@PathVariable String eventId,
                                                          @PathVariable Long id) {
-        expenseService.deleteExpense(eventId, id);
-        socketService.propagateEventUpdate(eventId);
+        socketService.propagateChange(expenseService.deleteExpense(eventId, id));
         return ResponseEntity.ok().build();
     }
 
@@ -76,9 +83,9 @@ public class ExpenseController {
     public ResponseEntity<Expense> editExpense(@PathVariable String eventId,
                                                @PathVariable long id,
                                                @RequestBody Expense expense) {
-        Expense updatedExpense = expenseService.editExpense(id, expense);
-        socketService.propagateEventUpdate(eventId);
-        return ResponseEntity.ok(updatedExpense);
+        EventChangeDTO change = expenseService.editExpense(eventId, id, expense);
+        socketService.propagateChange(change);
+        return ResponseEntity.ok(change.getExpense());
 
     }
 }
\ No newline at end of file
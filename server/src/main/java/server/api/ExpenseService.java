@@ -4,19 +4,22 @@ import commons.Event;
 import commons.Expense;
 import commons.Participant;
 import commons.Tag;
+import commons.dto.EventChangeDTO;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import server.cache.EventCache;
 import server.database.EventRepository;
+import server.database.EventStamp;
 import server.database.ExpenseRepository;
 import server.database.ParticipantRepository;
 import server.database.TagRepository;
+import server.exceptions.ExpenseNotFoundException;
+import server.exceptions.ParticipantNotFoundException;
 import server.exceptions.TagNotFoundException;
 
-import java.util.HashSet;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 
 @Service
 public class ExpenseService {
@@ -24,6 +27,8 @@ public class ExpenseService {
     private final EventRepository eventRepository;
     private final ParticipantRepository participantRepository;
     private final TagRepository tagRepository;
+    private final EventCache eventCache;
+    private final BalanceService balanceService;
 
     /**
      *
@@ -31,49 +36,65 @@ public class ExpenseService {
      * @param eventRepository the repository containing the events
      * @param participantRepository the repository containing the participants
      * @param tagRepository the repository containing the tags
+     * @param eventCache the cache of loaded events, invalidated on every change
+     * @param balanceService the ledgers of balances, adjusted on every change
      */
     @Autowired
     public ExpenseService(ExpenseRepository expenseRepository, EventRepository eventRepository,
-                          ParticipantRepository participantRepository, TagRepository tagRepository) {
+                          ParticipantRepository participantRepository, TagRepository tagRepository,
+                          EventCache eventCache, BalanceService balanceService) {
         this.expenseRepository = expenseRepository;
         this.eventRepository = eventRepository;
         this.participantRepository = participantRepository;
         this.tagRepository = tagRepository;
+        this.eventCache = eventCache;
+        this.balanceService = balanceService;
     }
 
     /**
-     * The method assigns an expense to an event, identified by its id
+     * The method assigns an expense to an event, identified by its id.
+     * Only the new expense and its join rows are written, the rest of the event is never loaded.
      * @param eventId the id by which we find the event
      * @param expense the specific expense for that event
+     * @return the change to send to the clients of the event
      */
     @Transactional
-    public void addExpense(String eventId, Expense expense) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new EntityNotFoundException("Event not found"));
-        if(expense.getOwedTo() != null){
-            long extractedParticipantId = expense.getOwedTo().getId();
-            Participant participant = participantRepository.findById(extractedParticipantId)
-                    .orElseThrow(() -> new EntityNotFoundException("Participant not found"));
-            expense.setOwedTo(participant);
+    public EventChangeDTO addExpense(String eventId, Expense expense) {
+        Expense savedExpense = addExpenses(eventId, List.of(expense)).get(0);
+        return EventChangeDTO.expense(eventId, eventRepository.findVersionById(eventId),
+                EventChangeDTO.Type.EXPENSE_ADDED, savedExpense);
+    }
+
+    /**
+     * Assigns several expenses to an event at once, e.g. all transfers of a settlement.
+     * The event is touched and its participants and tags are looked up once for all expenses.
+     * @param eventId the id by which we find the event
+     * @param expenses the expenses for that event
+     * @return the saved expenses
+     */
+    @Transactional
+    public List<Expense> addExpenses(String eventId, List<Expense> expenses) {
+        if(eventRepository.touch(eventId, new Date()) == 0){
+            throw new EntityNotFoundException("Event not found");
         }
-        Set<Participant> participants = new HashSet<>();
-        if (expense.getParticipantsInExpense() != null) {
-            for (Participant participant : expense.getParticipantsInExpense()) {
-                long participantId = participant.getId();
-                Participant fetchedParticipant = participantRepository.findById(participantId)
-                    .orElseThrow(() -> new EntityNotFoundException("Participant not found"));
-                participants.add(fetchedParticipant);
+        Map<Long, Participant> participants = resolveParticipants(eventId, expenses);
+        Map<Long, Tag> tags = resolveTags(expenses);
+        for(Expense expense : expenses){
+            if(expense.getOwedTo() != null){
+                expense.setOwedTo(participants.get(expense.getOwedTo().getId()));
+            }
+            if(expense.getExpenseTag() != null){
+                expense.setExpenseTag(tags.get(expense.getExpenseTag().getId()));
             }
+            expense.setParticipantToExpense(participantsInExpense(expense, participants));
         }
-        if(expense.getExpenseTag() != null){
-            long extractedTagId = expense.getExpenseTag().getId();
-            Tag fetchedTag = tagRepository.findById(extractedTagId)
-                    .orElseThrow(() -> new TagNotFoundException(extractedTagId));
-            expense.setExpenseTag(fetchedTag);
+        List<Expense> savedExpenses = expenseRepository.saveAll(expenses);
+        for(Expense savedExpense : savedExpenses){
+            eventRepository.attachExpense(eventId, savedExpense.getId());
+            balanceService.expenseChanged(eventId, null, BalanceService.ExpenseShare.of(savedExpense));
         }
-        expense.setParticipantToExpense(participants);
-        event.addExpense(expense);
-        eventRepository.save(event);
+        eventCache.invalidate(eventId);
+        return savedExpenses;
     }
 
     /**
@@ -82,7 +103,7 @@ public class ExpenseService {
      * @return a set of all the expenses of the specific event
      */
     public Set<Expense> getAllExpenses(String eventId) {
-        Optional<Event> eventOptional = eventRepository.findById(eventId);
+        Optional<Event> eventOptional = eventRepository.findWithExpensesById(eventId);
         if(eventOptional.isEmpty()){
             return null;
         } else {
@@ -96,39 +117,42 @@ public class ExpenseService {
      * Deletes an Expense
      * @param eventId the id of the corresponding event
      * @param id the id of the expense to be deleted
+     * @return the change to send to the clients of the event
+     * @throws ExpenseNotFoundException if the expense is not one of the expenses of the event
      */
-    public void deleteExpense(String eventId, Long id) {
+    @Transactional
+    public EventChangeDTO deleteExpense(String eventId, Long id) {
         Expense expense = expenseRepository.findById(id)
                         .orElseThrow(() -> new EntityNotFoundException("Expense not found"));
+        requireInEvent(eventId, id);
         Event event = eventRepository.findById(eventId)
                         .orElseThrow(() -> new EntityNotFoundException("Event not found"));
+        BalanceService.ExpenseShare removedShare = BalanceService.ExpenseShare.of(expense);
         event.removeExpense(expense);
         eventRepository.save(event);
+        eventCache.invalidate(eventId);
+        balanceService.expenseChanged(eventId, removedShare, null);
+        return EventChangeDTO.removal(eventId, eventRepository.findVersionById(eventId),
+                EventChangeDTO.Type.EXPENSE_REMOVED, id);
     }
 
     /**
      * Edit the expense
+     * @param eventId ID of the event the expense belongs to
      * @param id ID of the expense
      * @param newExpense The new expense
-     * @return The updated expense
+     * @return the change to send to the clients of the event, carrying the updated expense
+     * @throws ExpenseNotFoundException if the expense is not one of the expenses of the event
      */
-    public Expense editExpense(long id, Expense newExpense) {
+    @Transactional
+    public EventChangeDTO editExpense(String eventId, long id, Expense newExpense) {
         Expense expense = expenseRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Expense not found"));
+        requireInEvent(eventId, id);
+        BalanceService.ExpenseShare oldShare = BalanceService.ExpenseShare.of(expense);
+        Map<Long, Participant> participants = resolveParticipants(eventId, List.of(newExpense));
         if(newExpense.getOwedTo() != null){
-            long extractedParticipantId = newExpense.getOwedTo().getId();
-            Participant participant = participantRepository.findById(extractedParticipantId)
-                    .orElseThrow(() -> new EntityNotFoundException("Participant not found"));
-            expense.setOwedTo(participant);
-        }
-        Set<Participant> participants = new HashSet<>();
-        if (newExpense.getParticipantsInExpense() != null) {
-            for (Participant participant : newExpense.getParticipantsInExpense()) {
-                long participantId = participant.getId();
-                Participant fetchedParticipant = participantRepository.findById(participantId)
-                    .orElseThrow(() -> new EntityNotFoundException("Participant not found"));
-                participants.add(fetchedParticipant);
-            }
+            expense.setOwedTo(participants.get(newExpense.getOwedTo().getId()));
         }
         Tag newTag = null;
         if(newExpense.getExpenseTag() != null){
@@ -139,8 +163,105 @@ public class ExpenseService {
         expense.setDate(newExpense.getDate());
         expense.setName(newExpense.getName());
         expense.setPriceInCents(newExpense.getPriceInCents());
-        expense.setParticipantToExpense(participants);
+        expense.setParticipantToExpense(participantsInExpense(newExpense, participants));
         expense.setExpenseTag(newTag);
-        return expenseRepository.save(expense);
+        Expense savedExpense = expenseRepository.save(expense);
+        BalanceService.ExpenseShare newShare = BalanceService.ExpenseShare.of(savedExpense);
+        eventRepository.touch(eventId, new Date());
+        eventCache.invalidate(eventId);
+        balanceService.expenseChanged(eventId, oldShare, newShare);
+        return EventChangeDTO.expense(eventId, eventRepository.findVersionById(eventId),
+                EventChangeDTO.Type.EXPENSE_EDITED, savedExpense);
+    }
+
+    /**
+     * Rejects an expense of another event, whose change would otherwise be applied to the ledger of this one
+     */
+    private void requireInEvent(String eventId, long expenseId) {
+        if(!eventRepository.containsExpense(eventId, expenseId)) throw new ExpenseNotFoundException(eventId, expenseId);
+    }
+
+    /**
+     * Provides the version and last activity of an event, to answer conditional requests
+     * @param eventId the ID of the event
+     * @return the stamp of the event, if it exists
+     */
+    public Optional<EventStamp> getEventStamp(String eventId) {
+        return eventRepository.findStampById(eventId);
+    }
+
+    /**
+     * Looks up the payer and every participant of some expenses in one query,
+     * making sure all of them are part of the given event
+     * @param eventId the ID of the event the expenses belong to
+     * @param expenses the submitted expenses, only carrying participant IDs
+     * @return a Map of participant IDs to their persisted Participant
+     * @throws ParticipantNotFoundException listing every ID that is not part of the event
+     */
+    private Map<Long, Participant> resolveParticipants(String eventId, Collection<Expense> expenses) {
+        Set<Long> participantIds = new HashSet<>();
+        for(Expense expense : expenses){
+            if(expense.getOwedTo() != null){
+                participantIds.add(expense.getOwedTo().getId());
+            }
+            if(expense.getParticipantsInExpense() != null){
+                for(Participant participant : expense.getParticipantsInExpense()){
+                    participantIds.add(participant.getId());
+                }
+            }
+        }
+        if(participantIds.isEmpty()) return Map.of();
+
+        Map<Long, Participant> participants = new HashMap<>();
+        for(Participant participant : participantRepository.findAllInEvent(eventId, participantIds)){
+            participants.put(participant.getId(), participant);
+        }
+        if(participants.size() != participantIds.size()){
+            Set<Long> missing = new TreeSet<>(participantIds);
+            missing.removeAll(participants.keySet());
+            throw new ParticipantNotFoundException(eventId, missing);
+        }
+        return participants;
+    }
+
+    /**
+     * Looks up the tags of some expenses in one query
+     * @param expenses the submitted expenses, only carrying tag IDs
+     * @return a Map of tag IDs to their persisted Tag
+     * @throws TagNotFoundException if a tag does not exist
+     */
+    private Map<Long, Tag> resolveTags(Collection<Expense> expenses) {
+        Set<Long> tagIds = new HashSet<>();
+        for(Expense expense : expenses){
+            if(expense.getExpenseTag() != null){
+                tagIds.add(expense.getExpenseTag().getId());
+            }
+        }
+        if(tagIds.isEmpty()) return Map.of();
+
+        Map<Long, Tag> tags = new HashMap<>();
+        for(Tag tag : tagRepository.findAllById(tagIds)){
+            tags.put(tag.getId(), tag);
+        }
+        for(long tagId : tagIds){
+            if(!tags.containsKey(tagId)) throw new TagNotFoundException(tagId);
+        }
+        return tags;
+    }
+
+    /**
+     * Maps the participants of a submitted expense to their persisted counterparts
+     * @param expense the submitted expense
+     * @param participants the resolved participants, by ID
+     * @return a Set of persisted participants taking part in the expense
+     */
+    private Set<Participant> participantsInExpense(Expense expense, Map<Long, Participant> participants) {
+        Set<Participant> result = new HashSet<>();
+        if(expense.getParticipantsInExpense() != null){
+            for(Participant participant : expense.getParticipantsInExpense()){
+                result.add(participants.get(participant.getId()));
+            }
+        }
+        return result;
     }
 }
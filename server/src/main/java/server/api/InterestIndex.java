@@ -0,0 +1,74 @@
+package server.api;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Indexes listeners by the events they are interested in, so an update of an event only reaches
+ * its own listeners. Listeners without a set of events are interested in all of them.
+ * @param <T> the type of the listeners
+ */
+public class InterestIndex<T> {
+    private final Map<String, Set<T>> byEvent = new ConcurrentHashMap<>();
+    private final Set<T> ofAllEvents = ConcurrentHashMap.newKeySet();
+
+    /***
+     * Adds a listener
+     * @param listener the listener
+     * @param eventIds the IDs of the events it is interested in, null for all events
+     */
+    public void add(T listener, Set<String> eventIds) {
+        if(eventIds == null){
+            ofAllEvents.add(listener);
+            return;
+        }
+        for(String eventId : eventIds){
+            byEvent.compute(eventId, (id, listeners) -> {
+                Set<T> interested = listeners == null ? ConcurrentHashMap.newKeySet() : listeners;
+                interested.add(listener);
+                return interested;
+            });
+        }
+    }
+
+    /***
+     * Removes a listener
+     * @param listener the listener
+     * @param eventIds the IDs of the events it was added with, null for all events
+     */
+    public void remove(T listener, Set<String> eventIds) {
+        if(eventIds == null){
+            ofAllEvents.remove(listener);
+            return;
+        }
+        for(String eventId : eventIds){
+            byEvent.computeIfPresent(eventId, (id, listeners) -> {
+                listeners.remove(listener);
+                return listeners.isEmpty() ? null : listeners;
+            });
+        }
+    }
+
+    /***
+     * Runs an action for every listener interested in an event
+     * @param eventId the ID of the event
+     * @param action the action to run
+     */
+    public void forEachInterested(String eventId, Consumer<T> action) {
+        byEvent.getOrDefault(eventId, Set.of()).forEach(action);
+        ofAllEvents.forEach(action);
+    }
+
+    /***
+     * Runs an action for every listener, once each
+     * @param action the action to run
+     */
+    public void forEach(Consumer<T> action) {
+        Set<T> all = ConcurrentHashMap.newKeySet();
+        all.addAll(ofAllEvents);
+        byEvent.values().forEach(all::addAll);
+        all.forEach(action);
+    }
+}
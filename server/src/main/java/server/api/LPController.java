@@ -1,45 +1,113 @@
 package server.api;
 
 import commons.dto.EventNameChangeDTO;
-import org.springframework.http.HttpStatus;
+import commons.dto.NameChangesDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.context.request.async.DeferredResult;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Consumer;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Long polling of event name changes. Parked polls are indexed by the events they ask about,
+ * so a rename only completes the polls of clients that show the renamed event, and it does so
+ * on a separate thread instead of the thread of the rename request.
+ */
 @Controller
 @RequestMapping("/api/updates")
 public class LPController {
-    private final Map<Object, Consumer<EventNameChangeDTO>> listeners = new ConcurrentHashMap<>();
+    /**
+     * A parked poll with the cursor and events it asked for, null events meaning all of them
+     */
+    private record Poll(DeferredResult<ResponseEntity<NameChangesDTO>> result, String cursor, Set<String> eventIds) {
+    }
+
+    private final InterestIndex<Poll> polls = new InterestIndex<>();
+    private final UpdateLog updateLog;
+    private final Executor fanOut;
+
+    /***
+     * Constructor
+     * @param updateLog the log of name changes, remembering them for clients that are between polls
+     * @param threads the number of threads completing the polls of renamed events
+     */
+    @Autowired
+    public LPController(UpdateLog updateLog, @Value("${updates.names.fan-out-threads:2}") int threads) {
+        this(updateLog, Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "name-update-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Constructor with a custom executor to complete polls on
+     * @param updateLog the log of name changes, remembering them for clients that are between polls
+     * @param fanOut the executor completing the polls of renamed events
+     */
+    LPController(UpdateLog updateLog, Executor fanOut) {
+        this.updateLog = updateLog;
+        this.fanOut = fanOut;
+        updateLog.addListener(update -> {
+            if(update.payload() instanceof EventNameChangeDTO change) propagate(change);
+        });
+    }
+
+    /**
+     * Stops the threads completing polls
+     */
+    @PreDestroy
+    void stop() {
+        if(fanOut instanceof ExecutorService service) service.shutdownNow();
+    }
 
     /***
      * Long Polling endpoint for name updates
-     * @return a ResponseEntity containing a DTO if there is a name change within the time span
-     * A NO_CONTENT response otherwise
+     * @param cursor the cursor of the last response the client received, absent on its first poll
+     * @param events the IDs of the events the client shows, absent for the changes of all events
+     * @return a ResponseEntity containing the name changes of the events since the cursor as soon as
+     * there are any, right away on the first poll or if the client has to resync.
+     * Otherwise, after the time span, the cursor to continue with and no changes
      */
     @GetMapping("/names")
-    public DeferredResult<ResponseEntity<EventNameChangeDTO>> getNameUpdates(){
-        ResponseEntity<Object> noContent = ResponseEntity.status(HttpStatus.NO_CONTENT).build();
-        DeferredResult<ResponseEntity<EventNameChangeDTO>> res =
-                new DeferredResult<>(5000L, noContent);
+    public DeferredResult<ResponseEntity<NameChangesDTO>> getNameUpdates(
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) List<String> events){
+        DeferredResult<ResponseEntity<NameChangesDTO>> res = new DeferredResult<>(5000L);
+        Poll poll = new Poll(res, cursor, events == null ? null : Set.copyOf(events));
+        res.onTimeout(() -> res.setResult(ResponseEntity.ok(updateLog.nameChangesSince(cursor, poll.eventIds()))));
+        res.onCompletion(() -> polls.remove(poll, poll.eventIds()));
 
-        Object key = new Object();
-        listeners.put(key, dto -> res.setResult(ResponseEntity.ok(dto)));
-        res.onCompletion(()->listeners.remove(key));
+        polls.add(poll, poll.eventIds());
+        // changes made before the poll was parked are sent right away
+        offer(poll);
 
         return res;
     }
 
-    /***
-     * Propagates an event name change to all listeners
-     * @param dto the EventNameChangeDTO to send out
+    /**
+     * Completes the polls of clients that show a renamed event
+     */
+    private void propagate(EventNameChangeDTO dto){
+        fanOut.execute(() -> polls.forEachInterested(dto.getEventId(), this::offer));
+    }
+
+    /**
+     * Completes a poll if there are changes it has to receive
      */
-    public void propagateToAllListeners(EventNameChangeDTO dto){
-        listeners.forEach((key, listener) -> listener.accept(dto));
+    private void offer(Poll poll) {
+        NameChangesDTO changes = updateLog.nameChangesSince(poll.cursor(), poll.eventIds());
+        if(poll.cursor() == null || changes.isResync() || !changes.getChanges().isEmpty()){
+            poll.result().setResult(ResponseEntity.ok(changes));
+        }
     }
 }
@@ -0,0 +1,73 @@
+package server.api;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import server.cache.CacheStats;
+import server.cache.EventCache;
+import server.cache.EventPayloadCache;
+import server.websockets.BroadcastStats;
+import server.websockets.OutboundFlowControl;
+import server.websockets.OutboundStats;
+import server.websockets.WebSocketService;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+    private final EventCache eventCache;
+    private final EventPayloadCache payloadCache;
+    private final WebSocketService socketService;
+    private final OutboundFlowControl flowControl;
+
+    /***
+     * Constructor of the MetricsController
+     * @param eventCache the cache of loaded events
+     * @param payloadCache the cache of encoded events
+     * @param socketService the service broadcasting event changes
+     * @param flowControl the bounds on the frames waiting for every WebSocket session
+     */
+    public MetricsController(EventCache eventCache, EventPayloadCache payloadCache, WebSocketService socketService,
+                             OutboundFlowControl flowControl) {
+        this.eventCache = eventCache;
+        this.payloadCache = payloadCache;
+        this.socketService = socketService;
+        this.flowControl = flowControl;
+    }
+
+    /***
+     * Endpoint for the hit, miss and eviction counters of the event cache
+     * @return the current counters of the event cache
+     */
+    @GetMapping("/event-cache")
+    public ResponseEntity<CacheStats> eventCache() {
+        return ResponseEntity.ok(eventCache.stats());
+    }
+
+    /***
+     * Endpoint for the hit, miss and eviction counters of the cache of encoded events
+     * @return the current counters of the payload cache
+     */
+    @GetMapping("/event-payloads")
+    public ResponseEntity<CacheStats> eventPayloads() {
+        return ResponseEntity.ok(payloadCache.stats());
+    }
+
+    /***
+     * Endpoint for the counters of the event broadcasts, including how many frames coalescing saved
+     * @return the current counters of the broadcasts
+     */
+    @GetMapping("/broadcasts")
+    public ResponseEntity<BroadcastStats> broadcasts() {
+        return ResponseEntity.ok(socketService.broadcastStats());
+    }
+
+    /***
+     * Endpoint for the frames sent, replaced and dropped per WebSocket session and per topic
+     * @return the current counters of the outbound channel
+     */
+    @GetMapping("/outbound")
+    public ResponseEntity<OutboundStats> outbound() {
+        return ResponseEntity.ok(flowControl.stats());
+    }
+}
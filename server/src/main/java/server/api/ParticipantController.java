@@ -1,5 +1,6 @@
 package server.api;
 import commons.Participant;
+import commons.dto.EventChangeDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -34,8 +35,7 @@ public class ParticipantController {
     @PostMapping("/{eventId}/participants")
     public ResponseEntity<Void> addParticipantToEvent(@PathVariable String eventId,
                                                       @RequestBody Participant participant) {
-        participantService.addParticipantToEvent(eventId, participant);
-        socketService.propagateEventUpdate(eventId);
+        socketService.propagateChange(participantService.addParticipantToEvent(eventId, participant));
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
@@ -51,10 +51,9 @@ public class ParticipantController {
     public ResponseEntity<Participant> editParticipant(@PathVariable String eventId,
                                                        @PathVariable Long participantId,
                                                        @RequestBody Participant participantData) {
-        Participant updatedParticipant = participantService.editParticipant(participantId,
-                participantData);
-        socketService.propagateEventUpdate(eventId);
-        return ResponseEntity.ok(updatedParticipant);
+        EventChangeDTO change = participantService.editParticipant(eventId, participantId, participantData);
+        socketService.propagateChange(change);
+        return ResponseEntity.ok(change.getParticipant());
     }
 
     /**
@@ -66,8 +65,7 @@ public class ParticipantController {
     @DeleteMapping("/{eventId}/participants/{participantId}")
     public ResponseEntity<?> removeParticipant(@PathVariable String eventId,
                                                @PathVariable Long participantId) {
-        participantService.removeParticipant(eventId, participantId);
-        socketService.propagateEventUpdate(eventId);
+        socketService.propagateChange(participantService.removeParticipant(eventId, participantId));
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
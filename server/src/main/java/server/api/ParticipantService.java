@@ -3,14 +3,20 @@ package server.api;
 import commons.Event;
 import commons.Expense;
 import commons.Participant;
+import commons.dto.EventChangeDTO;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import server.cache.EventCache;
 import server.database.EventRepository;
 import server.database.ExpenseRepository;
 import server.database.ParticipantRepository;
+import server.exceptions.ParticipantNotFoundException;
 
 
+import java.util.Date;
+import java.util.List;
 import java.util.Set;
 
 @Service
@@ -18,6 +24,8 @@ public class ParticipantService {
     private final EventRepository eventRepository;
     private final ParticipantRepository participantRepository;
     private final ExpenseRepository expenseRepository;
+    private final EventCache eventCache;
+    private final BalanceService balanceService;
 
     /**
      * constructor
@@ -25,22 +33,30 @@ public class ParticipantService {
      * @param eventRepository used for handling events
      * @param participantRepository used for handling participants
      * @param expenseRepository used for handling expenses
+     * @param eventCache used for dropping cached events when they change
+     * @param balanceService used for dropping balances when the participants change
      */
     @Autowired
     public ParticipantService(EventRepository eventRepository,
                               ParticipantRepository participantRepository,
-                              ExpenseRepository expenseRepository) {
+                              ExpenseRepository expenseRepository,
+                              EventCache eventCache,
+                              BalanceService balanceService) {
         this.eventRepository = eventRepository;
         this.participantRepository = participantRepository;
         this.expenseRepository = expenseRepository;
+        this.eventCache = eventCache;
+        this.balanceService = balanceService;
     }
 
     /**
      * Add a new participant to an event, add a new participant to the repository
      * @param participant the Participant to add
      * @param eventId the event to which we want to add a participant
+     * @return the change to send to the clients of the event
      */
-    public void addParticipantToEvent(String eventId, Participant participant) {
+    @Transactional
+    public EventChangeDTO addParticipantToEvent(String eventId, Participant participant) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new EntityNotFoundException("Event not found"));
         Participant dbParticipant = new Participant(participant.getName());
@@ -48,8 +64,13 @@ public class ParticipantService {
         dbParticipant.setIban(participant.getIban());
         dbParticipant.setBic(participant.getBic());
         dbParticipant.setEmail(participant.getEmail());
+        participantRepository.save(dbParticipant);
         event.addParticipant(dbParticipant);
         eventRepository.save(event);
+        eventCache.invalidate(eventId);
+        balanceService.invalidate(eventId);
+        return EventChangeDTO.participant(eventId, eventRepository.findVersionById(eventId),
+                EventChangeDTO.Type.PARTICIPANT_ADDED, dbParticipant);
     }
 
     /**
@@ -57,8 +78,10 @@ public class ParticipantService {
      * throw an exception
      * @param eventId the id of the event of the participant
      * @param participantId the participant we want to remove
+     * @return the change to send to the clients of the event
      */
-    public void removeParticipant(String eventId, Long participantId) {
+    @Transactional
+    public EventChangeDTO removeParticipant(String eventId, Long participantId) {
         Participant participant = participantRepository.findById(participantId)
                 .orElseThrow(() -> new EntityNotFoundException("Participant not found"));
         Event event = eventRepository.findById(eventId)
@@ -74,24 +97,34 @@ public class ParticipantService {
         }
         event.removeParticipant(participant);
         eventRepository.save(event);
+        eventCache.invalidate(eventId);
+        balanceService.invalidate(eventId);
+        return EventChangeDTO.removal(eventId, eventRepository.findVersionById(eventId),
+                EventChangeDTO.Type.PARTICIPANT_REMOVED, participantId);
     }
 
     /**
-     * edit the details of a participant that is in an event
+     * edit the details of a participant that is in an event. The details are copied onto the stored
+     * participant, which is written when the transaction commits.
+     * @param eventId the event the participant is in
      * @param participantId the participant whose details we want to change
      * @param participant the details of the participant
-     * @return the participants modified details are now saved in the database
+     * @return the change to send to the clients of the event, carrying the stored participant
+     * @throws ParticipantNotFoundException if the participant is not part of the event
      */
-
-    public Participant editParticipant(Long participantId, Participant participant) {
-        Participant dbParticipant = participantRepository.findById(participantId)
-                .orElseThrow(() -> new EntityNotFoundException("Participant not found"));
+    @Transactional
+    public EventChangeDTO editParticipant(String eventId, Long participantId, Participant participant) {
+        Participant dbParticipant = participantRepository.findAllInEvent(eventId, List.of(participantId)).stream()
+                .findFirst().orElseThrow(() -> new ParticipantNotFoundException(eventId, List.of(participantId)));
         dbParticipant.setName(participant.getName());
         dbParticipant.setLegalName(participant.getLegalName());
         dbParticipant.setIban(participant.getIban());
         dbParticipant.setBic(participant.getBic());
         dbParticipant.setEmail(participant.getEmail());
-        return participantRepository.save(participant);
+        eventRepository.touch(eventId, new Date());
+        eventCache.invalidate(eventId);
+        return EventChangeDTO.participant(eventId, eventRepository.findVersionById(eventId),
+                EventChangeDTO.Type.PARTICIPANT_EDITED, dbParticipant);
     }
 
 
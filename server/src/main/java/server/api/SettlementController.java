@@ -0,0 +1,67 @@
+package server.api;
+
+import commons.dto.SettlementDTO;
+import commons.dto.TransferDTO;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import server.websockets.WebSocketService;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/events")
+public class SettlementController {
+    private final SettlementService settlementService;
+    private final WebSocketService socketService;
+
+    /***
+     * Constructor of the SettlementController
+     * @param settlementService the SettlementService computing and executing plans
+     * @param socketService the WebSocketService propagating updates
+     */
+    public SettlementController(SettlementService settlementService, WebSocketService socketService) {
+        this.settlementService = settlementService;
+        this.socketService = socketService;
+    }
+
+    /***
+     * Endpoint for the transfers that settle all debts of an event
+     * @param eventId the ID of the event
+     * @return the plan with the event version it is valid for, or a bad request if the event does not exist
+     */
+    @GetMapping("/{eventId}/settlement")
+    public ResponseEntity<SettlementDTO> getPlan(@PathVariable String eventId) {
+        Optional<SettlementDTO> plan = settlementService.getPlan(eventId);
+        if(plan.isEmpty())
+            return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(plan.get());
+    }
+
+    /***
+     * Endpoint for executing the whole plan of an event, or some of its transfers, in one go.
+     * Clients receive a single update for all transfers.
+     * @param eventId the ID of the event
+     * @param version the version of the plan the client saw
+     * @param transfers the transfers to execute, none to execute the whole plan
+     * @return the executed transfers, a bad request if the event does not exist or no version
+     *         was given, or a conflict if the plan changed in the meantime
+     */
+    @PostMapping("/{eventId}/settlement")
+    public ResponseEntity<List<TransferDTO>> settle(@PathVariable String eventId,
+                                                    @RequestParam long version,
+                                                    @RequestBody(required = false) List<TransferDTO> transfers) {
+        List<TransferDTO> executed;
+        try {
+            executed = settlementService.settle(eventId, version, transfers);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        if(!executed.isEmpty()) socketService.propagateEventUpdate(eventId);
+        return ResponseEntity.ok(executed);
+    }
+}
@@ -0,0 +1,180 @@
+package server.api;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.Tag;
+import commons.balance.BalanceKernel;
+import commons.dto.SettlementDTO;
+import commons.dto.TransferDTO;
+import commons.settlement.Payment;
+import commons.settlement.SettlementEngine;
+import commons.settlement.SettlementStrategy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import server.cache.EventCache;
+import server.database.EventRepository;
+import server.database.EventStamp;
+import server.database.TagRepository;
+
+import java.util.*;
+
+/**
+ * Computes the transfers that settle all debts of an event, and executes them.
+ * Plans are remembered per event version, so asking again for an unchanged event costs
+ * a single version lookup.
+ */
+@Service
+public class SettlementService {
+    /**
+     * Name of the tag that marks money transfers, created with every event
+     */
+    static final String TRANSFER_TAG = "money transfer";
+    /**
+     * Name of the expenses that record money transfers, the same the client uses
+     */
+    static final String TRANSFER_NAME = "Money Transfer";
+
+    private record Plan(long version, List<TransferDTO> transfers) {
+    }
+
+    private final EventRepository eventRepository;
+    private final TagRepository tagRepository;
+    private final EventCache eventCache;
+    private final ExpenseService expenseService;
+    private final SettlementStrategy strategy;
+    private final int maxSize;
+    private final Map<String, Plan> plans;
+
+    /**
+     * Constructor
+     * @param eventRepository the EventRepository to look up event versions with
+     * @param tagRepository the TagRepository to find the money transfer tag with
+     * @param eventCache the cache to load full events from
+     * @param expenseService the ExpenseService recording the transfers
+     * @param strategy how to settle balances, AUTO for the fewest transfers in small events
+     * @param maxSize the maximum number of events to remember a plan for
+     */
+    @Autowired
+    public SettlementService(EventRepository eventRepository, TagRepository tagRepository, EventCache eventCache,
+                             ExpenseService expenseService,
+                             @Value("${settlement.strategy:AUTO}") SettlementStrategy strategy,
+                             @Value("${events.cache.max-size:1000}") int maxSize) {
+        this.eventRepository = eventRepository;
+        this.tagRepository = tagRepository;
+        this.eventCache = eventCache;
+        this.expenseService = expenseService;
+        this.strategy = strategy;
+        this.maxSize = maxSize;
+        this.plans = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Plan> eldest) {
+                return size() > SettlementService.this.maxSize;
+            }
+        };
+    }
+
+    /***
+     * Provides the transfers that settle all debts of an event at its current version
+     * @param eventId the ID of the event
+     * @return the plan with the version it was computed for, empty if the event does not exist
+     */
+    public Optional<SettlementDTO> getPlan(String eventId) {
+        Optional<EventStamp> stamp = eventRepository.findStampById(eventId);
+        if(stamp.isEmpty()) return Optional.empty();
+        Long version = stamp.get().version();
+        synchronized (this) {
+            Plan plan = plans.get(eventId);
+            if(plan != null && version != null && plan.version() == version){
+                return Optional.of(new SettlementDTO(version, plan.transfers()));
+            }
+        }
+        Optional<Event> event = eventCache.getOrLoad(eventId, version, eventRepository::findFullById);
+        if(event.isEmpty()) return Optional.empty();
+        List<TransferDTO> transfers = computeTransfers(event.get(), strategy);
+        Long loadedVersion = event.get().getVersion();
+        if(loadedVersion != null){
+            synchronized (this) {
+                plans.put(eventId, new Plan(loadedVersion, transfers));
+            }
+        }
+        return Optional.of(new SettlementDTO(loadedVersion, transfers));
+    }
+
+    /***
+     * Calculates the transfers that settle an event. Balances are rounded to cents, and participants
+     * are ordered by ID, so every server computes the same plan.
+     * @param event the full event
+     * @param engine the engine to settle the balances with
+     * @return the transfers that settle all debts
+     */
+    static List<TransferDTO> computeTransfers(Event event, SettlementEngine engine) {
+        BalanceKernel kernel = BalanceKernel.of(event);
+        long[] balances = kernel.credits();
+        for(int ordinal = 0; ordinal < balances.length; ordinal++){
+            balances[ordinal] = BalanceKernel.roundToCents(balances[ordinal]);
+        }
+        List<TransferDTO> transfers = new ArrayList<>();
+        for(Payment payment : engine.settle(balances)){
+            transfers.add(new TransferDTO(kernel.participant(payment.debtor()).getId(), (int) payment.amount(),
+                    kernel.participant(payment.creditor()).getId()));
+        }
+        return transfers;
+    }
+
+    /***
+     * Executes transfers of the current plan of an event in one transaction, recording each
+     * as a money transfer expense. The event row stays locked from reading the plan until the
+     * transfers are recorded, so they always belong to the plan of the checked version.
+     * @param eventId the ID of the event
+     * @param version the version of the event the caller saw
+     * @param requested the transfers to execute, null or empty to execute the whole plan
+     * @return the executed transfers
+     * @throws EntityNotFoundException if the event does not exist
+     * @throws IllegalStateException if the event changed since the given version, or a transfer
+     *                               is not part of the current plan
+     */
+    @Transactional
+    public List<TransferDTO> settle(String eventId, long version, List<TransferDTO> requested) {
+        eventRepository.lockById(eventId).orElseThrow(() -> new EntityNotFoundException("Event not found"));
+        SettlementDTO plan = getPlan(eventId).orElseThrow(() -> new EntityNotFoundException("Event not found"));
+        if(plan.getVersion() == null || plan.getVersion() != version){
+            throw new IllegalStateException("Event changed since version " + version);
+        }
+        List<TransferDTO> transfers = requested == null || requested.isEmpty()
+                ? plan.getTransfers() : requested;
+        List<TransferDTO> remaining = new ArrayList<>(plan.getTransfers());
+        for(TransferDTO transfer : transfers){
+            if(!remaining.remove(transfer)){
+                throw new IllegalStateException("Transfer is not part of the current plan: " + transfer);
+            }
+        }
+        if(transfers.isEmpty()) return List.of();
+
+        Tag transferTag = tagRepository.findAllInEventByName(eventId, TRANSFER_TAG).stream()
+                .findFirst().orElse(null);
+        List<Expense> expenses = new ArrayList<>();
+        for(TransferDTO transfer : transfers){
+            expenses.add(transferExpense(transfer, transferTag));
+        }
+        expenseService.addExpenses(eventId, expenses);
+        return transfers;
+    }
+
+    /**
+     * Models a transfer like the client does: the receiver is owed minus the amount by the sender
+     * @param transfer the transfer
+     * @param transferTag the money transfer tag of the event, null if it has none
+     * @return an expense only carrying the IDs of the participants
+     */
+    private static Expense transferExpense(TransferDTO transfer, Tag transferTag) {
+        Expense expense = new Expense(TRANSFER_NAME, -transfer.getAmount(), new Date(),
+                new Participant(transfer.getReceiverId(), null));
+        expense.addParticipantToExpense(new Participant(transfer.getSenderId(), null));
+        expense.setExpenseTag(transferTag);
+        return expense;
+    }
+}
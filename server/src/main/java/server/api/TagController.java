@@ -1,6 +1,7 @@
 package server.api;
 
 import commons.Tag;
+import commons.dto.EventChangeDTO;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -35,8 +36,7 @@ public class TagController {
     @PostMapping("/{eventId}/tag/{tagName}")
     public ResponseEntity<Void> addTagToEvent(@PathVariable String eventId, @PathVariable String tagName,
                                               @RequestBody String colorCode){
-        tagService.addTagToEvent(eventId, tagName, colorCode);
-        webSocketService.propagateEventUpdate(eventId);
+        webSocketService.propagateChange(tagService.addTagToEvent(eventId, tagName, colorCode));
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
@@ -49,8 +49,7 @@ public class TagController {
     @DeleteMapping("/tags/{eventId}/{tagId}")
     public ResponseEntity<?> removeTag(@PathVariable String eventId,
                                        @PathVariable Long tagId){
-        tagService.removeTag(eventId, tagId);
-        webSocketService.propagateEventUpdate(eventId);
+        webSocketService.propagateChange(tagService.removeTag(eventId, tagId));
         return ResponseEntity.ok().build();
     }
 
@@ -64,9 +63,9 @@ public class TagController {
     @PutMapping("/tags/{eventId}/{tagId}")
     public ResponseEntity<Tag> editTag(@PathVariable String eventId, @PathVariable Long tagId, @RequestBody Tag tag) {
         try {
-            Tag newTag = tagService.editTag(tagId, tag);
-            webSocketService.propagateEventUpdate(eventId);
-            return ResponseEntity.ok(newTag);
+            EventChangeDTO change = tagService.editTag(eventId, tagId, tag);
+            webSocketService.propagateChange(change);
+            return ResponseEntity.ok(change.getTag());
         } catch(EntityNotFoundException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -3,13 +3,17 @@ package server.api;
 import commons.Event;
 import commons.Expense;
 import commons.Tag;
+import commons.dto.EventChangeDTO;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import server.cache.EventCache;
 import server.database.EventRepository;
 import server.database.ExpenseRepository;
 import server.database.TagRepository;
 
+import java.util.Date;
 import java.util.Set;
 
 @Service
@@ -17,19 +21,23 @@ public class TagService {
     private final EventRepository eventRepository;
     private final ExpenseRepository expenseRepository;
     private final TagRepository tagRepository;
+    private final EventCache eventCache;
 
     /**
      * Constructor
      * @param eventRepository EventRepository to use
      * @param expenseRepository  ExpenseRepository to use
      * @param tagRepository TagRepository to use
+     * @param eventCache EventCache to invalidate on every change
      */
     @Autowired
     public TagService(EventRepository eventRepository,
-                      ExpenseRepository expenseRepository, TagRepository tagRepository){
+                      ExpenseRepository expenseRepository, TagRepository tagRepository,
+                      EventCache eventCache){
         this.eventRepository = eventRepository;
         this.expenseRepository = expenseRepository;
         this.tagRepository = tagRepository;
+        this.eventCache = eventCache;
     }
 
     /**
@@ -37,21 +45,30 @@ public class TagService {
      * @param eventId id of the event to add the tag to
      * @param tagName name of the tag
      * @param colorCode color code of the tag
+     * @return the change to send to the clients of the event
      */
-    public void addTagToEvent(String eventId, String tagName, String colorCode){
+    @Transactional
+    public EventChangeDTO addTagToEvent(String eventId, String tagName, String colorCode){
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new EntityNotFoundException("Event not found"));
         Tag tag = new Tag(tagName, colorCode);
+        tagRepository.save(tag);
         event.addTag(tag);
+        event.setLastActivity(new Date());
         eventRepository.save(event);
+        eventCache.invalidate(eventId);
+        return EventChangeDTO.tag(eventId, eventRepository.findVersionById(eventId),
+                EventChangeDTO.Type.TAG_ADDED, tag);
     }
 
     /**
      * Removes a tag from an event
      * @param eventId id of the event to remove the tag from
      * @param tagId id of the tag to remove
+     * @return the change to send to the clients of the event
      */
-    public void removeTag(String eventId, Long tagId){
+    @Transactional
+    public EventChangeDTO removeTag(String eventId, Long tagId){
         Tag tag = tagRepository.findById(tagId)
                 .orElseThrow(() -> new EntityNotFoundException("Tag not found"));
         Event event = eventRepository.findById(eventId)
@@ -70,21 +87,31 @@ public class TagService {
             }
         }
         event.removeTag(tag);
+        event.setLastActivity(new Date());
         eventRepository.save(event);
+        eventCache.invalidate(eventId);
+        return EventChangeDTO.removal(eventId, eventRepository.findVersionById(eventId),
+                EventChangeDTO.Type.TAG_REMOVED, tagId);
     }
 
     /**
      * Save edited tag to database
+     * @param eventId ID of the event the tag belongs to
      * @param id ID of edited tag
      * @param newTag Edited tag
      * @throws EntityNotFoundException Tag is not found in the database
-     * @return Tag that is edited
+     * @return the change to send to the clients of the event, carrying the edited tag
      */
-    public Tag editTag(Long id, Tag newTag) throws EntityNotFoundException {
+    @Transactional
+    public EventChangeDTO editTag(String eventId, Long id, Tag newTag) throws EntityNotFoundException {
         Tag tag = tagRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Tag is not found"));
         tag.setTagName(newTag.getTagName());
         tag.setColorCode(newTag.getColorCode());
-        return tagRepository.save(tag);
+        Tag savedTag = tagRepository.save(tag);
+        eventRepository.touch(eventId, new Date());
+        eventCache.invalidate(eventId);
+        return EventChangeDTO.tag(eventId, eventRepository.findVersionById(eventId),
+                EventChangeDTO.Type.TAG_EDITED, savedTag);
     }
 }
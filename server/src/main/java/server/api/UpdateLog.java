@@ -0,0 +1,158 @@
+package server.api;
+
+import commons.dto.EventDeletedDTO;
+import commons.dto.EventNameChangeDTO;
+import commons.dto.NameChangesDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Remembers the latest name changes and deletions of events in a ring buffer, numbered in the order
+ * they happened, for the clients that poll or stream them.
+ * A cursor is the number of the next update a client has not seen, prefixed with the start time of
+ * this log, so that cursors from before a restart of the server are recognized as stale.
+ */
+@Component
+public class UpdateLog {
+    /**
+     * An update of an event
+     * @param cursor the cursor right after this update
+     * @param eventId the ID of the updated event
+     * @param payload the EventNameChangeDTO or EventDeletedDTO describing the update
+     */
+    public record Update(String cursor, String eventId, Object payload) {
+    }
+
+    /**
+     * The updates since a cursor
+     * @param updates the updates, oldest first
+     * @param cursor the cursor after the latest update, to continue with
+     * @param resync true if the updates since the given cursor are no longer known
+     */
+    public record Batch(List<Update> updates, String cursor, boolean resync) {
+    }
+
+    private final Update[] buffer;
+    private final String epoch;
+    private final List<Consumer<Update>> listeners = new CopyOnWriteArrayList<>();
+    private long next;
+
+    /**
+     * Constructor
+     * @param capacity the number of updates remembered
+     */
+    @Autowired
+    public UpdateLog(@Value("${updates.capacity:1024}") int capacity) {
+        this(capacity, System.currentTimeMillis());
+    }
+
+    /**
+     * Constructor with a fixed start time
+     * @param capacity the number of updates remembered
+     * @param epoch the start time of the log, part of every cursor
+     */
+    UpdateLog(int capacity, long epoch) {
+        if(capacity <= 0) throw new IllegalArgumentException("The capacity must be positive");
+        this.buffer = new Update[capacity];
+        this.epoch = Long.toString(epoch, 36);
+    }
+
+    /***
+     * Adds a name change to the log, overwriting the oldest update if the log is full
+     * @param change the name change
+     */
+    public void append(EventNameChangeDTO change) {
+        append(change.getEventId(), change);
+    }
+
+    /***
+     * Adds a deletion to the log, overwriting the oldest update if the log is full
+     * @param deletion the deletion
+     */
+    public void append(EventDeletedDTO deletion) {
+        append(deletion.getEventId(), deletion);
+    }
+
+    private void append(String eventId, Object payload) {
+        Update update;
+        synchronized (this) {
+            update = new Update(epoch + "-" + (next + 1), eventId, payload);
+            buffer[(int) (next % buffer.length)] = update;
+            next++;
+        }
+        listeners.forEach(listener -> listener.accept(update));
+    }
+
+    /***
+     * Registers a listener that is told about every update after it was added to the log.
+     * Listeners run on the thread of the update, so they should hand off any real work.
+     * @param listener the listener
+     */
+    public void addListener(Consumer<Update> listener) {
+        listeners.add(listener);
+    }
+
+    /***
+     * Provides the cursor after the latest update
+     * @return the cursor a client that is up to date continues with
+     */
+    public synchronized String head() {
+        return epoch + "-" + next;
+    }
+
+    /***
+     * Provides the updates of some events after a cursor. The returned cursor skips the updates
+     * of other events as well, so they do not push the client out of the buffer.
+     * @param cursor the cursor of the client, null for a client that has not seen any updates yet
+     * @param eventIds the IDs of the events to provide updates of, null for all events
+     * @return the updates since the cursor, nothing for a client without cursor, or a resync if the cursor
+     *         is not one of this log or its updates were overwritten
+     */
+    public synchronized Batch since(String cursor, Set<String> eventIds) {
+        if(cursor == null) return new Batch(List.of(), head(), false);
+        long from = position(cursor);
+        if(from < 0 || from > next || next - from > buffer.length) return new Batch(List.of(), head(), true);
+        List<Update> updates = new ArrayList<>();
+        for(long sequence = from; sequence < next; sequence++){
+            Update update = buffer[(int) (sequence % buffer.length)];
+            if(eventIds == null || eventIds.contains(update.eventId())) updates.add(update);
+        }
+        return new Batch(updates, head(), false);
+    }
+
+    /***
+     * Provides the name changes of some events after a cursor
+     * @param cursor the cursor of the client, null for a client that has not seen any changes yet
+     * @param eventIds the IDs of the events to provide changes of, null for all events
+     * @return the changes since the cursor with the cursor after them, or a resync if the cursor
+     *         is not one of this log or its changes were overwritten
+     */
+    public NameChangesDTO nameChangesSince(String cursor, Set<String> eventIds) {
+        Batch batch = since(cursor, eventIds);
+        List<EventNameChangeDTO> changes = new ArrayList<>();
+        for(Update update : batch.updates()){
+            if(update.payload() instanceof EventNameChangeDTO change) changes.add(change);
+        }
+        return new NameChangesDTO(changes, batch.cursor(), batch.resync());
+    }
+
+    /**
+     * Reads the number of the next update from a cursor, -1 if it is not a cursor of this log
+     */
+    private long position(String cursor) {
+        int separator = cursor.indexOf('-');
+        if(separator < 0 || !cursor.substring(0, separator).equals(epoch)) return -1;
+        try {
+            return Long.parseLong(cursor.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
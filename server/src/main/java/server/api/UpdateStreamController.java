@@ -0,0 +1,267 @@
+package server.api;
+
+import commons.dto.EventDeletedDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams the name changes and deletions of events as Server-Sent Events over one long-lived connection.
+ * Every event carries the cursor after it as its ID, so a client that reconnects with Last-Event-ID
+ * receives what it missed. An idle stream only costs a heartbeat comment now and then.
+ * Streams are written to by a pool of senders, one sender per stream at a time, so a client that stops
+ * reading only holds up its own stream, and is disconnected once a write to it takes too long.
+ */
+@RestController
+@RequestMapping("/api/updates")
+public class UpdateStreamController {
+    private static final Logger log = LoggerFactory.getLogger(UpdateStreamController.class);
+
+    /**
+     * An open stream with the events it asked for, null meaning all of them. Updates that arrive while
+     * a sender works on the stream only mark it dirty, the log itself holds them until the sender is done.
+     */
+    private static final class Stream {
+        private final SseEmitter emitter;
+        private final Set<String> eventIds;
+        private String cursor;
+        private boolean sending = true;
+        private boolean dirty;
+        private boolean heartbeatDue;
+        private long sendingSince = -1;
+        private boolean closed;
+
+        private Stream(SseEmitter emitter, Set<String> eventIds, String cursor) {
+            this.emitter = emitter;
+            this.eventIds = eventIds;
+            this.cursor = cursor;
+        }
+    }
+
+    private final InterestIndex<Stream> streams = new InterestIndex<>();
+    private final UpdateLog updateLog;
+    private final Duration timeout;
+    private final Duration sendTimeout;
+    private final Executor senders;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+
+    /***
+     * Constructor
+     * @param updateLog the log of updates to stream
+     * @param timeout how long a stream stays open before the client has to reconnect
+     * @param heartbeat how often idle streams receive a comment, so that proxies and clients keep them open
+     * @param sendThreads the number of threads writing to the streams
+     * @param sendTimeout how long a write to a stream may take before its client is disconnected
+     */
+    @Autowired
+    public UpdateStreamController(UpdateLog updateLog,
+                                  @Value("${updates.stream.timeout:30m}") Duration timeout,
+                                  @Value("${updates.stream.heartbeat:15s}") Duration heartbeat,
+                                  @Value("${updates.stream.send-threads:4}") int sendThreads,
+                                  @Value("${updates.stream.send-timeout:10s}") Duration sendTimeout) {
+        this(updateLog, timeout, sendTimeout,
+                Executors.newFixedThreadPool(sendThreads, daemon("update-stream-send")), Clock.systemUTC());
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemon("update-stream-heartbeat"));
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        long check = Math.max(1, sendTimeout.toMillis() / 2);
+        scheduler.scheduleWithFixedDelay(this::closeStalled, check, check, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructor with a custom executor to send updates on and a custom clock, without heartbeats
+     * and without checks for stalled streams
+     * @param updateLog the log of updates to stream
+     * @param timeout how long a stream stays open before the client has to reconnect
+     * @param sendTimeout how long a write to a stream may take before its client is disconnected
+     * @param senders the executor writing to the streams
+     * @param clock the clock timing the writes
+     */
+    UpdateStreamController(UpdateLog updateLog, Duration timeout, Duration sendTimeout, Executor senders, Clock clock) {
+        this.updateLog = updateLog;
+        this.timeout = timeout;
+        this.sendTimeout = sendTimeout;
+        this.senders = senders;
+        this.clock = clock;
+        updateLog.addListener(update -> streams.forEachInterested(update.eventId(), stream -> request(stream, false)));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Stops the threads sending updates and heartbeats
+     */
+    @PreDestroy
+    void stop() {
+        if(scheduler != null) scheduler.shutdownNow();
+        if(senders instanceof ExecutorService service) service.shutdownNow();
+    }
+
+    /***
+     * Opens a stream of updates. Name changes are sent as "name" events and deletions as "deletion" events,
+     * both with a JSON body. A "resync" event tells the client that updates since its Last-Event-ID are no
+     * longer known, so it has to fetch the events it shows again.
+     * @param events the IDs of the events the client shows, absent for the updates of all events
+     * @param lastEventId the ID of the last event the client received on an earlier stream
+     * @return the stream
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) List<String> events,
+                             @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = newEmitter();
+        Stream stream = new Stream(emitter, events == null ? null : Set.copyOf(events), lastEventId);
+        emitter.onCompletion(() -> streams.remove(stream, stream.eventIds));
+        emitter.onError(e -> streams.remove(stream, stream.eventIds));
+        streams.add(stream, stream.eventIds);
+        // sends what the client missed, or the cursor to continue from on a first connection; the emitter
+        // buffers these until the response starts, so this does not block the request thread
+        if(flush(stream)) send(stream, SseEmitter.event().id(stream.cursor).comment("connected"));
+        synchronized (stream) {
+            stream.sending = false;
+            if(!stream.dirty) return emitter;
+        }
+        request(stream, false);
+        return emitter;
+    }
+
+    /**
+     * Creates the emitter of a new stream
+     * @return an emitter that times out after the stream timeout
+     */
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    /**
+     * Sends a heartbeat to every stream, which also moves the Last-Event-ID of its client past the updates
+     * of other events
+     */
+    void heartbeat() {
+        streams.forEach(stream -> request(stream, true));
+    }
+
+    /**
+     * Disconnects the clients of streams whose current write takes longer than the send timeout
+     */
+    void closeStalled() {
+        long now = clock.millis();
+        streams.forEach(stream -> {
+            synchronized (stream) {
+                if(stream.closed || stream.sendingSince < 0 || now - stream.sendingSince <= sendTimeout.toMillis()) return;
+                stream.closed = true;
+            }
+            log.warn("Closing an update stream, writing to it took longer than {}", sendTimeout);
+            close(stream, new IOException("Writing the update stream timed out"));
+        });
+    }
+
+    /**
+     * Hands a stream to a sender, unless a sender is already working on it and will see the request
+     */
+    private void request(Stream stream, boolean heartbeat) {
+        synchronized (stream) {
+            if(stream.closed) return;
+            stream.dirty = true;
+            stream.heartbeatDue |= heartbeat;
+            if(stream.sending) return;
+            stream.sending = true;
+        }
+        try {
+            senders.execute(() -> drain(stream));
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            synchronized (stream) {
+                stream.sending = false;
+            }
+        }
+    }
+
+    /**
+     * Sends to a stream until no updates or heartbeats are left for it
+     */
+    private void drain(Stream stream) {
+        while(true){
+            boolean heartbeat;
+            synchronized (stream) {
+                if(!stream.dirty || stream.closed){
+                    stream.sending = false;
+                    stream.sendingSince = -1;
+                    return;
+                }
+                stream.dirty = false;
+                heartbeat = stream.heartbeatDue;
+                stream.heartbeatDue = false;
+                stream.sendingSince = clock.millis();
+            }
+            if(flush(stream) && heartbeat) send(stream, SseEmitter.event().id(stream.cursor).comment("heartbeat"));
+        }
+    }
+
+    /**
+     * Sends the updates a stream has not received yet. Only the one sender working on the stream calls this.
+     * @return false if the stream failed
+     */
+    private boolean flush(Stream stream) {
+        UpdateLog.Batch batch = updateLog.since(stream.cursor, stream.eventIds);
+        if(batch.resync() && !send(stream, SseEmitter.event().name("resync").id(batch.cursor()).data(""))){
+            return false;
+        }
+        for(UpdateLog.Update update : batch.updates()){
+            String name = update.payload() instanceof EventDeletedDTO ? "deletion" : "name";
+            if(!send(stream, SseEmitter.event().name(name).id(update.cursor())
+                    .data(update.payload(), MediaType.APPLICATION_JSON))){
+                return false;
+            }
+        }
+        stream.cursor = batch.cursor();
+        return true;
+    }
+
+    private boolean send(Stream stream, SseEmitter.SseEventBuilder event) {
+        try {
+            stream.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // the client went away, or was disconnected for being too slow
+            synchronized (stream) {
+                if(stream.closed) return false;
+                stream.closed = true;
+            }
+            close(stream, e);
+            return false;
+        }
+    }
+
+    private void close(Stream stream, Throwable cause) {
+        streams.remove(stream, stream.eventIds);
+        stream.emitter.completeWithError(cause);
+    }
+}
@@ -0,0 +1,22 @@
+package server.cache;
+
+/**
+ * A snapshot of the counters of a cache
+ * @param size the number of entries currently cached
+ * @param maxSize the maximum number of entries
+ * @param hits the number of lookups answered from the cache
+ * @param misses the number of lookups that had to go to the database
+ * @param evictions the number of entries dropped because the cache was full or the entry expired
+ * @param invalidations the number of entries dropped because their event changed
+ */
+public record CacheStats(int size, int maxSize, long hits, long misses, long evictions, long invalidations) {
+
+    /**
+     * Provides the fraction of lookups answered from the cache
+     * @return the hit ratio, 0 if there were no lookups
+     */
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
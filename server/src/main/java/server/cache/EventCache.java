@@ -0,0 +1,165 @@
+package server.cache;
+
+import commons.Event;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Keeps fully loaded events in memory, so that hot events can be served and broadcast
+ * without going to the database. Entries are tagged with the version of the event they
+ * were loaded at, are dropped after a time to live, and the least recently used entry is
+ * dropped when the cache is full.
+ * Cached events are detached and shared between threads, so they must only be read, e.g.
+ * serialized. Every service that changes an event invalidates its entry.
+ */
+@Component
+public class EventCache {
+    private record Entry(Event event, long version, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    /**
+     * Increased on every invalidation, so a load that raced with a change is not cached
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructor
+     * @param maxSize the maximum number of events to keep
+     * @param ttl how long an event is kept after it was loaded
+     */
+    @Autowired
+    public EventCache(@Value("${events.cache.max-size:1000}") int maxSize,
+                      @Value("${events.cache.ttl:PT10M}") Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor with a custom clock, used to test expiry
+     * @param maxSize the maximum number of events to keep
+     * @param ttl how long an event is kept after it was loaded
+     * @param clock the clock to measure expiry with
+     */
+    EventCache(int maxSize, Duration ttl, Clock clock) {
+        if(maxSize <= 0) throw new IllegalArgumentException("Cache size must be positive");
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if(size() <= EventCache.this.maxSize) return false;
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /***
+     * Provides an event, from the cache if present, otherwise from the loader
+     * @param eventId the ID of the event
+     * @param loader loads the full event from the database
+     * @return the event, empty if it does not exist
+     */
+    public Optional<Event> getOrLoad(String eventId, Function<String, Optional<Event>> loader) {
+        return getOrLoad(eventId, null, loader);
+    }
+
+    /***
+     * Provides an event at a known version, from the cache if it holds that version,
+     * otherwise from the loader
+     * @param eventId the ID of the event
+     * @param version the current version of the event, null to accept any cached version
+     * @param loader loads the full event from the database
+     * @return the event, empty if it does not exist
+     */
+    public Optional<Event> getOrLoad(String eventId, Long version, Function<String, Optional<Event>> loader) {
+        Event cached = lookup(eventId, version);
+        if(cached != null){
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+        misses.incrementAndGet();
+        long loadGeneration = generation.get();
+        Optional<Event> loaded = loader.apply(eventId);
+        loaded.ifPresent(event -> store(event, loadGeneration));
+        return loaded;
+    }
+
+    private synchronized Event lookup(String eventId, Long version) {
+        Entry entry = entries.get(eventId);
+        if(entry == null) return null;
+        if(entry.expiresAt() <= clock.millis()){
+            entries.remove(eventId);
+            evictions.incrementAndGet();
+            return null;
+        }
+        if(version != null && entry.version() != version) return null;
+        return entry.event();
+    }
+
+    private synchronized void store(Event event, long loadGeneration) {
+        if(event.getVersion() == null || generation.get() != loadGeneration) return;
+        Entry existing = entries.get(event.getId());
+        if(existing != null && existing.version() > event.getVersion()) return;
+        entries.put(event.getId(), new Entry(event, event.getVersion(), clock.millis() + ttlMillis));
+    }
+
+    /***
+     * Drops the cached copy of a changed event. Inside a transaction the entry is dropped
+     * again once it commits, so a concurrent load of the old state cannot linger.
+     * @param eventId the ID of the changed event
+     */
+    public void invalidate(String eventId) {
+        drop(eventId);
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop(eventId);
+                }
+            });
+        }
+    }
+
+    private synchronized void drop(String eventId) {
+        generation.incrementAndGet();
+        if(entries.remove(eventId) != null) invalidations.incrementAndGet();
+    }
+
+    /***
+     * Drops all cached events, e.g. after a bulk deletion
+     */
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    /***
+     * Provides the current counters of the cache
+     * @return the size, hits, misses, evictions and invalidations of the cache
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(entries.size(), maxSize, hits.get(), misses.get(),
+                evictions.get(), invalidations.get());
+    }
+}
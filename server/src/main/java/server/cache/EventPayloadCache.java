@@ -0,0 +1,136 @@
+package server.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the JSON encoding of recently sent events, so that an event is serialized once per
+ * version no matter how many REST responses and WebSocket frames carry it.
+ * Every change to an event increases its version, so a lookup with a newer version simply
+ * replaces the cached encoding. Only an event that is deleted, and may come back under the same
+ * ID starting from version 0 again, has to be invalidated.
+ */
+@Component
+public class EventPayloadCache {
+    private record Entry(long version, byte[] payload) {
+    }
+
+    private final ObjectMapper mapper;
+    private final int maxSize;
+    private final Map<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong replacements = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructor
+     * @param mapper the ObjectMapper also used for REST responses and WebSocket messages
+     * @param maxSize the maximum number of events to keep the encoding of
+     */
+    @Autowired
+    public EventPayloadCache(ObjectMapper mapper, @Value("${events.cache.max-size:1000}") int maxSize) {
+        if(maxSize <= 0) throw new IllegalArgumentException("Cache size must be positive");
+        this.mapper = mapper;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if(size() <= EventPayloadCache.this.maxSize) return false;
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /***
+     * Provides the JSON encoding of an event, serializing it only if this version was not encoded before.
+     * The returned array is shared and must not be modified.
+     * @param event the event to encode
+     * @return the JSON encoding of the event
+     */
+    public byte[] payload(Event event) {
+        if(event.getId() == null || event.getVersion() == null) return serialize(event);
+        long version = event.getVersion();
+        synchronized (this) {
+            Entry entry = entries.get(event.getId());
+            if(entry != null && entry.version() == version){
+                hits.incrementAndGet();
+                return entry.payload();
+            }
+        }
+        misses.incrementAndGet();
+        long serializeGeneration = generation.get();
+        byte[] payload = serialize(event);
+        synchronized (this) {
+            // an invalidation while serializing may have deleted this event, so its encoding is not kept
+            if(generation.get() != serializeGeneration) return payload;
+            Entry existing = entries.get(event.getId());
+            if(existing == null || existing.version() < version){
+                if(existing != null) replacements.incrementAndGet();
+                entries.put(event.getId(), new Entry(version, payload));
+            }
+        }
+        return payload;
+    }
+
+    /***
+     * Drops the encoding of a deleted or replaced event. Inside a transaction the entry is dropped
+     * again once it commits, so an encoding of the old event made in the meantime cannot linger.
+     * @param eventId the ID of the event
+     */
+    public void invalidate(String eventId) {
+        drop(eventId);
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop(eventId);
+                }
+            });
+        }
+    }
+
+    private synchronized void drop(String eventId) {
+        generation.incrementAndGet();
+        if(entries.remove(eventId) != null) replacements.incrementAndGet();
+    }
+
+    /***
+     * Drops the encodings of all events, e.g. after all events were deleted
+     */
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        replacements.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    private byte[] serialize(Event event) {
+        try {
+            return mapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /***
+     * Provides the current counters of the cache
+     * @return the size, hits, misses, evictions and replaced or invalidated versions of the cache
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(entries.size(), maxSize, hits.get(), misses.get(),
+                evictions.get(), replacements.get());
+    }
+}
@@ -0,0 +1,49 @@
+package server.config;
+
+import commons.Event;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import server.cache.EventPayloadCache;
+
+import java.io.IOException;
+
+/**
+ * Writes single events in REST responses from the EventPayloadCache, so that an event that was
+ * already broadcast or sent to another client is not serialized again.
+ * Reading events from request bodies is left to the regular JSON converter.
+ */
+public class EventPayloadConverter extends AbstractHttpMessageConverter<Event> {
+    private final EventPayloadCache payloadCache;
+
+    /**
+     * Constructor
+     * @param payloadCache the cache of encoded events
+     */
+    public EventPayloadConverter(EventPayloadCache payloadCache) {
+        super(MediaType.APPLICATION_JSON);
+        this.payloadCache = payloadCache;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Event.class.equals(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Event readInternal(Class<? extends Event> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Events are read by the JSON converter", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Event event, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(payloadCache.payload(event));
+    }
+}
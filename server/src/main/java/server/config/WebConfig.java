@@ -0,0 +1,30 @@
+package server.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import server.cache.EventPayloadCache;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final EventPayloadCache payloadCache;
+
+    /***
+     * Constructor
+     * @param payloadCache the cache of encoded events, shared with the WebSocket broadcasts
+     */
+    public WebConfig(EventPayloadCache payloadCache) {
+        this.payloadCache = payloadCache;
+    }
+
+    /***
+     * Puts the cached event encoding in front of the regular JSON converter
+     * @param converters the converters configured by Spring Boot
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new EventPayloadConverter(payloadCache));
+    }
+}
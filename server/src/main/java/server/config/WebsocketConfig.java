@@ -1,14 +1,42 @@
 package server.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import server.websockets.OutboundFlowControl;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebsocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final OutboundFlowControl flowControl;
+    private final int outboundThreads;
+    private final Duration sendTimeLimit;
+    private final DataSize sendBufferLimit;
+
+    /***
+     * Constructor
+     * @param flowControl bounds the frames waiting for every session
+     * @param outboundThreads the number of threads writing frames to the sessions
+     * @param sendTimeLimit how long writing to a session may take before it is closed
+     * @param sendBufferLimit how much may be buffered for a session while another frame is written before it is closed
+     */
+    public WebsocketConfig(OutboundFlowControl flowControl,
+                           @Value("${websocket.outbound.threads:8}") int outboundThreads,
+                           @Value("${websocket.outbound.send-time-limit:10s}") Duration sendTimeLimit,
+                           @Value("${websocket.outbound.send-buffer-limit:1MB}") DataSize sendBufferLimit) {
+        this.flowControl = flowControl;
+        this.outboundThreads = outboundThreads;
+        this.sendTimeLimit = sendTimeLimit;
+        this.sendBufferLimit = sendBufferLimit;
+    }
 
     /***
      * Registers the paths of endpoints
@@ -28,4 +56,25 @@ public class WebsocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.enableSimpleBroker("/topic"); // for subscriptions
         registry.setApplicationDestinationPrefixes("/app"); // for sending data
     }
+
+    /***
+     * Limits how long and how much a single session may hold up its frames before it is closed
+     * @param registration the WebSocket transport settings
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setSendBufferSizeLimit((int) sendBufferLimit.toBytes())
+                .addDecoratorFactory(flowControl);
+    }
+
+    /***
+     * Sizes the threads sending frames to clients and bounds the frames waiting per session
+     * @param registration the outbound channel settings
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor().corePoolSize(outboundThreads).maxPoolSize(outboundThreads);
+        registration.interceptors(flowControl);
+    }
 }
@@ -0,0 +1,104 @@
+package server.database;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Removes events and everything they own with set-based statements, instead of
+ * loading every entity and letting the cascades delete them one row at a time.
+ * Children are deleted before the rows referencing them are gone, in foreign key order.
+ */
+@Repository
+public class EventBulkRepository {
+    /**
+     * Maximum number of IDs bound to a single IN clause
+     */
+    static final int CHUNK_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Deletes the given events together with their expenses, participants and tags
+     * @param eventIds the IDs of the events to delete, unknown IDs are ignored
+     * @return the IDs of the events that existed and were deleted
+     */
+    @Transactional
+    public List<String> deleteByIds(Collection<String> eventIds) {
+        entityManager.flush();
+        List<String> deleted = new ArrayList<>();
+        for(List<String> chunk : chunks(List.copyOf(eventIds))){
+            deleted.addAll(deleteChunk(chunk));
+        }
+        entityManager.clear();
+        return deleted;
+    }
+
+    /**
+     * Deletes every event together with their expenses, participants and tags
+     * @return the IDs of the deleted events
+     */
+    @Transactional
+    public List<String> deleteAll() {
+        entityManager.flush();
+        List<String> deleted = strings(entityManager.createNativeQuery("select id from event"));
+        for(String table : List.of("expense_participants_in_expense", "event_expenses", "expense",
+                "event_participants", "participant", "event_event_tags", "tag", "event")){
+            entityManager.createNativeQuery("delete from " + table).executeUpdate();
+        }
+        entityManager.clear();
+        return deleted;
+    }
+
+    private List<String> deleteChunk(List<String> eventIds) {
+        List<String> existing = strings(entityManager
+                .createNativeQuery("select id from event where id in (:ids)")
+                .setParameter("ids", eventIds));
+        if(existing.isEmpty()) return existing;
+        List<Long> expenseIds = childIds("select expenses_id from event_expenses where event_id in (:ids)", existing);
+        List<Long> participantIds =
+                childIds("select participants_id from event_participants where event_id in (:ids)", existing);
+        List<Long> tagIds = childIds("select event_tags_id from event_event_tags where event_id in (:ids)", existing);
+
+        deleteWhereIn("delete from expense_participants_in_expense where expense_id in (:ids)", expenseIds);
+        deleteWhereIn("delete from event_expenses where event_id in (:ids)", existing);
+        deleteWhereIn("delete from expense where id in (:ids)", expenseIds);
+        deleteWhereIn("delete from event_participants where event_id in (:ids)", existing);
+        deleteWhereIn("delete from participant where id in (:ids)", participantIds);
+        deleteWhereIn("delete from event_event_tags where event_id in (:ids)", existing);
+        deleteWhereIn("delete from tag where id in (:ids)", tagIds);
+        deleteWhereIn("delete from event where id in (:ids)", existing);
+        return existing;
+    }
+
+    private List<Long> childIds(String query, List<String> eventIds) {
+        List<?> rows = entityManager.createNativeQuery(query).setParameter("ids", eventIds).getResultList();
+        return rows.stream().map(row -> ((Number) row).longValue()).toList();
+    }
+
+    private void deleteWhereIn(String statement, List<?> ids) {
+        for(List<?> chunk : chunks(ids)){
+            entityManager.createNativeQuery(statement).setParameter("ids", chunk).executeUpdate();
+        }
+    }
+
+    private static List<String> strings(Query query) {
+        List<?> rows = query.getResultList();
+        return rows.stream().map(String::valueOf).toList();
+    }
+
+    private static <T> List<List<T>> chunks(List<T> list) {
+        List<List<T>> chunks = new ArrayList<>();
+        for(int i = 0; i < list.size(); i += CHUNK_SIZE){
+            chunks.add(list.subList(i, Math.min(i + CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,29 @@
+package server.database;
+
+import java.util.Date;
+
+/**
+ * A fingerprint of all events together: any creation, deletion or change of an event
+ * changes the count, the sum of versions or the latest activity
+ * @param count the number of events
+ * @param versionSum the sum of the versions of all events, null if there are none
+ * @param lastActivity the latest last activity of all events, null if there are none
+ */
+public record EventListStamp(Long count, Long versionSum, Date lastActivity) {
+
+    /**
+     * Builds a strong entity tag for the list of all events
+     * @return the entity tag, without quotes
+     */
+    public String etag() {
+        return "all-" + count + "-" + (versionSum == null ? 0 : versionSum) + "-" + lastModified();
+    }
+
+    /**
+     * Provides the last modification date for Last-Modified headers
+     * @return the latest activity in epoch milliseconds, -1 if unknown
+     */
+    public long lastModified() {
+        return lastActivity == null ? -1 : lastActivity.getTime();
+    }
+}
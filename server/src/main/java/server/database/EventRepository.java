@@ -1,7 +1,286 @@
 package server.database;
 
 import commons.Event;
+import commons.Expense;
+import commons.dto.EventSummary;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EventRepository extends JpaRepository<Event, String> {
-}
\ No newline at end of file
+    /**
+     * Updates the last activity of an event and increases its version without loading the event itself,
+     * for changes to its participants, expenses or tags that do not modify the event row
+     * @param eventId the ID of the event
+     * @param lastActivity the new date of last activity
+     * @return the number of updated events, 0 if no event with this ID exists
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Event e set e.lastActivity = :lastActivity, e.version = e.version + 1 where e.id = :eventId")
+    int touch(@Param("eventId") String eventId, @Param("lastActivity") Date lastActivity);
+
+    /**
+     * Loads an event without its collections and locks its row until the end of the transaction,
+     * so no other change to the event can commit in the meantime
+     * @param eventId the ID of the event
+     * @return the locked event, if it exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Event e where e.id = :eventId")
+    Optional<Event> lockById(@Param("eventId") String eventId);
+
+    /**
+     * Links an already persisted expense to an event by inserting a single join row,
+     * so the expense collection of the event does not have to be loaded
+     * @param eventId the ID of the event
+     * @param expenseId the ID of the persisted expense
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into event_expenses (event_id, expenses_id) values (:eventId, :expenseId)",
+            nativeQuery = true)
+    void attachExpense(@Param("eventId") String eventId, @Param("expenseId") long expenseId);
+
+    /**
+     * Checks whether an expense belongs to an event, without loading either of them
+     * @param eventId the ID of the event
+     * @param expenseId the ID of the expense
+     * @return true if the expense is one of the expenses of the event
+     */
+    @Query("select case when count(x) > 0 then true else false end from Event e join e.expenses x "
+            + "where e.id = :eventId and x.id = :expenseId")
+    boolean containsExpense(@Param("eventId") String eventId, @Param("expenseId") long expenseId);
+
+    /**
+     * Loads an event together with its participants
+     * @param eventId the ID of the event
+     * @return the event with initialized participants, if it exists
+     */
+    @Query("select e from Event e left join fetch e.participants where e.id = :eventId")
+    Optional<Event> fetchWithParticipants(@Param("eventId") String eventId);
+
+    /**
+     * Loads an event together with its tags
+     * @param eventId the ID of the event
+     * @return the event with initialized tags, if it exists
+     */
+    @Query("select e from Event e left join fetch e.eventTags where e.id = :eventId")
+    Optional<Event> fetchWithTags(@Param("eventId") String eventId);
+
+    /**
+     * Loads an event together with its expenses
+     * @param eventId the ID of the event
+     * @return the event with initialized expenses, if it exists
+     */
+    @Query("select e from Event e left join fetch e.expenses where e.id = :eventId")
+    Optional<Event> fetchWithExpenses(@Param("eventId") String eventId);
+
+    /**
+     * Loads all expenses of an event together with their payer, tag and participants
+     * @param eventId the ID of the event
+     * @return the fully initialized expenses of the event
+     */
+    @Query("select distinct x from Event e join e.expenses x left join fetch x.participantsInExpense "
+            + "left join fetch x.owedTo left join fetch x.expenseTag where e.id = :eventId")
+    List<Expense> fetchExpenses(@Param("eventId") String eventId);
+
+    /**
+     * Loads the version and last activity of an event, without loading the event
+     * @param eventId the ID of the event
+     * @return the stamp of the event, if it exists
+     */
+    @Query("select new server.database.EventStamp(e.id, e.version, e.lastActivity) from Event e where e.id = :eventId")
+    Optional<EventStamp> findStampById(@Param("eventId") String eventId);
+
+    /**
+     * Provides the current version of an event. Asked at the end of a transaction that changed the event,
+     * this is the version produced by that change, since the changed row stays locked until the commit.
+     * @param eventId the ID of the event
+     * @return the version of the event, null if it does not exist
+     */
+    default Long findVersionById(String eventId) {
+        return findStampById(eventId).map(EventStamp::version).orElse(null);
+    }
+
+    /**
+     * Loads a fingerprint of all events, which changes whenever any event is created, changed or deleted
+     * @return the stamp of the list of all events
+     */
+    @Query("select new server.database.EventListStamp(count(e), sum(e.version), max(e.lastActivity)) from Event e")
+    EventListStamp findListStamp();
+
+    /**
+     * Finds which of the given event IDs are already in use
+     * @param eventIds the IDs to check
+     * @return the IDs that belong to an existing event
+     */
+    @Query("select e.id from Event e where e.id in :eventIds")
+    List<String> findExistingIds(@Param("eventIds") Collection<String> eventIds);
+
+    /**
+     * Scrolls through the IDs of all events without loading them all at once.
+     * Has to be consumed and closed within a transaction.
+     * @return a stream of all event IDs, in ascending order
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select e.id from Event e order by e.id")
+    Stream<String> streamAllIds();
+
+    /**
+     * Scrolls through the IDs of the given events that exist.
+     * Has to be consumed and closed within a transaction.
+     * @param eventIds the IDs to look for
+     * @return a stream of the existing event IDs, in ascending order
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select e.id from Event e where e.id in :eventIds order by e.id")
+    Stream<String> streamIdsIn(@Param("eventIds") Collection<String> eventIds);
+
+    /**
+     * Lists the title and dates of all events, without loading any of their collections
+     * @return a summary of every event
+     */
+    @Query("select new commons.dto.EventSummary(e.id, e.title, e.creationDate, e.lastActivity) from Event e")
+    List<EventSummary> findAllSummaries();
+
+    /**
+     * Lists the first events ordered by title, untitled events first, ties broken by ID
+     * @param page the page size, only the first page is used
+     * @return the summaries of the first events by title
+     */
+    @Query("select new commons.dto.EventSummary(e.id, e.title, e.creationDate, e.lastActivity) from Event e "
+            + "order by e.title nulls first, e.id")
+    List<EventSummary> findTitlePage(Pageable page);
+
+    /**
+     * Lists the events ordered by title that come after the given position
+     * @param title the title of the last event of the previous page
+     * @param id the ID of the last event of the previous page
+     * @param page the page size, only the first page is used
+     * @return the summaries of the next events by title
+     */
+    @Query("select new commons.dto.EventSummary(e.id, e.title, e.creationDate, e.lastActivity) from Event e "
+            + "where e.title > :title or (e.title = :title and e.id > :id) "
+            + "order by e.title nulls first, e.id")
+    List<EventSummary> findTitlePageAfter(@Param("title") String title, @Param("id") String id, Pageable page);
+
+    /**
+     * Lists the events ordered by title that come after an untitled event
+     * @param id the ID of the last event of the previous page, which has no title
+     * @param page the page size, only the first page is used
+     * @return the summaries of the next events by title
+     */
+    @Query("select new commons.dto.EventSummary(e.id, e.title, e.creationDate, e.lastActivity) from Event e "
+            + "where e.title is not null or e.id > :id "
+            + "order by e.title nulls first, e.id")
+    List<EventSummary> findTitlePageAfterUntitled(@Param("id") String id, Pageable page);
+
+    /**
+     * Lists the first events ordered by creation date, undated and then oldest first, ties broken by ID
+     * @param page the page size, only the first page is used
+     * @return the summaries of the first events by creation date
+     */
+    @Query("select new commons.dto.EventSummary(e.id, e.title, e.creationDate, e.lastActivity) from Event e "
+            + "order by e.creationDate nulls first, e.id")
+    List<EventSummary> findCreationDatePage(Pageable page);
+
+    /**
+     * Lists the events ordered by creation date that come after the given position
+     * @param date the creation date of the last event of the previous page
+     * @param id the ID of the last event of the previous page
+     * @param page the page size, only the first page is used
+     * @return the summaries of the next events by creation date
+     */
+    @Query("select new commons.dto.EventSummary(e.id, e.title, e.creationDate, e.lastActivity) from Event e "
+            + "where e.creationDate > :date or (e.creationDate = :date and e.id > :id) "
+            + "order by e.creationDate nulls first, e.id")
+    List<EventSummary> findCreationDatePageAfter(@Param("date") Date date, @Param("id") String id, Pageable page);
+
+    /**
+     * Lists the events ordered by creation date that come after an event without creation date
+     * @param id the ID of the last event of the previous page, which has no creation date
+     * @param page the page size, only the first page is used
+     * @return the summaries of the next events by creation date
+     */
+    @Query("select new commons.dto.EventSummary(e.id, e.title, e.creationDate, e.lastActivity) from Event e "
+            + "where e.creationDate is not null or e.id > :id "
+            + "order by e.creationDate nulls first, e.id")
+    List<EventSummary> findCreationDatePageAfterUndated(@Param("id") String id, Pageable page);
+
+    /**
+     * Lists the first events ordered by last activity, most recent first and events without
+     * activity last, ties broken by ID
+     * @param page the page size, only the first page is used
+     * @return the summaries of the first events by last activity
+     */
+    @Query("select new commons.dto.EventSummary(e.id, e.title, e.creationDate, e.lastActivity) from Event e "
+            + "order by e.lastActivity desc nulls last, e.id desc")
+    List<EventSummary> findLastActivityPage(Pageable page);
+
+    /**
+     * Lists the events ordered by last activity that come after the given position
+     * @param date the last activity of the last event of the previous page
+     * @param id the ID of the last event of the previous page
+     * @param page the page size, only the first page is used
+     * @return the summaries of the next events by last activity
+     */
+    @Query("select new commons.dto.EventSummary(e.id, e.title, e.creationDate, e.lastActivity) from Event e "
+            + "where e.lastActivity < :date or (e.lastActivity = :date and e.id < :id) or e.lastActivity is null "
+            + "order by e.lastActivity desc nulls last, e.id desc")
+    List<EventSummary> findLastActivityPageAfter(@Param("date") Date date, @Param("id") String id, Pageable page);
+
+    /**
+     * Lists the events ordered by last activity that come after an event without last activity,
+     * which are the remaining events without it
+     * @param id the ID of the last event of the previous page, which has no last activity
+     * @param page the page size, only the first page is used
+     * @return the summaries of the next events by last activity
+     */
+    @Query("select new commons.dto.EventSummary(e.id, e.title, e.creationDate, e.lastActivity) from Event e "
+            + "where e.lastActivity is null and e.id < :id "
+            + "order by e.lastActivity desc nulls last, e.id desc")
+    List<EventSummary> findLastActivityPageAfterUndated(@Param("id") String id, Pageable page);
+
+    /**
+     * Loads a complete event (participants, tags, expenses and the participants of each expense)
+     * in four queries, no matter how big the event is. The expenses are fetched before the
+     * expense collection of the event, so hashing them while filling that collection
+     * does not trigger any lazy loading.
+     * @param eventId the ID of the event
+     * @return the fully initialized event, if it exists
+     */
+    @Transactional(readOnly = true)
+    default Optional<Event> findFullById(String eventId) {
+        Optional<Event> event = fetchWithParticipants(eventId);
+        if(event.isEmpty()) return event;
+        fetchWithTags(eventId);
+        fetchExpenses(eventId);
+        return fetchWithExpenses(eventId);
+    }
+
+    /**
+     * Loads an event with only its expenses initialized, for read paths that
+     * do not need the participant and tag collections of the event
+     * @param eventId the ID of the event
+     * @return the event with fully initialized expenses, if it exists
+     */
+    @Transactional(readOnly = true)
+    default Optional<Event> findWithExpensesById(String eventId) {
+        fetchExpenses(eventId);
+        return fetchWithExpenses(eventId);
+    }
+}
@@ -0,0 +1,30 @@
+package server.database;
+
+import java.util.Date;
+
+/**
+ * The version and last activity of an event, enough to answer conditional requests
+ * without loading the event
+ * @param id the ID of the event
+ * @param version the version of the event, increased by every change
+ * @param lastActivity the date of the last change to the event
+ */
+public record EventStamp(String id, Long version, Date lastActivity) {
+
+    /**
+     * Builds a strong entity tag for a representation of the event
+     * @param representation the name of the representation, e.g. "event" or "expenses"
+     * @return the entity tag, without quotes
+     */
+    public String etag(String representation) {
+        return representation + "-" + id + "-" + (version == null ? 0 : version);
+    }
+
+    /**
+     * Provides the last modification date for Last-Modified headers
+     * @return the last activity in epoch milliseconds, -1 if unknown
+     */
+    public long lastModified() {
+        return lastActivity == null ? -1 : lastActivity.getTime();
+    }
+}
@@ -2,6 +2,20 @@ package server.database;
 
 import commons.Participant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ParticipantRepository extends JpaRepository<Participant, Long> {
-}
\ No newline at end of file
+    /**
+     * Returns all participants with the given IDs that belong to the given event, in one query
+     * @param eventId the ID of the event the participants should be part of
+     * @param participantIds the IDs of the participants to look up
+     * @return the participants that were found, missing or foreign IDs are left out
+     */
+    @Query("select p from Event e join e.participants p where e.id = :eventId and p.id in :participantIds")
+    List<Participant> findAllInEvent(@Param("eventId") String eventId,
+                                     @Param("participantIds") Collection<Long> participantIds);
+}
@@ -2,6 +2,18 @@ package server.database;
 
 import commons.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface TagRepository extends JpaRepository<Tag, Long> {
+    /**
+     * Returns the tags of an event with the given name, in one query
+     * @param eventId the ID of the event the tags belong to
+     * @param tagName the name of the tags
+     * @return the matching tags of the event
+     */
+    @Query("select t from Event e join e.eventTags t where e.id = :eventId and t.tagName = :tagName")
+    List<Tag> findAllInEventByName(@Param("eventId") String eventId, @Param("tagName") String tagName);
 }
@@ -0,0 +1,24 @@
+package server.exceptions;
+
+public class ExpenseNotFoundException extends RuntimeException {
+
+    private final long expense;
+
+    /**
+     * Unchecked exception thrown when an expense is not part of the event it was requested for
+     * @param eventId The event the expense was requested for
+     * @param expenseId The expense
+     */
+    public ExpenseNotFoundException(String eventId, long expenseId) {
+        super("Expense with ID: " + expenseId + " is not in event " + eventId + ".");
+        this.expense = expenseId;
+    }
+
+    /**
+     * Get the expense that is not found
+     * @return The expense
+     */
+    public long getExpense() {
+        return expense;
+    }
+}
@@ -0,0 +1,27 @@
+package server.exceptions;
+
+import java.util.Collection;
+import java.util.List;
+
+public class ParticipantNotFoundException extends RuntimeException {
+
+    private final List<Long> participants;
+
+    /**
+     * Unchecked exception thrown when one or more participants are not part of an event
+     * @param eventId The ID of the event the participants were looked up in
+     * @param participantIds The IDs of all participants that could not be found
+     */
+    public ParticipantNotFoundException(String eventId, Collection<Long> participantIds) {
+        super("Participants with IDs: " + participantIds + " are not in event " + eventId + ".");
+        this.participants = List.copyOf(participantIds);
+    }
+
+    /**
+     * Get the participants that are not found
+     * @return The IDs of the missing participants
+     */
+    public List<Long> getParticipants() {
+        return participants;
+    }
+}
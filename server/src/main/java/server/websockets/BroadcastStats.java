@@ -0,0 +1,12 @@
+package server.websockets;
+
+/**
+ * A snapshot of the counters of the event broadcasts
+ * @param requested the number of frames asked for by changes to events
+ * @param sent the number of frames actually sent after coalescing
+ * @param saved the number of frames that were collapsed into another frame or carried by a later snapshot
+ * @param pending the number of events waiting for their frame
+ * @param maxDelayMillis the longest a frame was held back, in milliseconds
+ */
+public record BroadcastStats(long requested, long sent, long saved, int pending, long maxDelayMillis) {
+}
@@ -0,0 +1,160 @@
+package server.websockets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Collapses the broadcasts of an event that are requested within a short window into one frame
+ * with the latest state of the event. Every request pushes the frame back by the window, but never
+ * beyond the maximum latency after the first pending request, so a steady stream of changes still
+ * reaches the clients. A window of zero sends every frame right away.
+ */
+public class CoalescingBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(CoalescingBroadcaster.class);
+
+    private static final class Pending {
+        private final long firstAt;
+        private long dueAt;
+        private boolean snapshot;
+
+        private Pending(long firstAt) {
+            this.firstAt = firstAt;
+        }
+    }
+
+    private final long windowMillis;
+    private final long maxLatencyMillis;
+    private final Clock clock;
+    private final BiConsumer<String, Boolean> flush;
+    private final Map<String, Pending> pending = new HashMap<>();
+    private final ScheduledExecutorService ticker;
+    private long requested;
+    private long sent;
+    private long absorbed;
+    private long maxDelayMillis;
+
+    /**
+     * Constructor, which starts a background thread that sends frames once they are due
+     * @param window how long to wait for further changes of an event before sending its frame
+     * @param maxLatency the longest a frame is held back after its first request
+     * @param flush sends the frame of an event, with whether it has to include the whole event
+     */
+    public CoalescingBroadcaster(Duration window, Duration maxLatency, BiConsumer<String, Boolean> flush) {
+        this(window, maxLatency, Clock.systemUTC(), flush);
+        if(windowMillis > 0){
+            long tick = Math.max(1, windowMillis / 5);
+            ticker.scheduleWithFixedDelay(this::flushDue, tick, tick, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Constructor with a custom clock and without a background thread, used to test timing
+     * by calling {@link #flushDue()} directly
+     * @param window how long to wait for further changes of an event before sending its frame
+     * @param maxLatency the longest a frame is held back after its first request
+     * @param clock the clock to measure the window with
+     * @param flush sends the frame of an event, with whether it has to include the whole event
+     */
+    CoalescingBroadcaster(Duration window, Duration maxLatency, Clock clock, BiConsumer<String, Boolean> flush) {
+        if(window.isNegative() || maxLatency.compareTo(window) < 0){
+            throw new IllegalArgumentException("The maximum latency must be at least the window");
+        }
+        this.windowMillis = window.toMillis();
+        this.maxLatencyMillis = maxLatency.toMillis();
+        this.clock = clock;
+        this.flush = flush;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-broadcast");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /***
+     * Requests a frame for an event, collapsed with the other requests for that event in the window
+     * @param eventId the ID of the event
+     * @param snapshot whether the frame has to include the whole event for the clients that have it open
+     */
+    public void request(String eventId, boolean snapshot) {
+        if(windowMillis == 0){
+            synchronized (this) {
+                requested++;
+                sent++;
+            }
+            flush.accept(eventId, snapshot);
+            return;
+        }
+        long now = clock.millis();
+        synchronized (this) {
+            requested++;
+            Pending entry = pending.computeIfAbsent(eventId, id -> new Pending(now));
+            entry.snapshot |= snapshot;
+            entry.dueAt = Math.min(now + windowMillis, entry.firstAt + maxLatencyMillis);
+        }
+    }
+
+    /***
+     * Checks whether a pending frame with the whole event will carry a change to it anyway,
+     * so the change does not have to be sent on its own
+     * @param eventId the ID of the event
+     * @return true if the change is covered by a pending frame
+     */
+    public synchronized boolean absorbs(String eventId) {
+        Pending entry = pending.get(eventId);
+        if(entry == null || !entry.snapshot) return false;
+        absorbed++;
+        return true;
+    }
+
+    /***
+     * Sends the frames whose window has passed
+     * @return the number of frames sent
+     */
+    public int flushDue() {
+        long now = clock.millis();
+        Map<String, Boolean> due = new LinkedHashMap<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Pending>> iterator = pending.entrySet().iterator();
+            while(iterator.hasNext()){
+                Map.Entry<String, Pending> entry = iterator.next();
+                if(entry.getValue().dueAt > now) continue;
+                due.put(entry.getKey(), entry.getValue().snapshot);
+                maxDelayMillis = Math.max(maxDelayMillis, now - entry.getValue().firstAt);
+                iterator.remove();
+            }
+            sent += due.size();
+        }
+        due.forEach((eventId, snapshot) -> {
+            try {
+                flush.accept(eventId, snapshot);
+            } catch (RuntimeException e) {
+                log.warn("Could not broadcast event {}", eventId, e);
+            }
+        });
+        return due.size();
+    }
+
+    /***
+     * Provides the counters of the broadcaster
+     * @return the requested, sent and saved frames, and the longest a frame was held back
+     */
+    public synchronized BroadcastStats stats() {
+        long saved = requested - sent - pending.size() + absorbed;
+        return new BroadcastStats(requested, sent, saved, pending.size(), maxDelayMillis);
+    }
+
+    /***
+     * Stops the background thread, dropping the frames that are still pending
+     */
+    public void stop() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,227 @@
+package server.websockets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a slow WebSocket client from holding up the others. Every session may have a bounded number
+ * of frames waiting on the outbound channel. Frames of state topics, which always carry the whole latest
+ * state of an event, replace the waiting frame of the same event instead of queueing behind it.
+ * A session that still exceeds its bound is closed, and reconnects and fetches its event anew.
+ */
+@Component
+public class OutboundFlowControl implements ExecutorChannelInterceptor, WebSocketHandlerDecoratorFactory {
+    /**
+     * The STOMP header naming the event a state frame belongs to
+     */
+    public static final String EVENT_HEADER = "event-id";
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundFlowControl.class);
+
+    private static final class TopicCounters {
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong conflated = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+    }
+
+    private static final class SessionQueue {
+        private final WebSocketSession session;
+        private final Map<String, Message<?>> latest = new HashMap<>();
+        private int queued;
+        private long sent;
+        private long conflated;
+        private long dropped;
+        private boolean evicted;
+
+        private SessionQueue(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+
+    private final int maxQueued;
+    private final Set<String> stateTopics;
+    private final Map<String, SessionQueue> sessions = new ConcurrentHashMap<>();
+    private final Map<String, TopicCounters> topics = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor
+     * @param maxQueued the number of frames a session may have waiting before it is closed
+     * @param stateTopics the topics whose frames replace the waiting frame of the same event
+     */
+    public OutboundFlowControl(@Value("${websocket.outbound.max-queued:256}") int maxQueued,
+                               @Value("${websocket.outbound.state-topics:/topic/events/all,/topic/events/summaries}")
+                               List<String> stateTopics) {
+        this.maxQueued = maxQueued;
+        this.stateTopics = Set.copyOf(stateTopics);
+    }
+
+    /***
+     * Wraps the handler of the WebSocket endpoint to keep track of the open sessions
+     * @param handler the handler of the endpoint
+     * @return the handler registering and unregistering sessions
+     */
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), new SessionQueue(session));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /***
+     * Admits a frame into the queue of its session, replacing the waiting frame of the same event on
+     * state topics, or closes the session if its queue is full
+     * @param message the frame to send
+     * @param channel the outbound channel
+     * @return the frame, or null if it is not sent
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        SessionQueue queue = accessor.getSessionId() == null ? null : sessions.get(accessor.getSessionId());
+        if(queue == null) return message;
+        TopicCounters counters = counters(accessor.getDestination());
+        String key = conflationKey(accessor);
+        boolean evict;
+        synchronized (queue) {
+            if(queue.evicted){
+                queue.dropped++;
+                if(counters != null) counters.dropped.incrementAndGet();
+                return null;
+            }
+            if(key != null && queue.latest.put(key, message) != null){
+                queue.conflated++;
+                if(counters != null) counters.conflated.incrementAndGet();
+                return message;
+            }
+            evict = queue.queued >= maxQueued;
+            if(evict){
+                if(key != null) queue.latest.remove(key, message);
+                queue.evicted = true;
+                queue.dropped++;
+            } else {
+                queue.queued++;
+            }
+        }
+        if(evict){
+            if(counters != null) counters.dropped.incrementAndGet();
+            evict(queue);
+            return null;
+        }
+        return message;
+    }
+
+    /***
+     * Skips frames of state topics that a newer frame of the same event replaced while they waited
+     * @param message the frame about to be sent
+     * @param channel the outbound channel
+     * @param handler the handler writing the frame to the session
+     * @return the frame, or null if it was replaced
+     */
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        SessionQueue queue = accessor.getSessionId() == null ? null : sessions.get(accessor.getSessionId());
+        String key = conflationKey(accessor);
+        if(queue == null || key == null) return message;
+        synchronized (queue) {
+            return queue.latest.remove(key, message) ? message : null;
+        }
+    }
+
+    /***
+     * Takes a sent frame out of the queue of its session
+     * @param message the sent frame
+     * @param channel the outbound channel
+     * @param handler the handler that wrote the frame to the session
+     * @param ex the exception sending the frame failed with, null if it was sent
+     */
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        SessionQueue queue = accessor.getSessionId() == null ? null : sessions.get(accessor.getSessionId());
+        if(queue == null) return;
+        synchronized (queue) {
+            queue.queued--;
+            if(ex == null) queue.sent++;
+        }
+        TopicCounters counters = counters(accessor.getDestination());
+        if(counters != null && ex == null) counters.sent.incrementAndGet();
+    }
+
+    /***
+     * Provides the counters of every open session and every topic
+     * @return the current counters of the outbound channel
+     */
+    public OutboundStats stats() {
+        List<OutboundStats.SessionStats> sessionStats = new ArrayList<>();
+        for(Map.Entry<String, SessionQueue> entry : sessions.entrySet()){
+            SessionQueue queue = entry.getValue();
+            synchronized (queue) {
+                sessionStats.add(new OutboundStats.SessionStats(entry.getKey(), queue.queued, queue.sent,
+                        queue.conflated, queue.dropped));
+            }
+        }
+        Map<String, OutboundStats.TopicStats> topicStats = new TreeMap<>();
+        topics.forEach((topic, counters) -> topicStats.put(topic, new OutboundStats.TopicStats(counters.sent.get(),
+                counters.conflated.get(), counters.dropped.get())));
+        return new OutboundStats(evictions.get(), sessionStats, topicStats);
+    }
+
+    private void evict(SessionQueue queue) {
+        evictions.incrementAndGet();
+        log.warn("Closing WebSocket session {}, which has {} frames waiting", queue.session.getId(), maxQueued);
+        try {
+            queue.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.warn("Could not close WebSocket session {}", queue.session.getId(), e);
+        }
+    }
+
+    /**
+     * Frames of state topics are keyed by topic and event, other frames are never replaced
+     */
+    private String conflationKey(SimpMessageHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if(destination == null || !stateTopics.contains(destination)) return null;
+        String eventId = accessor.getFirstNativeHeader(EVENT_HEADER);
+        return eventId == null ? null : destination + " " + eventId;
+    }
+
+    /**
+     * Counters are kept per topic, with the event IDs in the topics of single events left out
+     */
+    private TopicCounters counters(String destination) {
+        if(destination == null) return null;
+        String topic = destination.startsWith("/topic/events/") && destination.endsWith("/changes")
+                ? "/topic/events/{id}/changes" : destination;
+        return topics.computeIfAbsent(topic, name -> new TopicCounters());
+    }
+}
@@ -0,0 +1,33 @@
+package server.websockets;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of the counters of the frames sent to WebSocket clients
+ * @param evictions the number of sessions closed because they fell too far behind
+ * @param sessions the counters of every open session
+ * @param topics the counters of every topic, with the topics of single events counted together
+ */
+public record OutboundStats(long evictions, List<SessionStats> sessions, Map<String, TopicStats> topics) {
+
+    /**
+     * The counters of one session
+     * @param sessionId the ID of the session
+     * @param queued the number of frames waiting to be sent
+     * @param sent the number of frames sent
+     * @param conflated the number of frames that replaced a waiting frame of the same event
+     * @param dropped the number of frames not sent because the session fell too far behind
+     */
+    public record SessionStats(String sessionId, int queued, long sent, long conflated, long dropped) {
+    }
+
+    /**
+     * The counters of one topic
+     * @param sent the number of frames sent
+     * @param conflated the number of frames that replaced a waiting frame of the same event
+     * @param dropped the number of frames not sent because their session fell too far behind
+     */
+    public record TopicStats(long sent, long conflated, long dropped) {
+    }
+}
@@ -1,40 +1,115 @@
 package server.websockets;
 
 import commons.Event;
+import commons.dto.EventChangeDTO;
 import commons.dto.EventDeletedDTO;
 import commons.dto.EventNameChangeDTO;
-import jakarta.persistence.EntityNotFoundException;
+import commons.dto.EventSummary;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import server.cache.EventCache;
+import server.cache.EventPayloadCache;
 import server.database.EventRepository;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class WebSocketService {
     private final SimpMessagingTemplate socketMessenger;
     private final EventRepository eventRepository;
+    private final EventCache eventCache;
+    private final EventPayloadCache payloadCache;
+    private final CoalescingBroadcaster broadcaster;
 
     /***
      * Basic WebSocketService constructor
      * @param socketMessenger the template converting changes into WebSocket messages
      * @param eventRepository the EventRepository to fetch data from
+     * @param eventCache the cache to serve recently loaded events from
+     * @param payloadCache the cache of encoded events, shared with REST responses
+     * @param window how long the whole event is held back for further changes, 0 to send it right away
+     * @param maxLatency the longest the whole event is held back during a burst of changes
      */
     @Autowired
     public WebSocketService(SimpMessagingTemplate socketMessenger,
-                            EventRepository eventRepository) {
+                            EventRepository eventRepository,
+                            EventCache eventCache,
+                            EventPayloadCache payloadCache,
+                            @Value("${websocket.coalesce.window:50ms}") Duration window,
+                            @Value("${websocket.coalesce.max-latency:250ms}") Duration maxLatency) {
         this.socketMessenger = socketMessenger;
         this.eventRepository = eventRepository;
+        this.eventCache = eventCache;
+        this.payloadCache = payloadCache;
+        this.broadcaster = new CoalescingBroadcaster(window, maxLatency, this::broadcast);
+    }
+
+    /***
+     * Propagates a change to an Event. Clients that have the event open receive the change right away,
+     * unless a pending snapshot of the event will carry it. Admins receive the whole event once
+     * the changes of a burst have settled.
+     * @param change the change, numbered with the version of the event it produced
+     */
+    public void propagateChange(EventChangeDTO change){
+        if(!broadcaster.absorbs(change.getEventId())){
+            socketMessenger.convertAndSend(eventChangesURL(change.getEventId()), change);
+        }
+        broadcaster.request(change.getEventId(), false);
     }
 
     /***
-     * Propagates changes to an Event to all WebSocket Clients
+     * Propagates an Event as a whole, for changes that touch too much of it to send separately.
+     * Updates within a short window are sent as a single frame with the latest state.
      * @param eventID the ID of the updated Event
      */
     public void propagateEventUpdate(String eventID){
-        Event updatedEvent = eventRepository.findById(eventID)
-                .orElseThrow(() -> new EntityNotFoundException("Event not found"));
-        socketMessenger.convertAndSend(eventUpdateURL(eventID), updatedEvent);
-        socketMessenger.convertAndSend("/topic/events/all", updatedEvent);
+        broadcaster.request(eventID, true);
+    }
+
+    /***
+     * Provides the counters of the coalesced broadcasts
+     * @return the requested, sent and saved frames
+     */
+    public BroadcastStats broadcastStats() {
+        return broadcaster.stats();
+    }
+
+    /***
+     * Sends the coalesced frame of an event with its latest state, skipped if the event was deleted since
+     * @param eventID the ID of the event
+     * @param snapshot whether clients that have the event open receive the whole event as well
+     */
+    private void broadcast(String eventID, boolean snapshot) {
+        eventCache.getOrLoad(eventID, eventRepository::findFullById).ifPresent(event -> {
+            if(snapshot) socketMessenger.convertAndSend(eventChangesURL(eventID), EventChangeDTO.snapshot(event));
+            propagateToAdmins(event);
+        });
+    }
+
+    /***
+     * Stops the thread sending the coalesced frames
+     */
+    @PreDestroy
+    public void stop() {
+        broadcaster.stop();
+    }
+
+    /***
+     * Sends an updated event to the admin overview, which shows whole events
+     * @param updatedEvent the updated event
+     */
+    private void propagateToAdmins(Event updatedEvent) {
+        sendJson("/topic/events/all", updatedEvent.getId(), payloadCache.payload(updatedEvent));
+        propagateSummary(updatedEvent);
     }
 
     /***
@@ -56,20 +131,57 @@ public class WebSocketService {
         socketMessenger.convertAndSend("/topic/events/deletions", dto);
     }
 
+    /***
+     * Propagates the deletion of many events in a single message
+     * @param eventIDs the IDs of the events deleted
+     */
+    public void propagateDeletions(List<String> eventIDs){
+        List<EventDeletedDTO> dtos = eventIDs.stream().map(EventDeletedDTO::new).toList();
+        socketMessenger.convertAndSend("/topic/events/deletions/batch", dtos);
+    }
+
     /***
      * Propagates event creation to admins
      * @param createdEvent the created event
      */
     public void propagateCreation(Event createdEvent) {
-        socketMessenger.convertAndSend("/topic/events/creations", createdEvent);
+        sendJson("/topic/events/creations", createdEvent.getId(), payloadCache.payload(createdEvent));
+        propagateSummary(createdEvent);
+    }
+
+    /***
+     * Propagates the title and dates of a created or updated event to admins
+     * that only keep summaries, so they do not receive the whole event graph
+     * @param event the created or updated event
+     */
+    private void propagateSummary(Event event) {
+        EventSummary summary = new EventSummary(event.getId(), event.getTitle(),
+                event.getCreationDate(), event.getLastActivity());
+        socketMessenger.convertAndSend("/topic/events/summaries", summary,
+                Map.of(OutboundFlowControl.EVENT_HEADER, event.getId()));
+    }
+
+    /***
+     * Sends an already encoded JSON payload, skipping the message converter
+     * @param destination the topic to send to
+     * @param eventID the ID of the event the payload encodes, so that slow clients only receive its latest state
+     * @param payload the JSON encoding of the message
+     */
+    private void sendJson(String destination, String eventID, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setNativeHeader(OutboundFlowControl.EVENT_HEADER, eventID);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+        socketMessenger.send(destination, message);
     }
 
     /***
-     * Generates the URL to send updates for a specific event
+     * Generates the URL to send the changes of a specific event to
      * @param eventID the ID of the event clients subscribed to
-     * @return the WebSocket URL to send updates to
+     * @return the WebSocket URL to send changes to
      */
-    private String eventUpdateURL(String eventID){
-        return "/topic/events/" + eventID;
+    private String eventChangesURL(String eventID){
+        return "/topic/events/" + eventID + "/changes";
     }
 }
@@ -0,0 +1,141 @@
+package server.api;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.dto.BalanceDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import server.cache.EventCache;
+import server.database.EventBulkRepository;
+import server.database.EventRepository;
+import server.database.EventSeeder;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({BalanceService.class, ExpenseService.class, ParticipantService.class, EventCache.class,
+        EventBulkRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BalanceServiceJpaTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EventRepository repository;
+    @Autowired
+    private EventBulkRepository bulkRepository;
+    @Autowired
+    private BalanceService balanceService;
+    @Autowired
+    private ExpenseService expenseService;
+    @Autowired
+    private ParticipantService participantService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        bulkRepository.deleteAll();
+        balanceService.invalidateAll();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    /**
+     * The balances as computed from scratch by Event.getOwedShares
+     */
+    private Map<Long, BigDecimal> recomputed(String eventId) {
+        return inTransaction(() -> BalanceService.recompute(repository.findFullById(eventId).orElseThrow()));
+    }
+
+    private Map<Long, BigDecimal> ledger(String eventId) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for(BalanceDTO balance : balanceService.getBalances(eventId).orElseThrow()){
+            balances.put(balance.getParticipantId(), balance.getBalance());
+        }
+        return balances;
+    }
+
+    private void assertConsistent(String eventId) {
+        Map<Long, BigDecimal> expected = recomputed(eventId);
+        Map<Long, BigDecimal> actual = ledger(eventId);
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((id, balance) -> assertEquals(0, balance.compareTo(actual.get(id)),
+                "Participant " + id + " has " + actual.get(id) + " instead of " + balance));
+    }
+
+    private Expense expense(List<Participant> payerAndMembers, int priceInCents) {
+        Participant payer = payerAndMembers.get(0);
+        Expense expense = new Expense("Drinks", priceInCents, new Date(), new Participant(payer.getId(), payer.getName()));
+        for(Participant member : payerAndMembers){
+            expense.addParticipantToExpense(new Participant(member.getId(), member.getName()));
+        }
+        return expense;
+    }
+
+    private List<Expense> expensesOf(String eventId) {
+        return inTransaction(() -> new ArrayList<>(repository.findFullById(eventId).orElseThrow().getExpenses()));
+    }
+
+    @Test
+    void missingEventHasNoBalances() {
+        assertTrue(balanceService.getBalances("NOPE42").isEmpty());
+    }
+
+    @Test
+    void balancesOfSeededEventMatchRecomputation() {
+        Event event = inTransaction(() -> EventSeeder.seed(entityManager, 3, 7));
+        assertConsistent(event.getId());
+    }
+
+    @Test
+    void ledgerStaysConsistentThroughRandomChanges() {
+        Event event = inTransaction(() -> EventSeeder.seed(entityManager, 5, 10));
+        List<Participant> participants = new ArrayList<>(event.getParticipants());
+        participants.sort(Comparator.comparing(Participant::getId));
+        ledger(event.getId());
+        Random random = new Random(42);
+        for(int step = 0; step < 30; step++){
+            Collections.shuffle(participants, random);
+            List<Participant> involved = participants.subList(0, 1 + random.nextInt(participants.size()));
+            List<Expense> expenses = expensesOf(event.getId());
+            int action = expenses.isEmpty() ? 0 : random.nextInt(3);
+            switch (action) {
+                case 0 -> expenseService.addExpense(event.getId(), expense(involved, random.nextInt(10000) - 1000));
+                case 1 -> expenseService.editExpense(event.getId(),
+                        expenses.get(random.nextInt(expenses.size())).getId(),
+                        expense(involved, random.nextInt(10000)));
+                default -> expenseService.deleteExpense(event.getId(),
+                        expenses.get(random.nextInt(expenses.size())).getId());
+            }
+            assertConsistent(event.getId());
+        }
+    }
+
+    @Test
+    void removedParticipantDropsLedger() {
+        Event event = inTransaction(() -> EventSeeder.seed(entityManager, 3, 4));
+        ledger(event.getId());
+        Participant removed = event.getParticipants().iterator().next();
+        inTransaction(() -> {
+            participantService.removeParticipant(event.getId(), removed.getId());
+            return null;
+        });
+        assertFalse(ledger(event.getId()).containsKey(removed.getId()));
+        assertConsistent(event.getId());
+    }
+}
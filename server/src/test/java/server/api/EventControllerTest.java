@@ -2,6 +2,9 @@ package server.api;
 
 import commons.Event;
 import commons.Participant;
+import commons.dto.EventDeletedDTO;
+import commons.dto.EventSummary;
+import commons.dto.PageDTO;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,11 +12,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import server.cache.EventCache;
+import server.cache.EventPayloadCache;
 import server.database.EventRepository;
 import server.websockets.WebSocketService;
 
 
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 
@@ -21,6 +31,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.OK;
 
 @ExtendWith(MockitoExtension.class)
 public class EventControllerTest {
@@ -29,6 +41,14 @@ public class EventControllerTest {
     EventService eventService;
     @Mock
     private WebSocketService socketService;
+    @Mock
+    private BalanceService balanceService;
+    @Mock
+    private EventPayloadCache payloadCache;
+    @Mock
+    private UpdateLog updateLog;
+    @Spy
+    private EventCache eventCache = new EventCache(100, Duration.ofMinutes(1));
     @InjectMocks
     EventController controller;
     @Captor
@@ -63,6 +83,47 @@ public class EventControllerTest {
         assertEquals(BAD_REQUEST, response.getStatusCode());
     }
 
+    @Test
+    void summariesOfAllEvents() {
+        when(eventService.createEvent(anyString())).thenAnswer(stubCreate);
+        Event event = controller.add("Trip").getBody();
+        List<EventSummary> summaries = controller.summaries().getBody();
+        assertNotNull(event);
+        assertNotNull(summaries);
+        assertEquals(1, summaries.size());
+        assertEquals(event.getId(), summaries.get(0).getId());
+        assertEquals("Trip", summaries.get(0).getTitle());
+        assertEquals(event.getCreationDate(), summaries.get(0).getCreationDate());
+    }
+
+    @Test
+    void pageDelegatesToService() {
+        PageDTO<EventSummary> page = new PageDTO<>(List.of(), null);
+        when(eventService.getEventPage(EventOrder.LAST_ACTIVITY, "cursor", 20)).thenReturn(page);
+        ResponseEntity<PageDTO<EventSummary>> response = controller.page("lastActivity", "cursor", 20);
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    void pageInvalidSize() {
+        assertEquals(BAD_REQUEST, controller.page("title", null, 0).getStatusCode());
+        assertEquals(BAD_REQUEST,
+                controller.page("title", null, EventController.MAX_PAGE_SIZE + 1).getStatusCode());
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void pageUnknownOrder() {
+        assertEquals(BAD_REQUEST, controller.page("participants", null, 10).getStatusCode());
+    }
+
+    @Test
+    void pageMalformedCursor() {
+        when(eventService.getEventPage(any(), anyString(), anyInt()))
+                .thenThrow(new IllegalArgumentException("Malformed cursor"));
+        assertEquals(BAD_REQUEST, controller.page("title", "abc", 10).getStatusCode());
+    }
+
     @Test
     void addEventEmptyTitle() {
         ResponseEntity<Event> response = controller.add("");
@@ -81,7 +142,7 @@ public class EventControllerTest {
     @Test
     void joinNonExistingEvent() {
         String invitationCode = "unkown entity";
-        ResponseEntity<Event> response = controller.join(invitationCode);
+        ResponseEntity<Event> response = controller.join(invitationCode, request());
         assertEquals(BAD_REQUEST, response.getStatusCode());
     }
 
@@ -90,13 +151,64 @@ public class EventControllerTest {
         when(eventService.createEvent(anyString())).thenAnswer(stubCreate);
         Event persistedEvent = controller.add("Party").getBody();
         assertNotNull(persistedEvent);
-        ResponseEntity<Event> response = controller.join(persistedEvent.getId());
+        ResponseEntity<Event> response = controller.join(persistedEvent.getId(), request());
         Event responseEvent = response.getBody();
         assertNotNull(responseEvent);
         assertEquals(persistedEvent.getTitle(), responseEvent.getTitle());
         assertEquals(persistedEvent.getId(), responseEvent.getId());
     }
 
+    @Test
+    void joinUnchangedEventIsNotModified() {
+        when(eventService.createEvent(anyString())).thenAnswer(stubCreate);
+        Event persistedEvent = controller.add("Party").getBody();
+        assertNotNull(persistedEvent);
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        controller.join(persistedEvent.getId(), new ServletWebRequest(new MockHttpServletRequest(), first));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/api/events/" + persistedEvent.getId());
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        ResponseEntity<Event> response = controller.join(persistedEvent.getId(),
+                new ServletWebRequest(revalidation, new MockHttpServletResponse()));
+        assertEquals(NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void joinWithStaleEtagReturnsEvent() {
+        when(eventService.createEvent(anyString())).thenAnswer(stubCreate);
+        Event persistedEvent = controller.add("Party").getBody();
+        assertNotNull(persistedEvent);
+        MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/api/events/" + persistedEvent.getId());
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, "\"event-" + persistedEvent.getId() + "-41\"");
+        ResponseEntity<Event> response = controller.join(persistedEvent.getId(),
+                new ServletWebRequest(revalidation, new MockHttpServletResponse()));
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(persistedEvent.getId(), response.getBody().getId());
+    }
+
+    @Test
+    void allUnchangedIsNotModified() {
+        when(eventService.createEvent(anyString())).thenAnswer(stubCreate);
+        controller.add("Party");
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        controller.all(new ServletWebRequest(new MockHttpServletRequest(), first));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/api/events/all");
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        assertEquals(NOT_MODIFIED, controller.all(new ServletWebRequest(revalidation)).getStatusCode());
+
+        controller.add("Holiday");
+        MockHttpServletRequest afterChange = new MockHttpServletRequest("GET", "/api/events/all");
+        afterChange.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        ResponseEntity<List<Event>> response = controller.all(new ServletWebRequest(afterChange, new MockHttpServletResponse()));
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(2, response.getBody().size());
+    }
+
     @Test
     void getMultipleEvents() {
         when(eventService.createEvent(anyString())).thenAnswer(stubCreate);
@@ -105,7 +217,7 @@ public class EventControllerTest {
         assertNotNull(expectedEvent1);
         assertNotNull(expectedEvent2);
         List<Event> expectedEvents = List.of(expectedEvent1, expectedEvent2);
-        List<Event> retrievedEvents = controller.all().getBody();
+        List<Event> retrievedEvents = controller.all(request()).getBody();
         assertEquals(expectedEvents, retrievedEvents);
     }
 
@@ -127,6 +239,37 @@ public class EventControllerTest {
         assertEquals(persistedEvent, response.getBody());
     }
 
+    @Test
+    void deleteManyEvents() {
+        List<String> ids = List.of("ABCDEF", "GHJKLM");
+        when(eventService.deleteEvents(ids)).thenReturn(List.of("ABCDEF"));
+        ResponseEntity<List<String>> response = controller.deleteEvents(ids);
+        assertEquals(List.of("ABCDEF"), response.getBody());
+        verify(socketService).propagateDeletions(List.of("ABCDEF"));
+        verify(updateLog).append(any(EventDeletedDTO.class));
+    }
+
+    @Test
+    void deleteNoEvents() {
+        assertEquals(BAD_REQUEST, controller.deleteEvents(List.of()).getStatusCode());
+        verifyNoInteractions(eventService, socketService);
+    }
+
+    @Test
+    void deleteUnknownEventsSendsNothing() {
+        when(eventService.deleteEvents(anyList())).thenReturn(List.of());
+        assertEquals(List.of(), controller.deleteEvents(List.of("ABCDEF")).getBody());
+        verifyNoInteractions(socketService);
+    }
+
+    @Test
+    void deleteAllSendsOneBatch() {
+        when(eventService.deleteAllEvents()).thenReturn(List.of("ABCDEF", "GHJKLM"));
+        controller.deleteAll();
+        verify(socketService).propagateDeletions(List.of("ABCDEF", "GHJKLM"));
+        verify(socketService, never()).propagateDeletion(anyString());
+    }
+
     @Test
     void orderUnorderedListByTitle() {
         when(eventService.createEvent(anyString())).thenAnswer(stubCreate);
@@ -222,4 +365,7 @@ public class EventControllerTest {
 //        assertEquals(1, participants.size());
 //    }
 
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
 }
@@ -0,0 +1,89 @@
+package server.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import server.database.EventSeeder;
+import server.database.StatementCounter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=server.database.StatementCounter")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(EventExportService.class)
+class EventExportServiceJpaTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EventExportService exportService;
+    @Autowired
+    private ObjectMapper mapper;
+
+    private List<Event> export(Collection<String> eventIds) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportEvents(eventIds, output);
+        List<Event> events = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(output.toByteArray())), StandardCharsets.UTF_8))) {
+            String line;
+            while((line = reader.readLine()) != null){
+                events.add(mapper.readValue(line, Event.class));
+            }
+        }
+        return events;
+    }
+
+    @Test
+    void exportsEveryEventWithItsContent() throws IOException {
+        Event first = EventSeeder.seed(entityManager, 3, 10);
+        Event second = EventSeeder.seed(entityManager, 4, 5);
+
+        List<Event> events = export(null);
+
+        assertEquals(Set.of(first.getId(), second.getId()),
+                new HashSet<>(events.stream().map(Event::getId).toList()));
+        Event exported = events.stream().filter(event -> event.getId().equals(first.getId())).findFirst().orElseThrow();
+        assertEquals(3, exported.getParticipants().size());
+        assertEquals(10, exported.getExpenses().size());
+        assertEquals(1, exported.getEventTags().size());
+    }
+
+    @Test
+    void exportsOnlyRequestedEvents() throws IOException {
+        Event first = EventSeeder.seed(entityManager, 2, 2);
+        EventSeeder.seed(entityManager, 2, 2);
+
+        List<Event> events = export(List.of(first.getId(), "UNKNWN"));
+
+        assertEquals(List.of(first.getId()), events.stream().map(Event::getId).toList());
+    }
+
+    @Test
+    void emptyDatabaseIsValidBackup() throws IOException {
+        assertEquals(List.of(), export(null));
+    }
+
+    @Test
+    void queriesGrowPerChunkNotPerEvent() throws IOException {
+        int eventCount = EventExportService.CHUNK_SIZE * 2 + 50;
+        for(int i = 0; i < eventCount; i++){
+            EventSeeder.seed(entityManager, 2, 2);
+        }
+        StatementCounter.reset();
+        assertEquals(eventCount, export(null).size());
+        assertTrue(StatementCounter.selects() < eventCount / 5,
+                "Export took " + StatementCounter.selects() + " queries");
+    }
+}
@@ -0,0 +1,68 @@
+package server.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import server.database.EventRepository;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EventIdAllocatorTest {
+    @Mock
+    private EventRepository repository;
+
+    private EventIdAllocator allocator;
+
+    @BeforeEach
+    void setup() {
+        allocator = new EventIdAllocator(repository, 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        allocator.stop();
+    }
+
+    @Test
+    void refillSkipsTakenCodes() {
+        Set<String> taken = Collections.synchronizedSet(new HashSet<>());
+        when(repository.findExistingIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> candidates = invocation.getArgument(0);
+            String first = candidates.iterator().next();
+            taken.add(first);
+            return List.of(first);
+        });
+        allocator.refill();
+        assertEquals(500, allocator.available());
+
+        Set<String> handedOut = new HashSet<>();
+        for(int i = 0; i < 500; i++){
+            String id = allocator.next();
+            assertFalse(taken.contains(id));
+            handedOut.add(id);
+        }
+        assertEquals(500, handedOut.size());
+    }
+
+    @Test
+    void refillChecksCodesInBatches() {
+        allocator.refill();
+        assertEquals(500, allocator.available());
+        verify(repository, times(500 / EventIdAllocator.CHECK_BATCH_SIZE + 1)).findExistingIds(anyCollection());
+    }
+
+    @Test
+    void emptyPoolStillHandsOutCodes() {
+        String id = allocator.next();
+        assertNotNull(id);
+        assertEquals(6, id.length());
+    }
+}
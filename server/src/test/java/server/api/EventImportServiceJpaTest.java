@@ -0,0 +1,161 @@
+package server.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+import commons.Expense;
+import commons.dto.ImportResultDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import server.cache.EventPayloadCache;
+import server.database.EventBulkRepository;
+import server.database.EventRepository;
+import server.database.EventSeeder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "events.import.chunk-size=3")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({EventImportService.class, EventBulkRepository.class, EventIdAllocator.class, EventPayloadCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventImportServiceJpaTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EventRepository repository;
+    @Autowired
+    private EventBulkRepository bulkRepository;
+    @Autowired
+    private EventImportService importService;
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        bulkRepository.deleteAll();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private Event seed(int participantCount, int expenseCount) {
+        return inTransaction(() -> EventSeeder.seed(entityManager, participantCount, expenseCount));
+    }
+
+    /**
+     * Writes a backup line of an event the way it is served to clients
+     */
+    private String backupLine(String eventId) {
+        return inTransaction(() -> {
+            try {
+                return mapper.writeValueAsString(repository.findFullById(eventId).orElseThrow());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private List<ImportResultDTO> importLines(String... lines) throws IOException {
+        List<ImportResultDTO> results = new ArrayList<>();
+        byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        importService.importEvents(new ByteArrayInputStream(body), results::add);
+        return results;
+    }
+
+    @Test
+    void restoresWholeEvents() throws IOException {
+        Event first = seed(3, 10);
+        Event second = seed(5, 7);
+        String firstLine = backupLine(first.getId());
+        String secondLine = backupLine(second.getId());
+        bulkRepository.deleteAll();
+
+        List<ImportResultDTO> results = importLines(firstLine, "", secondLine);
+
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(ImportResultDTO::isImported));
+        assertEquals(List.of(1, 3), results.stream().map(ImportResultDTO::getLine).toList());
+        Event restored = inTransaction(() -> repository.findFullById(second.getId()).orElseThrow());
+        assertEquals(second.getTitle(), restored.getTitle());
+        assertEquals(5, restored.getParticipants().size());
+        assertEquals(1, restored.getEventTags().size());
+        assertEquals(7, restored.getExpenses().size());
+        for(Expense expense : restored.getExpenses()){
+            assertEquals(5, expense.getParticipantsInExpense().size());
+            assertTrue(restored.getParticipants().contains(expense.getOwedTo()));
+            assertEquals(restored.getEventTags().iterator().next(), expense.getExpenseTag());
+        }
+    }
+
+    @Test
+    void existingEventsAreNotOverwritten() throws IOException {
+        Event event = seed(2, 3);
+        String line = backupLine(event.getId());
+
+        List<ImportResultDTO> results = importLines(line);
+
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).isImported());
+        assertEquals(event.getId(), results.get(0).getEventId());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void duplicatesInUploadAreRejected() throws IOException {
+        Event event = seed(2, 3);
+        String line = backupLine(event.getId());
+        bulkRepository.deleteAll();
+
+        List<ImportResultDTO> results = importLines(line, line);
+
+        assertTrue(results.get(0).isImported());
+        assertFalse(results.get(1).isImported());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void brokenLinesAreReportedAndSkipped() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for(int i = 0; i < 4; i++){
+            Event event = seed(2, 2);
+            lines.add(backupLine(event.getId()));
+        }
+        bulkRepository.deleteAll();
+        lines.add(1, "{not json");
+        lines.add(3, "{\"id\":\"ABCDEF\",\"title\":\"\"}");
+        lines.add("{\"id\":\"GHJKLM\",\"title\":\"Trip\",\"participants\":[{\"id\":1,\"name\":\"A\"}],"
+                + "\"expenses\":[{\"id\":5,\"name\":\"Taxi\",\"priceInCents\":100,"
+                + "\"owedTo\":{\"id\":2,\"name\":\"B\"},\"participantsInExpense\":[1]}],\"eventTags\":[]}");
+
+        List<ImportResultDTO> results = importLines(lines.toArray(String[]::new));
+
+        assertEquals(7, results.size());
+        assertEquals(List.of(1, 3, 5, 6), results.stream()
+                .filter(ImportResultDTO::isImported).map(ImportResultDTO::getLine).sorted().toList());
+        ImportResultDTO unknownParticipant = results.stream()
+                .filter(result -> result.getLine() == 7).findFirst().orElseThrow();
+        assertFalse(unknownParticipant.isImported());
+        assertEquals("Unknown participant 2", unknownParticipant.getError());
+        assertEquals(4, repository.count());
+    }
+}
@@ -0,0 +1,130 @@
+package server.api;
+
+import commons.Event;
+import commons.dto.EventSummary;
+import commons.dto.PageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import server.cache.EventCache;
+import server.cache.EventPayloadCache;
+import server.database.EventBulkRepository;
+import server.database.StatementCounter;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=server.database.StatementCounter")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({EventService.class, EventBulkRepository.class, EventIdAllocator.class, EventCache.class,
+        EventPayloadCache.class, BalanceService.class})
+class EventServiceJpaTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EventService eventService;
+
+    private final List<Event> events = new ArrayList<>();
+
+    /**
+     * Seeds events with repeated titles and dates, so pages have to break ties by ID.
+     * Every seventh event has no title, creation date or last activity.
+     */
+    @BeforeEach
+    void seed() {
+        for(int i = 0; i < 23; i++){
+            boolean blank = i % 7 == 6;
+            Event event = new Event(blank ? null : "Event " + (i % 5), blank ? null : new Date(1_000_000L * (i % 4)));
+            event.setLastActivity(blank ? null : new Date(1_000_000L * (i % 3)));
+            entityManager.persist(event);
+            events.add(event);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private List<String> walk(EventOrder order, int size) {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageDTO<EventSummary> page = eventService.getEventPage(order, cursor, size);
+            assertTrue(page.getItems().size() <= size);
+            page.getItems().forEach(event -> ids.add(event.getId()));
+            cursor = page.getNextCursor();
+        } while(cursor != null);
+        return ids;
+    }
+
+    private List<String> sorted(Comparator<Event> comparator) {
+        return events.stream().sorted(comparator).map(Event::getId).toList();
+    }
+
+    @Test
+    void pagesByTitle() {
+        assertEquals(sorted(Comparator.comparing(Event::getTitle, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                        .thenComparing(Event::getId)),
+                walk(EventOrder.TITLE, 7));
+    }
+
+    @Test
+    void pagesByCreationDate() {
+        assertEquals(sorted(Comparator.comparing(Event::getCreationDate, Comparator.nullsFirst(Comparator.<Date>naturalOrder()))
+                        .thenComparing(Event::getId)),
+                walk(EventOrder.CREATION_DATE, 4));
+    }
+
+    @Test
+    void pagesByLastActivity() {
+        assertEquals(sorted(Comparator.comparing(Event::getLastActivity, Comparator.nullsFirst(Comparator.<Date>naturalOrder()))
+                        .thenComparing(Event::getId).reversed()),
+                walk(EventOrder.LAST_ACTIVITY, 5));
+    }
+
+    @Test
+    void exactlyFullPageHasNoCursor() {
+        PageDTO<EventSummary> page = eventService.getEventPage(EventOrder.TITLE, null, events.size());
+        assertEquals(events.size(), page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void deepPageTakesOneQuery() {
+        String cursor = null;
+        for(int i = 0; i < 4; i++){
+            StatementCounter.reset();
+            PageDTO<EventSummary> page = eventService.getEventPage(EventOrder.TITLE, cursor, 5);
+            assertEquals(1, StatementCounter.total());
+            cursor = page.getNextCursor();
+        }
+    }
+
+    @Test
+    void pagesContinueAfterEventsWithoutSortValue() {
+        for(EventOrder order : EventOrder.values()){
+            assertEquals(walk(order, events.size()), walk(order, 1));
+        }
+    }
+
+    @Test
+    void cursorWithoutKeyRoundTrips() {
+        EventCursor cursor = new EventCursor(null, "ABCDEF");
+        assertEquals(cursor, EventCursor.decode(cursor.encode()));
+        assertEquals(new EventCursor("Event 1", "ABCDEF"), EventCursor.decode(new EventCursor("Event 1", "ABCDEF").encode()));
+    }
+
+    @Test
+    void malformedCursor() {
+        String cursor = new EventCursor("not a date", "ABCDEF").encode();
+        assertThrows(IllegalArgumentException.class,
+                () -> eventService.getEventPage(EventOrder.CREATION_DATE, cursor, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> eventService.getEventPage(EventOrder.TITLE, "%%%", 5));
+    }
+}
@@ -7,11 +7,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import server.cache.EventCache;
+import server.cache.EventPayloadCache;
 import server.database.EventRepository;
 
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,6 +24,18 @@ public class EventServiceTest {
     @Mock
     private EventRepository mockEventRepository;
 
+    @Mock
+    private EventIdAllocator mockIdAllocator;
+
+    @Mock
+    private EventCache mockEventCache;
+
+    @Mock
+    private EventPayloadCache mockPayloadCache;
+
+    @Mock
+    private BalanceService mockBalanceService;
+
     @InjectMocks
     private EventService mockEventService;
 
@@ -37,6 +53,7 @@ public class EventServiceTest {
                 editTitle(event.getId(), "newTitle");
         assertEquals(newEvent.getTitle(), "newTitle");
         verify(mockEventRepository, times(1)).save(newEvent);
+        verify(mockEventCache).invalidate(event.getId());
     }
 
     /**
@@ -49,4 +66,33 @@ public class EventServiceTest {
             mockEventService.editTitle(event.getId(), "new title"));
     }
 
+    @Test
+    public void createEventUsesAllocatedId() {
+        when(mockIdAllocator.next()).thenReturn("ABCDEF");
+        when(mockEventRepository.saveAndFlush(any(Event.class))).then(returnsFirstArg());
+        Event event = mockEventService.createEvent("title");
+        assertEquals("ABCDEF", event.getId());
+        assertEquals("title", event.getTitle());
+        assertEquals(5, event.getEventTags().size());
+    }
+
+    @Test
+    public void createEventRetriesTakenId() {
+        when(mockIdAllocator.next()).thenReturn("ABCDEF", "GHJKLM");
+        when(mockEventRepository.saveAndFlush(any(Event.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .then(returnsFirstArg());
+        Event event = mockEventService.createEvent("title");
+        assertEquals("GHJKLM", event.getId());
+        verify(mockEventRepository, times(2)).saveAndFlush(any(Event.class));
+    }
+
+    @Test
+    public void createEventGivesUp() {
+        when(mockIdAllocator.next()).thenReturn("ABCDEF");
+        when(mockEventRepository.saveAndFlush(any(Event.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        assertThrows(DataIntegrityViolationException.class, () -> mockEventService.createEvent("title"));
+        verify(mockEventRepository, times(EventService.MAX_CREATE_ATTEMPTS)).saveAndFlush(any(Event.class));
+    }
 }
@@ -1,16 +1,23 @@
 package server.api;
 
 import commons.Expense;
+import commons.dto.EventChangeDTO;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import server.database.EventStamp;
 import server.websockets.WebSocketService;
 
+import java.util.Date;
+import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,10 +40,12 @@ class ExpenseControllerTest {
         String eventId = "sampleEventId";
         Expense expense = new Expense("Sample Expense",
             100, null, null);
-        doNothing().when(expenseService).addExpense(anyString(), any(Expense.class));
+        EventChangeDTO change = EventChangeDTO.expense(eventId, 2L, EventChangeDTO.Type.EXPENSE_ADDED, expense);
+        when(expenseService.addExpense(anyString(), any(Expense.class))).thenReturn(change);
         ResponseEntity<Void> responseEntity
             = expenseController.addExpenseToEvent(eventId, expense);
         verify(expenseService).addExpense(eq(eventId), eq(expense));
+        verify(socketService).propagateChange(change);
         assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
     }
 
@@ -50,27 +59,51 @@ class ExpenseControllerTest {
                 null, null)
         );
         when(expenseService.getAllExpenses(eventId)).thenReturn(mockExpenses);
+        when(expenseService.getEventStamp(eventId))
+            .thenReturn(Optional.of(new EventStamp(eventId, 3L, new Date())));
         ResponseEntity<Set<Expense>> responseEntity
-            = expenseController.getAllExpensesForEvent(eventId);
+            = expenseController.getAllExpensesForEvent(eventId, new ServletWebRequest(new MockHttpServletRequest()));
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         Set<Expense> returnedExpenses = responseEntity.getBody();
         assertEquals(mockExpenses, returnedExpenses);
     }
 
+    @Test
+    public void getAllExpensesForUnchangedEventTest() {
+        String eventId = "sampleEventId";
+        when(expenseService.getEventStamp(eventId))
+            .thenReturn(Optional.of(new EventStamp(eventId, 3L, new Date())));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"expenses-sampleEventId-3\"");
+        ResponseEntity<Set<Expense>> responseEntity
+            = expenseController.getAllExpensesForEvent(eventId, new ServletWebRequest(request));
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        verify(expenseService, never()).getAllExpenses(anyString());
+    }
+
     @Test
     public void editExistingExpenseTest() {
         Expense expected = new Expense();
-        when(expenseService.editExpense(anyLong(), any())).thenReturn(expected);
+        EventChangeDTO change = EventChangeDTO.expense("ABC123", 2L, EventChangeDTO.Type.EXPENSE_EDITED, expected);
+        when(expenseService.editExpense(anyString(), anyLong(), any())).thenReturn(change);
         ResponseEntity<Expense> response = expenseController.editExpense("ABC123", 1L, expected);
         assertEquals(expected, response.getBody());
+        verify(socketService).propagateChange(change);
     }
 
     @Test
     public void editNonExistingExpenseTest() {
         Expense expected = new Expense();
-        when(expenseService.editExpense(anyLong(), any())).thenThrow(new EntityNotFoundException("test"));
+        when(expenseService.editExpense(anyString(), anyLong(), any())).thenThrow(new EntityNotFoundException("test"));
         assertThrows(EntityNotFoundException.class, () -> expenseController.editExpense("ABC123", 1L, expected));
     }
 
-    //Need to add tests for the delete method
+    @Test
+    public void removeExpenseSendsRemoval() {
+        EventChangeDTO change = EventChangeDTO.removal("ABC123", 4L, EventChangeDTO.Type.EXPENSE_REMOVED, 7);
+        when(expenseService.deleteExpense("ABC123", 7L)).thenReturn(change);
+        assertEquals(HttpStatus.OK, expenseController.removeExpense("ABC123", 7L).getStatusCode());
+        verify(socketService).propagateChange(change);
+        verify(socketService, never()).propagateEventUpdate(anyString());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,194 @@
+package server.api;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.dto.EventChangeDTO;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import server.cache.EventCache;
+import server.database.EventSeeder;
+import server.database.StatementCounter;
+import server.exceptions.ExpenseNotFoundException;
+import server.exceptions.ParticipantNotFoundException;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=server.database.StatementCounter")
+@Import({ExpenseService.class, EventCache.class, BalanceService.class})
+class ExpenseServiceJpaTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private ExpenseService expenseService;
+
+    private Event seedEvent(int participantCount, int expenseCount) {
+        return EventSeeder.seed(entityManager, participantCount, expenseCount);
+    }
+
+    /**
+     * Creates an expense the way a client would submit it, only carrying references by ID
+     */
+    private Expense newExpense(Event event) {
+        List<Participant> participants = new ArrayList<>(event.getParticipants());
+        Expense expense = new Expense("Drinks", 1500, new Date(),
+                new Participant(participants.get(0).getId(), participants.get(0).getName()));
+        for(Participant participant : participants){
+            expense.addParticipantToExpense(new Participant(participant.getId(), participant.getName()));
+        }
+        return expense;
+    }
+
+    private int statementsForInsert(Event event) {
+        Expense expense = newExpense(event);
+        entityManager.clear();
+        StatementCounter.reset();
+        expenseService.addExpense(event.getId(), expense);
+        entityManager.flush();
+        return StatementCounter.total();
+    }
+
+    private int selectsForEveryoneExpense(int participantCount) {
+        Event event = seedEvent(participantCount, 1);
+        Expense expense = newExpense(event);
+        entityManager.clear();
+        StatementCounter.reset();
+        expenseService.addExpense(event.getId(), expense);
+        entityManager.flush();
+        return StatementCounter.selects();
+    }
+
+    private int selectsForEveryoneEdit(int participantCount) {
+        Event event = seedEvent(participantCount, 1);
+        long expenseId = event.getExpenses().iterator().next().getId();
+        Expense expense = newExpense(event);
+        entityManager.clear();
+        StatementCounter.reset();
+        expenseService.editExpense(event.getId(), expenseId, expense);
+        entityManager.flush();
+        return StatementCounter.selects();
+    }
+
+    private long medianInsertNanos(Event event, int runs) {
+        long[] timings = new long[runs];
+        for(int i = 0; i < runs; i++){
+            Expense expense = newExpense(event);
+            entityManager.clear();
+            long start = System.nanoTime();
+            expenseService.addExpense(event.getId(), expense);
+            entityManager.flush();
+            timings[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(timings);
+        return timings[runs / 2];
+    }
+
+    @Test
+    void addExpenseIsVisibleInEvent() {
+        Event event = seedEvent(3, 4);
+        expenseService.addExpense(event.getId(), newExpense(event));
+        entityManager.flush();
+        entityManager.clear();
+        Event reloaded = entityManager.find(Event.class, event.getId());
+        assertEquals(5, reloaded.getExpenses().size());
+        assertTrue(reloaded.getExpenses().stream()
+                .anyMatch(expense -> expense.getName().equals("Drinks")
+                        && expense.getParticipantsInExpense().size() == 3));
+        assertTrue(reloaded.getLastActivity().after(new Date(0)));
+    }
+
+    @Test
+    void changesAreNumberedWithEventVersion() {
+        Event event = seedEvent(3, 1);
+        long expenseId = event.getExpenses().iterator().next().getId();
+        EventChangeDTO added = expenseService.addExpense(event.getId(), newExpense(event));
+        EventChangeDTO edited = expenseService.editExpense(event.getId(), expenseId, newExpense(event));
+        EventChangeDTO removed = expenseService.deleteExpense(event.getId(), expenseId);
+        assertEquals("Drinks", added.getExpense().getName());
+        assertEquals(added.getSequence() + 1, edited.getSequence());
+        assertEquals(edited.getSequence() + 1, removed.getSequence());
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(removed.getSequence(), entityManager.find(Event.class, event.getId()).getVersion());
+    }
+
+    @Test
+    void expenseOfOtherEventIsNotChanged() {
+        Event event = seedEvent(2, 1);
+        Event otherEvent = seedEvent(2, 0);
+        long expenseId = event.getExpenses().iterator().next().getId();
+        Expense expense = newExpense(otherEvent);
+        assertThrows(ExpenseNotFoundException.class,
+                () -> expenseService.editExpense(otherEvent.getId(), expenseId, expense));
+        assertThrows(ExpenseNotFoundException.class,
+                () -> expenseService.deleteExpense(otherEvent.getId(), expenseId));
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(1, entityManager.find(Event.class, event.getId()).getExpenses().size());
+    }
+
+    @Test
+    void addExpenseToMissingEvent() {
+        Event event = seedEvent(2, 0);
+        Expense expense = newExpense(event);
+        assertThrows(EntityNotFoundException.class,
+                () -> expenseService.addExpense("NOPE42", expense));
+    }
+
+    @Test
+    void insertStatementsDoNotDependOnEventSize() {
+        Event small = seedEvent(5, 10);
+        Event large = seedEvent(5, 2000);
+        assertEquals(statementsForInsert(small), statementsForInsert(large));
+    }
+
+    @Test
+    void addQueriesDoNotDependOnParticipantCount() {
+        assertEquals(selectsForEveryoneExpense(3), selectsForEveryoneExpense(300));
+    }
+
+    @Test
+    void editQueriesDoNotDependOnParticipantCount() {
+        assertEquals(selectsForEveryoneEdit(3), selectsForEveryoneEdit(300));
+    }
+
+    @Test
+    void addExpenseWithForeignParticipants() {
+        Event event = seedEvent(2, 0);
+        Event otherEvent = seedEvent(2, 0);
+        Expense expense = newExpense(event);
+        List<Long> foreignIds = otherEvent.getParticipants().stream()
+                .map(Participant::getId).sorted().toList();
+        otherEvent.getParticipants().forEach(participant ->
+                expense.addParticipantToExpense(new Participant(participant.getId(), participant.getName())));
+        ParticipantNotFoundException exception = assertThrows(ParticipantNotFoundException.class,
+                () -> expenseService.addExpense(event.getId(), expense));
+        assertEquals(foreignIds, exception.getParticipants());
+    }
+
+    /**
+     * Latency benchmark, left out of the regular test run since it measures wall-clock time:
+     * inserting into an event with 2000 expenses should cost about the same as inserting into
+     * an event with 10 expenses. Run it with ./gradlew :server:benchmarkTest
+     */
+    @Test
+    @Tag("benchmark")
+    void insertLatencyStaysFlatAsEventGrows() {
+        Event small = seedEvent(5, 10);
+        Event large = seedEvent(5, 2000);
+        medianInsertNanos(small, 20);
+        long smallMedian = medianInsertNanos(small, 25);
+        long largeMedian = medianInsertNanos(large, 25);
+        System.out.println("Median insert: " + smallMedian + "ns with 10 expenses, " + largeMedian + "ns with 2000");
+        assertTrue(largeMedian < smallMedian * 10,
+                "Median insert took " + largeMedian + "ns in a large event versus " + smallMedian + "ns in a small one");
+    }
+}
@@ -7,16 +7,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import server.cache.EventCache;
 import server.database.EventRepository;
 import server.database.ExpenseRepository;
 import server.database.TagRepository;
+import server.exceptions.ExpenseNotFoundException;
 
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +33,10 @@ class ExpenseServiceTest {
     @Mock
     private TagRepository mockTagRepository;
 
+    @Mock
+    private EventCache eventCache;
+    @Mock
+    private BalanceService balanceService;
     @InjectMocks
     private ExpenseService mockExpenseService;
 
@@ -46,7 +54,7 @@ class ExpenseServiceTest {
         Event fakeEvent = new Event("title", null);
         fakeEvent.addExpense(expense1);
         fakeEvent.addExpense(expense2);
-        when(mockEventRepository.findById(anyString()))
+        when(mockEventRepository.findWithExpensesById(anyString()))
             .thenReturn(Optional.of(fakeEvent));
         Set<Expense> actualExpenses =
             mockExpenseService.getAllExpenses(eventId);
@@ -66,8 +74,19 @@ class ExpenseServiceTest {
                 .thenReturn(Optional.of(mockEvent));
         when(mockExpenseRepository.findById(anyLong()))
             .thenReturn(Optional.of(mockExpense));
+        when(mockEventRepository.containsExpense(mockEvent.getId(), mockExpense.getId())).thenReturn(true);
         mockExpenseService.deleteExpense(mockEvent.getId(), mockExpense.getId());
         assertFalse(mockEvent.getExpenses().contains(mockExpense));
         verify(mockEventRepository).save(mockEvent);
     }
+
+    @Test
+    public void deleteExpenseOfOtherEventTest() {
+        Expense mockExpense = new Expense("mockExpense", 100, null, null);
+        when(mockExpenseRepository.findById(anyLong())).thenReturn(Optional.of(mockExpense));
+        when(mockEventRepository.containsExpense("OTHER1", mockExpense.getId())).thenReturn(false);
+        assertThrows(ExpenseNotFoundException.class,
+                () -> mockExpenseService.deleteExpense("OTHER1", mockExpense.getId()));
+        verify(balanceService, never()).expenseChanged(anyString(), any(), any());
+    }
 }
\ No newline at end of file
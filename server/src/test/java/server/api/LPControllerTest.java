@@ -0,0 +1,81 @@
+package server.api;
+
+import commons.dto.EventDeletedDTO;
+import commons.dto.EventNameChangeDTO;
+import commons.dto.NameChangesDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LPControllerTest {
+    private List<Runnable> fanOut;
+    private UpdateLog updateLog;
+    private LPController controller;
+    private String cursor;
+
+    @BeforeEach
+    void setup() {
+        fanOut = new ArrayList<>();
+        updateLog = new UpdateLog(16);
+        controller = new LPController(updateLog, fanOut::add);
+        cursor = changes(controller.getNameUpdates(null, List.of())).getCursor();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NameChangesDTO changes(DeferredResult<ResponseEntity<NameChangesDTO>> result) {
+        assertTrue(result.hasResult());
+        return ((ResponseEntity<NameChangesDTO>) result.getResult()).getBody();
+    }
+
+    private void runFanOut() {
+        fanOut.forEach(Runnable::run);
+        fanOut.clear();
+    }
+
+    @Test
+    void renameOnlyCompletesInterestedPolls() {
+        var interested = controller.getNameUpdates(cursor, List.of("A", "B"));
+        var other = controller.getNameUpdates(cursor, List.of("C"));
+        var all = controller.getNameUpdates(cursor, null);
+        assertFalse(interested.hasResult());
+
+        updateLog.append(new EventNameChangeDTO("A", "Party"));
+        assertFalse(interested.hasResult(), "polls are completed on the fan-out executor");
+        runFanOut();
+
+        assertEquals("Party", changes(interested).getChanges().get(0).getNewTitle());
+        assertEquals(1, changes(all).getChanges().size());
+        assertFalse(other.hasResult());
+    }
+
+    @Test
+    void earlierChangesAreSentRightAway() {
+        updateLog.append(new EventNameChangeDTO("A", "One"));
+        updateLog.append(new EventNameChangeDTO("C", "Other"));
+        updateLog.append(new EventNameChangeDTO("A", "Two"));
+        var poll = controller.getNameUpdates(cursor, List.of("A"));
+        List<String> titles = changes(poll).getChanges().stream().map(EventNameChangeDTO::getNewTitle).toList();
+        assertEquals(List.of("One", "Two"), titles);
+    }
+
+    @Test
+    void deletionsDoNotCompletePolls() {
+        var poll = controller.getNameUpdates(cursor, List.of("A"));
+        updateLog.append(new EventDeletedDTO("A"));
+        runFanOut();
+        assertFalse(poll.hasResult());
+    }
+
+    @Test
+    void firstPollReturnsCursor() {
+        var poll = controller.getNameUpdates(null, List.of("A"));
+        assertNotNull(changes(poll).getCursor());
+        assertFalse(changes(poll).isResync());
+    }
+}
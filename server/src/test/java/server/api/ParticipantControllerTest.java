@@ -1,6 +1,7 @@
 package server.api;
 import commons.Event;
 import commons.Participant;
+import commons.dto.EventChangeDTO;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -54,9 +55,12 @@ public class ParticipantControllerTest {
     void addParticipantStatus(){
         Event event = new Event("test", null);
         Participant participant = new Participant("John!");
-        doNothing().when(participantService).addParticipantToEvent(anyString(), any());
+        EventChangeDTO change = EventChangeDTO.participant(event.getId(), 2L,
+                EventChangeDTO.Type.PARTICIPANT_ADDED, participant);
+        when(participantService.addParticipantToEvent(anyString(), any())).thenReturn(change);
         ResponseEntity<Void> response = participantController.addParticipantToEvent(event.getId(), participant);
         verify(participantService).addParticipantToEvent(eq(event.getId()), eq(participant));
+        verify(socketService).propagateChange(change);
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
     }
 
@@ -88,7 +92,8 @@ public class ParticipantControllerTest {
         long participantId = 1L;
         String eventId = "invitationCode";
 
-        doNothing().when(participantService).removeParticipant(eventId, participantId);
+        when(participantService.removeParticipant(eventId, participantId)).thenReturn(
+                EventChangeDTO.removal(eventId, 2L, EventChangeDTO.Type.PARTICIPANT_REMOVED, participantId));
 
         mockMvc.perform(delete("/api/events/{eventId}/participants/{participantId}", eventId, participantId)
                         .accept(MediaType.APPLICATION_JSON))
@@ -102,8 +107,9 @@ public class ParticipantControllerTest {
     @Test
     public void editParticipantOkResponseFromServer() {
         Participant participantDetails = new Participant("Jane Doe");
-        given(participantService.editParticipant(anyLong(), any(Participant.class)))
-                .willReturn(participantDetails);
+        given(participantService.editParticipant(eq("ABC123"), anyLong(), any(Participant.class)))
+                .willReturn(EventChangeDTO.participant("ABC123", 2L, EventChangeDTO.Type.PARTICIPANT_EDITED,
+                        participantDetails));
         ResponseEntity<Participant> response = participantController.editParticipant("ABC123", participantDetails.getId(), participantDetails);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("Jane Doe", response.getBody().getName());
@@ -117,7 +123,7 @@ public class ParticipantControllerTest {
         Long nonExistentId = 999L;
         Participant participantDetails = new Participant("Jane Doe");
 
-        given(participantService.editParticipant(eq(nonExistentId), any(Participant.class)))
+        given(participantService.editParticipant(eq("ABC123"), eq(nonExistentId), any(Participant.class)))
                 .willThrow(new EntityNotFoundException("Participant not found"));
 
         assertThrows(EntityNotFoundException.class, () -> {
@@ -131,12 +137,13 @@ public class ParticipantControllerTest {
     public void editParticipantVerifyDetails() {
         Long participantId = 1L;
         Participant participantDetails = new Participant("Jane Doe");
-        given(participantService.editParticipant(eq(participantId), any(Participant.class)))
-                .willAnswer(invocation -> invocation.getArgument(1));
+        given(participantService.editParticipant(eq("ABC123"), eq(participantId), any(Participant.class)))
+                .willAnswer(invocation -> EventChangeDTO.participant("ABC123", 2L,
+                        EventChangeDTO.Type.PARTICIPANT_EDITED, invocation.getArgument(2)));
         ResponseEntity<Participant> response = participantController.editParticipant("ABC123", participantId, participantDetails);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(participantDetails.getName(), response.getBody().getName());
-        verify(participantService).editParticipant(eq(participantId), argThat(
+        verify(participantService).editParticipant(eq("ABC123"), eq(participantId), argThat(
                 p -> "Jane Doe".equals(p.getName())
         ));
     }
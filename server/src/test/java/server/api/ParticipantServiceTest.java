@@ -2,16 +2,21 @@ package server.api;
 
 import commons.Event;
 import commons.Participant;
+import commons.dto.EventChangeDTO;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import server.cache.EventCache;
 import server.database.EventRepository;
 import server.database.ExpenseRepository;
 import server.database.ParticipantRepository;
+import server.exceptions.ParticipantNotFoundException;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -29,6 +34,12 @@ public class ParticipantServiceTest {
     @Mock
     private ExpenseRepository expenseRepository;
 
+    @Mock
+    private EventCache eventCache;
+
+    @Mock
+    private BalanceService balanceService;
+
     @InjectMocks
     private ParticipantService participantService;
 
@@ -46,6 +57,8 @@ public class ParticipantServiceTest {
         participantService.removeParticipant(mockEvent.getId(), mockParticipant.getId());
         assertFalse(mockEvent.getParticipants().contains(mockParticipant));
         verify(eventRepository).save(mockEvent);
+        verify(eventCache).invalidate(mockEvent.getId());
+        verify(balanceService).invalidate(mockEvent.getId());
     }
 
     /**
@@ -94,10 +107,17 @@ public class ParticipantServiceTest {
         Event mockEvent = new Event("Sample Event", null);
         Participant mockParticipant = new Participant("John Doe");
         Participant updatedDetails = new Participant("Jane Doe");
-        when(participantRepository.findById(mockParticipant.getId())).thenReturn(Optional.of(mockParticipant));
-        when(participantRepository.save(any(Participant.class))).thenReturn(updatedDetails);
-        Participant result = participantService.editParticipant(mockParticipant.getId(), updatedDetails);
-        assertEquals("Jane Doe", result.getName());
+        when(participantRepository.findAllInEvent(mockEvent.getId(), List.of(mockParticipant.getId())))
+                .thenReturn(List.of(mockParticipant));
+        when(eventRepository.findVersionById(mockEvent.getId())).thenReturn(4L);
+        EventChangeDTO result = participantService.editParticipant(mockEvent.getId(), mockParticipant.getId(),
+                updatedDetails);
+        assertSame(mockParticipant, result.getParticipant());
+        assertEquals("Jane Doe", result.getParticipant().getName());
+        verify(participantRepository, never()).save(any(Participant.class));
+        assertEquals(EventChangeDTO.Type.PARTICIPANT_EDITED, result.getType());
+        assertEquals(4L, result.getSequence());
+        verify(eventRepository).touch(eq(mockEvent.getId()), any(Date.class));
     }
 
     /**
@@ -107,9 +127,9 @@ public class ParticipantServiceTest {
     @Test
     public void editParticipantToEventNonExistentEventCheck() {
         Participant updatedDetails = new Participant("Jane Doe");
-        assertThrows(EntityNotFoundException.class, () -> {
-            participantService.editParticipant(updatedDetails.getId(), updatedDetails);
-        }, "Should throw EntityNotFoundException for a nonexistent event.");
+        assertThrows(ParticipantNotFoundException.class, () -> {
+            participantService.editParticipant("ABC123", updatedDetails.getId(), updatedDetails);
+        }, "Should throw ParticipantNotFoundException for a nonexistent event.");
     }
 
     /**
@@ -121,7 +141,19 @@ public class ParticipantServiceTest {
         String participantName = "Jane Doe";
         Event mockEvent = new Event("Sample Event", null);
         Participant mockParticipant = new Participant(participantName);
-        assertThrows(EntityNotFoundException.class, () -> participantService.editParticipant(mockParticipant.getId(), mockParticipant));
+        assertThrows(ParticipantNotFoundException.class, () -> participantService.editParticipant(mockEvent.getId(), mockParticipant.getId(), mockParticipant));
+    }
+
+    /**
+     * test to see that a participant of another event is not edited through this one
+     */
+    @Test
+    public void editParticipantOfOtherEventCheck() {
+        when(participantRepository.findAllInEvent("ABC123", List.of(7L))).thenReturn(List.of());
+        ParticipantNotFoundException exception = assertThrows(ParticipantNotFoundException.class,
+                () -> participantService.editParticipant("ABC123", 7L, new Participant("Jane Doe")));
+        assertEquals(List.of(7L), exception.getParticipants());
+        verify(eventRepository, never()).touch(anyString(), any(Date.class));
     }
 
     /**
@@ -133,10 +165,12 @@ public class ParticipantServiceTest {
         Participant participant = new Participant("Name");
         when(eventRepository.findById(anyString())).
                 thenReturn(Optional.of(event));
-        participantService.addParticipantToEvent(event.getId(), participant);
+        EventChangeDTO change = participantService.addParticipantToEvent(event.getId(), participant);
         verify(eventRepository).save(event);
         Set<Participant> participants = event.getParticipants();
         assertEquals(1, participants.size());
+        assertSame(participants.iterator().next(), change.getParticipant());
+        verify(participantRepository).save(change.getParticipant());
     }
 
     /**
@@ -0,0 +1,142 @@
+package server.api;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.dto.SettlementDTO;
+import commons.dto.TransferDTO;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import server.cache.EventCache;
+import server.database.EventBulkRepository;
+import server.database.EventRepository;
+import server.database.EventSeeder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({SettlementService.class, ExpenseService.class, BalanceService.class, EventCache.class,
+        EventBulkRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SettlementServiceJpaTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EventRepository repository;
+    @Autowired
+    private EventBulkRepository bulkRepository;
+    @Autowired
+    private SettlementService settlementService;
+    @Autowired
+    private ExpenseService expenseService;
+    @Autowired
+    private BalanceService balanceService;
+    @Autowired
+    private EventCache eventCache;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        bulkRepository.deleteAll();
+        balanceService.invalidateAll();
+        eventCache.invalidateAll();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private Event seed() {
+        return inTransaction(() -> EventSeeder.seed(entityManager, 4, 9));
+    }
+
+    private int expenseCount(String eventId) {
+        return inTransaction(() -> repository.findFullById(eventId).orElseThrow().getExpenses().size());
+    }
+
+    @Test
+    void missingEventHasNoPlan() {
+        assertTrue(settlementService.getPlan("NOPE42").isEmpty());
+        assertThrows(EntityNotFoundException.class, () -> settlementService.settle("NOPE42", 0, null));
+    }
+
+    @Test
+    void planIsRememberedPerVersion() {
+        Event event = seed();
+        SettlementDTO first = settlementService.getPlan(event.getId()).orElseThrow();
+        assertFalse(first.getTransfers().isEmpty());
+        assertTrue(first.getTransfers().size() < 4);
+        assertEquals(first, settlementService.getPlan(event.getId()).orElseThrow());
+    }
+
+    @Test
+    void settlingAllTransfersLeavesNothingToSettle() {
+        Event event = seed();
+        SettlementDTO plan = settlementService.getPlan(event.getId()).orElseThrow();
+        List<TransferDTO> executed = settlementService.settle(event.getId(), plan.getVersion(), null);
+
+        assertEquals(plan.getTransfers(), executed);
+        assertEquals(9 + executed.size(), expenseCount(event.getId()));
+        SettlementDTO after = settlementService.getPlan(event.getId()).orElseThrow();
+        assertTrue(after.getVersion() > plan.getVersion());
+        assertTrue(after.getTransfers().isEmpty());
+    }
+
+    @Test
+    void settlingOneTransferKeepsTheOthers() {
+        Event event = seed();
+        SettlementDTO plan = settlementService.getPlan(event.getId()).orElseThrow();
+        TransferDTO settled = plan.getTransfers().getFirst();
+        settlementService.settle(event.getId(), plan.getVersion(), List.of(settled));
+
+        List<TransferDTO> remaining = settlementService.getPlan(event.getId()).orElseThrow().getTransfers();
+        assertFalse(remaining.contains(settled));
+        assertEquals(plan.getTransfers().size() - 1, remaining.size());
+    }
+
+    @Test
+    void outdatedVersionIsRejected() {
+        Event event = seed();
+        SettlementDTO plan = settlementService.getPlan(event.getId()).orElseThrow();
+        assertThrows(IllegalStateException.class,
+                () -> settlementService.settle(event.getId(), plan.getVersion() - 1, null));
+        assertEquals(9, expenseCount(event.getId()));
+    }
+
+    @Test
+    void planOfChangedEventIsRejected() {
+        Event event = seed();
+        SettlementDTO plan = settlementService.getPlan(event.getId()).orElseThrow();
+        Participant payer = event.getParticipants().iterator().next();
+        expenseService.addExpense(event.getId(), new Expense("Taxi", 4000, new Date(), new Participant(payer.getId(), null)));
+
+        assertThrows(IllegalStateException.class,
+                () -> settlementService.settle(event.getId(), plan.getVersion(), null));
+        assertEquals(10, expenseCount(event.getId()));
+    }
+
+    @Test
+    void transferOutsidePlanIsRejected() {
+        Event event = seed();
+        SettlementDTO plan = settlementService.getPlan(event.getId()).orElseThrow();
+        TransferDTO made = plan.getTransfers().getFirst();
+        TransferDTO inflated = new TransferDTO(made.getSenderId(), made.getAmount() + 1, made.getReceiverId());
+        assertThrows(IllegalStateException.class,
+                () -> settlementService.settle(event.getId(), plan.getVersion(), List.of(inflated)));
+        assertEquals(9, expenseCount(event.getId()));
+    }
+}
@@ -0,0 +1,73 @@
+package server.api;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.dto.TransferDTO;
+import commons.settlement.SettlementStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementServiceTest {
+
+    private static Event event(long... paidPerParticipant) {
+        Event event = new Event("Trip", new Date());
+        List<Participant> participants = new ArrayList<>();
+        for(int i = 0; i < paidPerParticipant.length; i++){
+            participants.add(new Participant(i + 1, "Participant " + i));
+            event.addParticipant(participants.getLast());
+        }
+        for(int i = 0; i < paidPerParticipant.length; i++){
+            Expense expense = new Expense("Expense " + i, (int) paidPerParticipant[i], new Date(), participants.get(i));
+            expense.setParticipantToExpense(new HashSet<>(participants));
+            event.addExpense(expense);
+        }
+        return event;
+    }
+
+    @Test
+    void biggestDebtorPaysBiggestCreditorFirst() {
+        Event event = event(1200, 0, 300);
+        assertEquals(List.of(new TransferDTO(2L, 500, 1L), new TransferDTO(3L, 200, 1L)),
+                SettlementService.computeTransfers(event, SettlementStrategy.GREEDY));
+    }
+
+    @Test
+    void settledEventNeedsNoTransfers() {
+        assertTrue(SettlementService.computeTransfers(event(100, 100), SettlementStrategy.AUTO).isEmpty());
+        assertTrue(SettlementService.computeTransfers(event(), SettlementStrategy.AUTO).isEmpty());
+    }
+
+    @Test
+    void fractionalCentsAreNotTransferred() {
+        assertTrue(SettlementService.computeTransfers(event(1, 0, 0), SettlementStrategy.AUTO).isEmpty());
+    }
+
+    @Test
+    void strategiesSettleTheSameBalances() {
+        Random random = new Random(7);
+        for(int round = 0; round < 20; round++){
+            long[] paid = new long[2 + random.nextInt(10)];
+            for(int i = 0; i < paid.length; i++) paid[i] = random.nextInt(2000) * paid.length;
+            Event event = event(paid);
+            Map<Long, Long> greedy = net(SettlementService.computeTransfers(event, SettlementStrategy.GREEDY));
+            Map<Long, Long> minimum = net(SettlementService.computeTransfers(event, SettlementStrategy.MINIMUM));
+            assertEquals(greedy, minimum);
+            assertTrue(SettlementService.computeTransfers(event, SettlementStrategy.MINIMUM).size()
+                    <= SettlementService.computeTransfers(event, SettlementStrategy.GREEDY).size());
+        }
+    }
+
+    private static Map<Long, Long> net(List<TransferDTO> transfers) {
+        Map<Long, Long> net = new TreeMap<>();
+        for(TransferDTO transfer : transfers){
+            net.merge(transfer.getSenderId(), (long) -transfer.getAmount(), Long::sum);
+            net.merge(transfer.getReceiverId(), (long) transfer.getAmount(), Long::sum);
+        }
+        net.values().removeIf(amount -> amount == 0);
+        return net;
+    }
+}
@@ -1,5 +1,6 @@
 package server.api;
 import commons.Tag;
+import commons.dto.EventChangeDTO;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,13 +41,14 @@ public class TagControllerTest {
         String tagName = "urgent";
         String colorCode = "#FF0000";
 
-        doNothing().when(tagService).addTagToEvent(anyString(), anyString(), anyString());
-        doNothing().when(webSocketService).propagateEventUpdate(anyString());
+        EventChangeDTO change = EventChangeDTO.tag(eventId, 2L, EventChangeDTO.Type.TAG_ADDED,
+                new Tag(tagName, colorCode));
+        when(tagService.addTagToEvent(anyString(), anyString(), anyString())).thenReturn(change);
 
         ResponseEntity<Void> response = tagController.addTagToEvent(eventId, tagName, colorCode);
 
         verify(tagService).addTagToEvent(eventId, tagName, colorCode);
-        verify(webSocketService).propagateEventUpdate(eventId);
+        verify(webSocketService).propagateChange(change);
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
     }
     @Test
@@ -67,13 +69,13 @@ public class TagControllerTest {
         String eventId = "event1";
         Long tagId = 1L;
 
-        doNothing().when(tagService).removeTag(anyString(), anyLong());
-        doNothing().when(webSocketService).propagateEventUpdate(anyString());
+        EventChangeDTO change = EventChangeDTO.removal(eventId, 2L, EventChangeDTO.Type.TAG_REMOVED, tagId);
+        when(tagService.removeTag(anyString(), anyLong())).thenReturn(change);
 
         ResponseEntity<?> response = tagController.removeTag(eventId, tagId);
 
         verify(tagService).removeTag(eventId, tagId);
-        verify(webSocketService).propagateEventUpdate(eventId);
+        verify(webSocketService).propagateChange(change);
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
@@ -97,9 +99,10 @@ public class TagControllerTest {
         String eventId = "Holiday";
         Long tagId = 5L;
         Tag newTag = new Tag("Food", "#FFFFFF");
-        when(tagService.editTag(tagId, newTag)).thenReturn(newTag);
+        EventChangeDTO change = EventChangeDTO.tag(eventId, 2L, EventChangeDTO.Type.TAG_EDITED, newTag);
+        when(tagService.editTag(eventId, tagId, newTag)).thenReturn(change);
         ResponseEntity<Tag> response = tagController.editTag(eventId, tagId, newTag);
-        verify(webSocketService).propagateEventUpdate(eventId);
+        verify(webSocketService).propagateChange(change);
         assertEquals(OK, response.getStatusCode());
         assertEquals(newTag.getTagName(), response.getBody().getTagName());
         assertEquals(newTag.getColorCode(), response.getBody().getColorCode());
@@ -113,7 +116,7 @@ public class TagControllerTest {
         String eventId = "Holiday";
         Long tagId = 5L;
         Tag newTag = new Tag("Food", "#FFFFFF");
-        doThrow(EntityNotFoundException.class).when(tagService).editTag(tagId, newTag);
+        doThrow(EntityNotFoundException.class).when(tagService).editTag(eventId, tagId, newTag);
         ResponseEntity<Tag> response = tagController.editTag(eventId, tagId, newTag);
         assertEquals(BAD_REQUEST, response.getStatusCode());
     }
@@ -3,15 +3,18 @@ package server.api;
 import commons.Event;
 import commons.Expense;
 import commons.Tag;
+import commons.dto.EventChangeDTO;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import server.cache.EventCache;
 import server.database.EventRepository;
 import server.database.ExpenseRepository;
 import server.database.TagRepository;
 
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
@@ -31,6 +34,9 @@ public class TagServiceTest {
     @Mock
     private TagRepository tagRepository;
 
+    @Mock
+    private EventCache eventCache;
+
     @InjectMocks
     private TagService tagService;
 
@@ -48,17 +54,14 @@ public class TagServiceTest {
         String colorCode = "#FF0000";
 
         when(eventRepository.findById(anyString())).thenReturn(Optional.of(event));
-        doAnswer(invocation -> {
-            Event savedEvent = invocation.getArgument(0);
-            savedEvent.addTag(new Tag(tagName, colorCode));
-            return null;
-        }).when(eventRepository).save(any(Event.class));
 
-        tagService.addTagToEvent(eventId, tagName, colorCode);
+        EventChangeDTO change = tagService.addTagToEvent(eventId, tagName, colorCode);
 
+        verify(tagRepository).save(change.getTag());
         verify(eventRepository).save(eventCaptor.capture());
         assertEquals(1, eventCaptor.getValue().getEventTags().size());
         assertTrue(eventCaptor.getValue().getEventTags().iterator().next().getTagName().equals(tagName));
+        assertEquals(EventChangeDTO.Type.TAG_ADDED, change.getType());
     }
     /**
      * Tests adding a tag to an event that does not exist.
@@ -97,8 +100,9 @@ public class TagServiceTest {
         when(tagRepository.findById(anyLong())).thenReturn(Optional.of(tagToRemove));
         when(expenseRepository.save(any(Expense.class))).then(returnsFirstArg());
 
-        tagService.removeTag(eventId, tagId);
+        EventChangeDTO change = tagService.removeTag(eventId, tagId);
 
+        assertEquals(tagId, change.getRemovedId());
         verify(expenseRepository).save(expense);
         assertEquals(defaultTag, expense.getExpenseTag());
         verify(eventRepository).save(event);
@@ -127,9 +131,12 @@ public class TagServiceTest {
         Tag newTag = new Tag("Food", "#FFFFFF");
         Tag oldTag = new Tag("Travel", "#000000");
         when(tagRepository.findById(id)).thenReturn(Optional.of(oldTag));
-        tagService.editTag(id, newTag);
-        assertEquals(oldTag, newTag);
+        tagService.editTag("ABC123", id, newTag);
+        assertEquals("Food", oldTag.getTagName());
+        assertEquals("#FFFFFF", oldTag.getColorCode());
         verify(tagRepository).save(oldTag);
+        verify(eventRepository).touch(eq("ABC123"), any(Date.class));
+        verify(eventCache).invalidate("ABC123");
     }
 
     /**
@@ -142,7 +149,7 @@ public class TagServiceTest {
         Tag newTag = new Tag("Food", "#FFFFFF");
         when(tagRepository.findById(id)).thenReturn(Optional.empty());
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () ->
-                tagService.editTag(id, newTag));
+                tagService.editTag("ABC123", id, newTag));
         assertEquals(exception.getMessage(), "Tag is not found");
     }
 }
@@ -1,17 +1,24 @@
 package server.api;
 
 import commons.Event;
+import commons.Expense;
+import commons.dto.EventSummary;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.query.FluentQuery;
+import server.database.EventListStamp;
 import server.database.EventRepository;
+import server.database.EventStamp;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class TestEventRepository implements EventRepository {
 
@@ -153,6 +160,129 @@ public class TestEventRepository implements EventRepository {
     public <S extends Event> List<S> saveAll(Iterable<S> entities) {
         return null;
     }
+
+    @Override
+    public int touch(String eventId, Date lastActivity) {
+        return 0;
+    }
+
+    @Override
+    public Optional<Event> lockById(String eventId) {
+        calledMethods.add("lockById");
+        return events.stream().filter(event -> event.getId().equals(eventId)).findFirst();
+    }
+
+    @Override
+    public void attachExpense(String eventId, long expenseId) {
+
+    }
+
+    @Override
+    public boolean containsExpense(String eventId, long expenseId) {
+        return events.stream().anyMatch(event -> event.getId().equals(eventId)
+                && event.getExpenses().stream().anyMatch(expense -> expense.getId() == expenseId));
+    }
+
+    @Override
+    public Optional<Event> fetchWithParticipants(String eventId) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Event> fetchWithTags(String eventId) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Event> fetchWithExpenses(String eventId) {
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Expense> fetchExpenses(String eventId) {
+        return null;
+    }
+
+    @Override
+    public Optional<EventStamp> findStampById(String eventId) {
+        calledMethods.add("findStampById");
+        return events.stream().filter(event -> event.getId().equals(eventId)).findFirst()
+                .map(event -> new EventStamp(event.getId(), event.getVersion(), event.getLastActivity()));
+    }
+
+    @Override
+    public EventListStamp findListStamp() {
+        calledMethods.add("findListStamp");
+        return new EventListStamp((long) events.size(), 0L,
+                events.stream().map(Event::getLastActivity).max(Date::compareTo).orElse(null));
+    }
+
+    @Override
+    public List<String> findExistingIds(Collection<String> eventIds) {
+        return null;
+    }
+
+    @Override
+    public Stream<String> streamAllIds() {
+        return null;
+    }
+
+    @Override
+    public Stream<String> streamIdsIn(Collection<String> eventIds) {
+        return null;
+    }
+
+    @Override
+    public List<EventSummary> findAllSummaries() {
+        calledMethods.add("findAllSummaries");
+        return events.stream().map(event -> new EventSummary(event.getId(), event.getTitle(),
+                event.getCreationDate(), event.getLastActivity())).toList();
+    }
+
+    @Override
+    public List<EventSummary> findTitlePage(Pageable page) {
+        return null;
+    }
+
+    @Override
+    public List<EventSummary> findTitlePageAfter(String title, String id, Pageable page) {
+        return null;
+    }
+
+    @Override
+    public List<EventSummary> findTitlePageAfterUntitled(String id, Pageable page) {
+        return null;
+    }
+
+    @Override
+    public List<EventSummary> findCreationDatePage(Pageable page) {
+        return null;
+    }
+
+    @Override
+    public List<EventSummary> findCreationDatePageAfter(Date date, String id, Pageable page) {
+        return null;
+    }
+
+    @Override
+    public List<EventSummary> findCreationDatePageAfterUndated(String id, Pageable page) {
+        return null;
+    }
+
+    @Override
+    public List<EventSummary> findLastActivityPage(Pageable page) {
+        return null;
+    }
+
+    @Override
+    public List<EventSummary> findLastActivityPageAfter(Date date, String id, Pageable page) {
+        return null;
+    }
+
+    @Override
+    public List<EventSummary> findLastActivityPageAfterUndated(String id, Pageable page) {
+        return null;
+    }
     //resume missing javadoc method check
 
     /**
@@ -186,6 +316,26 @@ public class TestEventRepository implements EventRepository {
         return Optional.ofNullable(event);
     }
 
+    /**
+     * Find a complete event by ID, all events in this repository are always complete
+     * @param eventId String of entity ID
+     * @return Optional of the found or not found event
+     */
+    @Override
+    public Optional<Event> findFullById(String eventId) {
+        return findById(eventId);
+    }
+
+    /**
+     * Find an event with its expenses by ID, all events in this repository are always complete
+     * @param eventId String of entity ID
+     * @return Optional of the found or not found event
+     */
+    @Override
+    public Optional<Event> findWithExpensesById(String eventId) {
+        return findById(eventId);
+    }
+
     /**
      * Find all events
      * @return All events
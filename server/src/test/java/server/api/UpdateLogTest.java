@@ -0,0 +1,105 @@
+package server.api;
+
+import commons.dto.EventDeletedDTO;
+import commons.dto.EventNameChangeDTO;
+import commons.dto.NameChangesDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpdateLogTest {
+    private UpdateLog log;
+
+    @BeforeEach
+    void setup() {
+        log = new UpdateLog(3, 1000);
+    }
+
+    private static String titles(NameChangesDTO batch) {
+        return String.join(",", batch.getChanges().stream().map(EventNameChangeDTO::getNewTitle).toList());
+    }
+
+    @Test
+    void firstPollOnlyProvidesCursor() {
+        log.append(new EventNameChangeDTO("A", "Old"));
+        NameChangesDTO batch = log.nameChangesSince(null, null);
+        assertTrue(batch.getChanges().isEmpty());
+        assertFalse(batch.isResync());
+        assertTrue(log.nameChangesSince(batch.getCursor(), null).getChanges().isEmpty());
+    }
+
+    @Test
+    void allChangesSinceCursorAreBatched() {
+        String cursor = log.nameChangesSince(null, null).getCursor();
+        log.append(new EventNameChangeDTO("A", "One"));
+        log.append(new EventNameChangeDTO("B", "Two"));
+        NameChangesDTO batch = log.nameChangesSince(cursor, null);
+        assertEquals("One,Two", titles(batch));
+        assertFalse(batch.isResync());
+
+        log.append(new EventNameChangeDTO("A", "Three"));
+        assertEquals("Three", titles(log.nameChangesSince(batch.getCursor(), null)));
+    }
+
+    @Test
+    void overwrittenCursorResyncs() {
+        String cursor = log.nameChangesSince(null, null).getCursor();
+        for(int i = 0; i < 3; i++) log.append(new EventNameChangeDTO("A", "T" + i));
+        assertEquals("T0,T1,T2", titles(log.nameChangesSince(cursor, null)));
+
+        log.append(new EventNameChangeDTO("A", "T3"));
+        NameChangesDTO batch = log.nameChangesSince(cursor, null);
+        assertTrue(batch.isResync());
+        assertTrue(batch.getChanges().isEmpty());
+        assertTrue(log.nameChangesSince(batch.getCursor(), null).getChanges().isEmpty());
+    }
+
+    @Test
+    void cursorOfOtherServerResyncs() {
+        UpdateLog restarted = new UpdateLog(3, 2000);
+        String cursor = log.nameChangesSince(null, null).getCursor();
+        restarted.append(new EventNameChangeDTO("A", "New"));
+        assertTrue(restarted.nameChangesSince(cursor, null).isResync());
+        assertTrue(log.nameChangesSince("garbage", null).isResync());
+        assertTrue(log.nameChangesSince(cursor.replace("-0", "-7"), null).isResync());
+    }
+
+    @Test
+    void deletionsAreLoggedButNotPolled() {
+        String cursor = log.head();
+        log.append(new EventDeletedDTO("A"));
+        log.append(new EventNameChangeDTO("B", "Kept"));
+        assertEquals("Kept", titles(log.nameChangesSince(cursor, null)));
+
+        List<UpdateLog.Update> updates = log.since(cursor, Set.of("A")).updates();
+        assertEquals(1, updates.size());
+        assertInstanceOf(EventDeletedDTO.class, updates.get(0).payload());
+        assertTrue(log.since(updates.get(0).cursor(), Set.of("A")).updates().isEmpty());
+    }
+
+    @Test
+    void listenersSeeEveryUpdate() {
+        List<String> seen = new ArrayList<>();
+        log.addListener(update -> seen.add(update.eventId() + "@" + update.cursor()));
+        log.append(new EventNameChangeDTO("A", "One"));
+        String afterFirst = log.head();
+        log.append(new EventDeletedDTO("B"));
+        assertEquals(List.of("A@" + afterFirst, "B@" + log.head()), seen);
+    }
+
+    @Test
+    void overwrittenUpdatesAreUnknown() {
+        String cursor = log.head();
+        for(int i = 0; i < 4; i++) log.append(new EventDeletedDTO("A" + i));
+        assertTrue(log.since(cursor, null).resync());
+        UpdateLog.Batch fresh = log.since(null, null);
+        assertFalse(fresh.resync());
+        assertTrue(fresh.updates().isEmpty());
+        assertEquals(log.head(), fresh.cursor());
+    }
+}
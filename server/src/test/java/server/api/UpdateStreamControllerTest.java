@@ -0,0 +1,126 @@
+package server.api;
+
+import commons.dto.EventNameChangeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpdateStreamControllerTest {
+    private List<Runnable> senders;
+    private UpdateLog updateLog;
+    private MutableClock clock;
+    private UpdateStreamController controller;
+
+    @BeforeEach
+    void setup() {
+        senders = new ArrayList<>();
+        updateLog = new UpdateLog(16);
+        clock = new MutableClock();
+        controller = new UpdateStreamController(updateLog, Duration.ofMinutes(1), Duration.ofSeconds(10),
+                senders::add, clock) {
+            @Override
+            SseEmitter newEmitter() {
+                return new RecordingEmitter();
+            }
+        };
+    }
+
+    private RecordingEmitter open(String... events) {
+        return (RecordingEmitter) controller.stream(List.of(events), null);
+    }
+
+    private void runSenders() {
+        while(!senders.isEmpty()) senders.remove(0).run();
+    }
+
+    @Test
+    void updatesAreSentOnSenders() {
+        RecordingEmitter interested = open("A");
+        RecordingEmitter other = open("B");
+        assertEquals(1, interested.sent, "the connected comment is sent right away");
+
+        updateLog.append(new EventNameChangeDTO("A", "Party"));
+        assertEquals(1, interested.sent, "updates are sent on the senders");
+        runSenders();
+        assertEquals(2, interested.sent);
+        assertEquals(1, other.sent);
+    }
+
+    @Test
+    void streamHasOneSenderAtATime() {
+        open("A");
+        updateLog.append(new EventNameChangeDTO("A", "One"));
+        updateLog.append(new EventNameChangeDTO("A", "Two"));
+        controller.heartbeat();
+        assertEquals(1, senders.size());
+    }
+
+    @Test
+    void stalledStreamIsClosedWithoutHoldingUpOthers() {
+        RecordingEmitter stalled = open("A");
+        RecordingEmitter other = open("A");
+        stalled.onSend = () -> {
+            // the client stopped reading while this write was under way
+            clock.advance(Duration.ofSeconds(11));
+            controller.closeStalled();
+        };
+        updateLog.append(new EventNameChangeDTO("A", "Party"));
+        runSenders();
+
+        assertTrue(stalled.failed);
+        assertEquals(2, other.sent);
+        assertFalse(other.failed);
+
+        updateLog.append(new EventNameChangeDTO("A", "Holiday"));
+        runSenders();
+        assertEquals(3, other.sent);
+        assertEquals(2, stalled.sent, "a closed stream receives nothing more");
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private int sent;
+        private boolean failed;
+        private Runnable onSend = () -> { };
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sent++;
+            onSend.run();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failed = true;
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
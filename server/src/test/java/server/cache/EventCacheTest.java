@@ -0,0 +1,150 @@
+package server.cache;
+
+import commons.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCacheTest {
+    private MutableClock clock;
+    private EventCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        clock = new MutableClock();
+        cache = new EventCache(2, Duration.ofMinutes(1), clock);
+        loads = new AtomicInteger();
+    }
+
+    private static Event event(String id, long version) {
+        Event event = new Event(id, "Party", new Date());
+        ReflectionTestUtils.setField(event, "version", version);
+        return event;
+    }
+
+    private Function<String, Optional<Event>> loaderOf(Event event) {
+        return id -> {
+            loads.incrementAndGet();
+            return Optional.of(event);
+        };
+    }
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        Event event = event("ABC123", 1);
+        assertSame(event, cache.getOrLoad("ABC123", loaderOf(event)).orElseThrow());
+        assertSame(event, cache.getOrLoad("ABC123", loaderOf(event)).orElseThrow());
+        assertEquals(1, loads.get());
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRatio());
+    }
+
+    @Test
+    void missingEventIsNotCached() {
+        Function<String, Optional<Event>> loader = id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+        assertTrue(cache.getOrLoad("NOPE42", loader).isEmpty());
+        assertTrue(cache.getOrLoad("NOPE42", loader).isEmpty());
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void otherVersionIsReloaded() {
+        cache.getOrLoad("ABC123", loaderOf(event("ABC123", 1)));
+        Event newer = event("ABC123", 2);
+        assertSame(newer, cache.getOrLoad("ABC123", 2L, loaderOf(newer)).orElseThrow());
+        assertSame(newer, cache.getOrLoad("ABC123", 2L, loaderOf(newer)).orElseThrow());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidatedEventIsReloaded() {
+        cache.getOrLoad("ABC123", loaderOf(event("ABC123", 1)));
+        cache.invalidate("ABC123");
+        cache.getOrLoad("ABC123", loaderOf(event("ABC123", 2)));
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().invalidations());
+    }
+
+    @Test
+    void loadRacingWithChangeIsNotCached() {
+        Event stale = event("ABC123", 1);
+        cache.getOrLoad("ABC123", id -> {
+            cache.invalidate("ABC123");
+            return Optional.of(stale);
+        });
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void expiredEventIsReloaded() {
+        Event event = event("ABC123", 1);
+        cache.getOrLoad("ABC123", loaderOf(event));
+        clock.advance(Duration.ofMinutes(2));
+        cache.getOrLoad("ABC123", loaderOf(event));
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void leastRecentlyUsedEventIsEvicted() {
+        cache.getOrLoad("A", loaderOf(event("A", 1)));
+        cache.getOrLoad("B", loaderOf(event("B", 1)));
+        cache.getOrLoad("A", loaderOf(event("A", 1)));
+        cache.getOrLoad("C", loaderOf(event("C", 1)));
+        assertEquals(3, loads.get());
+        cache.getOrLoad("B", loaderOf(event("B", 1)));
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    void invalidateAllEmptiesCache() {
+        cache.getOrLoad("A", loaderOf(event("A", 1)));
+        cache.getOrLoad("B", loaderOf(event("B", 1)));
+        cache.invalidateAll();
+        assertEquals(0, cache.stats().size());
+        assertEquals(2, cache.stats().invalidations());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package server.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventPayloadCacheTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final EventPayloadCache cache = new EventPayloadCache(mapper, 2);
+
+    private static Event event(String id, long version) {
+        Event event = new Event(id, "Party", new Date(0));
+        ReflectionTestUtils.setField(event, "version", version);
+        return event;
+    }
+
+    @Test
+    void payloadIsJsonOfEvent() throws Exception {
+        Event event = event("ABC123", 1);
+        assertArrayEquals(mapper.writeValueAsBytes(event), cache.payload(event));
+    }
+
+    @Test
+    void sameVersionIsSerializedOnce() {
+        byte[] first = cache.payload(event("ABC123", 1));
+        byte[] second = cache.payload(event("ABC123", 1));
+        assertSame(first, second);
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void newVersionReplacesPayload() {
+        byte[] first = cache.payload(event("ABC123", 1));
+        Event changed = event("ABC123", 2);
+        changed.setTitle("Holiday");
+        byte[] second = cache.payload(changed);
+        assertNotSame(first, second);
+        assertTrue(new String(second).contains("Holiday"));
+        assertSame(second, cache.payload(changed));
+        assertEquals(1, cache.stats().invalidations());
+    }
+
+    @Test
+    void olderVersionDoesNotReplaceNewer() {
+        byte[] newer = cache.payload(event("ABC123", 2));
+        cache.payload(event("ABC123", 1));
+        assertSame(newer, cache.payload(event("ABC123", 2)));
+    }
+
+    @Test
+    void unsavedEventIsNotCached() {
+        Event event = new Event("ABC123", "Party", new Date(0));
+        cache.payload(event);
+        cache.payload(event);
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void leastRecentlyUsedPayloadIsEvicted() {
+        cache.payload(event("A", 1));
+        cache.payload(event("B", 1));
+        cache.payload(event("C", 1));
+        assertEquals(2, cache.stats().size());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void recreatedEventIsNotServedOldPayload() {
+        cache.payload(event("ABC123", 3));
+        cache.invalidate("ABC123");
+        Event recreated = event("ABC123", 0);
+        recreated.setTitle("Holiday");
+        assertTrue(new String(cache.payload(recreated)).contains("Holiday"));
+        Event changed = event("ABC123", 3);
+        changed.setTitle("Trip");
+        assertTrue(new String(cache.payload(changed)).contains("Trip"));
+    }
+
+    @Test
+    void invalidateAllDropsEveryPayload() {
+        cache.payload(event("A", 1));
+        cache.payload(event("B", 1));
+        cache.invalidateAll();
+        assertEquals(0, cache.stats().size());
+        assertEquals(2, cache.stats().invalidations());
+    }
+}
@@ -0,0 +1,43 @@
+package server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+import commons.Participant;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+import server.cache.EventPayloadCache;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventPayloadConverterTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final EventPayloadCache cache = new EventPayloadCache(mapper, 10);
+    private final EventPayloadConverter converter = new EventPayloadConverter(cache);
+
+    @Test
+    void writesOnlySingleEvents() {
+        assertTrue(converter.canWrite(Event.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(Participant.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(Event.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void writesCachedPayload() throws Exception {
+        Event event = new Event("ABC123", "Party", new Date(0));
+        ReflectionTestUtils.setField(event, "version", 4L);
+        MockHttpOutputMessage first = new MockHttpOutputMessage();
+        MockHttpOutputMessage second = new MockHttpOutputMessage();
+        converter.write(event, MediaType.APPLICATION_JSON, first);
+        converter.write(event, MediaType.APPLICATION_JSON, second);
+        assertArrayEquals(mapper.writeValueAsBytes(event), first.getBodyAsBytes());
+        assertArrayEquals(first.getBodyAsBytes(), second.getBodyAsBytes());
+        assertEquals(MediaType.APPLICATION_JSON, first.getHeaders().getContentType());
+        assertEquals(1, cache.stats().hits());
+    }
+}
@@ -0,0 +1,84 @@
+package server.database;
+
+import commons.Event;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Set;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=server.database.StatementCounter")
+@Import(EventBulkRepository.class)
+class EventBulkRepositoryJpaTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EventBulkRepository bulkRepository;
+    @Autowired
+    private EventRepository repository;
+
+    private long rows(String table) {
+        return ((Number) entityManager.getEntityManager()
+                .createNativeQuery("select count(*) from " + table).getSingleResult()).longValue();
+    }
+
+    @Test
+    void deletesSelectedEventsWithChildren() {
+        Event first = EventSeeder.seed(entityManager, 3, 10);
+        Event second = EventSeeder.seed(entityManager, 4, 20);
+        Event kept = EventSeeder.seed(entityManager, 5, 30);
+
+        List<String> deleted = bulkRepository.deleteByIds(List.of(first.getId(), second.getId(), "UNKNWN"));
+
+        assertEquals(Set.of(first.getId(), second.getId()), new HashSet<>(deleted));
+        assertEquals(List.of(kept.getId()), repository.findAll().stream().map(Event::getId).toList());
+        assertEquals(5, rows("participant"));
+        assertEquals(30, rows("expense"));
+        assertEquals(1, rows("tag"));
+        assertEquals(30L * 5, rows("expense_participants_in_expense"));
+        Event event = repository.findFullById(kept.getId()).orElseThrow();
+        assertEquals(30, event.getExpenses().size());
+    }
+
+    @Test
+    void deletesAllEvents() {
+        Event first = EventSeeder.seed(entityManager, 3, 10);
+        Event second = EventSeeder.seed(entityManager, 4, 20);
+
+        List<String> deleted = bulkRepository.deleteAll();
+
+        assertEquals(Set.of(first.getId(), second.getId()), new HashSet<>(deleted));
+        for(String table : List.of("event", "participant", "expense", "tag", "event_expenses",
+                "event_participants", "event_event_tags", "expense_participants_in_expense")){
+            assertEquals(0, rows(table), table);
+        }
+    }
+
+    @Test
+    void statementsDoNotDependOnEventSize() {
+        List<String> small = List.of(EventSeeder.seed(entityManager, 2, 5).getId(),
+                EventSeeder.seed(entityManager, 2, 5).getId());
+        List<String> large = List.of(EventSeeder.seed(entityManager, 30, 500).getId(),
+                EventSeeder.seed(entityManager, 30, 500).getId());
+
+        StatementCounter.reset();
+        bulkRepository.deleteByIds(small);
+        int smallStatements = StatementCounter.total();
+        StatementCounter.reset();
+        bulkRepository.deleteByIds(large);
+        assertEquals(smallStatements, StatementCounter.total());
+    }
+
+    @Test
+    void deletingNothing() {
+        assertEquals(List.of(), bulkRepository.deleteByIds(List.of()));
+        assertEquals(List.of(), bulkRepository.deleteByIds(List.of("UNKNWN")));
+    }
+}
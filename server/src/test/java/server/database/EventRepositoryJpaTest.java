@@ -0,0 +1,126 @@
+package server.database;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+import commons.Expense;
+import commons.dto.EventSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=server.database.StatementCounter")
+class EventRepositoryJpaTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EventRepository repository;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Loads the full event graph and serializes it, like the REST and WebSocket paths do
+     */
+    private int selectsToLoadAndSerialize(String eventId) throws JsonProcessingException {
+        entityManager.clear();
+        StatementCounter.reset();
+        Event event = repository.findFullById(eventId).orElseThrow();
+        mapper.writeValueAsString(event);
+        return StatementCounter.selects();
+    }
+
+    @Test
+    void fullEventLoadsInFixedNumberOfQueries() throws JsonProcessingException {
+        Event small = EventSeeder.seed(entityManager, 3, 10);
+        Event large = EventSeeder.seed(entityManager, 20, 1000);
+        int smallSelects = selectsToLoadAndSerialize(small.getId());
+        int largeSelects = selectsToLoadAndSerialize(large.getId());
+        assertEquals(smallSelects, largeSelects);
+        assertTrue(largeSelects <= 4, "Loading took " + largeSelects + " queries");
+    }
+
+    @Test
+    void fullEventContainsWholeGraph() {
+        Event seeded = EventSeeder.seed(entityManager, 4, 25);
+        Event event = repository.findFullById(seeded.getId()).orElseThrow();
+        assertEquals(4, event.getParticipants().size());
+        assertEquals(1, event.getEventTags().size());
+        assertEquals(25, event.getExpenses().size());
+        for(Expense expense : event.getExpenses()){
+            assertEquals(4, expense.getParticipantsInExpense().size());
+            assertNotNull(expense.getOwedTo());
+            assertNotNull(expense.getExpenseTag());
+        }
+    }
+
+    @Test
+    void expenseGraphLoadsInFixedNumberOfQueries() throws JsonProcessingException {
+        Event seeded = EventSeeder.seed(entityManager, 20, 1000);
+        entityManager.clear();
+        StatementCounter.reset();
+        Event event = repository.findWithExpensesById(seeded.getId()).orElseThrow();
+        mapper.writeValueAsString(event.getExpenses());
+        assertEquals(1000, event.getExpenses().size());
+        assertTrue(StatementCounter.selects() <= 2, "Loading took " + StatementCounter.selects() + " queries");
+    }
+
+    @Test
+    void missingEventIsEmpty() {
+        assertTrue(repository.findFullById("NOPE42").isEmpty());
+        assertTrue(repository.findWithExpensesById("NOPE42").isEmpty());
+    }
+
+    @Test
+    void summariesLoadNoCollections() {
+        Event seeded = EventSeeder.seed(entityManager, 10, 200);
+        StatementCounter.reset();
+        List<EventSummary> summaries = repository.findAllSummaries();
+        assertEquals(1, StatementCounter.total());
+        assertEquals(1, summaries.size());
+        EventSummary summary = summaries.get(0);
+        assertEquals(seeded.getId(), summary.getId());
+        assertEquals(seeded.getTitle(), summary.getTitle());
+        assertEquals(seeded.getCreationDate().getTime(), summary.getCreationDate().getTime());
+        assertEquals(0, summary.getLastActivity().getTime());
+    }
+
+    @Test
+    void touchChangesStampWithoutLoadingEvent() {
+        Event seeded = EventSeeder.seed(entityManager, 3, 5);
+        EventStamp before = repository.findStampById(seeded.getId()).orElseThrow();
+        StatementCounter.reset();
+        repository.touch(seeded.getId(), new Date(5000));
+        EventStamp after = repository.findStampById(seeded.getId()).orElseThrow();
+        assertEquals(2, StatementCounter.total());
+        assertEquals(before.version() + 1, after.version());
+        assertEquals(5000, after.lastModified());
+        assertNotEquals(before.etag("event"), after.etag("event"));
+    }
+
+    @Test
+    void listStampChangesWithEveryEvent() {
+        EventSeeder.seed(entityManager, 2, 2);
+        EventListStamp before = repository.findListStamp();
+        Event added = EventSeeder.seed(entityManager, 2, 2);
+        EventListStamp afterAdd = repository.findListStamp();
+        assertNotEquals(before.etag(), afterAdd.etag());
+        repository.touch(added.getId(), new Date(0));
+        assertNotEquals(afterAdd.etag(), repository.findListStamp().etag());
+    }
+
+    @Test
+    void newEventNeverOverwritesExistingOne() {
+        Event existing = EventSeeder.seed(entityManager, 2, 2);
+        Event conflicting = new Event(existing.getId(), "Other", new Date());
+        assertNull(conflicting.getVersion());
+        assertThrows(DataIntegrityViolationException.class, () -> repository.saveAndFlush(conflicting));
+    }
+}
@@ -0,0 +1,52 @@
+package server.database;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.Tag;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Creates persisted events of a given size for repository and service tests
+ */
+public final class EventSeeder {
+
+    private EventSeeder() {
+    }
+
+    /**
+     * Persists an event in which every expense is shared by all participants, and detaches it
+     * @param entityManager the TestEntityManager to persist with
+     * @param participantCount the number of participants in the event, at least 1
+     * @param expenseCount the number of expenses in the event
+     * @return the detached event, with all IDs assigned
+     */
+    public static Event seed(TestEntityManager entityManager, int participantCount, int expenseCount) {
+        Event event = new Event("Trip", new Date());
+        List<Participant> participants = new ArrayList<>();
+        for(int i = 0; i < participantCount; i++){
+            Participant participant = new Participant("Participant " + i);
+            participants.add(participant);
+            event.addParticipant(participant);
+        }
+        Tag tag = new Tag("food", "#008000");
+        event.addTag(tag);
+        entityManager.persist(event);
+        for(int i = 0; i < expenseCount; i++){
+            Expense expense = new Expense("Expense " + i, 100 + i, new Date(),
+                    participants.get(i % participantCount));
+            expense.setExpenseTag(tag);
+            expense.setParticipantToExpense(new HashSet<>(participants));
+            event.addExpense(expense);
+        }
+        event.setLastActivity(new Date(0));
+        entityManager.flush();
+        entityManager.clear();
+        return event;
+    }
+}
@@ -0,0 +1,59 @@
+package server.database;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hibernate StatementInspector that counts the SQL statements prepared during a test.
+ * Registered through the hibernate.session_factory.statement_inspector property,
+ * Hibernate creates the instance itself, so the counters are static.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final AtomicInteger SELECTS = new AtomicInteger();
+    private static final AtomicInteger INSERTS = new AtomicInteger();
+    private static final AtomicInteger UPDATES = new AtomicInteger();
+    private static final AtomicInteger DELETES = new AtomicInteger();
+
+    /**
+     * Counts the statement and returns it unchanged
+     * @param sql the SQL statement Hibernate is about to prepare
+     * @return the same SQL statement
+     */
+    @Override
+    public String inspect(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        if(statement.startsWith("select")) SELECTS.incrementAndGet();
+        else if(statement.startsWith("insert")) INSERTS.incrementAndGet();
+        else if(statement.startsWith("update")) UPDATES.incrementAndGet();
+        else if(statement.startsWith("delete")) DELETES.incrementAndGet();
+        return sql;
+    }
+
+    /**
+     * Resets all counters to zero
+     */
+    public static void reset() {
+        SELECTS.set(0);
+        INSERTS.set(0);
+        UPDATES.set(0);
+        DELETES.set(0);
+    }
+
+    /**
+     * Provides the number of SELECT statements since the last reset
+     * @return the number of SELECT statements
+     */
+    public static int selects() {
+        return SELECTS.get();
+    }
+
+    /**
+     * Provides the number of statements of any kind since the last reset
+     * @return the total number of statements
+     */
+    public static int total() {
+        return SELECTS.get() + INSERTS.get() + UPDATES.get() + DELETES.get();
+    }
+}
@@ -0,0 +1,145 @@
+package server.websockets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingBroadcasterTest {
+    private MutableClock clock;
+    private List<String> frames;
+    private CoalescingBroadcaster broadcaster;
+
+    @BeforeEach
+    void setup() {
+        clock = new MutableClock();
+        frames = new ArrayList<>();
+        broadcaster = new CoalescingBroadcaster(Duration.ofMillis(50), Duration.ofMillis(200), clock,
+                (eventId, snapshot) -> frames.add(eventId + (snapshot ? ":snapshot" : "")));
+    }
+
+    @Test
+    void burstIsSentOnceAfterWindow() {
+        for(int i = 0; i < 5; i++) broadcaster.request("A", false);
+        clock.advance(Duration.ofMillis(49));
+        assertEquals(0, broadcaster.flushDue());
+        clock.advance(Duration.ofMillis(1));
+        assertEquals(1, broadcaster.flushDue());
+        assertEquals(List.of("A"), frames);
+
+        BroadcastStats stats = broadcaster.stats();
+        assertEquals(5, stats.requested());
+        assertEquals(1, stats.sent());
+        assertEquals(4, stats.saved());
+        assertEquals(0, stats.pending());
+        assertEquals(50, stats.maxDelayMillis());
+    }
+
+    @Test
+    void snapshotWinsOverPlainFrame() {
+        broadcaster.request("A", false);
+        broadcaster.request("A", true);
+        broadcaster.request("A", false);
+        clock.advance(Duration.ofMillis(50));
+        broadcaster.flushDue();
+        assertEquals(List.of("A:snapshot"), frames);
+    }
+
+    @Test
+    void steadyStreamIsBoundedByMaxLatency() {
+        for(int i = 0; i < 10; i++){
+            broadcaster.request("A", false);
+            clock.advance(Duration.ofMillis(25));
+            broadcaster.flushDue();
+        }
+        assertEquals(1, frames.size());
+        assertEquals(200, broadcaster.stats().maxDelayMillis());
+    }
+
+    @Test
+    void eventsAreCoalescedSeparately() {
+        broadcaster.request("A", false);
+        clock.advance(Duration.ofMillis(30));
+        broadcaster.request("B", true);
+        clock.advance(Duration.ofMillis(20));
+        broadcaster.flushDue();
+        assertEquals(List.of("A"), frames);
+        clock.advance(Duration.ofMillis(30));
+        broadcaster.flushDue();
+        assertEquals(List.of("A", "B:snapshot"), frames);
+    }
+
+    @Test
+    void pendingSnapshotAbsorbsChanges() {
+        assertFalse(broadcaster.absorbs("A"));
+        broadcaster.request("A", false);
+        assertFalse(broadcaster.absorbs("A"));
+        broadcaster.request("A", true);
+        assertTrue(broadcaster.absorbs("A"));
+        clock.advance(Duration.ofMillis(50));
+        broadcaster.flushDue();
+        assertFalse(broadcaster.absorbs("A"));
+        assertEquals(2, broadcaster.stats().saved());
+    }
+
+    @Test
+    void failingFrameDoesNotStopOthers() {
+        CoalescingBroadcaster failing = new CoalescingBroadcaster(Duration.ofMillis(50), Duration.ofMillis(200), clock,
+                (eventId, snapshot) -> {
+                    if(eventId.equals("A")) throw new IllegalStateException("gone");
+                    frames.add(eventId);
+                });
+        failing.request("A", false);
+        failing.request("B", false);
+        clock.advance(Duration.ofMillis(50));
+        assertEquals(2, failing.flushDue());
+        assertEquals(List.of("B"), frames);
+    }
+
+    @Test
+    void zeroWindowSendsRightAway() {
+        CoalescingBroadcaster direct = new CoalescingBroadcaster(Duration.ZERO, Duration.ZERO, clock,
+                (eventId, snapshot) -> frames.add(eventId));
+        direct.request("A", false);
+        direct.request("A", false);
+        assertEquals(List.of("A", "A"), frames);
+        assertEquals(0, direct.stats().saved());
+    }
+
+    @Test
+    void maxLatencyBelowWindowIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CoalescingBroadcaster(Duration.ofMillis(50),
+                Duration.ofMillis(10), clock, (eventId, snapshot) -> { }));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package server.websockets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OutboundFlowControlTest {
+    private OutboundFlowControl flowControl;
+    private WebSocketHandler handler;
+    private WebSocketSession session;
+
+    @BeforeEach
+    void setup() throws Exception {
+        flowControl = new OutboundFlowControl(2, List.of("/topic/events/all"));
+        handler = flowControl.decorate(mock(WebSocketHandler.class));
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("s1");
+        handler.afterConnectionEstablished(session);
+    }
+
+    private static Message<byte[]> frame(String destination, String eventId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("s1");
+        accessor.setDestination(destination);
+        if(eventId != null) accessor.setNativeHeader(OutboundFlowControl.EVENT_HEADER, eventId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private boolean deliver(Message<?> message) {
+        if(flowControl.beforeHandle(message, null, null) == null) return false;
+        flowControl.afterMessageHandled(message, null, null, null);
+        return true;
+    }
+
+    @Test
+    void newerStateReplacesWaitingFrame() {
+        Message<byte[]> first = frame("/topic/events/all", "A");
+        Message<byte[]> second = frame("/topic/events/all", "A");
+        assertSame(first, flowControl.preSend(first, null));
+        assertSame(second, flowControl.preSend(second, null));
+        assertFalse(deliver(first));
+        assertTrue(deliver(second));
+
+        OutboundStats stats = flowControl.stats();
+        OutboundStats.SessionStats sessionStats = stats.sessions().get(0);
+        assertEquals(0, sessionStats.queued());
+        assertEquals(1, sessionStats.sent());
+        assertEquals(1, sessionStats.conflated());
+        assertEquals(new OutboundStats.TopicStats(1, 1, 0), stats.topics().get("/topic/events/all"));
+    }
+
+    @Test
+    void statesOfDifferentEventsAreKept() {
+        Message<byte[]> first = frame("/topic/events/all", "A");
+        Message<byte[]> second = frame("/topic/events/all", "B");
+        flowControl.preSend(first, null);
+        flowControl.preSend(second, null);
+        assertTrue(deliver(first));
+        assertTrue(deliver(second));
+    }
+
+    @Test
+    void changesAreNeverReplaced() {
+        Message<byte[]> first = frame("/topic/events/A/changes", null);
+        Message<byte[]> second = frame("/topic/events/A/changes", null);
+        flowControl.preSend(first, null);
+        flowControl.preSend(second, null);
+        assertTrue(deliver(first));
+        assertTrue(deliver(second));
+        assertEquals(2, flowControl.stats().topics().get("/topic/events/{id}/changes").sent());
+    }
+
+    @Test
+    void stalledSessionIsClosed() throws Exception {
+        flowControl.preSend(frame("/topic/events/A/changes", null), null);
+        flowControl.preSend(frame("/topic/events/A/changes", null), null);
+        assertNull(flowControl.preSend(frame("/topic/events/A/changes", null), null));
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertNull(flowControl.preSend(frame("/topic/events/all", "A"), null));
+
+        OutboundStats stats = flowControl.stats();
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.sessions().get(0).dropped());
+    }
+
+    @Test
+    void stateOfStalledSessionStillReplaces() {
+        flowControl.preSend(frame("/topic/events/all", "A"), null);
+        flowControl.preSend(frame("/topic/events/all", "B"), null);
+        assertNotNull(flowControl.preSend(frame("/topic/events/all", "A"), null));
+        assertEquals(0, flowControl.stats().evictions());
+    }
+
+    @Test
+    void closedSessionIsForgotten() throws Exception {
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        Message<byte[]> message = frame("/topic/events/all", "A");
+        assertSame(message, flowControl.preSend(message, null));
+        assertTrue(flowControl.stats().sessions().isEmpty());
+    }
+}